@@ -21,6 +21,12 @@ public class App {
 
 
     public static void main(String[] args) {
+        // 无界面压测模式：不初始化任何 Swing 组件
+        if (args.length > 0 && HeadlessPerformanceRunner.HEADLESS_ARG.equals(args[0])) {
+            HeadlessPerformanceRunner.main(args);
+            return;
+        }
+
         // 0. 初始化 IOC 容器（在 EDT 之前，避免阻塞 UI）
         // 扫描 com.laker.postman 包下的所有 @Component 注解的类
         BeanFactory.init("com.laker.postman");
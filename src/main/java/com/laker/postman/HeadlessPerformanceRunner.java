@@ -0,0 +1,257 @@
+package com.laker.postman;
+
+import cn.hutool.core.io.FileUtil;
+import com.laker.postman.ioc.BeanFactory;
+import com.laker.postman.model.ResponseBodyPolicy;
+import com.laker.postman.service.http.okhttp.CachingDns;
+import com.laker.postman.service.http.okhttp.OkHttpClientManager;
+import com.laker.postman.service.performance.distributed.AgentProtocol;
+import com.laker.postman.service.performance.distributed.DistributedController;
+import com.laker.postman.service.performance.distributed.PerformanceAgent;
+import com.laker.postman.service.performance.engine.PerformanceEngine;
+import com.laker.postman.service.performance.engine.PerformanceEngineListener;
+import com.laker.postman.service.performance.journal.SampleJournal;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.PerformancePlanCodec;
+import com.laker.postman.service.performance.report.OfflineReport;
+import com.laker.postman.service.performance.report.PerformanceSummary;
+import com.laker.postman.util.CsvDataUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 无界面压测入口：执行保存的压测计划，结束后输出汇总结果
+ * <p>
+ * 用法：{@code --headless <plan.json> [--csv data.csv] [--out summary.json] [--body-policy DISCARD|HASH|LAZY|FULL] [--journal dir] [--report dir]}，
+ * 有失败请求时以退出码 1 结束，便于在 CI 中使用。
+ * 响应体默认按计划需要读取（没有断言和脚本读取时直接丢弃），{@code --body-policy} 可指定最低读取策略；
+ * {@code --journal} 把每个样本写入指定目录的样本日志，供事后分析；
+ * {@code --report} 在压测结束后根据样本日志生成 HTML/JSON 报告（未指定 {@code --journal} 时日志写入报告目录下的 journal）；
+ * {@code --warmup N} 在统计开始前为每个目标主机预先建立 N 个连接；
+ * {@code --hosts file} 读取 hosts 文件格式的静态主机映射，覆盖设置中的映射（如把域名指向本地替身服务）。
+ * <p>
+ * {@code --headless --from-journal <journal dir> --report <dir>} 不执行压测，只根据已有样本日志生成报告。
+ * <p>
+ * 分布式压测：{@code --headless --agent [port] [--bind address]} 以压测节点方式运行，等待控制端下发计划，默认只监听本机回环地址；
+ * 控制端执行计划时加上 {@code --agents host1:port,host2:port}，计划按节点拆分执行，汇总结果为各节点合并后的统计。
+ * 节点和控制端必须使用同一个共享密钥：{@code --secret} 或环境变量 {@value #SECRET_ENV}（避免密钥出现在进程列表中）。
+ */
+@Slf4j
+public class HeadlessPerformanceRunner {
+    public static final String HEADLESS_ARG = "--headless";
+    public static final String SECRET_ENV = "EASY_POSTMAN_AGENT_SECRET";
+    private static final String USAGE = "Usage: --headless <plan.json> [--csv data.csv] [--out summary.json] [--body-policy DISCARD|HASH|LAZY|FULL] [--journal dir] [--report dir] [--agents host:port,... --secret s] [--warmup N] [--hosts file]\n"
+            + "       --headless --from-journal <journal dir> --report <dir>\n"
+            + "       --headless --agent [port] [--bind address] --secret s\n"
+            + "       (the secret may also be given in the " + SECRET_ENV + " environment variable)";
+
+    private HeadlessPerformanceRunner() {
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int start = args.length > 0 && HEADLESS_ARG.equals(args[0]) ? 1 : 0;
+        File planFile = null;
+        File csvFile = null;
+        File outFile = null;
+        ResponseBodyPolicy bodyPolicy = ResponseBodyPolicy.DISCARD;
+        File journalDir = null;
+        File reportDir = null;
+        File fromJournal = null;
+        List<InetSocketAddress> agents = List.of();
+        Integer agentPort = null;
+        int warmup = 0;
+        File hostsFile = null;
+        String bindAddress = null;
+        String secret = System.getenv(SECRET_ENV);
+        for (int i = start; i < args.length; i++) {
+            switch (args[i]) {
+                case "--csv" -> csvFile = i + 1 < args.length ? new File(args[++i]) : null;
+                case "--out" -> outFile = i + 1 < args.length ? new File(args[++i]) : null;
+                case "--body-policy" -> bodyPolicy = i + 1 < args.length ? parseBodyPolicy(args[++i]) : null;
+                case "--journal" -> journalDir = i + 1 < args.length ? new File(args[++i]) : null;
+                case "--report" -> reportDir = i + 1 < args.length ? new File(args[++i]) : null;
+                case "--from-journal" -> fromJournal = i + 1 < args.length ? new File(args[++i]) : null;
+                case "--warmup" -> warmup = i + 1 < args.length ? parseCount(args[++i]) : -1;
+                case "--hosts" -> hostsFile = i + 1 < args.length ? new File(args[++i]) : new File("");
+                case "--agents" -> agents = i + 1 < args.length ? parseAgents(args[++i]) : null;
+                case "--bind" -> bindAddress = i + 1 < args.length ? args[++i] : "";
+                case "--secret" -> secret = i + 1 < args.length ? args[++i] : null;
+                case "--agent" -> agentPort = i + 1 < args.length && args[i + 1].matches("\\d+")
+                        ? Integer.valueOf(args[++i]) : AgentProtocol.DEFAULT_PORT;
+                default -> planFile = new File(args[i]);
+            }
+        }
+        if (fromJournal != null && reportDir != null) {
+            System.exit(writeReport(fromJournal, reportDir));
+            return;
+        }
+        if (agentPort != null) {
+            if (secret == null || secret.isBlank() || "".equals(bindAddress)) {
+                System.err.println(USAGE);
+                System.exit(2);
+                return;
+            }
+            System.exit(runAgent(bindAddress, agentPort, secret));
+            return;
+        }
+        if (planFile == null || !planFile.isFile() || bodyPolicy == null || agents == null || warmup < 0
+                || hostsFile != null && !hostsFile.isFile()
+                || !agents.isEmpty() && (secret == null || secret.isBlank())) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (hostsFile != null) {
+            OkHttpClientManager.getDns().setOverrides(
+                    CachingDns.parseHosts(FileUtil.readString(hostsFile, StandardCharsets.UTF_8)));
+        }
+        // 只初始化服务层 Bean，不创建任何界面组件
+        BeanFactory.init("com.laker.postman.service");
+        if (reportDir != null && journalDir == null) {
+            journalDir = new File(reportDir, "journal");
+        }
+        int code;
+        try {
+            code = run(planFile, csvFile, outFile, bodyPolicy, journalDir, agents, secret, warmup);
+            if (reportDir != null) {
+                int reportCode = writeReport(journalDir, reportDir);
+                code = reportCode != 0 ? reportCode : code;
+            }
+        } finally {
+            BeanFactory.destroy();
+        }
+        // System.exit 不会返回，必须在销毁 Bean 之后调用
+        System.exit(code);
+    }
+
+    /**
+     * 执行压测计划并输出汇总
+     *
+     * @param journalDir 样本日志目录，为 null 时不写样本日志
+     * @param agents     压测节点列表，为空时在本机执行
+     * @param secret     与压测节点共享的认证密钥
+     * @param warmup     统计开始前为每个目标主机预先建立的连接数
+     * @return 进程退出码：0 全部成功，1 存在失败请求
+     */
+    public static int run(File planFile, File csvFile, File outFile, ResponseBodyPolicy bodyPolicy, File journalDir,
+                          List<InetSocketAddress> agents, String secret, int warmup) {
+        PerformancePlan plan = PerformancePlanCodec.load(planFile);
+        if (plan.name == null || plan.name.isBlank()) {
+            plan.name = FileUtil.mainName(planFile);
+        }
+        PerformanceEngine engine = new PerformanceEngine(plan);
+        engine.setMinBodyPolicy(bodyPolicy);
+        engine.setRemoteAgents(agents, secret);
+        engine.setWarmupConnections(warmup);
+        if (csvFile != null) {
+            List<Map<String, String>> rows = CsvDataUtil.readCsvData(csvFile);
+            engine.setCsvRows(rows);
+        }
+        engine.addListener(new PerformanceEngineListener() {
+            @Override
+            public void onScriptOutput(String output, boolean error) {
+                log.info(output);
+            }
+        });
+        SampleJournal journal = null;
+        if (journalDir != null) {
+            try {
+                journal = new SampleJournal(journalDir);
+                engine.addListener(journal);
+            } catch (IOException e) {
+                System.err.println("Cannot create journal in " + journalDir.getAbsolutePath() + ": " + e.getMessage());
+                return 2;
+            }
+        }
+        log.info("Running plan '{}' with {} thread group(s), {} user(s) at most{}",
+                plan.name, plan.threadGroups.size(), plan.getTotalUsers(),
+                engine.isDistributed() ? " on " + agents.size() + " agent(s)" : "");
+        engine.run();
+
+        PerformanceSummary summary = PerformanceSummary.of(plan.name, engine.getElapsedMillis(), engine.getMetrics());
+        System.out.print(summary.toText());
+        if (outFile != null) {
+            FileUtil.writeString(summary.toJson(), outFile, StandardCharsets.UTF_8);
+            System.out.println("Summary written to " + outFile.getAbsolutePath());
+        }
+        if (journal != null) {
+            System.out.println(journal.getWrittenCount() + " samples journaled to " + journalDir.getAbsolutePath());
+        }
+        return summary.getFailCount() > 0 || summary.missedArrivals > 0 ? 1 : 0;
+    }
+
+    /**
+     * 根据样本日志生成离线报告
+     *
+     * @return 0 成功，2 日志无法读取或报告写入失败
+     */
+    public static int writeReport(File journalDir, File reportDir) {
+        try {
+            long begin = System.nanoTime();
+            OfflineReport report = OfflineReport.build(journalDir);
+            report.write(reportDir);
+            System.out.printf(Locale.ROOT, "Report of %d samples written to %s in %.2fs%n", report.getTotalCount(),
+                    new File(reportDir, OfflineReport.HTML_FILE).getAbsolutePath(), (System.nanoTime() - begin) / 1e9);
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Cannot generate report from " + journalDir.getAbsolutePath() + ": " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * 以压测节点方式运行，直到进程被终止
+     *
+     * @param bindAddress 监听地址，为 null 时只监听本机回环地址
+     * @return 2 端口无法监听
+     */
+    public static int runAgent(String bindAddress, int port, String secret) {
+        BeanFactory.init("com.laker.postman.service");
+        try (PerformanceAgent agent = new PerformanceAgent(bindAddress == null
+                ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bindAddress), port, secret)) {
+            System.out.println("Performance agent listening on "
+                    + (bindAddress == null ? InetAddress.getLoopbackAddress().getHostAddress() : bindAddress) + ":" + agent.getPort());
+            agent.serve();
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Cannot start agent on port " + port + ": " + e.getMessage());
+            return 2;
+        } finally {
+            BeanFactory.destroy();
+        }
+    }
+
+    private static List<InetSocketAddress> parseAgents(String value) {
+        try {
+            return DistributedController.parseAgents(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // 非负整数，格式错误时返回 -1
+    private static int parseCount(String value) {
+        try {
+            return Math.max(-1, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static ResponseBodyPolicy parseBodyPolicy(String value) {
+        try {
+            return ResponseBodyPolicy.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
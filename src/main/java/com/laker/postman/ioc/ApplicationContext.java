@@ -137,7 +137,7 @@ public class ApplicationContext {
                 if (entryName.endsWith(".class") && entryName.startsWith(packagePath)) {
                     String className = entryName.replace('/', '.').replace(".class", "");
                     try {
-                        Class<?> clazz = Class.forName(className);
+                        Class<?> clazz = loadClassWithoutInit(className);
                         if (clazz.isAnnotationPresent(Component.class)) {
                             registerBean(clazz);
                         }
@@ -170,7 +170,7 @@ public class ApplicationContext {
                     } else if (f.getName().endsWith(".class")) {
                         String className = packageName + "." + f.getName().replace(".class", "");
                         try {
-                            Class<?> clazz = Class.forName(className);
+                            Class<?> clazz = loadClassWithoutInit(className);
                             if (clazz.isAnnotationPresent(Component.class)) {
                                 registerBean(clazz);
                             }
@@ -183,6 +183,13 @@ public class ApplicationContext {
         }
     }
 
+    /**
+     * 加载类但不执行静态初始化，扫描注解时不触发界面等组件的初始化
+     */
+    private static Class<?> loadClassWithoutInit(String className) throws ClassNotFoundException {
+        return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+    }
+
     /**
      * 注册Bean
      */
@@ -1,5 +1,7 @@
 package com.laker.postman.model;
 
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +25,53 @@ public class HttpResponse {
     public long bodySize; // 响应体字节数
     public long headersSize; // 响应头字节数
     public boolean isSse = false; // 是否为SSE响应
+    public String bodyChecksum; // 响应体 CRC32 校验和（HASH 策略）
+    // LAZY 策略下尚未解码的响应体
+    private byte[] rawBody;
+    private Charset rawCharset;
+
+    /**
+     * 保存原始响应体，首次调用 {@link #getBody()} 时才解码
+     */
+    public synchronized void setLazyBody(byte[] bytes, Charset charset) {
+        this.body = null;
+        this.rawBody = bytes;
+        this.rawCharset = charset;
+        this.bodySize = bytes.length;
+    }
+
+    /**
+     * 获取响应体文本，LAZY 策略下首次调用时解码并缓存
+     */
+    public synchronized String getBody() {
+        if (body == null && rawBody != null) {
+            body = new String(rawBody, rawCharset);
+            rawBody = null;
+            rawCharset = null;
+        }
+        return body;
+    }
+
+    /**
+     * 只保留响应体开头的 maxLength 个字节（未解码时）或字符（已解码时），bodySize 仍为原始大小
+     */
+    public synchronized void truncateBody(int maxLength) {
+        if (rawBody != null && rawBody.length > maxLength) {
+            rawBody = Arrays.copyOf(rawBody, maxLength);
+        } else if (body != null && body.length() > maxLength) {
+            body = body.substring(0, maxLength);
+        }
+    }
+
+    /**
+     * 当前在内存中保留的响应体字节数（估算）
+     */
+    public synchronized long getRetainedBodyBytes() {
+        if (rawBody != null) {
+            return rawBody.length;
+        }
+        return body == null ? 0 : body.length() * 2L;
+    }
 
     public void addHeader(String name, List<String> value) {
         if (headers == null) {
@@ -0,0 +1,131 @@
+package com.laker.postman.model;
+
+import java.util.Arrays;
+
+/**
+ * 一次请求各网络阶段的耗时，由事件监听器按 {@link System#nanoTime()} 写入固定槽位
+ * <p>
+ * 只记录时间戳，不拼接字符串、不分配对象；某阶段未发生（如复用连接时没有 DNS、建连和 TLS）时耗时为 -1。
+ * 同一请求重试或重定向时，各阶段取最后一次的时间戳。
+ */
+public class PhaseTimings {
+
+    /**
+     * 网络阶段
+     */
+    public enum Phase {
+        /** DNS 解析 */
+        DNS("DNS"),
+        /** TCP 建连（不含 TLS） */
+        CONNECT("Connect"),
+        /** TLS 握手 */
+        TLS("TLS"),
+        /** 发送请求头和请求体 */
+        REQUEST("Request"),
+        /** 请求发送完成到收到响应头（首字节时间） */
+        TTFB("TTFB"),
+        /** 读取响应体 */
+        DOWNLOAD("Download");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public static final int DNS_START = 0;
+    public static final int DNS_END = 1;
+    public static final int CONNECT_START = 2;
+    public static final int SECURE_CONNECT_START = 3;
+    public static final int SECURE_CONNECT_END = 4;
+    public static final int CONNECT_END = 5;
+    public static final int REQUEST_HEADERS_START = 6;
+    public static final int REQUEST_HEADERS_END = 7;
+    public static final int REQUEST_BODY_END = 8;
+    public static final int RESPONSE_HEADERS_START = 9;
+    public static final int RESPONSE_HEADERS_END = 10;
+    public static final int RESPONSE_BODY_END = 11;
+    private static final int SLOT_COUNT = 12;
+
+    private final long[] marks = new long[SLOT_COUNT];
+    // DNS 结果是否来自缓存或静态主机映射，没有解析或无法得知时为 null
+    private Boolean dnsCacheHit;
+
+    public void mark(int slot) {
+        marks[slot] = System.nanoTime();
+    }
+
+    public void mark(int slot, long nanos) {
+        marks[slot] = nanos;
+    }
+
+    public void reset() {
+        Arrays.fill(marks, 0);
+        dnsCacheHit = null;
+    }
+
+    public void setDnsCacheHit(Boolean dnsCacheHit) {
+        this.dnsCacheHit = dnsCacheHit;
+    }
+
+    public Boolean getDnsCacheHit() {
+        return dnsCacheHit;
+    }
+
+    /**
+     * 从详细事件日志（毫秒精度）中取各阶段时间戳，用于开启网络事件日志、未挂载本监听器的请求
+     */
+    public void copyFrom(HttpEventInfo info) {
+        reset();
+        setMillis(DNS_START, info.getDnsStart());
+        setMillis(DNS_END, info.getDnsEnd());
+        setMillis(CONNECT_START, info.getConnectStart());
+        setMillis(SECURE_CONNECT_START, info.getSecureConnectStart());
+        setMillis(SECURE_CONNECT_END, info.getSecureConnectEnd());
+        setMillis(CONNECT_END, info.getConnectEnd());
+        setMillis(REQUEST_HEADERS_START, info.getRequestHeadersStart());
+        setMillis(REQUEST_HEADERS_END, info.getRequestHeadersEnd());
+        setMillis(REQUEST_BODY_END, info.getRequestBodyEnd());
+        setMillis(RESPONSE_HEADERS_START, info.getResponseHeadersStart());
+        setMillis(RESPONSE_HEADERS_END, info.getResponseHeadersEnd());
+        setMillis(RESPONSE_BODY_END, info.getResponseBodyEnd());
+    }
+
+    private void setMillis(int slot, long millis) {
+        marks[slot] = millis > 0 ? millis * 1_000_000 : 0;
+    }
+
+    /**
+     * 指定阶段的耗时（微秒），未发生时返回 -1
+     */
+    public long getMicros(Phase phase) {
+        return switch (phase) {
+            case DNS -> between(DNS_START, DNS_END);
+            case CONNECT -> marks[SECURE_CONNECT_START] != 0
+                    ? between(CONNECT_START, SECURE_CONNECT_START) : between(CONNECT_START, CONNECT_END);
+            case TLS -> between(SECURE_CONNECT_START, SECURE_CONNECT_END);
+            case REQUEST -> between(REQUEST_HEADERS_START, requestEnd());
+            case TTFB -> between(requestEnd(), RESPONSE_HEADERS_START);
+            case DOWNLOAD -> between(RESPONSE_HEADERS_START, RESPONSE_BODY_END);
+        };
+    }
+
+    // 有请求体时以请求体发送完成为准
+    private int requestEnd() {
+        return marks[REQUEST_BODY_END] > marks[REQUEST_HEADERS_END] ? REQUEST_BODY_END : REQUEST_HEADERS_END;
+    }
+
+    private long between(int startSlot, int endSlot) {
+        long start = marks[startSlot];
+        long end = marks[endSlot];
+        if (start == 0 || end == 0 || end < start) {
+            return -1;
+        }
+        return (end - start) / 1000;
+    }
+}
@@ -1,8 +1,12 @@
 package com.laker.postman.model;
 
 
+import com.laker.postman.util.StreamingMatcher;
+import okhttp3.CookieJar;
 import okhttp3.Headers;
+import okhttp3.Protocol;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,4 +28,10 @@ public class PreparedRequest {
     public boolean isMultipart;
     public boolean followRedirects = true; // 默认自动重定向
     public boolean logEvent = false; // 默认不记录事件日志
+    public ResponseBodyPolicy bodyPolicy = ResponseBodyPolicy.FULL; // 响应体读取策略，压测时按需降低
+    public List<StreamingMatcher> bodyMatchers; // 读取响应体时同步执行的流式匹配器（压测断言），可为 null
+    public PhaseTimings phaseTimings; // 非空时由轻量事件监听器记录各网络阶段耗时（压测），可为 null
+    public List<Protocol> protocols; // 指定协议列表（压测线程组的传输协议设置），null 表示 OkHttp 默认
+    public int connectionLane; // 大于 0 时使用独立的连接池（压测中限制 HTTP/2 每连接流数）
+    public CookieJar cookieJar; // 非空时代替全局 Cookie 存储（压测虚拟用户各自的会话），且不通知界面刷新 Cookie
 }
\ No newline at end of file
@@ -61,14 +61,15 @@ public class ResponseAssertion {
 
     // 获取响应体文本
     public String text() {
-        return response != null ? response.body : null;
+        return response != null ? response.getBody() : null;
     }
 
     // 获取响应体 JSON
     public Object json() {
         try {
-            if (response != null && response.body != null) {
-                return JSONUtil.parse(response.body);
+            String body = response != null ? response.getBody() : null;
+            if (body != null) {
+                return JSONUtil.parse(body);
             }
         } catch (Exception e) {
             throw new AssertionError(I18nUtil.getMessage(MessageKeys.RESPONSE_ASSERTION_INVALID_JSON, e.getMessage()));
@@ -0,0 +1,33 @@
+package com.laker.postman.model;
+
+/**
+ * 响应体读取策略，按开销从低到高排列
+ * <p>
+ * 压测时大多数响应体没有人读取，读取为字符串只会增加内存分配和 GC 压力，
+ * 因此压测引擎按执行计划实际需要选择开销最低的策略；普通请求始终使用 {@link #FULL}。
+ */
+public enum ResponseBodyPolicy {
+    /**
+     * 只读取并计数，不保留内容
+     */
+    DISCARD,
+    /**
+     * 读取时计算 CRC32 校验和，不保留内容
+     */
+    HASH,
+    /**
+     * 保留原始字节，在断言、脚本或界面读取时才解码为字符串
+     */
+    LAZY,
+    /**
+     * 完整处理（解码文本、二进制保存为临时文件等）
+     */
+    FULL;
+
+    /**
+     * 返回两者中开销更高（满足更多需求）的策略
+     */
+    public ResponseBodyPolicy atLeast(ResponseBodyPolicy other) {
+        return other != null && other.ordinal() > ordinal() ? other : this;
+    }
+}
@@ -7,33 +7,35 @@ import com.laker.postman.common.component.MemoryLabel;
 import com.laker.postman.common.component.StartButton;
 import com.laker.postman.common.component.StopButton;
 import com.laker.postman.common.SingletonBasePanel;
-import com.laker.postman.service.setting.SettingManager;
 import com.laker.postman.model.*;
 import com.laker.postman.panel.collections.right.request.RequestEditSubPanel;
-import com.laker.postman.panel.performance.assertion.AssertionData;
 import com.laker.postman.panel.performance.assertion.AssertionPropertyPanel;
 import com.laker.postman.panel.performance.component.JMeterTreeCellRenderer;
 import com.laker.postman.panel.performance.component.TreeNodeTransferHandler;
 import com.laker.postman.panel.performance.model.JMeterTreeNode;
 import com.laker.postman.panel.performance.model.NodeType;
-import com.laker.postman.panel.performance.model.RequestResult;
 import com.laker.postman.panel.performance.model.ResultNodeInfo;
 import com.laker.postman.panel.performance.result.PerformanceReportPanel;
 import com.laker.postman.panel.performance.result.PerformanceResultTreePanel;
 import com.laker.postman.panel.performance.result.PerformanceTrendPanel;
-import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
 import com.laker.postman.panel.performance.threadgroup.ThreadGroupPropertyPanel;
 import com.laker.postman.panel.performance.timer.TimerPropertyPanel;
 import com.laker.postman.panel.sidebar.ConsolePanel;
-import com.laker.postman.service.EnvironmentService;
 import com.laker.postman.service.collections.RequestCollectionsService;
-import com.laker.postman.service.http.HttpSingleRequestExecutor;
-import com.laker.postman.service.http.HttpUtil;
-import com.laker.postman.service.http.PreparedRequestBuilder;
-import com.laker.postman.service.http.okhttp.OkHttpClientManager;
-import com.laker.postman.service.js.JsScriptExecutor;
+import com.laker.postman.service.performance.distributed.DistributedController;
+import com.laker.postman.service.http.okhttp.ConnectionPoolStats;
+import com.laker.postman.service.performance.engine.ConnectionPoolSampler;
+import com.laker.postman.service.performance.engine.PerformanceEngine;
+import com.laker.postman.service.performance.engine.PerformanceEngineListener;
+import com.laker.postman.service.performance.engine.SampleResult;
+import com.laker.postman.service.performance.journal.SampleJournal;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.metrics.SecondMetrics;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.PerformancePlanCodec;
+import com.laker.postman.service.setting.SettingManager;
+import com.laker.postman.util.SystemUtil;
 import com.laker.postman.util.I18nUtil;
-import com.laker.postman.util.JsonPathUtil;
 import com.laker.postman.util.MessageKeys;
 import com.laker.postman.util.NotificationUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -42,6 +44,7 @@ import org.jfree.data.time.Second;
 import javax.swing.*;
 import javax.swing.event.TreeSelectionEvent;
 import javax.swing.event.TreeSelectionListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreePath;
@@ -49,14 +52,14 @@ import javax.swing.tree.TreeSelectionModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.File;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
 import java.util.Timer;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 左侧多层级树（用户组-请求-断言-定时器），右侧属性区，底部Tab结果区
@@ -77,22 +80,10 @@ public class PerformancePanel extends SingletonBasePanel {
     private AssertionPropertyPanel assertionPanel;
     private TimerPropertyPanel timerPanel;
     private RequestEditSubPanel requestEditSubPanel;
-    private boolean running = false;
-    private transient Thread runThread;
     private StartButton runBtn;
     private StopButton stopBtn;
-    private long startTime;
-    // 记录所有请求的开始和结束时间
-    private final List<Long> allRequestStartTimes = Collections.synchronizedList(new ArrayList<>());
-
-
-    private final transient List<RequestResult> allRequestResults = Collections.synchronizedList(new ArrayList<>());
-    // 按接口统计
-    private final Map<String, List<Long>> apiCostMap = new ConcurrentHashMap<>();
-    private final Map<String, Integer> apiSuccessMap = new ConcurrentHashMap<>();
-    private final Map<String, Integer> apiFailMap = new ConcurrentHashMap<>();
-    // 活跃线程计数器
-    private final AtomicInteger activeThreads = new AtomicInteger(0);
+    // 当前（或最近一次）压测引擎
+    private transient volatile PerformanceEngine engine;
 
     // 定时采样线程
     private transient Timer trendTimer;
@@ -106,8 +97,6 @@ public class PerformancePanel extends SingletonBasePanel {
 
     // CSV 数据管理面板
     private CsvDataPanel csvDataPanel;
-    // CSV行索引分配器
-    private final AtomicInteger csvRowIndex = new AtomicInteger(0);
 
     @Override
     protected void initUI() {
@@ -202,6 +191,12 @@ public class PerformancePanel extends SingletonBasePanel {
         btnPanel.add(efficientHelp);
         csvDataPanel = new CsvDataPanel();
         btnPanel.add(csvDataPanel);
+        JButton savePlanBtn = new JButton(I18nUtil.getMessage(MessageKeys.PERFORMANCE_PLAN_SAVE));
+        savePlanBtn.addActionListener(e -> savePlan());
+        btnPanel.add(savePlanBtn);
+        JButton loadPlanBtn = new JButton(I18nUtil.getMessage(MessageKeys.PERFORMANCE_PLAN_LOAD));
+        loadPlanBtn.addActionListener(e -> loadPlan());
+        btnPanel.add(loadPlanBtn);
         topPanel.add(btnPanel, BorderLayout.WEST);
         // ========== 执行进度指示器 ==========
         JPanel progressPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 5));
@@ -284,109 +279,80 @@ public class PerformancePanel extends SingletonBasePanel {
     // ========== 执行与停止核心逻辑 ==========
     private void startRun(JLabel progressLabel) {
         saveAllPropertyPanelData();
-        OkHttpClientManager.setConnectionPoolConfig(getJmeterMaxIdleConnections(), getJmeterKeepAliveSeconds());
-        if (running) return;
-        running = true;
+        if (engine != null && engine.isRunning()) return;
         runBtn.setEnabled(false);
         stopBtn.setEnabled(true);
         resultTabbedPane.setSelectedIndex(0); // 切换到趋势图Tab
         performanceResultTreePanel.clearResults(); // 清空结果树
         performanceReportPanel.clearReport(); // 清空报表数据
         performanceTrendPanel.clearTrendDataset(); // 清理趋势图历史数据
-        apiCostMap.clear();
-        apiSuccessMap.clear();
-        apiFailMap.clear();
-        allRequestStartTimes.clear();
-        allRequestResults.clear();
-        // CSV行索引重置
-        csvRowIndex.set(0);
+
+        DefaultMutableTreeNode rootNode = (DefaultMutableTreeNode) treeModel.getRoot();
+        PerformanceEngine runEngine = new PerformanceEngine(PerformancePlanConverter.toPlan(rootNode));
+        runEngine.setEfficientMode(efficientMode);
+        runEngine.setCsvRows(getCsvRows());
+        runEngine.setWarmupConnections(SettingManager.getPerformanceWarmupConnections());
+        setRemoteAgents(runEngine);
+        runEngine.addListener(new PanelEngineListener(progressLabel, runEngine.getTotalUsers()));
+        if (!runEngine.isDistributed()) {
+            addJournal(runEngine);
+        }
+        engine = runEngine;
+
+        // 当前已启动线程数 = 0，启动后动态刷新
+        progressLabel.setText(0 + "/" + runEngine.getTotalUsers());
 
         // 启动趋势图定时采样
         if (trendTimer != null) {
             trendTimer.cancel();
         }
         trendTimer = new Timer();
+        ConnectionPoolSampler poolSampler = new ConnectionPoolSampler(runEngine.getMetrics());
         trendTimer.scheduleAtFixedRate(new TimerTask() {
             @Override
             public void run() {
-                SwingUtilities.invokeLater(() -> sampleTrendData());
+                // 连接池在定时线程上采样，避免占用EDT
+                ConnectionPoolSampler.Sample pool = poolSampler.sample();
+                SwingUtilities.invokeLater(() -> sampleTrendData(runEngine, pool));
             }
         }, 0, 1000);
 
-        // 重要：更新开始时间，确保递增线程等模式正常工作
-        startTime = System.currentTimeMillis();
-
-        // 统计总用户数
-        DefaultMutableTreeNode rootNode = (DefaultMutableTreeNode) treeModel.getRoot();
-        int totalThreads = getTotalThreads(rootNode);
-        // 当前已启动线程数 = 0，启动后动态刷新
-        progressLabel.setText(0 + "/" + totalThreads);
-        runThread = new Thread(() -> {
-            try {
-                runJMeterTreeWithProgress(rootNode, progressLabel, totalThreads);
-            } finally {
-                SwingUtilities.invokeLater(() -> {
-                    running = false;
-                    runBtn.setEnabled(true);
-                    stopBtn.setEnabled(false);
-                    stopTrendTimer();
-                    OkHttpClientManager.setDefaultConnectionPoolConfig();
-
-                    // Create thread-safe copies before updating the report
-                    List<Long> startTimesCopy;
-                    List<RequestResult> resultsCopy;
-                    Map<String, List<Long>> apiCostMapCopy = new HashMap<>();
-
-                    synchronized (allRequestStartTimes) {
-                        startTimesCopy = new ArrayList<>(allRequestStartTimes);
-                    }
-
-                    synchronized (allRequestResults) {
-                        resultsCopy = new ArrayList<>(allRequestResults);
-                    }
-
-                    // Create thread-safe copies for each API cost list
-                    for (Map.Entry<String, List<Long>> entry : apiCostMap.entrySet()) {
-                        List<Long> costList = entry.getValue();
-                        synchronized (costList) {
-                            apiCostMapCopy.put(entry.getKey(), new ArrayList<>(costList));
-                        }
-                    }
+        runEngine.start();
+    }
 
-                    performanceReportPanel.updateReport(apiCostMapCopy, apiSuccessMap, apiFailMap, startTimesCopy, resultsCopy);
+    // 配置了压测节点时由节点执行，趋势图和报表显示合并后的统计
+    private void setRemoteAgents(PerformanceEngine runEngine) {
+        try {
+            runEngine.setRemoteAgents(DistributedController.parseAgents(SettingManager.getPerformanceAgents()),
+                    SettingManager.getPerformanceAgentSecret());
+        } catch (IllegalArgumentException e) {
+            log.warn("压测节点配置无效: {}", e.getMessage());
+        }
+    }
 
-                    // 显示执行完成提示
-                    long totalTime = System.currentTimeMillis() - startTime;
-                    int totalRequests = resultsCopy.size();
-                    long successCount = resultsCopy.stream().filter(r -> r.success).count();
-                    String message = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_EXECUTION_COMPLETED,
-                            totalRequests, successCount, totalTime / 1000.0);
-                    NotificationUtil.showSuccess(message);
-                });
-            }
-        });
-        runThread.start();
+    // 把每个样本写入用户目录下的样本日志，异常退出后仍可用于事后分析
+    private void addJournal(PerformanceEngine runEngine) {
+        if (!SettingManager.isPerformanceJournalEnabled()) return;
+        File root = new File(SystemUtil.getUserHomeEasyPostmanPath() + "perf-journal");
+        String runName = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        File dir = SampleJournal.newRunDirectory(root, runName, SettingManager.getPerformanceJournalKeepRuns());
+        try {
+            runEngine.addListener(new SampleJournal(dir));
+        } catch (Exception e) {
+            log.warn("创建压测样本日志失败: {}", e.getMessage());
+        }
     }
 
-    /**
-     * 遍历所有线程组，按各自模式计算总线程数
-     */
-    private int getTotalThreads(DefaultMutableTreeNode rootNode) {
-        int total = 0;
-        for (int i = 0; i < rootNode.getChildCount(); i++) {
-            DefaultMutableTreeNode child = (DefaultMutableTreeNode) rootNode.getChildAt(i);
-            Object userObj = child.getUserObject();
-            if (userObj instanceof JMeterTreeNode jtNode && jtNode.type == NodeType.THREAD_GROUP) {
-                ThreadGroupData tg = jtNode.threadGroupData != null ? jtNode.threadGroupData : new ThreadGroupData();
-                switch (tg.threadMode) {
-                    case FIXED -> total += tg.numThreads;
-                    case RAMP_UP -> total += tg.rampUpEndThreads;
-                    case SPIKE -> total += tg.spikeMaxThreads;
-                    case STAIRS -> total += tg.stairsEndThreads;
-                }
-            }
+    // 读取CSV面板中的全部数据行
+    private List<Map<String, String>> getCsvRows() {
+        if (csvDataPanel == null || !csvDataPanel.hasData()) {
+            return List.of();
+        }
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int i = 0; i < csvDataPanel.getRowCount(); i++) {
+            rows.add(csvDataPanel.getRowData(i));
         }
-        return total;
+        return rows;
     }
 
     // 停止定时采样方法
@@ -398,734 +364,127 @@ public class PerformancePanel extends SingletonBasePanel {
     }
 
     // 每秒采样统计方法
-    private void sampleTrendData() {
-        int users = activeThreads.get();
-        long now = System.currentTimeMillis();
-        Second second = new Second(new Date(now));
-        // 统计本秒内的请求
-        int totalReq = 0;
-        int errorReq = 0;
-        long totalRespTime = 0;
-        synchronized (allRequestResults) {
-            for (int i = allRequestResults.size() - 1; i >= 0; i--) {
-                RequestResult result = allRequestResults.get(i);
-                if (result.endTime >= now - 1000 && result.endTime <= now) {
-                    totalReq++;
-                    if (!result.success) errorReq++;
-                    totalRespTime += result.responseTime; // 使用实际响应时间
-                } else if (result.endTime < now - 1000) {
-                    break;
-                }
-            }
-        }
-        double avgRespTime = totalReq > 0 ?
-                BigDecimal.valueOf((double) totalRespTime / totalReq)
-                        .setScale(2, RoundingMode.HALF_UP)
-                        .doubleValue()
-                : 0;
-        double qps = totalReq;
-        double errorPercent = totalReq > 0 ? (double) errorReq / totalReq * 100 : 0;
+    private void sampleTrendData(PerformanceEngine runEngine, ConnectionPoolSampler.Sample pool) {
+        int users = runEngine.getActiveUsers();
+        // 分布式压测时节点上报有延迟，按引擎给出的延迟回退采样时间
+        long now = System.currentTimeMillis() - runEngine.getTrendDelayMillis();
+        // 读取最近一个完整秒的统计，O(1)
+        SecondMetrics metrics = runEngine.getMetrics().lastCompleteSecond(now);
+        Second second = new Second(new Date(metrics.epochSecond * 1000));
+        double avgRespTime = BigDecimal.valueOf(metrics.getAvgLatencyMillis())
+                .setScale(2, RoundingMode.HALF_UP)
+                .doubleValue();
+        double qps = metrics.requests;
+        double errorPercent = metrics.getErrorPercent();
         // 更新趋势图数据
         log.debug("采样数据 {} - 用户数: {}, 平均响应时间: {} ms, QPS: {}, 错误率: {}%", second, users, avgRespTime, qps, errorPercent);
         performanceTrendPanel.addOrUpdate(second, users, avgRespTime, qps, errorPercent);
+        ConnectionPoolStats stats = pool.pool();
+        performanceTrendPanel.addOrUpdateConnections(second, stats.open(), stats.idle(), stats.inUse(),
+                Math.round(pool.newConnectionsPerSec() * 10) / 10.0);
     }
 
-    // 带进度的执行
-    private void runJMeterTreeWithProgress(DefaultMutableTreeNode rootNode, JLabel progressLabel, int totalThreads) {
-        if (!running) return;
-        Object userObj = rootNode.getUserObject();
-        if (userObj instanceof JMeterTreeNode jtNode) {
-            if (Objects.requireNonNull(jtNode.type) == NodeType.ROOT) {
-                List<Thread> tgThreads = new ArrayList<>();
-                for (int i = 0; i < rootNode.getChildCount(); i++) {
-                    DefaultMutableTreeNode tgNode = (DefaultMutableTreeNode) rootNode.getChildAt(i);
-                    Thread t = new Thread(() -> runJMeterTreeWithProgress(tgNode, progressLabel, totalThreads));
-                    tgThreads.add(t);
-                    t.start();
-                }
-                for (Thread t : tgThreads) {
-                    try {
-                        t.join();
-                    } catch (InterruptedException ignored) {
-                        Thread.currentThread().interrupt();
-                    }
-                }
-            } else if (Objects.requireNonNull(jtNode.type) == NodeType.THREAD_GROUP) {
-                ThreadGroupData tg = jtNode.threadGroupData != null ? jtNode.threadGroupData : new ThreadGroupData();
-
-                // 根据线程模式选择对应的执行策略
-                switch (tg.threadMode) {
-                    case FIXED -> runFixedThreads(rootNode, tg, progressLabel, totalThreads);
-                    case RAMP_UP -> runRampUpThreads(rootNode, tg, progressLabel, totalThreads);
-                    case SPIKE -> runSpikeThreads(rootNode, tg, progressLabel, totalThreads);
-                    case STAIRS -> runStairsThreads(rootNode, tg, progressLabel, totalThreads);
-                }
-            } else {
-                log.warn("不支持的节点类型: {}", jtNode.type);
-            }
+    /**
+     * 界面作为压测引擎的一个监听器：刷新进度、结果树、控制台，结束后生成报告
+     */
+    private class PanelEngineListener implements PerformanceEngineListener {
+        private final JLabel progressLabel;
+        private final int totalUsers;
+        private final AtomicBoolean progressUpdatePending = new AtomicBoolean(false);
+        private volatile int activeUsers;
+
+        PanelEngineListener(JLabel progressLabel, int totalUsers) {
+            this.progressLabel = progressLabel;
+            this.totalUsers = totalUsers;
         }
-    }
 
-    // 固定线程模式执行
-    private void runFixedThreads(DefaultMutableTreeNode groupNode, ThreadGroupData tg, JLabel progressLabel, int totalThreads) {
-        int numThreads = tg.numThreads;
-        int loops = tg.loops;
-        boolean useTime = tg.useTime;
-        int durationSeconds = tg.duration;
-
-        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
-        long startTime = System.currentTimeMillis();
-        long endTime = useTime ? (startTime + (durationSeconds * 1000L)) : Long.MAX_VALUE;
-
-        for (int i = 0; i < numThreads; i++) {
-            if (!running) {
-                executor.shutdownNow();
-                return;
-            }
-            executor.submit(() -> {
-                activeThreads.incrementAndGet();
-                SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                try {
-                    // 按时间执行或按循环次数执行
-                    if (useTime) {
-                        // 按时间执行
-                        while (System.currentTimeMillis() < endTime && running) {
-                            runTaskIteration(groupNode);
-                        }
-                    } else {
-                        // 按循环次数执行
-                        runTask(groupNode, loops);
-                    }
-                } finally {
-                    activeThreads.decrementAndGet();
-                    SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                }
-            });
-        }
-        executor.shutdown();
-        try {
-            // 等待所有线程完成，或者超时
-            if (useTime) {
-                executor.awaitTermination(durationSeconds + 10L, TimeUnit.SECONDS);
-            } else {
-                executor.awaitTermination(1, TimeUnit.HOURS);
+        @Override
+        public void onActiveUsersChanged(int activeUsers) {
+            this.activeUsers = activeUsers;
+            // 合并高频的进度刷新，EDT上同时最多排队一次
+            if (progressUpdatePending.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(() -> {
+                    progressUpdatePending.set(false);
+                    progressLabel.setText(this.activeUsers + "/" + totalUsers);
+                });
             }
-        } catch (InterruptedException exception) {
-            Thread.currentThread().interrupt();
-            JOptionPane.showMessageDialog(this, I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_EXECUTION_INTERRUPTED, exception.getMessage()), I18nUtil.getMessage(MessageKeys.GENERAL_ERROR), JOptionPane.ERROR_MESSAGE);
-            log.error(exception.getMessage(), exception);
         }
-    }
-
-    // 递增线程模式执行
-    private void runRampUpThreads(DefaultMutableTreeNode groupNode, ThreadGroupData tg, JLabel progressLabel, int totalThreads) {
-        int startThreads = tg.rampUpStartThreads;
-        int endThreads = tg.rampUpEndThreads;
-        int rampUpTime = tg.rampUpTime;
-        int totalDuration = tg.rampUpDuration;  // 使用总持续时间参数
-
-        // 计算每秒增加的线程数
-        double threadsPerSecond = (double) (endThreads - startThreads) / rampUpTime;
-
-        // 创建调度线程池
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-        ExecutorService executor = Executors.newCachedThreadPool();
-
-        // 已启动的线程数
-        AtomicInteger startedThreads = new AtomicInteger(0);
-
-        // 每秒检查并启动新线程
-        scheduler.scheduleAtFixedRate(() -> {
-            if (!running) {
-                scheduler.shutdownNow();
-                executor.shutdownNow();
-                return;
-            }
 
-            int currentSecond = (int) (System.currentTimeMillis() - startTime) / 1000;
-            if (currentSecond > totalDuration) {
-                scheduler.shutdown(); // 达到总时间，停止调度
-                return;
-            }
-
-            // 在斜坡上升期间逐步增加线程
-            if (currentSecond <= rampUpTime) {
-                // 计算当前应有的线程数
-                int targetThreads = startThreads + (int) (threadsPerSecond * currentSecond);
-                targetThreads = Math.min(targetThreads, endThreads); // 不超过最大线程数
-
-                // 启动新线程
-                while (startedThreads.get() < targetThreads && running) {
-                    executor.submit(() -> {
-                        startedThreads.incrementAndGet();
-                        activeThreads.incrementAndGet();
-                        SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                        try {
-                            // 循环执行直到结束
-                            while (running && System.currentTimeMillis() - startTime < totalDuration * 1000L) {
-                                runTaskIteration(groupNode);
-                            }
-                        } finally {
-                            activeThreads.decrementAndGet();
-                            SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                        }
-                    });
-                }
-            }
-        }, 0, 1, TimeUnit.SECONDS);
-
-        try {
-            // 等待执行完成
-            scheduler.awaitTermination(totalDuration + 10L, TimeUnit.SECONDS);
-            executor.shutdown();
-            executor.awaitTermination(10, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("递增线程执行中断", e);
+        @Override
+        public ResponseBodyPolicy getRequiredBodyPolicy() {
+            // 结果树需要展示响应体，按需解码
+            return ResponseBodyPolicy.LAZY;
         }
-    }
-
-
-    // 尖刺模式执行
-    private void runSpikeThreads(DefaultMutableTreeNode groupNode, ThreadGroupData tg, JLabel progressLabel, int totalThreads) {
-        int minThreads = tg.spikeMinThreads;
-        int maxThreads = tg.spikeMaxThreads;
-        int rampUpTime = tg.spikeRampUpTime;
-        int holdTime = tg.spikeHoldTime;
-        int rampDownTime = tg.spikeRampDownTime;
-        int totalTime = tg.spikeDuration;  // 使用ThreadGroupData中定义的总持续时间
 
-        // 创建线程池
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-        AtomicInteger startedThreads = new AtomicInteger(minThreads);
-
-        // 使用ConcurrentHashMap跟踪线程及其预期结束时间
-        ConcurrentHashMap<Thread, Long> threadEndTimes = new ConcurrentHashMap<>();
-
-        // 计算各阶段所占总时间的比例
-        int phaseSum = rampUpTime + holdTime + rampDownTime;
-        int adjustedRampUpTime = totalTime * rampUpTime / phaseSum;
-        int adjustedHoldTime = totalTime * holdTime / phaseSum;
-        int adjustedRampDownTime = totalTime - adjustedRampUpTime - adjustedHoldTime;
-
-        // 初始阶段: 启动最小线程数
-        for (int i = 0; i < minThreads; i++) {
-            if (!running) {
-                return;
-            }
-            Thread thread = new Thread(() -> {
-                activeThreads.incrementAndGet();
-                SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                try {
-                    // 持续运行直到测试结束或线程被标记为应该结束
-                    Thread currentThread = Thread.currentThread();
-                    while (running && System.currentTimeMillis() - startTime < totalTime * 1000L
-                            && (System.currentTimeMillis() < threadEndTimes.getOrDefault(currentThread, Long.MAX_VALUE))) {
-                        runTaskIteration(groupNode);
-                    }
-                } finally {
-                    activeThreads.decrementAndGet();
-                    SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                    // 从跟踪Map中移除此线程
-                    threadEndTimes.remove(Thread.currentThread());
-                }
-            });
-            // 将线程添加到跟踪Map
-            threadEndTimes.put(thread, Long.MAX_VALUE); // 初始无限期运行
-            thread.start();
+        @Override
+        public void onSample(SampleResult result) {
+            performanceResultTreePanel.addResult(new ResultNodeInfo(result.name, result.success, result.errorMsg,
+                    result.req, result.resp, result.testResults), efficientMode);
         }
 
-        // 阶段性调度：上升、保持、下降
-        scheduler.scheduleAtFixedRate(() -> {
-            if (!running) {
-                scheduler.shutdownNow();
-                return;
-            }
-
-            long elapsedSeconds = (System.currentTimeMillis() - startTime) / 1000;
-            if (elapsedSeconds >= totalTime) {
-                scheduler.shutdown();
-                return;
-            }
-
-            long now = System.currentTimeMillis();
-            int targetThreads;
-
-            // 上升阶段
-            if (elapsedSeconds < adjustedRampUpTime) {
-                double progress = (double) elapsedSeconds / adjustedRampUpTime;
-                targetThreads = minThreads + (int) (progress * (maxThreads - minThreads));
-                // 增加线程
-                adjustSpikeThreadCount(groupNode, startedThreads, targetThreads, totalTime, progressLabel, totalThreads, threadEndTimes);
-            }
-            // 保持阶段
-            else if (elapsedSeconds < adjustedRampUpTime + adjustedHoldTime) {
-                targetThreads = maxThreads;
-                // 保持线程数
-                adjustSpikeThreadCount(groupNode, startedThreads, targetThreads, totalTime, progressLabel, totalThreads, threadEndTimes);
-            }
-            // 下降阶段
-            else {
-                double progress = (double) (elapsedSeconds - adjustedRampUpTime - adjustedHoldTime) / adjustedRampDownTime;
-                targetThreads = maxThreads - (int) (progress * (maxThreads - minThreads));
-                targetThreads = Math.max(targetThreads, minThreads); // 不低于最小线程数
-
-                // 在下降阶段，通过设置线程结束时间来减少活跃线程数
-                int threadsToRemove = startedThreads.get() - targetThreads;
-                if (threadsToRemove > 0) {
-                    // 找出可以终止的线程
-                    threadEndTimes.keySet().stream()
-                            .filter(t -> t.isAlive() && threadEndTimes.get(t) == Long.MAX_VALUE)
-                            .limit(threadsToRemove)
-                            .forEach(t -> threadEndTimes.put(t, now + 500)); // 设置一个短暂的结束时间
-                }
-
-                // 仍然需要增加线程的情况
-                adjustSpikeThreadCount(groupNode, startedThreads, targetThreads, totalTime, progressLabel, totalThreads, threadEndTimes);
-            }
-
-            // 更新UI显示实际活跃线程数而不是理论目标数
-            SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-
-        }, 1, 1, TimeUnit.SECONDS);
-
-        try {
-            // 等待执行完成
-            scheduler.awaitTermination(totalTime + 10L, TimeUnit.SECONDS);
-            // 确保等待所有threadEndTimes中的线程完成
-            for (Thread t : threadEndTimes.keySet()) {
-                try {
-                    if (t.isAlive()) {
-                        t.join(10000); // 设置超时时间避免永久阻塞
-                    }
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    log.error("等待线程完成时中断", ie);
-                }
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("尖刺模式执行中断", e);
+        @Override
+        public void onScriptOutput(String output, boolean error) {
+            ConsolePanel.appendLog(output);
         }
-    }
-
-    // 阶梯模式执行
-    private void runStairsThreads(DefaultMutableTreeNode groupNode, ThreadGroupData tg, JLabel progressLabel, int totalThreads) {
-        int startThreads = tg.stairsStartThreads;
-        int endThreads = tg.stairsEndThreads;
-        int step = tg.stairsStep;
-        int holdTime = tg.stairsHoldTime;
-        int totalTime = tg.stairsDuration;
-
-        // 创建线程池
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-        AtomicInteger startedThreads = new AtomicInteger(startThreads);
-
-        // 使用ConcurrentHashMap跟踪线程及其预期结束时间
-        ConcurrentHashMap<Thread, Long> threadEndTimes = new ConcurrentHashMap<>();
-
-        // 计算阶梯数量
-        int totalSteps = Math.max(1, (endThreads - startThreads) / step);
 
-        // 记录当前阶梯和上次阶梯变化的时间
-        AtomicInteger currentStair = new AtomicInteger(0);
-        AtomicLong lastStairChangeTime = new AtomicLong(System.currentTimeMillis());
-
-        // 初始阶段: 启动起始线程数
-        for (int i = 0; i < startThreads; i++) {
-            if (!running) {
-                return;
-            }
-            Thread thread = new Thread(() -> {
-                activeThreads.incrementAndGet();
-                SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                try {
-                    // 持续运行直到测试结束或线程被标记为应该结束
-                    Thread currentThread = Thread.currentThread();
-                    while (running && System.currentTimeMillis() - startTime < totalTime * 1000L
-                            && (System.currentTimeMillis() < threadEndTimes.getOrDefault(currentThread, Long.MAX_VALUE))) {
-                        runTaskIteration(groupNode);
-                    }
-                } finally {
-                    activeThreads.decrementAndGet();
-                    SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                    // 从跟踪Map中移除此线程
-                    threadEndTimes.remove(Thread.currentThread());
-                }
+        @Override
+        public void onFinish(PerformanceEngine finished) {
+            SwingUtilities.invokeLater(() -> {
+                runBtn.setEnabled(true);
+                stopBtn.setEnabled(false);
+                stopTrendTimer();
+                progressLabel.setText(finished.getActiveUsers() + "/" + totalUsers);
+
+                PerformanceMetrics metrics = finished.getMetrics();
+                performanceReportPanel.updateReport(metrics);
+
+                // 显示执行完成提示
+                long totalTime = finished.getElapsedMillis();
+                String message = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_EXECUTION_COMPLETED,
+                        metrics.getTotalCount(), metrics.getSuccessCount(), totalTime / 1000.0);
+                NotificationUtil.showSuccess(message);
             });
-            // 将线程添加到跟踪Map
-            threadEndTimes.put(thread, Long.MAX_VALUE); // 初始无限期运行
-            thread.start();
-        }
-
-        // 阶梯式调度
-        scheduler.scheduleAtFixedRate(() -> {
-            if (!running) {
-                scheduler.shutdownNow();
-                return;
-            }
-
-            long elapsedSeconds = (System.currentTimeMillis() - startTime) / 1000;
-            if (elapsedSeconds >= totalTime) {
-                scheduler.shutdown();
-                return;
-            }
-
-            long now = System.currentTimeMillis();
-
-            // 计算当前应该处于哪个阶梯
-            // 检查是否需要进入下一个阶梯（考虑保持时间）
-            long timeSinceLastChange = now - lastStairChangeTime.get();
-            int stair = currentStair.get();
-
-            // 如果已经过了当前阶梯的保持时间，并且还没有达到最大阶梯数，则进入下一个阶梯
-            if (timeSinceLastChange >= holdTime * 1000L && stair < totalSteps) {
-                stair = currentStair.incrementAndGet();
-                lastStairChangeTime.set(now);
-            }
-
-            // 计算当前阶梯应有的线程数
-            int targetThreads = startThreads;
-            if (stair > 0 && stair <= totalSteps) {
-                targetThreads = startThreads + stair * step;
-                targetThreads = Math.min(targetThreads, endThreads); // 不超过最大线程数
-            }
-
-            // 调整线程数
-            adjustStairsThreadCount(groupNode, startedThreads, targetThreads, totalTime, progressLabel, totalThreads, threadEndTimes);
-
-            // 更新UI显示实际活跃线程数
-            SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-
-        }, 1, 1, TimeUnit.SECONDS);
-
-        try {
-            // 等待执行完成
-            scheduler.awaitTermination(totalTime + 10L, TimeUnit.SECONDS);
-
-            // 确保等待所有threadEndTimes中的线程完成
-            for (Thread t : threadEndTimes.keySet()) {
-                try {
-                    if (t.isAlive()) {
-                        t.join(10000); // 设置超时时间避免永久阻塞
-                    }
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    log.error("等待线程完成时中断", ie);
-                }
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("阶梯模式执行中断", e);
         }
     }
 
-    // 专用于尖刺模式的线程数调整方法
-    private void adjustSpikeThreadCount(DefaultMutableTreeNode groupNode,
-                                        AtomicInteger startedThreads, int targetThreads,
-                                        int totalTime, JLabel progressLabel, int totalThreads,
-                                        ConcurrentHashMap<Thread, Long> threadEndTimes) {
-        int current = startedThreads.get();
-
-        // 需要增加线程
-        if (current < targetThreads) {
-            int threadsToAdd = targetThreads - current;
-            for (int i = 0; i < threadsToAdd; i++) {
-                if (!running) return;
-
-                Thread thread = new Thread(() -> {
-                    startedThreads.incrementAndGet();
-                    activeThreads.incrementAndGet();
-                    SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                    try {
-                        // 持续运行直到测试结束或线程被标记为应该结束
-                        Thread currentThread = Thread.currentThread();
-                        while (running && System.currentTimeMillis() - startTime < totalTime * 1000L
-                                && (System.currentTimeMillis() < threadEndTimes.getOrDefault(currentThread, Long.MAX_VALUE))) {
-                            runTaskIteration(groupNode);
-                        }
-                    } finally {
-                        activeThreads.decrementAndGet();
-                        SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                        // 从跟踪Map中移除此线程
-                        threadEndTimes.remove(Thread.currentThread());
-                    }
-                });
-                // 将线程添加到跟踪Map
-                threadEndTimes.put(thread, Long.MAX_VALUE); // 初始无限期运行
-                thread.start();
-            }
-        }
-        // 需要减少线程 - 缓慢减少，而不是一次性全部标记为结束
-        else if (current > targetThreads) {
-            int threadsToRemove = current - targetThreads;
-            long now = System.currentTimeMillis();
-
-            // 找出所有可以终止的线程
-            List<Thread> availableThreads = threadEndTimes.keySet().stream()
-                    .filter(t -> t.isAlive() && threadEndTimes.get(t) == Long.MAX_VALUE)
-                    .limit(threadsToRemove)
-                    .toList();
-
-            // 如果有可终止的线程，则设置它们分散结束
-            if (!availableThreads.isEmpty()) {
-                // 获取当前所处阶段信息 - 从runSpikeThreads方法推算
-                ThreadGroupData tg = null;
-                DefaultMutableTreeNode node = (DefaultMutableTreeNode) jmeterTree.getLastSelectedPathComponent();
-                if (node != null) {
-                    Object userObj = node.getUserObject();
-                    if (userObj instanceof JMeterTreeNode jtNode && jtNode.threadGroupData != null) {
-                        tg = jtNode.threadGroupData;
-                    }
-                }
-
-                // 计算下降阶段的总时间
-                int rampDownTime = (tg != null) ? tg.spikeRampDownTime : 10; // 默认10秒
-                int totalSpikeTime = (tg != null) ? tg.spikeDuration : 60;   // 默认60秒
-                int rampUpTime = (tg != null) ? tg.spikeRampUpTime : 10;     // 默认10秒
-                int holdTime = (tg != null) ? tg.spikeHoldTime : 20;         // 默认20秒
-
-                // 计算实际的下降时间（按比例）
-                int phaseSum = rampUpTime + holdTime + rampDownTime;
-                int adjustedRampDownTime = totalSpikeTime * rampDownTime / phaseSum;
-                adjustedRampDownTime = Math.max(adjustedRampDownTime, 1); // 至少1秒
-
-                // 计算从现在到下降结束还剩多少时间
-                long elapsedSeconds = (now - startTime) / 1000;
-                long rampDownStartTime = (long) (rampUpTime + holdTime) * totalSpikeTime / phaseSum;
-                long timeLeftInRampDown = Math.max(1, adjustedRampDownTime - (elapsedSeconds - rampDownStartTime));
-
-                // 计算每个线程应该在多久后结束，使其分散在剩余的下降时间内
-                for (int i = 0; i < availableThreads.size(); i++) {
-                    Thread t = availableThreads.get(i);
-                    // 为线程设置不同的结束时间，均匀分布在剩余下降时间内
-                    long delayMs = now + (i + 1) * timeLeftInRampDown * 1000 / (availableThreads.size() + 1);
-                    threadEndTimes.put(t, delayMs);
-                }
-            }
-        }
-    }
-
-    // 专用于阶梯模式的线程数调整方法
-    private void adjustStairsThreadCount(DefaultMutableTreeNode groupNode,
-                                         AtomicInteger startedThreads, int targetThreads,
-                                         int totalTime, JLabel progressLabel, int totalThreads,
-                                         ConcurrentHashMap<Thread, Long> threadEndTimes) {
-        int current = startedThreads.get();
-
-        // 需要增加线程 阶梯模式下，不需要减少线程，只增加
-        if (current < targetThreads) {
-            int threadsToAdd = targetThreads - current;
-            for (int i = 0; i < threadsToAdd; i++) {
-                if (!running) return;
-
-                Thread thread = new Thread(() -> {
-                    startedThreads.incrementAndGet();
-                    activeThreads.incrementAndGet();
-                    SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                    try {
-                        // 持续运行直到测试结束或线程被标记为应该结束
-                        Thread currentThread = Thread.currentThread();
-                        while (running && System.currentTimeMillis() - startTime < totalTime * 1000L
-                                && (System.currentTimeMillis() < threadEndTimes.getOrDefault(currentThread, Long.MAX_VALUE))) {
-                            runTaskIteration(groupNode);
-                        }
-                    } finally {
-                        activeThreads.decrementAndGet();
-                        SwingUtilities.invokeLater(() -> progressLabel.setText(activeThreads.get() + "/" + totalThreads));
-                        // 从跟踪Map中移除此线程
-                        threadEndTimes.remove(Thread.currentThread());
-                    }
-                });
-                // 将线程添加到跟踪Map
-                threadEndTimes.put(thread, Long.MAX_VALUE); // 初始无限期运行
-                thread.start();
-            }
-        }
-    }
-
-    // 执行单次请求
-    private void runTaskIteration(DefaultMutableTreeNode groupNode) {
-        for (int i = 0; i < groupNode.getChildCount() && running; i++) {
-            DefaultMutableTreeNode child = (DefaultMutableTreeNode) groupNode.getChildAt(i);
-            Object userObj = child.getUserObject();
-            executeRequestNode(userObj, child);
+    // 保存压测计划到JSON文件
+    private void savePlan() {
+        saveAllPropertyPanelData();
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle(I18nUtil.getMessage(MessageKeys.PERFORMANCE_PLAN_SAVE));
+        fileChooser.setFileFilter(new FileNameExtensionFilter(I18nUtil.getMessage(MessageKeys.PERFORMANCE_PLAN_FILE_FILTER), "json"));
+        fileChooser.setSelectedFile(new File("performance-plan.json"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = fileChooser.getSelectedFile();
+        if (!file.getName().toLowerCase().endsWith(".json")) {
+            file = new File(file.getParentFile(), file.getName() + ".json");
         }
-    }
-
-    // 执行指定次数的请求
-    private void runTask(DefaultMutableTreeNode groupNode, int loops) {
-        for (int l = 0; l < loops && running; l++) {
-            runTaskIteration(groupNode);
+        try {
+            PerformancePlanCodec.save(PerformancePlanConverter.toPlan((DefaultMutableTreeNode) treeModel.getRoot()), file);
+            NotificationUtil.showSuccess(I18nUtil.getMessage(MessageKeys.PERFORMANCE_PLAN_SAVE_SUCCESS, file.getAbsolutePath()));
+        } catch (Exception ex) {
+            log.error("保存压测计划失败", ex);
+            NotificationUtil.showError(I18nUtil.getMessage(MessageKeys.PERFORMANCE_PLAN_SAVE_FAILED, ex.getMessage()));
         }
     }
 
-    // 执行单个请求节点
-    private void executeRequestNode(Object userObj, DefaultMutableTreeNode child) {
-        if (userObj instanceof JMeterTreeNode jtNode && jtNode.type == NodeType.REQUEST && jtNode.httpRequestItem != null) {
-            String apiName = jtNode.httpRequestItem.getName();
-            boolean success = true;
-            PreparedRequest req;
-            HttpResponse resp = null;
-            String errorMsg = "";
-            List<TestResult> testResults = new ArrayList<>();
-
-            // 清理上次的临时变量
-            EnvironmentService.clearTemporaryVariables();
-
-            // ====== CSV变量注入 ======
-            Map<String, String> csvRow = null;
-            if (csvDataPanel != null && csvDataPanel.hasData()) {
-                int rowCount = csvDataPanel.getRowCount();
-                if (rowCount > 0) {
-                    int rowIdx = csvRowIndex.getAndIncrement() % rowCount;
-                    csvRow = csvDataPanel.getRowData(rowIdx);
-                }
-            }
-            // ====== 前置脚本 ======
-            req = PreparedRequestBuilder.build(jtNode.httpRequestItem);
-            Map<String, Object> bindings = HttpUtil.prepareBindings(req);
-            Postman pm = (Postman) bindings.get("pm");
-            // 注入CSV变量到pm
-            if (csvRow != null) {
-                for (Map.Entry<String, String> entry : csvRow.entrySet()) {
-                    pm.setVariable(entry.getKey(), entry.getValue());
-                }
-            }
-            boolean preOk = true;
-            String prescript = jtNode.httpRequestItem.getPrescript();
-            if (prescript != null && !prescript.isBlank()) {
-                try {
-                    JsScriptExecutor.executeScript(
-                            prescript,
-                            bindings,
-                            output -> {
-                                if (!output.isBlank()) {
-                                    ConsolePanel.appendLog("[PreScript Console]\n" + output);
-                                }
-                            }
-                    );
-                } catch (Exception ex) {
-                    log.error("前置脚本: {}", ex.getMessage(), ex);
-                    errorMsg = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_PRE_SCRIPT_FAILED, ex.getMessage());
-                    preOk = false;
-                    success = false;
-                }
-            }
-
-            // 前置脚本执行完成后，进行变量替换
-            if (preOk) {
-                PreparedRequestBuilder.replaceVariablesAfterPreScript(req);
-            }
-
-            long startTime = System.currentTimeMillis();
-            allRequestStartTimes.add(startTime); // 记录开始时间
-            long costMs = 0;
-
-            if (preOk) {
-                try {
-                    req.logEvent = !efficientMode; // 记录事件日志
-                    resp = HttpSingleRequestExecutor.executeHttp(req);
-                } catch (Exception ex) {
-                    log.error("请求执行失败: {}", ex.getMessage(), ex);
-                    errorMsg = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_REQUEST_FAILED, ex.getMessage());
-                    success = false;
-                } finally {
-                    costMs = System.currentTimeMillis() - startTime;
-                }
-                // 断言处理（JMeter树断言）
-                for (int j = 0; j < child.getChildCount() && resp != null; j++) {
-                    DefaultMutableTreeNode sub = (DefaultMutableTreeNode) child.getChildAt(j);
-                    Object subObj = sub.getUserObject();
-                    if (subObj instanceof JMeterTreeNode subNode && subNode.type == NodeType.ASSERTION && subNode.assertionData != null) {
-                        AssertionData assertion = subNode.assertionData;
-                        String type = assertion.type;
-                        boolean pass = false;
-                        if ("Response Code".equals(type)) {
-                            String op = assertion.operator;
-                            String valStr = assertion.value;
-                            try {
-                                int expect = Integer.parseInt(valStr);
-                                if ("=".equals(op)) pass = (resp.code == expect);
-                                else if (">".equals(op)) pass = (resp.code > expect);
-                                else if ("<".equals(op)) pass = (resp.code < expect);
-                            } catch (Exception ignored) {
-                                log.warn("断言响应码格式错误: {}", valStr);
-                            }
-                        } else if ("Contains".equals(type)) {
-                            pass = resp.body.contains(assertion.content);
-                        } else if ("JSONPath".equals(type)) {
-                            String jsonPath = assertion.value;
-                            String expect = assertion.content;
-                            String actual = JsonPathUtil.extractJsonPath(resp.body, jsonPath);
-                            pass = Objects.equals(actual, expect);
-                        }
-                        if (!pass) {
-                            success = false;
-                            errorMsg = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_ASSERTION_FAILED, type, assertion.content);
-                        }
-                        testResults.add(new TestResult(type, pass, pass ? null : "断言失败"));
-                    }
-                }
-                // ====== 后置脚本 ======
-                String postscript = jtNode.httpRequestItem.getPostscript();
-                if (resp != null && postscript != null && !postscript.isBlank()) {
-                    HttpUtil.postBindings(bindings, resp);
-                    try {
-                        JsScriptExecutor.executeScript(
-                                postscript,
-                                bindings,
-                                output -> {
-                                    if (!output.isBlank()) {
-                                        ConsolePanel.appendLog("[PostScript Console]\n" + output);
-                                    }
-                                }
-                        );
-                        if (pm.testResults != null) {
-                            testResults.addAll(pm.testResults);
-                        }
-                    } catch (Exception assertionEx) {
-                        log.error("后置脚本执行失败: {}", assertionEx.getMessage(), assertionEx);
-                        if (pm.testResults != null) {
-                            testResults.addAll(pm.testResults);
-                        }
-                        errorMsg = assertionEx.getMessage();
-                        success = false;
-                    }
-                }
-            } else {
-                // 前置脚本失败的情况，也需要记录costMs
-                costMs = System.currentTimeMillis() - startTime;
-            }
-
-            // ====== 统计请求结果（断言和后置脚本后，sleep前） ======
-            long cost = resp == null ? costMs : resp.costMs;
-            long endTime = startTime + cost; // 如果响应时间有记录，则使用，否则使用计算的cost
-            if (resp != null) {
-                endTime = resp.endTime > 0 ? resp.endTime : startTime + cost;
-            }
-            allRequestResults.add(new RequestResult(endTime, success, cost)); // 记录结束时间和实际响应时间
-            apiCostMap.computeIfAbsent(apiName, k -> Collections.synchronizedList(new ArrayList<>())).add(cost);
-            if (success) {
-                apiSuccessMap.merge(apiName, 1, Integer::sum);
-            } else {
-                apiFailMap.merge(apiName, 1, Integer::sum);
-            }
-            performanceResultTreePanel.addResult(new ResultNodeInfo(jtNode.httpRequestItem.getName(), success, errorMsg, req, resp, testResults), efficientMode);
-
-            // ====== 定时器延迟（sleep） ======
-            for (int j = 0; j < child.getChildCount(); j++) {
-                DefaultMutableTreeNode sub = (DefaultMutableTreeNode) child.getChildAt(j);
-                Object subObj = sub.getUserObject();
-                if (subObj instanceof JMeterTreeNode subNode2 && subNode2.type == NodeType.TIMER && subNode2.timerData != null) {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(subNode2.timerData.delayMs);
-                    } catch (InterruptedException ignored) {
-                        Thread.currentThread().interrupt();
-                        return;
-                    }
-                }
-            }
+    // 从JSON文件加载压测计划，替换当前压测树
+    private void loadPlan() {
+        if (engine != null && engine.isRunning()) return;
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle(I18nUtil.getMessage(MessageKeys.PERFORMANCE_PLAN_LOAD));
+        fileChooser.setFileFilter(new FileNameExtensionFilter(I18nUtil.getMessage(MessageKeys.PERFORMANCE_PLAN_FILE_FILTER), "json"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            PerformancePlan plan = PerformancePlanCodec.load(fileChooser.getSelectedFile());
+            treeModel.setRoot(PerformancePlanConverter.toTree(plan, I18nUtil.getMessage(MessageKeys.PERFORMANCE_TEST_PLAN)));
+            for (int i = 0; i < jmeterTree.getRowCount(); i++) {
+                jmeterTree.expandRow(i);
+            }
+            selectFirstThreadGroup();
+        } catch (Exception ex) {
+            log.error("加载压测计划失败", ex);
+            NotificationUtil.showError(I18nUtil.getMessage(MessageKeys.PERFORMANCE_PLAN_LOAD_FAILED, ex.getMessage()));
         }
     }
 
@@ -1321,23 +680,12 @@ public class PerformancePanel extends SingletonBasePanel {
     }
 
     private void stopRun() {
-        running = false;
-        if (runThread != null && runThread.isAlive()) {
-            runThread.interrupt();
+        if (engine != null) {
+            engine.stop();
         }
         runBtn.setEnabled(true);
         stopBtn.setEnabled(false);
-        OkHttpClientManager.setDefaultConnectionPoolConfig();
         // 停止趋势图定时采样
         stopTrendTimer();
     }
-
-    private static int getJmeterMaxIdleConnections() {
-        return SettingManager.getJmeterMaxIdleConnections();
-    }
-
-    private static long getJmeterKeepAliveSeconds() {
-        return SettingManager.getJmeterKeepAliveSeconds();
-    }
 }
-
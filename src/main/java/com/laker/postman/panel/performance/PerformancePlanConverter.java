@@ -0,0 +1,82 @@
+package com.laker.postman.panel.performance;
+
+import com.laker.postman.panel.performance.model.JMeterTreeNode;
+import com.laker.postman.panel.performance.model.NodeType;
+import com.laker.postman.service.performance.plan.AssertionPlan;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.RequestPlan;
+import com.laker.postman.service.performance.plan.ThreadGroupPlan;
+import com.laker.postman.service.performance.plan.TimerPlan;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+
+/**
+ * 压测树（JMeterTreeNode）与压测计划（PerformancePlan）之间的相互转换
+ */
+public class PerformancePlanConverter {
+
+    private PerformancePlanConverter() {
+    }
+
+    /**
+     * 将界面上的压测树转换为压测计划
+     */
+    public static PerformancePlan toPlan(DefaultMutableTreeNode root) {
+        PerformancePlan plan = new PerformancePlan();
+        if (root.getUserObject() instanceof JMeterTreeNode rootNode) {
+            plan.name = rootNode.name;
+        }
+        for (int i = 0; i < root.getChildCount(); i++) {
+            DefaultMutableTreeNode groupNode = (DefaultMutableTreeNode) root.getChildAt(i);
+            if (!(groupNode.getUserObject() instanceof JMeterTreeNode tgNode) || tgNode.type != NodeType.THREAD_GROUP) {
+                continue;
+            }
+            ThreadGroupPlan group = new ThreadGroupPlan(tgNode.name, tgNode.threadGroupData);
+            for (int j = 0; j < groupNode.getChildCount(); j++) {
+                DefaultMutableTreeNode requestNode = (DefaultMutableTreeNode) groupNode.getChildAt(j);
+                if (!(requestNode.getUserObject() instanceof JMeterTreeNode reqNode)
+                        || reqNode.type != NodeType.REQUEST || reqNode.httpRequestItem == null) {
+                    continue;
+                }
+                RequestPlan request = new RequestPlan(reqNode.name, reqNode.httpRequestItem);
+                for (int k = 0; k < requestNode.getChildCount(); k++) {
+                    DefaultMutableTreeNode sub = (DefaultMutableTreeNode) requestNode.getChildAt(k);
+                    if (!(sub.getUserObject() instanceof JMeterTreeNode subNode)) continue;
+                    if (subNode.type == NodeType.ASSERTION && subNode.assertionData != null) {
+                        request.assertions.add(new AssertionPlan(subNode.name, subNode.assertionData));
+                    } else if (subNode.type == NodeType.TIMER && subNode.timerData != null) {
+                        request.timers.add(new TimerPlan(subNode.name, subNode.timerData));
+                    }
+                }
+                group.requests.add(request);
+            }
+            plan.threadGroups.add(group);
+        }
+        return plan;
+    }
+
+    /**
+     * 将压测计划还原为压测树，rootName 为空时使用计划名称
+     */
+    public static DefaultMutableTreeNode toTree(PerformancePlan plan, String rootName) {
+        String name = plan.name != null && !plan.name.isBlank() ? plan.name : rootName;
+        DefaultMutableTreeNode root = new DefaultMutableTreeNode(new JMeterTreeNode(name, NodeType.ROOT));
+        for (ThreadGroupPlan group : plan.threadGroups) {
+            DefaultMutableTreeNode groupNode = new DefaultMutableTreeNode(new JMeterTreeNode(group.name, NodeType.THREAD_GROUP, group.settings));
+            for (RequestPlan request : group.requests) {
+                if (request.request == null) continue;
+                String requestName = request.name != null ? request.name : request.request.getName();
+                DefaultMutableTreeNode requestNode = new DefaultMutableTreeNode(new JMeterTreeNode(requestName, NodeType.REQUEST, request.request));
+                for (AssertionPlan assertion : request.assertions) {
+                    requestNode.add(new DefaultMutableTreeNode(new JMeterTreeNode(assertion.name, NodeType.ASSERTION, assertion.data)));
+                }
+                for (TimerPlan timer : request.timers) {
+                    requestNode.add(new DefaultMutableTreeNode(new JMeterTreeNode(timer.name, NodeType.TIMER, timer.data)));
+                }
+                groupNode.add(requestNode);
+            }
+            root.add(groupNode);
+        }
+        return root;
+    }
+}
@@ -1,6 +1,7 @@
 package com.laker.postman.panel.performance.assertion;
 
 import com.laker.postman.panel.performance.model.JMeterTreeNode;
+import com.laker.postman.service.performance.assertion.AssertionCompiler;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,6 +13,15 @@ public class AssertionPropertyPanel extends JPanel {
     private final JTextField containsContentField; // Contains用
     private final JTextField jsonPathField; // JSONPath用
     private final JTextField jsonPathExpectField; // JSONPath用
+    private final JComboBox<String> jsonPathOperatorCombo; // JSONPath用
+    private final JTextField headerNameField; // Header用
+    private final JComboBox<String> headerOperatorCombo; // Header用
+    private final JTextField headerExpectField; // Header用
+    private final JTextField regexField; // Regex用
+    private final JComboBox<String> responseTimeOperatorCombo; // Response Time用
+    private final JTextField responseTimeField; // Response Time用
+    private final JComboBox<String> bodySizeOperatorCombo; // Body Size用
+    private final JTextField bodySizeField; // Body Size用
     private JMeterTreeNode currentNode;
     private final CardLayout inputCardLayout;
     private final JPanel inputPanel;
@@ -21,8 +31,8 @@ public class AssertionPropertyPanel extends JPanel {
 
     public AssertionPropertyPanel() {
         setLayout(new GridBagLayout());
-        setMaximumSize(new Dimension(420, 120));
-        setPreferredSize(new Dimension(380, 100));
+        setMaximumSize(new Dimension(480, 160));
+        setPreferredSize(new Dimension(420, 130));
         setBorder(BorderFactory.createEmptyBorder(18, 24, 18, 24));
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(6, 6, 6, 6);
@@ -35,9 +45,13 @@ public class AssertionPropertyPanel extends JPanel {
         gbc.gridx = 1;
         gbc.anchor = GridBagConstraints.CENTER;
         typeCombo = new JComboBox<>(new String[]{
-                "Response Code",
-                "Contains",
-                "JSONPath"
+                AssertionCompiler.RESPONSE_CODE,
+                AssertionCompiler.CONTAINS,
+                AssertionCompiler.JSON_PATH,
+                AssertionCompiler.HEADER,
+                AssertionCompiler.REGEX,
+                AssertionCompiler.RESPONSE_TIME,
+                AssertionCompiler.BODY_SIZE
         });
         add(typeCombo, gbc);
 
@@ -59,7 +73,7 @@ public class AssertionPropertyPanel extends JPanel {
         rcGbc.fill = GridBagConstraints.HORIZONTAL;
         responseCodePanel.add(new JLabel("符号:"), rcGbc);
         rcGbc.gridx = 1;
-        operatorCombo = new JComboBox<>(new String[]{"=", ">", "<"});
+        operatorCombo = new JComboBox<>(new String[]{"=", "!=", ">", ">=", "<", "<="});
         responseCodePanel.add(operatorCombo, rcGbc);
         rcGbc.gridx = 2;
         responseCodePanel.add(new JLabel("值:"), rcGbc);
@@ -87,20 +101,69 @@ public class AssertionPropertyPanel extends JPanel {
         jpGbc.fill = GridBagConstraints.HORIZONTAL; // 水平填充
         jsonPathField = new JTextField(10);
         jsonPathPanel.add(jsonPathField, jpGbc);
+        jpGbc.gridx = 2;
+        jpGbc.weightx = 0;
+        jsonPathOperatorCombo = new JComboBox<>(new String[]{"=", "!=", ">", ">=", "<", "<=", AssertionCompiler.OP_EXISTS});
+        jsonPathPanel.add(jsonPathOperatorCombo, jpGbc);
         jpGbc.gridx = 0;
         jpGbc.gridy = 1;
         jpGbc.weightx = 0;
         jpGbc.fill = GridBagConstraints.HORIZONTAL;
         jsonPathPanel.add(new JLabel("对比值:"), jpGbc);
         jpGbc.gridx = 1;
+        jpGbc.gridwidth = 2;
         jpGbc.weightx = 1.0;
         jpGbc.fill = GridBagConstraints.HORIZONTAL;
         jsonPathExpectField = new JTextField();
         jsonPathPanel.add(jsonPathExpectField, jpGbc);
 
-        inputPanel.add(responseCodePanel, "Response Code");
-        inputPanel.add(containsPanel, "Contains");
-        inputPanel.add(jsonPathPanel, "JSONPath");
+        // Header面板
+        JPanel headerPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints hGbc = new GridBagConstraints();
+        hGbc.insets = new Insets(2, 2, 2, 2);
+        hGbc.fill = GridBagConstraints.HORIZONTAL;
+        hGbc.gridx = 0;
+        hGbc.gridy = 0;
+        headerPanel.add(new JLabel("响应头:"), hGbc);
+        hGbc.gridx = 1;
+        hGbc.weightx = 1.0;
+        headerNameField = new JTextField(10);
+        headerPanel.add(headerNameField, hGbc);
+        hGbc.gridx = 2;
+        hGbc.weightx = 0;
+        headerOperatorCombo = new JComboBox<>(new String[]{"=", "!=", AssertionCompiler.OP_CONTAINS,
+                AssertionCompiler.OP_MATCHES, AssertionCompiler.OP_EXISTS});
+        headerPanel.add(headerOperatorCombo, hGbc);
+        hGbc.gridx = 0;
+        hGbc.gridy = 1;
+        headerPanel.add(new JLabel("对比值:"), hGbc);
+        hGbc.gridx = 1;
+        hGbc.gridwidth = 2;
+        hGbc.weightx = 1.0;
+        headerExpectField = new JTextField();
+        headerPanel.add(headerExpectField, hGbc);
+
+        // Regex面板
+        JPanel regexPanel = new JPanel(new BorderLayout(2, 2));
+        regexPanel.add(new JLabel("正则表达式:"), BorderLayout.WEST);
+        regexField = new JTextField();
+        regexPanel.add(regexField, BorderLayout.CENTER);
+
+        // Response Time / Body Size面板
+        responseTimeOperatorCombo = new JComboBox<>(new String[]{"<=", "<"});
+        responseTimeField = new JTextField(8);
+        JPanel responseTimePanel = createBoundPanel(responseTimeOperatorCombo, responseTimeField, "ms");
+        bodySizeOperatorCombo = new JComboBox<>(new String[]{"<=", "<", ">=", ">", "="});
+        bodySizeField = new JTextField(8);
+        JPanel bodySizePanel = createBoundPanel(bodySizeOperatorCombo, bodySizeField, "bytes");
+
+        inputPanel.add(responseCodePanel, AssertionCompiler.RESPONSE_CODE);
+        inputPanel.add(containsPanel, AssertionCompiler.CONTAINS);
+        inputPanel.add(jsonPathPanel, AssertionCompiler.JSON_PATH);
+        inputPanel.add(headerPanel, AssertionCompiler.HEADER);
+        inputPanel.add(regexPanel, AssertionCompiler.REGEX);
+        inputPanel.add(responseTimePanel, AssertionCompiler.RESPONSE_TIME);
+        inputPanel.add(bodySizePanel, AssertionCompiler.BODY_SIZE);
         add(inputPanel, gbc);
 
         // 帮助说明
@@ -108,7 +171,7 @@ public class AssertionPropertyPanel extends JPanel {
         gbc.gridx = 0;
         gbc.gridwidth = 2;
         gbc.anchor = GridBagConstraints.CENTER;
-        JLabel helpLabel = new JLabel("<html>\n<ul style='margin-left:10px'>\n<li><b>Response Code</b>: 断言响应码，支持 <b>=</b>、<b>></b>、<b><</b>，如 <code>=200</code> 表示响应码等于200</li>\n<li><b>Contains</b>: 断言响应体包含指定内容，输入要查找的字符串即可</li>\n<li><b>JSONPath</b>: 断言响应体通过 JSONPath 表达式提取的值等于对比值，支持如 <code>$.data[0].id</code> 语法</li>\n</ul>\n</html>");
+        JLabel helpLabel = new JLabel("<html>\n<ul style='margin-left:10px'>\n<li><b>Response Code</b>: 断言响应码，如 <code>=200</code>；值也可以是范围 <code>2xx</code>、<code>200-299</code>、<code>200,204</code>（仅支持 = 和 !=）</li>\n<li><b>Contains</b>: 断言响应体包含指定内容，输入要查找的字符串即可</li>\n<li><b>JSONPath</b>: 断言 JSONPath 表达式提取的值，= / != 按文本比较，> < 等按数值比较，支持如 <code>$.data[0].id</code>、<code>$..id</code> 语法</li>\n<li><b>Header</b>: 断言响应头（名称不区分大小写），matches 为正则查找</li>\n<li><b>Regex</b>: 断言响应体中能找到匹配正则的内容</li>\n<li><b>Response Time</b> / <b>Body Size</b>: 断言响应时间（毫秒）/ 响应体大小（字节）的上限</li>\n</ul>\n</html>");
         helpLabel.setFont(helpLabel.getFont().deriveFont(Font.PLAIN, 12f));
         add(helpLabel, gbc);
 
@@ -116,6 +179,16 @@ public class AssertionPropertyPanel extends JPanel {
         updateFieldVisibility();
     }
 
+    private static JPanel createBoundPanel(JComboBox<String> operator, JTextField value, String unit) {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        panel.add(new JLabel("符号:"));
+        panel.add(operator);
+        panel.add(new JLabel("值:"));
+        panel.add(value);
+        panel.add(new JLabel(unit));
+        return panel;
+    }
+
     private void updateFieldVisibility() {
         String type = (String) typeCombo.getSelectedItem();
         inputCardLayout.show(inputPanel, type);
@@ -129,14 +202,33 @@ public class AssertionPropertyPanel extends JPanel {
             node.assertionData = data;
         }
         typeCombo.setSelectedItem(data.type);
-        if ("Response Code".equals(data.type)) {
-            operatorCombo.setSelectedItem(data.operator);
-            responseCodeValueField.setText(data.value);
-        } else if ("Contains".equals(data.type)) {
-            containsContentField.setText(data.content);
-        } else if ("JSONPath".equals(data.type)) {
-            jsonPathField.setText(data.value);
-            jsonPathExpectField.setText(data.content);
+        switch (data.type == null ? "" : data.type) {
+            case AssertionCompiler.RESPONSE_CODE -> {
+                operatorCombo.setSelectedItem(data.operator);
+                responseCodeValueField.setText(data.value);
+            }
+            case AssertionCompiler.CONTAINS -> containsContentField.setText(data.content);
+            case AssertionCompiler.JSON_PATH -> {
+                jsonPathField.setText(data.value);
+                jsonPathOperatorCombo.setSelectedItem(data.operator);
+                jsonPathExpectField.setText(data.content);
+            }
+            case AssertionCompiler.HEADER -> {
+                headerNameField.setText(data.value);
+                headerOperatorCombo.setSelectedItem(data.operator);
+                headerExpectField.setText(data.content);
+            }
+            case AssertionCompiler.REGEX -> regexField.setText(data.content);
+            case AssertionCompiler.RESPONSE_TIME -> {
+                responseTimeOperatorCombo.setSelectedItem(data.operator);
+                responseTimeField.setText(data.value);
+            }
+            case AssertionCompiler.BODY_SIZE -> {
+                bodySizeOperatorCombo.setSelectedItem(data.operator);
+                bodySizeField.setText(data.value);
+            }
+            default -> {
+            }
         }
         updateFieldVisibility();
     }
@@ -149,18 +241,44 @@ public class AssertionPropertyPanel extends JPanel {
             currentNode.assertionData = data;
         }
         data.type = (String) typeCombo.getSelectedItem();
-        if ("Response Code".equals(data.type)) {
-            data.operator = (String) operatorCombo.getSelectedItem();
-            data.value = responseCodeValueField.getText();
-            data.content = "";
-        } else if ("Contains".equals(data.type)) {
-            data.content = containsContentField.getText();
-            data.operator = "=";
-            data.value = "";
-        } else if ("JSONPath".equals(data.type)) {
-            data.value = jsonPathField.getText();
-            data.content = jsonPathExpectField.getText();
-            data.operator = "=";
+        switch (data.type) {
+            case AssertionCompiler.RESPONSE_CODE -> {
+                data.operator = (String) operatorCombo.getSelectedItem();
+                data.value = responseCodeValueField.getText();
+                data.content = "";
+            }
+            case AssertionCompiler.CONTAINS -> {
+                data.content = containsContentField.getText();
+                data.operator = "=";
+                data.value = "";
+            }
+            case AssertionCompiler.JSON_PATH -> {
+                data.value = jsonPathField.getText();
+                data.content = jsonPathExpectField.getText();
+                data.operator = (String) jsonPathOperatorCombo.getSelectedItem();
+            }
+            case AssertionCompiler.HEADER -> {
+                data.value = headerNameField.getText();
+                data.content = headerExpectField.getText();
+                data.operator = (String) headerOperatorCombo.getSelectedItem();
+            }
+            case AssertionCompiler.REGEX -> {
+                data.content = regexField.getText();
+                data.operator = "=";
+                data.value = "";
+            }
+            case AssertionCompiler.RESPONSE_TIME -> {
+                data.operator = (String) responseTimeOperatorCombo.getSelectedItem();
+                data.value = responseTimeField.getText();
+                data.content = "";
+            }
+            case AssertionCompiler.BODY_SIZE -> {
+                data.operator = (String) bodySizeOperatorCombo.getSelectedItem();
+                data.value = bodySizeField.getText();
+                data.content = "";
+            }
+            default -> {
+            }
         }
     }
 }
\ No newline at end of file
@@ -9,12 +9,19 @@ import java.util.List;
 
 // 结果树节点信息
 public class ResultNodeInfo {
+    // 结果树最多展示约 20K 字符的响应体，每个节点只保留响应体开头部分
+    public static final int MAX_RETAINED_BODY = 64 * 1024;
+    // 请求头、响应头、计时等其他字段的估算大小
+    private static final int NODE_OVERHEAD_BYTES = 2048;
+
     public String name;
     public boolean success;
     public String errorMsg;
     public PreparedRequest req;
     public HttpResponse resp;
     public List<TestResult> testResults;
+    // 节点估算占用的内存字节数，结果树按此限制总内存
+    public final long retainedBytes;
 
     public ResultNodeInfo(String name, boolean success, String errorMsg, PreparedRequest req, HttpResponse resp, List<TestResult> testResults) {
         this.name = name;
@@ -23,6 +30,18 @@ public class ResultNodeInfo {
         this.req = req;
         this.resp = resp;
         this.testResults = testResults;
+        long bytes = NODE_OVERHEAD_BYTES;
+        if (resp != null) {
+            resp.truncateBody(MAX_RETAINED_BODY);
+            bytes += resp.getRetainedBodyBytes() + Math.max(0, resp.headersSize);
+        }
+        if (req != null && req.body != null) {
+            bytes += req.body.length() * 2L;
+        }
+        if (req != null && req.okHttpRequestBody != null) {
+            bytes += req.okHttpRequestBody.length() * 2L;
+        }
+        this.retainedBytes = bytes;
     }
 
     @Override
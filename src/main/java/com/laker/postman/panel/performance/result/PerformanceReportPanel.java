@@ -1,20 +1,33 @@
 package com.laker.postman.panel.performance.result;
 
-import com.laker.postman.panel.performance.model.RequestResult;
+import com.laker.postman.service.performance.metrics.ApiMetrics;
+import com.laker.postman.service.performance.metrics.JsContextUsage;
+import com.laker.postman.service.performance.metrics.LatencyHistogram;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.report.PerformanceSummary;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
 
 public class PerformanceReportPanel extends JPanel {
     public static final String TOTAL = "Total";
     private final DefaultTableModel reportTableModel;
-    String[] columns = {"API Name", TOTAL, "Success", "Fail", "Success Rate", "QPS", "Avg(ms)", "Min(ms)", "Max(ms)", "P90(ms)", "P95(ms)", "P99(ms)"};
+    String[] columns = {"API Name", TOTAL, "Success", "Fail", "Success Rate", "QPS", "Avg(ms)", "Min(ms)", "Max(ms)",
+            "P50(ms)", "P75(ms)", "P90(ms)", "P95(ms)", "P99(ms)", "P99.9(ms)"};
+    // 按断言统计的通过/失败次数，没有断言时隐藏
+    private final DefaultTableModel assertionTableModel;
+    private final JScrollPane assertionScroll;
+    // 各网络阶段的耗时分布，定位延迟来源（如 P99 主要来自 TLS 握手），没有数据时隐藏
+    private final DefaultTableModel phaseTableModel;
+    private final JScrollPane phaseScroll;
+    // 按实际使用的协议（HTTP/1.1、HTTP/2、h2c）统计，没有数据时隐藏
+    private final DefaultTableModel protocolTableModel;
+    private final JScrollPane protocolScroll;
+    // 脚本上下文池的创建/复用情况，没有执行脚本时隐藏
+    private final DefaultTableModel jsContextTableModel;
+    private final JScrollPane jsContextScroll;
 
     public PerformanceReportPanel() {
         setLayout(new BorderLayout());
@@ -114,7 +127,7 @@ public class PerformanceReportPanel extends JPanel {
             }
         };
         // 需要居中的列索引
-        int[] centerColumns = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
+        int[] centerColumns = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14};
         for (int col : centerColumns) {
             if (col == 3) { // 失败列
                 reportTable.getColumnModel().getColumn(col).setCellRenderer(failRenderer);
@@ -128,11 +141,101 @@ public class PerformanceReportPanel extends JPanel {
         reportTable.getTableHeader().setFont(reportTable.getTableHeader().getFont().deriveFont(Font.BOLD));
         JScrollPane tableScroll = new JScrollPane(reportTable);
         add(tableScroll, BorderLayout.CENTER);
+
+        assertionTableModel = new DefaultTableModel(new String[]{"API Name", "Assertion", "Pass", "Fail", "Fail Rate"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable assertionTable = new JTable(assertionTableModel);
+        assertionTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        assertionTable.getTableHeader().setFont(assertionTable.getTableHeader().getFont().deriveFont(Font.BOLD));
+        assertionTable.getColumnModel().getColumn(2).setCellRenderer(centerRenderer);
+        assertionTable.getColumnModel().getColumn(3).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                c.setForeground(value instanceof Long fail && fail > 0 ? Color.RED : Color.BLACK);
+                setHorizontalAlignment(SwingConstants.CENTER);
+                return c;
+            }
+        });
+        assertionTable.getColumnModel().getColumn(4).setCellRenderer(centerRenderer);
+        assertionScroll = new JScrollPane(assertionTable);
+        assertionScroll.setPreferredSize(new Dimension(100, 140));
+        assertionScroll.setVisible(false);
+
+        phaseTableModel = new DefaultTableModel(new String[]{"API Name", "Phase", "Count", "Avg(ms)", "P50(ms)",
+                "P90(ms)", "P99(ms)", "Max(ms)", "Cache Hit"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable phaseTable = new JTable(phaseTableModel);
+        phaseTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        phaseTable.getTableHeader().setFont(phaseTable.getTableHeader().getFont().deriveFont(Font.BOLD));
+        for (int col = 2; col < phaseTableModel.getColumnCount(); col++) {
+            phaseTable.getColumnModel().getColumn(col).setCellRenderer(centerRenderer);
+        }
+        phaseScroll = new JScrollPane(phaseTable);
+        phaseScroll.setPreferredSize(new Dimension(100, 160));
+        phaseScroll.setVisible(false);
+
+        protocolTableModel = new DefaultTableModel(new String[]{"Protocol", TOTAL, "Success", "Fail", "Success Rate",
+                "QPS", "Avg(ms)", "P50(ms)", "P90(ms)", "P99(ms)", "Max(ms)"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable protocolTable = new JTable(protocolTableModel);
+        protocolTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        protocolTable.getTableHeader().setFont(protocolTable.getTableHeader().getFont().deriveFont(Font.BOLD));
+        for (int col = 1; col < protocolTableModel.getColumnCount(); col++) {
+            protocolTable.getColumnModel().getColumn(col).setCellRenderer(centerRenderer);
+        }
+        protocolScroll = new JScrollPane(protocolTable);
+        protocolScroll.setPreferredSize(new Dimension(100, 90));
+        protocolScroll.setVisible(false);
+
+        jsContextTableModel = new DefaultTableModel(new String[]{"JS Contexts", "Created", "Reused", "Reuse Rate",
+                "Peak In Use", "Idle"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable jsContextTable = new JTable(jsContextTableModel);
+        jsContextTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        jsContextTable.getTableHeader().setFont(jsContextTable.getTableHeader().getFont().deriveFont(Font.BOLD));
+        for (int col = 1; col < jsContextTableModel.getColumnCount(); col++) {
+            jsContextTable.getColumnModel().getColumn(col).setCellRenderer(centerRenderer);
+        }
+        jsContextScroll = new JScrollPane(jsContextTable);
+        jsContextScroll.setPreferredSize(new Dimension(100, 50));
+        jsContextScroll.setVisible(false);
+
+        JPanel southPanel = new JPanel(new GridLayout(0, 1, 0, 6));
+        southPanel.add(jsContextScroll);
+        southPanel.add(protocolScroll);
+        southPanel.add(phaseScroll);
+        southPanel.add(assertionScroll);
+        add(southPanel, BorderLayout.SOUTH);
     }
 
 
     public void clearReport() {
         reportTableModel.setRowCount(0);
+        assertionTableModel.setRowCount(0);
+        assertionScroll.setVisible(false);
+        phaseTableModel.setRowCount(0);
+        phaseScroll.setVisible(false);
+        protocolTableModel.setRowCount(0);
+        protocolScroll.setVisible(false);
+        jsContextTableModel.setRowCount(0);
+        jsContextScroll.setVisible(false);
     }
 
     private void addReportRow(Object[] rowData) {
@@ -143,85 +246,64 @@ public class PerformanceReportPanel extends JPanel {
         }
     }
 
-    public void updateReport(Map<String, List<Long>> apiCostMap,
-                             Map<String, Integer> apiSuccessMap,
-                             Map<String, Integer> apiFailMap,
-                             List<Long> allRequestStartTimes,
-                             List<RequestResult> allRequestResults) {
+    public void updateReport(PerformanceMetrics metrics) {
         clearReport();
-        int totalApi = 0, totalSuccess = 0, totalFail = 0;
-        long totalP95 = 0, totalP90 = 0, totalMin = Long.MAX_VALUE, totalMax = 0, totalP99 = 0;
-        double totalRate = 0;
+        long spanMs = metrics.getSpanMillis();
         int apiCount = 0;
-        for (String api : apiCostMap.keySet()) {
-            List<Long> costs = apiCostMap.get(api);
-            int apiTotal = costs.size();
-            int apiSuccess = apiSuccessMap.getOrDefault(api, 0);
-            int apiFail = apiFailMap.getOrDefault(api, 0);
-            long apiAvg = apiTotal > 0 ? costs.stream().mapToLong(Long::longValue).sum() / apiTotal : 0;
-            long apiMin = costs.stream().mapToLong(Long::longValue).min().orElse(0);
-            long apiMax = costs.stream().mapToLong(Long::longValue).max().orElse(0);
-            long apiP99 = getP99(costs);
-            long apiP95 = getP95(costs);
-            long apiP90 = getP90(costs);
-            double apiQps = 0;
-            if (!allRequestStartTimes.isEmpty() && !allRequestResults.isEmpty()) {
-                long minStart = Collections.min(allRequestStartTimes);
-                long maxEnd = Collections.max(allRequestResults.stream().map(result -> result.endTime).toList());
-                long spanMs = Math.max(1, maxEnd - minStart);
-                apiQps = apiTotal * 1000.0 / spanMs;
-            }
-            double apiRate = apiTotal > 0 ? (apiSuccess * 100.0 / apiTotal) : 0;
-            addReportRow(new Object[]{api, apiTotal, apiSuccess, apiFail, String.format("%.2f", apiRate) + "%", Math.round(apiQps), apiAvg, apiMin, apiMax, apiP90, apiP95, apiP99});
-            totalApi += apiTotal;
-            totalSuccess += apiSuccess;
-            totalFail += apiFail;
-            totalP95 += apiP95;
-            totalP90 += apiP90;
-            totalMin = Math.min(totalMin, apiMin);
-            totalMax = Math.max(totalMax, apiMax);
-            totalP99 += apiP99;
-            totalRate += apiRate;
+        for (ApiMetrics api : metrics.getApis()) {
+            LatencyHistogram histogram = api.latencySnapshot();
+            addReportRow(buildRow(api.getName(), api.getTotalCount(), api.getSuccessCount(), api.getFailCount(), histogram, spanMs));
             apiCount++;
         }
         if (apiCount > 0) {
-            long avgP99 = totalP99 / apiCount;
-            long avgP95 = totalP95 / apiCount;
-            long avgP90 = totalP90 / apiCount;
-            double avgRate = totalRate / apiCount;
-            double totalQps = 0;
-            if (!allRequestStartTimes.isEmpty() && !allRequestResults.isEmpty()) {
-                long minStart = Collections.min(allRequestStartTimes);
-                long maxEnd = Collections.max(allRequestResults.stream().map(result -> result.endTime).toList());
-                long spanMs = Math.max(1, maxEnd - minStart);
-                totalQps = totalApi * 1000.0 / spanMs;
-            }
-            long avg = totalApi > 0 ? apiCostMap.values().stream().flatMap(List::stream).mapToLong(Long::longValue).sum() / totalApi : 0;
-            addReportRow(new Object[]{TOTAL, totalApi, totalSuccess, totalFail, String.format("%.2f", avgRate) + "%", Math.round(totalQps), avg, totalMin == Long.MAX_VALUE ? 0 : totalMin, totalMax, avgP90, avgP95, avgP99});
+            // 合并所有接口的直方图，得到真实的整体百分位
+            long total = metrics.getTotalCount();
+            long success = metrics.getSuccessCount();
+            addReportRow(buildRow(TOTAL, total, success, total - success, metrics.totalLatencySnapshot(), spanMs));
         }
+        for (PerformanceSummary.AssertionRow row : PerformanceSummary.assertionRows(metrics)) {
+            assertionTableModel.addRow(new Object[]{row.api, row.assertion, row.pass, row.fail,
+                    String.format("%.2f", row.failRate) + "%"});
+        }
+        assertionScroll.setVisible(assertionTableModel.getRowCount() > 0);
+        for (PerformanceSummary.PhaseRow row : PerformanceSummary.phaseRows(metrics)) {
+            phaseTableModel.addRow(new Object[]{row.api, row.phase.getLabel(), row.count, row.avgMs, row.p50Ms,
+                    row.p90Ms, row.p99Ms, row.maxMs,
+                    row.cacheHitRate >= 0 ? String.format("%.2f", row.cacheHitRate) + "%" : "-"});
+        }
+        phaseScroll.setVisible(phaseTableModel.getRowCount() > 0);
+        for (PerformanceSummary.Row row : PerformanceSummary.protocolRows(metrics)) {
+            protocolTableModel.addRow(new Object[]{row.name, row.total, row.success, row.fail,
+                    String.format("%.2f", row.successRate) + "%", Math.round(row.qps), row.avgMs, row.p50Ms,
+                    row.p90Ms, row.p99Ms, row.maxMs});
+        }
+        protocolScroll.setVisible(protocolTableModel.getRowCount() > 0);
+        JsContextUsage js = metrics.getJsContextUsage();
+        if (js != null) {
+            jsContextTableModel.addRow(new Object[]{TOTAL, js.created(), js.reused(),
+                    String.format("%.2f", js.reuseRate()) + "%", js.peakInUse(), js.idle()});
+        }
+        jsContextScroll.setVisible(js != null);
+        revalidate();
     }
 
-    private long getP95(List<Long> costs) {
-        if (costs == null || costs.isEmpty()) return 0;
-        List<Long> sorted = new ArrayList<>(costs);
-        Collections.sort(sorted);
-        int idx = (int) Math.ceil(sorted.size() * 0.95) - 1;
-        return sorted.get(Math.max(idx, 0));
-    }
-
-    private long getP99(List<Long> costs) {
-        if (costs == null || costs.isEmpty()) return 0;
-        List<Long> sorted = new ArrayList<>(costs);
-        Collections.sort(sorted);
-        int idx = (int) Math.ceil(sorted.size() * 0.99) - 1;
-        return sorted.get(Math.max(idx, 0));
+    private Object[] buildRow(String name, long total, long success, long fail, LatencyHistogram histogram, long spanMs) {
+        double rate = total > 0 ? (success * 100.0 / total) : 0;
+        double qps = spanMs > 0 ? total * 1000.0 / spanMs : 0;
+        return new Object[]{name, total, success, fail, String.format("%.2f", rate) + "%", Math.round(qps),
+                toMillis(histogram.getMeanMicros()),
+                toMillis(histogram.getMinMicros()),
+                toMillis(histogram.getMaxMicros()),
+                toMillis(histogram.getValueAtPercentile(50)),
+                toMillis(histogram.getValueAtPercentile(75)),
+                toMillis(histogram.getValueAtPercentile(90)),
+                toMillis(histogram.getValueAtPercentile(95)),
+                toMillis(histogram.getValueAtPercentile(99)),
+                toMillis(histogram.getValueAtPercentile(99.9))};
     }
 
-    private long getP90(List<Long> costs) {
-        if (costs == null || costs.isEmpty()) return 0;
-        List<Long> sorted = new ArrayList<>(costs);
-        Collections.sort(sorted);
-        int idx = (int) Math.ceil(sorted.size() * 0.90) - 1;
-        return sorted.get(Math.max(idx, 0));
+    // 微秒转毫秒，保留两位小数
+    private static double toMillis(double micros) {
+        return Math.round(micros / 10.0) / 100.0;
     }
 }
@@ -6,6 +6,7 @@ import com.laker.postman.model.PreparedRequest;
 import com.laker.postman.panel.performance.component.ResultTreeCellRenderer;
 import com.laker.postman.panel.performance.model.ResultNodeInfo;
 import com.laker.postman.service.render.HttpHtmlRenderer;
+import com.laker.postman.service.setting.SettingManager;
 import com.laker.postman.util.I18nUtil;
 import com.laker.postman.util.MessageKeys;
 import lombok.extern.slf4j.Slf4j;
@@ -14,19 +15,47 @@ import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import java.awt.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 结果树面板
  * 包含搜索框、结果树和详情区域
+ * <p>
+ * 压测线程只把结果放入无锁队列，EDT 按固定周期批量取出并增量插入节点，
+ * 结果树最多保留 maxNodes 个节点，且估算内存不超过 maxBytes，超出后淘汰最早的节点
  */
 @Slf4j
 public class PerformanceResultTreePanel extends JPanel {
 
+    // EDT 批量刷新周期
+    private static final int FLUSH_INTERVAL_MS = 200;
+
+    // 待刷新到结果树的节点，压测线程写入，EDT 取出
+    private final ConcurrentLinkedQueue<ResultNodeInfo> pendingResults = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final Timer flushTimer = new Timer(FLUSH_INTERVAL_MS, e -> flushPendingResults());
+
+    private volatile int maxNodes = SettingManager.getPerformanceResultTreeMaxNodes();
+
+    private volatile long maxBytes = SettingManager.getPerformanceResultTreeMaxMb() * 1024L * 1024L;
+
+    // 结果树中节点的估算内存，仅 EDT 访问
+    private long treeBytes;
+
     private JTree resultTree;
 
     private DefaultTreeModel resultTreeModel;
 
-    private DefaultMutableTreeNode resultRootNode;
+    private ResultRootNode resultRootNode;
 
     private JTabbedPane resultDetailTabbedPane;
 
@@ -48,7 +77,7 @@ public class PerformanceResultTreePanel extends JPanel {
         searchPanel.add(searchField, BorderLayout.CENTER);
 
         // 结果树
-        resultRootNode = new DefaultMutableTreeNode(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TAB_RESULT_TREE));
+        resultRootNode = new ResultRootNode(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TAB_RESULT_TREE));
         resultTreeModel = new DefaultTreeModel(resultRootNode);
         resultTree = new JTree(resultTreeModel);
         resultTree.setRootVisible(true);
@@ -167,7 +196,7 @@ public class PerformanceResultTreePanel extends JPanel {
     }
 
     /**
-     * 添加结果节点
+     * 添加结果节点，可在任意线程调用，节点在下一个刷新周期批量加入结果树
      *
      * @param nodeInfo      结果节点信息
      * @param efficientMode 是否为高效模式（只记录失败结果）
@@ -176,21 +205,139 @@ public class PerformanceResultTreePanel extends JPanel {
         if (nodeInfo == null) return;
         if (efficientMode && nodeInfo.success) return; // 高效模式下只记录失败结果
 
-        DefaultMutableTreeNode reqNode = new DefaultMutableTreeNode(nodeInfo);
-        SwingUtilities.invokeLater(() -> {
-            resultRootNode.add(reqNode);
-            resultTreeModel.reload(resultRootNode);
-        });
+        pendingResults.offer(nodeInfo);
+        pendingCount.incrementAndGet();
+        pendingBytes.addAndGet(nodeInfo.retainedBytes);
+        // 队列同样受节点数和内存上限约束，EDT 跟不上时丢弃最早的待刷新结果
+        ResultNodeInfo oldest;
+        while ((pendingCount.get() > maxNodes || pendingBytes.get() > maxBytes)
+                && (oldest = pendingResults.poll()) != null) {
+            pendingCount.decrementAndGet();
+            pendingBytes.addAndGet(-oldest.retainedBytes);
+        }
+        if (!flushScheduled.get() && flushScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(flushTimer::start);
+        }
+    }
+
+    /**
+     * 设置结果树最多保留的节点数，下一个刷新周期生效
+     */
+    public void setMaxNodes(int maxNodes) {
+        this.maxNodes = Math.max(1, maxNodes);
+    }
+
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    // EDT 上执行：批量插入待刷新节点，并淘汰超出上限的最早节点
+    private void flushPendingResults() {
+        int count = pendingCount.get();
+        if (count == 0) {
+            // 无待刷新结果时停止定时器，下次 addResult 再启动
+            flushTimer.stop();
+            flushScheduled.set(false);
+            if (!pendingResults.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+                flushTimer.start();
+            }
+            return;
+        }
+        int limit = maxNodes;
+        DefaultMutableTreeNode[] batch = new DefaultMutableTreeNode[Math.min(count, limit)];
+        int size = 0;
+        ResultNodeInfo info;
+        while (size < count && (info = pendingResults.poll()) != null) {
+            pendingCount.decrementAndGet();
+            pendingBytes.addAndGet(-info.retainedBytes);
+            // 本批次超过上限时只保留最新的 limit 个
+            batch[size % batch.length] = new DefaultMutableTreeNode(info);
+            size++;
+        }
+        if (size == 0) return;
+
+        boolean visible = resultTreeModel.getRoot() == resultRootNode; // 搜索过滤时结果树显示的是过滤后的副本
+        boolean wasEmpty = resultRootNode.getChildCount() == 0;
+        int added = Math.min(size, batch.length);
+        long addedBytes = 0;
+        for (int i = 0; i < added; i++) {
+            addedBytes += ((ResultNodeInfo) batch[i].getUserObject()).retainedBytes;
+        }
+        evictOldest(resultRootNode.getChildCount() + added - limit, treeBytes + addedBytes - maxBytes, visible);
+
+        int start = resultRootNode.getChildCount();
+        int[] indices = new int[added];
+        for (int i = 0; i < added; i++) {
+            // 环形写入后，size % length 位置为最早的节点
+            int slot = size > batch.length ? (size + i) % batch.length : i;
+            resultRootNode.add(batch[slot]);
+            indices[i] = start + i;
+        }
+        treeBytes += addedBytes;
+        if (visible) {
+            resultTreeModel.nodesWereInserted(resultRootNode, indices);
+            if (wasEmpty) {
+                resultTree.expandRow(0);
+            }
+        }
+    }
+
+    // 淘汰最早的节点，直到至少移除 evictCount 个节点且释放 evictBytes 字节
+    private void evictOldest(int evictCount, long evictBytes, boolean visible) {
+        if (evictCount <= 0 && evictBytes <= 0) return;
+        int childCount = resultRootNode.getChildCount();
+        int n = 0;
+        long freed = 0;
+        while (n < childCount && (n < evictCount || freed < evictBytes)) {
+            DefaultMutableTreeNode child = (DefaultMutableTreeNode) resultRootNode.getChildAt(n);
+            freed += ((ResultNodeInfo) child.getUserObject()).retainedBytes;
+            n++;
+        }
+        if (n == 0) return;
+        int[] indices = new int[n];
+        Object[] removed = new Object[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+            removed[i] = resultRootNode.getChildAt(i);
+        }
+        resultRootNode.removeFirst(n);
+        treeBytes -= freed;
+        if (visible) {
+            resultTreeModel.nodesWereRemoved(resultRootNode, indices, removed);
+        }
     }
 
     /**
      * 清空结果树
      */
     public void clearResults() {
+        pendingResults.clear();
+        pendingCount.set(0);
+        pendingBytes.set(0);
+        treeBytes = 0;
+        maxNodes = SettingManager.getPerformanceResultTreeMaxNodes();
+        maxBytes = SettingManager.getPerformanceResultTreeMaxMb() * 1024L * 1024L;
         resultRootNode.removeAllChildren();
         resultTreeModel.reload();
         resultTree.clearSelection();
         clearDetailTabs();
     }
 
-}
\ No newline at end of file
+    /**
+     * 结果树根节点，支持一次性移除最早的若干子节点，避免逐个删除时反复移动数组
+     */
+    private static class ResultRootNode extends DefaultMutableTreeNode {
+
+        ResultRootNode(Object userObject) {
+            super(userObject);
+        }
+
+        void removeFirst(int n) {
+            if (children == null || n <= 0) return;
+            for (int i = 0; i < n; i++) {
+                ((DefaultMutableTreeNode) children.get(i)).setParent(null);
+            }
+            children.subList(0, n).clear();
+        }
+    }
+}
@@ -25,6 +25,11 @@ public class PerformanceTrendPanel extends SingletonBasePanel {
     private final TimeSeries responseTimeSeries = new TimeSeries(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_RESPONSE_TIME_MS));
     private final TimeSeries qpsSeries = new TimeSeries(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_QPS));
     private final TimeSeries errorPercentSeries = new TimeSeries(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_ERROR_RATE_PERCENT));
+    // 连接池：区分连接抖动与服务端延迟，默认不显示
+    private final TimeSeries openConnectionSeries = new TimeSeries(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_OPEN_CONNECTIONS));
+    private final TimeSeries idleConnectionSeries = new TimeSeries(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_IDLE_CONNECTIONS));
+    private final TimeSeries inUseConnectionSeries = new TimeSeries(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_IN_USE_CONNECTIONS));
+    private final TimeSeries newConnectionSeries = new TimeSeries(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_NEW_CONNECTIONS));
 
     @Override
     protected void initUI() {
@@ -37,7 +42,9 @@ public class PerformanceTrendPanel extends SingletonBasePanel {
         checkBoxPanel.add(threadsCheckBox);
         checkBoxPanel.add(responseTimeCheckBox);
         checkBoxPanel.add(qpsCheckBox);
+        JCheckBox connectionsCheckBox = new JCheckBox(I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_CONNECTIONS), false);
         checkBoxPanel.add(errorRateCheckBox);
+        checkBoxPanel.add(connectionsCheckBox);
         JFreeChart trendChart = ChartFactory.createTimeSeriesChart(
                 I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_CHART_TITLE),
                 I18nUtil.getMessage(MessageKeys.PERFORMANCE_TREND_TIME),
@@ -52,6 +59,7 @@ public class PerformanceTrendPanel extends SingletonBasePanel {
         Color responseTime = new Color(7, 123, 237);
         Color errorPercent = new Color(236, 38, 26);
         Color userCount = new Color(25, 23, 23);
+        Color[] connectionColors = {new Color(46, 139, 87), new Color(144, 190, 109), new Color(148, 103, 189), new Color(255, 105, 180)};
         XYLineAndShapeRenderer renderer = (XYLineAndShapeRenderer) plot.getRenderer();
         renderer.setSeriesPaint(0, userCount);
         renderer.setSeriesPaint(1, responseTime);
@@ -86,15 +94,23 @@ public class PerformanceTrendPanel extends SingletonBasePanel {
             }
             if (errorRateCheckBox.isSelected()) {
                 trendDataset.addSeries(errorPercentSeries);
-                renderer.setSeriesPaint(seriesIndex, errorPercent);
+                renderer.setSeriesPaint(seriesIndex++, errorPercent);
+            }
+            if (connectionsCheckBox.isSelected()) {
+                TimeSeries[] connectionSeries = {openConnectionSeries, idleConnectionSeries, inUseConnectionSeries, newConnectionSeries};
+                for (int i = 0; i < connectionSeries.length; i++) {
+                    trendDataset.addSeries(connectionSeries[i]);
+                    renderer.setSeriesPaint(seriesIndex++, connectionColors[i]);
+                }
             }
             updateYAxisLabel(plot, threadsCheckBox.isSelected(), responseTimeCheckBox.isSelected(),
-                    qpsCheckBox.isSelected(), errorRateCheckBox.isSelected());
+                    qpsCheckBox.isSelected(), errorRateCheckBox.isSelected(), connectionsCheckBox.isSelected());
         };
         threadsCheckBox.addActionListener(checkBoxListener);
         responseTimeCheckBox.addActionListener(checkBoxListener);
         qpsCheckBox.addActionListener(checkBoxListener);
         errorRateCheckBox.addActionListener(checkBoxListener);
+        connectionsCheckBox.addActionListener(checkBoxListener);
         trendDataset.addSeries(userCountSeries);
         trendDataset.addSeries(responseTimeSeries);
         trendDataset.addSeries(qpsSeries);
@@ -117,8 +133,8 @@ public class PerformanceTrendPanel extends SingletonBasePanel {
     }
 
     private void updateYAxisLabel(XYPlot plot, boolean threadsSelected, boolean responseTimeSelected,
-                                  boolean qpsSelected, boolean errorRateSelected) {
-        int selectedCount = 0;
+                                  boolean qpsSelected, boolean errorRateSelected, boolean connectionsSelected) {
+        int selectedCount = connectionsSelected ? 2 : 0; // 连接池包含多条曲线
         if (threadsSelected) selectedCount++;
         if (responseTimeSelected) selectedCount++;
         if (qpsSelected) selectedCount++;
@@ -162,6 +178,10 @@ public class PerformanceTrendPanel extends SingletonBasePanel {
         responseTimeSeries.clear();
         qpsSeries.clear();
         errorPercentSeries.clear();
+        openConnectionSeries.clear();
+        idleConnectionSeries.clear();
+        inUseConnectionSeries.clear();
+        newConnectionSeries.clear();
     }
 
     public void addOrUpdate(RegularTimePeriod period, double users,
@@ -172,4 +192,12 @@ public class PerformanceTrendPanel extends SingletonBasePanel {
         qpsSeries.addOrUpdate(period, qps);
         errorPercentSeries.addOrUpdate(period, errorPercent);
     }
+
+    public void addOrUpdateConnections(RegularTimePeriod period, int open, int idle, int inUse, double newPerSecond) {
+        if (period == null) return;
+        openConnectionSeries.addOrUpdate(period, open);
+        idleConnectionSeries.addOrUpdate(period, idle);
+        inUseConnectionSeries.addOrUpdate(period, inUse);
+        newConnectionSeries.addOrUpdate(period, newPerSecond);
+    }
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.laker.postman.panel.performance.threadgroup;
 
 import com.laker.postman.util.I18nUtil;
 import com.laker.postman.util.MessageKeys;
+import okhttp3.Protocol;
+
+import java.util.List;
 
 /**
  * 线程组数据模型，支持多种线程模式
@@ -12,7 +15,8 @@ public class ThreadGroupData {
         FIXED(MessageKeys.THREADGROUP_MODE_FIXED),           // 固定线程数
         RAMP_UP(MessageKeys.THREADGROUP_MODE_RAMP_UP),       // 递增线程数
         SPIKE(MessageKeys.THREADGROUP_MODE_SPIKE),           // 尖刺模式
-        STAIRS(MessageKeys.THREADGROUP_MODE_STAIRS);         // 阶梯模式
+        STAIRS(MessageKeys.THREADGROUP_MODE_STAIRS),         // 阶梯模式
+        ARRIVAL_RATE(MessageKeys.THREADGROUP_MODE_ARRIVAL_RATE); // 到达率模式（按速率发起迭代）
 
         private final String messageKey;
 
@@ -30,12 +34,92 @@ public class ThreadGroupData {
         }
     }
 
+    // 虚拟用户的执行方式
+    public enum ExecutorType {
+        PLATFORM(MessageKeys.THREADGROUP_EXECUTOR_PLATFORM), // 平台线程，每个用户一个系统线程
+        VIRTUAL(MessageKeys.THREADGROUP_EXECUTOR_VIRTUAL),   // 虚拟线程（Java 21+），适合数万并发用户
+        ASYNC(MessageKeys.THREADGROUP_EXECUTOR_ASYNC);       // 异步回调，用户不占用线程，由少量工作线程驱动
+
+        private final String messageKey;
+
+        ExecutorType(String messageKey) {
+            this.messageKey = messageKey;
+        }
+
+        public String getDisplayName() {
+            return I18nUtil.getMessage(messageKey);
+        }
+
+        @Override
+        public String toString() {
+            return getDisplayName();
+        }
+    }
+
+    // 请求使用的传输协议
+    public enum Transport {
+        HTTP_1_1(MessageKeys.THREADGROUP_TRANSPORT_HTTP1, List.of(Protocol.HTTP_1_1)),              // 仅 HTTP/1.1
+        HTTP_2(MessageKeys.THREADGROUP_TRANSPORT_HTTP2, List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)), // TLS 下通过 ALPN 协商 HTTP/2，明文为 HTTP/1.1
+        H2C(MessageKeys.THREADGROUP_TRANSPORT_H2C, List.of(Protocol.H2_PRIOR_KNOWLEDGE));            // 明文 HTTP/2（prior knowledge），仅支持 http://
+
+        private final String messageKey;
+        private final List<Protocol> protocols;
+
+        Transport(String messageKey, List<Protocol> protocols) {
+            this.messageKey = messageKey;
+            this.protocols = protocols;
+        }
+
+        public List<Protocol> getProtocols() {
+            return protocols;
+        }
+
+        public boolean isMultiplexed() {
+            return this != HTTP_1_1;
+        }
+
+        public String getDisplayName() {
+            return I18nUtil.getMessage(messageKey);
+        }
+
+        @Override
+        public String toString() {
+            return getDisplayName();
+        }
+    }
+
+    // 虚拟用户的 Cookie 存储方式
+    public enum CookieMode {
+        GLOBAL(MessageKeys.THREADGROUP_COOKIE_GLOBAL),                     // 与界面共用全局 Cookie，所有用户同一会话
+        VIRTUAL_USER(MessageKeys.THREADGROUP_COOKIE_VIRTUAL_USER),         // 每个用户独立，从空开始
+        VIRTUAL_USER_SEEDED(MessageKeys.THREADGROUP_COOKIE_VIRTUAL_USER_SEEDED); // 每个用户独立，初始复制一份全局 Cookie
+
+        private final String messageKey;
+
+        CookieMode(String messageKey) {
+            this.messageKey = messageKey;
+        }
+
+        public String getDisplayName() {
+            return I18nUtil.getMessage(messageKey);
+        }
+
+        @Override
+        public String toString() {
+            return getDisplayName();
+        }
+    }
+
     // 公共属性
+    public ExecutorType executorType = ExecutorType.PLATFORM; // 默认平台线程
     public ThreadMode threadMode = ThreadMode.FIXED;  // 默认固定线程数
     public int numThreads = 20;                        // 固定模式-默认用户数
     public int duration = 60;                         // 所有模式-默认持续时间(秒)
     public int loops = 1;                             // 固定模式-默认循环次数
     public boolean useTime = true;                   // 是否使用时间而不是循环次数
+    public Transport transport = Transport.HTTP_2;    // 默认 ALPN 协商，与普通请求一致
+    public int maxStreamsPerConnection = 0;           // HTTP/2 每个连接承载的并发流数，0 表示不限制（由服务端决定）
+    public CookieMode cookieMode = CookieMode.GLOBAL;  // 默认与界面共用全局 Cookie，已保存的计划行为不变
 
     // 递增模式属性
     public int rampUpStartThreads = 1;                // 递增起始线程数
@@ -58,4 +142,11 @@ public class ThreadGroupData {
     public int stairsStep = 5;                        // 阶梯步长
     public int stairsHoldTime = 15;                   // 每阶段保持时间(秒)
     public int stairsDuration = 60;                  // 阶梯模式总测试持续时间(秒)
-}
\ No newline at end of file
+
+    // 到达率模式属性：按计划速率发起迭代，不受服务端快慢影响
+    public int arrivalStartRate = 10;                 // 起始速率(迭代/秒)
+    public int arrivalTargetRate = 50;                // 目标速率(迭代/秒)
+    public int arrivalRampTime = 30;                  // 速率爬升时间(秒)，0表示恒定速率
+    public int arrivalDuration = 60;                  // 到达率模式总测试持续时间(秒)
+    public int arrivalMaxUsers = 500;                 // 虚拟用户池上限
+}
@@ -1,6 +1,8 @@
 package com.laker.postman.panel.performance.threadgroup;
 
 import com.laker.postman.panel.performance.model.JMeterTreeNode;
+import com.laker.postman.service.performance.engine.AsyncSampleExecutor;
+import com.laker.postman.service.performance.engine.VirtualUserThreads;
 import com.laker.postman.util.I18nUtil;
 import com.laker.postman.util.MessageKeys;
 
@@ -12,7 +14,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ThreadGroupPropertyPanel extends JPanel {
+    // 单个线程组的最大用户数，虚拟线程模式下可以支持数万用户
+    private static final int MAX_USERS = 100000;
+
     private final JComboBox<ThreadGroupData.ThreadMode> modeComboBox;
+    private final JComboBox<ThreadGroupData.ExecutorType> executorComboBox;
+    private final JComboBox<ThreadGroupData.Transport> transportComboBox;
+    private final JSpinner maxStreamsSpinner;
+    private final JComboBox<ThreadGroupData.CookieMode> cookieModeComboBox;
     private final CardLayout cardLayout;
     private final JPanel cardPanel;
     private JMeterTreeNode currentNode;
@@ -48,6 +57,14 @@ public class ThreadGroupPropertyPanel extends JPanel {
     private final JSpinner stairsHoldTimeSpinner;
     private final JSpinner stairsDurationSpinner;
 
+    // 到达率模式面板组件
+    private final JPanel arrivalPanel;
+    private final JSpinner arrivalStartRateSpinner;
+    private final JSpinner arrivalTargetRateSpinner;
+    private final JSpinner arrivalRampTimeSpinner;
+    private final JSpinner arrivalMaxUsersSpinner;
+    private final JSpinner arrivalDurationSpinner;
+
     // 负载模式预览相关
     private final ThreadLoadPreviewPanel previewPanel;
 
@@ -61,6 +78,60 @@ public class ThreadGroupPropertyPanel extends JPanel {
         modeComboBox = new JComboBox<>(ThreadGroupData.ThreadMode.values());
         modeComboBox.setPreferredSize(new Dimension(150, 28));
         topPanel.add(modeComboBox);
+        topPanel.add(Box.createHorizontalStrut(10));
+        topPanel.add(new JLabel(I18nUtil.getMessage(MessageKeys.THREADGROUP_EXECUTOR_LABEL)));
+        executorComboBox = new JComboBox<>(ThreadGroupData.ExecutorType.values());
+        executorComboBox.setPreferredSize(new Dimension(150, 28));
+        if (!VirtualUserThreads.isVirtualThreadSupported()) {
+            // 当前 JDK 不支持虚拟线程时明确标出会退回平台线程，异步模式的在途请求数受平台线程数限制
+            executorComboBox.setRenderer(new DefaultListCellRenderer() {
+                @Override
+                public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                    Component c = super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                    if (value == ThreadGroupData.ExecutorType.VIRTUAL) {
+                        setText(I18nUtil.getMessage(MessageKeys.THREADGROUP_EXECUTOR_VIRTUAL_UNSUPPORTED));
+                        if (!isSelected) {
+                            setForeground(UIManager.getColor("Label.disabledForeground"));
+                        }
+                    }
+                    return c;
+                }
+            });
+            executorComboBox.addActionListener(e -> {
+                Object selected = executorComboBox.getSelectedItem();
+                int javaVersion = Runtime.version().feature();
+                String tooltip = null;
+                if (selected == ThreadGroupData.ExecutorType.VIRTUAL) {
+                    tooltip = I18nUtil.getMessage(MessageKeys.THREADGROUP_EXECUTOR_VIRTUAL_UNSUPPORTED_TOOLTIP, javaVersion);
+                } else if (selected == ThreadGroupData.ExecutorType.ASYNC) {
+                    tooltip = I18nUtil.getMessage(MessageKeys.THREADGROUP_EXECUTOR_ASYNC_LIMITED_TOOLTIP,
+                            javaVersion, AsyncSampleExecutor.FALLBACK_HTTP_THREADS);
+                }
+                executorComboBox.setToolTipText(tooltip);
+            });
+        }
+        topPanel.add(executorComboBox);
+        topPanel.add(Box.createHorizontalStrut(10));
+        topPanel.add(new JLabel(I18nUtil.getMessage(MessageKeys.THREADGROUP_TRANSPORT_LABEL)));
+        transportComboBox = new JComboBox<>(ThreadGroupData.Transport.values());
+        transportComboBox.setPreferredSize(new Dimension(160, 28));
+        topPanel.add(transportComboBox);
+        topPanel.add(new JLabel(I18nUtil.getMessage(MessageKeys.THREADGROUP_TRANSPORT_MAX_STREAMS)));
+        maxStreamsSpinner = new JSpinner(new SpinnerNumberModel(0, 0, MAX_USERS, 10));
+        maxStreamsSpinner.setPreferredSize(new Dimension(80, 28));
+        maxStreamsSpinner.setToolTipText(I18nUtil.getMessage(MessageKeys.THREADGROUP_TRANSPORT_MAX_STREAMS_TOOLTIP));
+        topPanel.add(maxStreamsSpinner);
+        // 每连接流数只对 HTTP/2 生效
+        transportComboBox.addActionListener(e -> {
+            ThreadGroupData.Transport transport = (ThreadGroupData.Transport) transportComboBox.getSelectedItem();
+            maxStreamsSpinner.setEnabled(transport != null && transport.isMultiplexed());
+        });
+        topPanel.add(Box.createHorizontalStrut(10));
+        topPanel.add(new JLabel(I18nUtil.getMessage(MessageKeys.THREADGROUP_COOKIE_LABEL)));
+        cookieModeComboBox = new JComboBox<>(ThreadGroupData.CookieMode.values());
+        cookieModeComboBox.setPreferredSize(new Dimension(180, 28));
+        cookieModeComboBox.setToolTipText(I18nUtil.getMessage(MessageKeys.THREADGROUP_COOKIE_TOOLTIP));
+        topPanel.add(cookieModeComboBox);
 
         // 中间部分：左侧配置面板，右侧预览图
         JPanel mainPanel = new JPanel(new BorderLayout(10, 0));
@@ -76,7 +147,7 @@ public class ThreadGroupPropertyPanel extends JPanel {
         // 1. 固定模式面板
         fixedPanel = new JPanel(new GridBagLayout());
         fixedPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-        fixedNumThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 1000, 1));
+        fixedNumThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_USERS, 1));
         fixedNumThreadsSpinner.setPreferredSize(new Dimension(80, 28));
         fixedLoopsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 100000, 1));
         fixedLoopsSpinner.setPreferredSize(new Dimension(80, 28));
@@ -87,9 +158,9 @@ public class ThreadGroupPropertyPanel extends JPanel {
         // 2. 递增模式面板
         rampUpPanel = new JPanel(new GridBagLayout());
         rampUpPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-        rampUpStartThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 1000, 1));
+        rampUpStartThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_USERS, 1));
         rampUpStartThreadsSpinner.setPreferredSize(new Dimension(80, 28));
-        rampUpEndThreadsSpinner = new JSpinner(new SpinnerNumberModel(10, 1, 1000, 1));
+        rampUpEndThreadsSpinner = new JSpinner(new SpinnerNumberModel(10, 1, MAX_USERS, 1));
         rampUpEndThreadsSpinner.setPreferredSize(new Dimension(80, 28));
         rampUpTimeSpinner = new JSpinner(new SpinnerNumberModel(30, 1, 3600, 5));
         rampUpTimeSpinner.setPreferredSize(new Dimension(80, 28));
@@ -99,9 +170,9 @@ public class ThreadGroupPropertyPanel extends JPanel {
         // 3. 尖刺模式面板
         spikePanel = new JPanel(new GridBagLayout());
         spikePanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-        spikeMinThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 1000, 1));
+        spikeMinThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_USERS, 1));
         spikeMinThreadsSpinner.setPreferredSize(new Dimension(80, 28));
-        spikeMaxThreadsSpinner = new JSpinner(new SpinnerNumberModel(20, 1, 1000, 1));
+        spikeMaxThreadsSpinner = new JSpinner(new SpinnerNumberModel(20, 1, MAX_USERS, 1));
         spikeMaxThreadsSpinner.setPreferredSize(new Dimension(80, 28));
         spikeRampUpTimeSpinner = new JSpinner(new SpinnerNumberModel(10, 1, 3600, 1));
         spikeRampUpTimeSpinner.setPreferredSize(new Dimension(80, 28));
@@ -115,28 +186,44 @@ public class ThreadGroupPropertyPanel extends JPanel {
         // 4. 阶梯模式面板
         stairsPanel = new JPanel(new GridBagLayout());
         stairsPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-        stairsStartThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 1000, 1));
+        stairsStartThreadsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_USERS, 1));
         stairsStartThreadsSpinner.setPreferredSize(new Dimension(80, 28));
-        stairsEndThreadsSpinner = new JSpinner(new SpinnerNumberModel(20, 1, 1000, 1));
+        stairsEndThreadsSpinner = new JSpinner(new SpinnerNumberModel(20, 1, MAX_USERS, 1));
         stairsEndThreadsSpinner.setPreferredSize(new Dimension(80, 28));
-        stairsStepSpinner = new JSpinner(new SpinnerNumberModel(5, 1, 100, 1));
+        stairsStepSpinner = new JSpinner(new SpinnerNumberModel(5, 1, 10000, 1));
         stairsStepSpinner.setPreferredSize(new Dimension(80, 28));
         stairsHoldTimeSpinner = new JSpinner(new SpinnerNumberModel(10, 1, 3600, 1));
         stairsHoldTimeSpinner.setPreferredSize(new Dimension(80, 28));
         stairsDurationSpinner = new JSpinner(new SpinnerNumberModel(240, 1, 86400, 10));
         stairsDurationSpinner.setPreferredSize(new Dimension(80, 28));
 
+        // 5. 到达率模式面板
+        arrivalPanel = new JPanel(new GridBagLayout());
+        arrivalPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        arrivalStartRateSpinner = new JSpinner(new SpinnerNumberModel(10, 1, MAX_USERS, 1));
+        arrivalStartRateSpinner.setPreferredSize(new Dimension(80, 28));
+        arrivalTargetRateSpinner = new JSpinner(new SpinnerNumberModel(50, 1, MAX_USERS, 1));
+        arrivalTargetRateSpinner.setPreferredSize(new Dimension(80, 28));
+        arrivalRampTimeSpinner = new JSpinner(new SpinnerNumberModel(30, 0, 3600, 5));
+        arrivalRampTimeSpinner.setPreferredSize(new Dimension(80, 28));
+        arrivalMaxUsersSpinner = new JSpinner(new SpinnerNumberModel(500, 1, MAX_USERS, 10));
+        arrivalMaxUsersSpinner.setPreferredSize(new Dimension(80, 28));
+        arrivalDurationSpinner = new JSpinner(new SpinnerNumberModel(60, 1, 86400, 10));
+        arrivalDurationSpinner.setPreferredSize(new Dimension(80, 28));
+
         // 设置各个面板的布局
         setupFixedPanel();
         setupRampUpPanel();
         setupSpikePanel();
         setupStairsPanel();
+        setupArrivalPanel();
 
         // 添加所有面板到卡片布局
         cardPanel.add(fixedPanel, ThreadGroupData.ThreadMode.FIXED.name());
         cardPanel.add(rampUpPanel, ThreadGroupData.ThreadMode.RAMP_UP.name());
         cardPanel.add(spikePanel, ThreadGroupData.ThreadMode.SPIKE.name());
         cardPanel.add(stairsPanel, ThreadGroupData.ThreadMode.STAIRS.name());
+        cardPanel.add(arrivalPanel, ThreadGroupData.ThreadMode.ARRIVAL_RATE.name());
 
         // 默认显示固定模式面板
         cardLayout.show(cardPanel, ThreadGroupData.ThreadMode.FIXED.name());
@@ -354,6 +441,50 @@ public class ThreadGroupPropertyPanel extends JPanel {
         stairsPanel.add(stairsDurationSpinner, gbc);
     }
 
+    // 设置到达率模式面板
+    private void setupArrivalPanel() {
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(3, 5, 3, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.anchor = GridBagConstraints.WEST;
+
+        // 第一行
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        arrivalPanel.add(new JLabel(I18nUtil.getMessage(MessageKeys.THREADGROUP_ARRIVAL_START_RATE), SwingConstants.RIGHT), gbc);
+
+        gbc.gridx = 1;
+        arrivalPanel.add(arrivalStartRateSpinner, gbc);
+
+        gbc.gridx = 2;
+        arrivalPanel.add(new JLabel(I18nUtil.getMessage(MessageKeys.THREADGROUP_ARRIVAL_TARGET_RATE), SwingConstants.RIGHT), gbc);
+
+        gbc.gridx = 3;
+        arrivalPanel.add(arrivalTargetRateSpinner, gbc);
+
+        // 第二行
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        arrivalPanel.add(new JLabel(I18nUtil.getMessage(MessageKeys.THREADGROUP_ARRIVAL_RAMP_TIME), SwingConstants.RIGHT), gbc);
+
+        gbc.gridx = 1;
+        arrivalPanel.add(arrivalRampTimeSpinner, gbc);
+
+        gbc.gridx = 2;
+        arrivalPanel.add(new JLabel(I18nUtil.getMessage(MessageKeys.THREADGROUP_ARRIVAL_MAX_USERS), SwingConstants.RIGHT), gbc);
+
+        gbc.gridx = 3;
+        arrivalPanel.add(arrivalMaxUsersSpinner, gbc);
+
+        // 第三行
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        arrivalPanel.add(new JLabel(I18nUtil.getMessage(MessageKeys.THREADGROUP_ARRIVAL_TEST_DURATION), SwingConstants.RIGHT), gbc);
+
+        gbc.gridx = 1;
+        arrivalPanel.add(arrivalDurationSpinner, gbc);
+    }
+
     private void addPreviewUpdateListeners() {
         // 模式选择变化监听
         modeComboBox.addActionListener(e -> updatePreview());
@@ -384,6 +515,12 @@ public class ThreadGroupPropertyPanel extends JPanel {
         stairsStepSpinner.addChangeListener(e -> updatePreview());
         stairsHoldTimeSpinner.addChangeListener(e -> updatePreview());
         stairsDurationSpinner.addChangeListener(e -> updatePreview());
+
+        // 到达率模式参数变化监听
+        arrivalStartRateSpinner.addChangeListener(e -> updatePreview());
+        arrivalTargetRateSpinner.addChangeListener(e -> updatePreview());
+        arrivalRampTimeSpinner.addChangeListener(e -> updatePreview());
+        arrivalDurationSpinner.addChangeListener(e -> updatePreview());
     }
 
     private void updatePreview() {
@@ -424,6 +561,13 @@ public class ThreadGroupPropertyPanel extends JPanel {
                 previewData.stairsHoldTime = (Integer) stairsHoldTimeSpinner.getValue();
                 previewData.stairsDuration = (Integer) stairsDurationSpinner.getValue();
                 break;
+
+            case ARRIVAL_RATE:
+                previewData.arrivalStartRate = (Integer) arrivalStartRateSpinner.getValue();
+                previewData.arrivalTargetRate = (Integer) arrivalTargetRateSpinner.getValue();
+                previewData.arrivalRampTime = (Integer) arrivalRampTimeSpinner.getValue();
+                previewData.arrivalDuration = (Integer) arrivalDurationSpinner.getValue();
+                break;
         }
 
         previewPanel.setPreviewData(previewData);
@@ -441,6 +585,10 @@ public class ThreadGroupPropertyPanel extends JPanel {
 
         // 设置模式
         modeComboBox.setSelectedItem(data.threadMode);
+        executorComboBox.setSelectedItem(data.executorType);
+        transportComboBox.setSelectedItem(data.transport);
+        maxStreamsSpinner.setValue(data.maxStreamsPerConnection);
+        cookieModeComboBox.setSelectedItem(data.cookieMode);
         cardLayout.show(cardPanel, data.threadMode.name());
 
         // 设置固定模式参数
@@ -474,6 +622,13 @@ public class ThreadGroupPropertyPanel extends JPanel {
         stairsHoldTimeSpinner.setValue(data.stairsHoldTime);
         stairsDurationSpinner.setValue(data.stairsDuration);
 
+        // 设置到达率模式参数
+        arrivalStartRateSpinner.setValue(data.arrivalStartRate);
+        arrivalTargetRateSpinner.setValue(data.arrivalTargetRate);
+        arrivalRampTimeSpinner.setValue(data.arrivalRampTime);
+        arrivalMaxUsersSpinner.setValue(data.arrivalMaxUsers);
+        arrivalDurationSpinner.setValue(data.arrivalDuration);
+
         // 更新预览图
         updatePreview();
     }
@@ -488,6 +643,10 @@ public class ThreadGroupPropertyPanel extends JPanel {
 
         // 保存模式
         data.threadMode = (ThreadGroupData.ThreadMode) modeComboBox.getSelectedItem();
+        data.executorType = (ThreadGroupData.ExecutorType) executorComboBox.getSelectedItem();
+        data.transport = (ThreadGroupData.Transport) transportComboBox.getSelectedItem();
+        data.maxStreamsPerConnection = (Integer) maxStreamsSpinner.getValue();
+        data.cookieMode = (ThreadGroupData.CookieMode) cookieModeComboBox.getSelectedItem();
 
         // 保存固定模式参数
         data.numThreads = (Integer) fixedNumThreadsSpinner.getValue();
@@ -515,6 +674,13 @@ public class ThreadGroupPropertyPanel extends JPanel {
         data.stairsStep = (Integer) stairsStepSpinner.getValue();
         data.stairsHoldTime = (Integer) stairsHoldTimeSpinner.getValue();
         data.stairsDuration = (Integer) stairsDurationSpinner.getValue();
+
+        // 保存到达率模式参数
+        data.arrivalStartRate = (Integer) arrivalStartRateSpinner.getValue();
+        data.arrivalTargetRate = (Integer) arrivalTargetRateSpinner.getValue();
+        data.arrivalRampTime = (Integer) arrivalRampTimeSpinner.getValue();
+        data.arrivalMaxUsers = (Integer) arrivalMaxUsersSpinner.getValue();
+        data.arrivalDuration = (Integer) arrivalDurationSpinner.getValue();
     }
 
     // 预览数据模型
@@ -543,6 +709,11 @@ public class ThreadGroupPropertyPanel extends JPanel {
         int stairsStep;
         int stairsHoldTime;
         int stairsDuration;
+        // 到达率模式（纵轴为迭代速率）
+        int arrivalStartRate;
+        int arrivalTargetRate;
+        int arrivalRampTime;
+        int arrivalDuration;
     }
 
     // 预览面板实现
@@ -690,6 +861,9 @@ public class ThreadGroupPropertyPanel extends JPanel {
                 case STAIRS:
                     actualMax = previewData.stairsEndThreads;
                     break;
+                case ARRIVAL_RATE:
+                    actualMax = Math.max(previewData.arrivalStartRate, previewData.arrivalTargetRate);
+                    break;
                 default:
                     actualMax = 20; // 默认值
             }
@@ -708,6 +882,8 @@ public class ThreadGroupPropertyPanel extends JPanel {
                     return previewData.spikeDuration;
                 case STAIRS:
                     return previewData.stairsDuration;
+                case ARRIVAL_RATE:
+                    return previewData.arrivalDuration;
                 default:
                     return 60;
             }
@@ -732,6 +908,9 @@ public class ThreadGroupPropertyPanel extends JPanel {
                 case STAIRS:
                     drawStairsCurve(points, width, height);
                     break;
+                case ARRIVAL_RATE:
+                    drawArrivalCurve(points, width, height);
+                    break;
             }
 
             // 绘制线段
@@ -783,6 +962,20 @@ public class ThreadGroupPropertyPanel extends JPanel {
             points.add(new Point(PADDING + width, y3));
         }
 
+        private void drawArrivalCurve(List<Point> points, int width, int height) {
+            int maxRate = getMaxThreads();
+            int duration = getDuration();
+
+            int yStart = PADDING + height - height * previewData.arrivalStartRate / maxRate;
+            int yTarget = PADDING + height - height * previewData.arrivalTargetRate / maxRate;
+            points.add(new Point(PADDING, previewData.arrivalRampTime > 0 ? yStart : yTarget));
+
+            int rampEndX = PADDING + (width * Math.min(previewData.arrivalRampTime, duration) / duration);
+            points.add(new Point(rampEndX, yTarget));
+
+            points.add(new Point(PADDING + width, yTarget));
+        }
+
         private void drawSpikeCurve(List<Point> points, int width, int height) {
             int maxThreads = getMaxThreads();
             int duration = getDuration();
@@ -5,15 +5,43 @@ import com.laker.postman.common.SingletonFactory;
 import com.laker.postman.common.component.SearchTextField;
 import com.laker.postman.common.constants.ModernColors;
 import com.laker.postman.common.SingletonBasePanel;
+import com.laker.postman.service.setting.SettingManager;
+import com.laker.postman.util.BoundedRingBuffer;
+import com.laker.postman.util.I18nUtil;
+import com.laker.postman.util.MessageKeys;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.swing.*;
 import javax.swing.text.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * 控制台面板
+ * <p>
+ * 日志先写入有界环形缓冲区，EDT 按固定周期批量追加到文档；文档最多保留 maxLines 条日志，
+ * 生产速度超过界面刷新速度时覆盖最早的待显示日志，并在控制台输出丢弃条数。
+ */
 @Slf4j
 public class ConsolePanel extends SingletonBasePanel {
+    // EDT 批量刷新周期
+    private static final int FLUSH_INTERVAL_MS = 100;
+
+    private final int maxLines = SettingManager.getConsoleMaxLines();
+    private final transient BoundedRingBuffer<LogRecord> pendingLogs = new BoundedRingBuffer<>(maxLines);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Timer flushTimer = new Timer(FLUSH_INTERVAL_MS, e -> flushPendingLogs());
+    // 文档中每条日志的字符数（含换行），仅在 EDT 访问
+    private final ArrayDeque<Integer> lineLengths = new ArrayDeque<>();
+    private final Map<LogType, Style> styles = new EnumMap<>(LogType.class);
+    private long totalDropped;
+
     private JTextPane consoleLogArea;
     private transient StyledDocument consoleDoc;
     private JTextField searchField;
@@ -26,6 +54,9 @@ public class ConsolePanel extends SingletonBasePanel {
         INFO, ERROR, SUCCESS, WARN, DEBUG, TRACE, CUSTOM
     }
 
+    private record LogRecord(String msg, LogType type) {
+    }
+
     @Override
     protected void initUI() {
         setLayout(new BorderLayout());
@@ -74,6 +105,7 @@ public class ConsolePanel extends SingletonBasePanel {
         consoleLogArea.setFocusable(true);
         consoleLogArea.setCursor(Cursor.getPredefinedCursor(Cursor.TEXT_CURSOR));
         consoleDoc = consoleLogArea.getStyledDocument();
+        createStyles();
         JScrollPane logScroll = new JScrollPane(consoleLogArea);
         logScroll.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS);
         logScroll.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
@@ -116,6 +148,8 @@ public class ConsolePanel extends SingletonBasePanel {
         clearBtn.setBorder(BorderFactory.createEmptyBorder());
         clearBtn.setBackground(ModernColors.PANEL_BACKGROUND);
         clearBtn.addActionListener(e -> {
+            pendingLogs.clear();
+            lineLengths.clear();
             try {
                 consoleDoc.remove(0, consoleDoc.getLength());
             } catch (BadLocationException ex) {
@@ -135,13 +169,10 @@ public class ConsolePanel extends SingletonBasePanel {
         }
     }
 
-    public synchronized void appendConsoleLog(String msg) {
-        appendConsoleLog(msg, LogType.INFO);
-    }
-
-    public synchronized void appendConsoleLog(String msg, LogType type) {
-        SwingUtilities.invokeLater(() -> {
-            Style style = consoleLogArea.addStyle("logStyle", null);
+    // 每种日志类型预先创建一个样式，追加日志时直接复用
+    private void createStyles() {
+        for (LogType type : LogType.values()) {
+            Style style = consoleLogArea.addStyle("log_" + type.name(), null);
             switch (type) {
                 case ERROR:
                     StyleConstants.setForeground(style, new Color(220, 53, 69));
@@ -176,13 +207,70 @@ public class ConsolePanel extends SingletonBasePanel {
                     StyleConstants.setForeground(style, new Color(33, 37, 41));
                     StyleConstants.setBold(style, false);
             }
-            try {
-                consoleDoc.insertString(consoleDoc.getLength(), msg + "\n", style);
-                consoleLogArea.setCaretPosition(consoleDoc.getLength());
-            } catch (BadLocationException e) {
-                // ignore
+            styles.put(type, style);
+        }
+    }
+
+    public void appendConsoleLog(String msg) {
+        appendConsoleLog(msg, LogType.INFO);
+    }
+
+    /**
+     * 追加日志，可在任意线程调用，日志在下一个刷新周期批量显示
+     */
+    public void appendConsoleLog(String msg, LogType type) {
+        pendingLogs.offer(new LogRecord(msg, type == null ? LogType.INFO : type));
+        if (!flushScheduled.get() && flushScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(flushTimer::start);
+        }
+    }
+
+    // EDT 上执行：取出待显示日志，相邻同类型日志合并为一次 insertString，再裁剪超出上限的最早日志
+    private void flushPendingLogs() {
+        List<LogRecord> batch = new ArrayList<>(pendingLogs.size() + 1);
+        long dropped = pendingLogs.drainTo(batch);
+        if (batch.isEmpty()) {
+            // 无待显示日志时停止定时器，下次追加日志再启动
+            flushTimer.stop();
+            flushScheduled.set(false);
+            if (!pendingLogs.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+                flushTimer.start();
             }
-        });
+            return;
+        }
+        if (dropped > 0) {
+            totalDropped += dropped;
+            batch.add(0, new LogRecord(I18nUtil.getMessage(MessageKeys.CONSOLE_LOGS_DROPPED, dropped, totalDropped), LogType.WARN));
+        }
+        try {
+            StringBuilder run = new StringBuilder();
+            LogType runType = null;
+            for (LogRecord record : batch) {
+                if (record.type != runType && run.length() > 0) {
+                    consoleDoc.insertString(consoleDoc.getLength(), run.toString(), styles.get(runType));
+                    run.setLength(0);
+                }
+                runType = record.type;
+                String msg = String.valueOf(record.msg);
+                run.append(msg).append('\n');
+                lineLengths.addLast(msg.length() + 1);
+            }
+            consoleDoc.insertString(consoleDoc.getLength(), run.toString(), styles.get(runType));
+            trimToMaxLines();
+            consoleLogArea.setCaretPosition(consoleDoc.getLength());
+        } catch (BadLocationException e) {
+            // ignore
+        }
+    }
+
+    private void trimToMaxLines() throws BadLocationException {
+        int removeChars = 0;
+        while (lineLengths.size() > maxLines) {
+            removeChars += lineLengths.pollFirst();
+        }
+        if (removeChars > 0) {
+            consoleDoc.remove(0, Math.min(removeChars, consoleDoc.getLength()));
+        }
     }
 
     // 静态代理方法，便于外部调用
@@ -17,6 +17,14 @@ public class PerformanceSettingsPanelModern extends ModernSettingsPanel {
 
     private JTextField jmeterMaxIdleField;
     private JTextField jmeterKeepAliveField;
+    private JTextField warmupConnectionsField;
+    private JTextField agentsField;
+    private JPasswordField agentSecretField;
+    private JTextField resultTreeMaxNodesField;
+    private JTextField resultTreeMaxMbField;
+    private JCheckBox journalEnabledCheckBox;
+    private JTextField journalKeepRunsField;
+    private JTextField consoleMaxLinesField;
 
     @Override
     protected void buildContent(JPanel contentPanel) {
@@ -46,15 +54,121 @@ public class PerformanceSettingsPanelModern extends ModernSettingsPanel {
                 jmeterKeepAliveField
         );
         jmeterSection.add(keepAliveRow);
+        jmeterSection.add(createVerticalSpace(FIELD_SPACING));
+
+        // 预热连接数
+        warmupConnectionsField = new JTextField(10);
+        warmupConnectionsField.setText(String.valueOf(SettingManager.getPerformanceWarmupConnections()));
+        jmeterSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_WARMUP_CONNECTIONS),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_WARMUP_CONNECTIONS_TOOLTIP),
+                warmupConnectionsField
+        ));
 
         contentPanel.add(jmeterSection);
         contentPanel.add(createVerticalSpace(SECTION_SPACING));
 
+        // 分布式压测设置区域
+        JPanel distributedSection = createModernSection(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_DISTRIBUTED_TITLE),
+                ""
+        );
+
+        agentsField = new JTextField(20);
+        agentsField.setText(SettingManager.getPerformanceAgents());
+        distributedSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_AGENTS),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_AGENTS_TOOLTIP),
+                agentsField
+        ));
+        distributedSection.add(createVerticalSpace(FIELD_SPACING));
+
+        agentSecretField = new JPasswordField(20);
+        agentSecretField.setText(SettingManager.getPerformanceAgentSecret());
+        distributedSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_AGENT_SECRET),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_AGENT_SECRET_TOOLTIP),
+                agentSecretField
+        ));
+
+        contentPanel.add(distributedSection);
+        contentPanel.add(createVerticalSpace(SECTION_SPACING));
+
+        // 结果与样本日志设置区域
+        JPanel resultsSection = createModernSection(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_RESULTS_TITLE),
+                ""
+        );
+
+        // 结果树节点数上限
+        resultTreeMaxNodesField = new JTextField(10);
+        resultTreeMaxNodesField.setText(String.valueOf(SettingManager.getPerformanceResultTreeMaxNodes()));
+        resultsSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_RESULT_TREE_MAX_NODES),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_RESULT_TREE_MAX_NODES_TOOLTIP),
+                resultTreeMaxNodesField
+        ));
+        resultsSection.add(createVerticalSpace(FIELD_SPACING));
+
+        // 结果树内存上限
+        resultTreeMaxMbField = new JTextField(10);
+        resultTreeMaxMbField.setText(String.valueOf(SettingManager.getPerformanceResultTreeMaxMb()));
+        resultsSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_RESULT_TREE_MAX_MB),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_RESULT_TREE_MAX_MB_TOOLTIP),
+                resultTreeMaxMbField
+        ));
+        resultsSection.add(createVerticalSpace(FIELD_SPACING));
+
+        // 样本日志
+        journalEnabledCheckBox = new JCheckBox(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_JOURNAL_ENABLED),
+                SettingManager.isPerformanceJournalEnabled()
+        );
+        resultsSection.add(createCheckBoxRow(
+                journalEnabledCheckBox,
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_JOURNAL_ENABLED_TOOLTIP)
+        ));
+        resultsSection.add(createVerticalSpace(FIELD_SPACING));
+
+        journalKeepRunsField = new JTextField(10);
+        journalKeepRunsField.setText(String.valueOf(SettingManager.getPerformanceJournalKeepRuns()));
+        resultsSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_JOURNAL_KEEP_RUNS),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_JOURNAL_KEEP_RUNS_TOOLTIP),
+                journalKeepRunsField
+        ));
+        resultsSection.add(createVerticalSpace(FIELD_SPACING));
+
+        // 控制台日志行数上限
+        consoleMaxLinesField = new JTextField(10);
+        consoleMaxLinesField.setText(String.valueOf(SettingManager.getConsoleMaxLines()));
+        resultsSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_CONSOLE_MAX_LINES),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_PERFORMANCE_CONSOLE_MAX_LINES_TOOLTIP),
+                consoleMaxLinesField
+        ));
+
+        contentPanel.add(resultsSection);
+        contentPanel.add(createVerticalSpace(SECTION_SPACING));
+
         setupValidators();
 
         // 跟踪所有组件的初始值
+        trackAllComponents();
+    }
+
+    private void trackAllComponents() {
         trackComponentValue(jmeterMaxIdleField);
         trackComponentValue(jmeterKeepAliveField);
+        trackComponentValue(warmupConnectionsField);
+        trackComponentValue(agentsField);
+        trackComponentValue(agentSecretField);
+        trackComponentValue(resultTreeMaxNodesField);
+        trackComponentValue(resultTreeMaxMbField);
+        trackComponentValue(journalEnabledCheckBox);
+        trackComponentValue(journalKeepRunsField);
+        trackComponentValue(consoleMaxLinesField);
     }
 
     private void setupValidators() {
@@ -68,6 +182,56 @@ public class PerformanceSettingsPanelModern extends ModernSettingsPanel {
                 this::isPositiveInteger,
                 I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_KEEP_ALIVE_ERROR)
         );
+        setupValidator(
+                warmupConnectionsField,
+                this::isPositiveInteger,
+                I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_NON_NEGATIVE_INTEGER_ERROR)
+        );
+        setupValidator(
+                agentsField,
+                this::isValidAgents,
+                I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_AGENTS_ERROR)
+        );
+        setupValidator(
+                resultTreeMaxNodesField,
+                this::isGreaterThanZero,
+                I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_POSITIVE_INTEGER_ERROR)
+        );
+        setupValidator(
+                consoleMaxLinesField,
+                this::isGreaterThanZero,
+                I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_POSITIVE_INTEGER_ERROR)
+        );
+        setupValidator(
+                resultTreeMaxMbField,
+                this::isGreaterThanZero,
+                I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_POSITIVE_INTEGER_ERROR)
+        );
+        setupValidator(
+                journalKeepRunsField,
+                this::isGreaterThanZero,
+                I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_POSITIVE_INTEGER_ERROR)
+        );
+    }
+
+    private boolean isGreaterThanZero(String s) {
+        return isInteger(s) && Integer.parseInt(s) > 0;
+    }
+
+    // 与 DistributedController.parseAgents 相同的格式，只校验语法，不解析主机名
+    private boolean isValidAgents(String s) {
+        for (String part : s.trim().split("[,\\s]+")) {
+            if (part.isBlank()) continue;
+            int colon = part.lastIndexOf(':');
+            if (colon == 0) return false;
+            if (colon > 0) {
+                String port = part.substring(colon + 1);
+                if (!isInteger(port) || Integer.parseInt(port) < 1 || Integer.parseInt(port) > 65535) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     @Override
@@ -112,15 +276,31 @@ public class PerformanceSettingsPanelModern extends ModernSettingsPanel {
             return;
         }
 
+        String agents = agentsField.getText().trim();
+        String agentSecret = new String(agentSecretField.getPassword()).trim();
+        if (!agents.isEmpty() && agentSecret.isEmpty()) {
+            NotificationUtil.showError(I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_AGENT_SECRET_ERROR));
+            return;
+        }
+
         try {
             // 保存JMeter设置
             SettingManager.setJmeterMaxIdleConnections(Integer.parseInt(jmeterMaxIdleField.getText().trim()));
             SettingManager.setJmeterKeepAliveSeconds(Integer.parseInt(jmeterKeepAliveField.getText().trim()));
+            SettingManager.setPerformanceWarmupConnections(Integer.parseInt(warmupConnectionsField.getText().trim()));
+            // 保存分布式压测设置
+            SettingManager.setPerformanceAgents(agents);
+            SettingManager.setPerformanceAgentSecret(agentSecret);
+            // 保存结果与样本日志设置
+            SettingManager.setPerformanceResultTreeMaxNodes(Integer.parseInt(resultTreeMaxNodesField.getText().trim()));
+            SettingManager.setPerformanceResultTreeMaxMb(Integer.parseInt(resultTreeMaxMbField.getText().trim()));
+            SettingManager.setPerformanceJournalEnabled(journalEnabledCheckBox.isSelected());
+            SettingManager.setPerformanceJournalKeepRuns(Integer.parseInt(journalKeepRunsField.getText().trim()));
+            SettingManager.setConsoleMaxLines(Integer.parseInt(consoleMaxLinesField.getText().trim()));
 
             // 重新跟踪当前值
             originalValues.clear();
-            trackComponentValue(jmeterMaxIdleField);
-            trackComponentValue(jmeterKeepAliveField);
+            trackAllComponents();
             setHasUnsavedChanges(false);
 
             NotificationUtil.showSuccess(I18nUtil.getMessage(MessageKeys.SETTINGS_SAVE_SUCCESS_MESSAGE));
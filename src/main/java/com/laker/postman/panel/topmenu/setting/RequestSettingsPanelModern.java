@@ -1,5 +1,6 @@
 package com.laker.postman.panel.topmenu.setting;
 
+import com.laker.postman.service.http.okhttp.CachingDns;
 import com.laker.postman.service.http.okhttp.OkHttpClientManager;
 import com.laker.postman.service.setting.SettingManager;
 import com.laker.postman.util.I18nUtil;
@@ -21,6 +22,9 @@ public class RequestSettingsPanelModern extends ModernSettingsPanel {
     private JTextField maxDownloadSizeField;
     private JCheckBox followRedirectsCheckBox;
     private JCheckBox sslVerificationDisabledCheckBox;
+    private JTextField dnsCacheTtlField;
+    private JComboBox<String> dnsSelectionComboBox;
+    private JTextField dnsHostsField;
 
     @Override
     protected void buildContent(JPanel contentPanel) {
@@ -91,6 +95,46 @@ public class RequestSettingsPanelModern extends ModernSettingsPanel {
         contentPanel.add(requestSection);
         contentPanel.add(createVerticalSpace(SECTION_SPACING));
 
+        // DNS 设置区域
+        JPanel dnsSection = createModernSection(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_TITLE),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_DESCRIPTION)
+        );
+
+        dnsCacheTtlField = new JTextField(10);
+        dnsCacheTtlField.setText(String.valueOf(SettingManager.getDnsCacheTtl()));
+        dnsSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_CACHE_TTL),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_CACHE_TTL_TOOLTIP),
+                dnsCacheTtlField
+        ));
+        dnsSection.add(createVerticalSpace(FIELD_SPACING));
+
+        // 下拉项与 CachingDns.Selection 按顺序对应
+        dnsSelectionComboBox = new JComboBox<>(new String[]{
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_SELECTION_SYSTEM),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_SELECTION_ROUND_ROBIN),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_SELECTION_RANDOM)
+        });
+        dnsSelectionComboBox.setSelectedIndex(selectionIndex(SettingManager.getDnsSelection()));
+        dnsSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_SELECTION),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_SELECTION_TOOLTIP),
+                dnsSelectionComboBox
+        ));
+        dnsSection.add(createVerticalSpace(FIELD_SPACING));
+
+        dnsHostsField = new JTextField(24);
+        dnsHostsField.setText(SettingManager.getDnsHostOverrides());
+        dnsSection.add(createFieldRow(
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_HOSTS),
+                I18nUtil.getMessage(MessageKeys.SETTINGS_DNS_HOSTS_TOOLTIP),
+                dnsHostsField
+        ));
+
+        contentPanel.add(dnsSection);
+        contentPanel.add(createVerticalSpace(SECTION_SPACING));
+
         setupValidators();
 
         // 跟踪所有组件的初始值
@@ -99,6 +143,18 @@ public class RequestSettingsPanelModern extends ModernSettingsPanel {
         trackComponentValue(maxDownloadSizeField);
         trackComponentValue(followRedirectsCheckBox);
         trackComponentValue(sslVerificationDisabledCheckBox);
+        trackComponentValue(dnsCacheTtlField);
+        trackComponentValue(dnsSelectionComboBox);
+        trackComponentValue(dnsHostsField);
+    }
+
+    private static int selectionIndex(String selection) {
+        for (CachingDns.Selection value : CachingDns.Selection.values()) {
+            if (value.name().equals(selection)) {
+                return value.ordinal();
+            }
+        }
+        return 0;
     }
 
     private void setupValidators() {
@@ -117,6 +173,16 @@ public class RequestSettingsPanelModern extends ModernSettingsPanel {
                 this::isPositiveInteger,
                 I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_MAX_DOWNLOAD_SIZE_ERROR)
         );
+        setupValidator(
+                dnsCacheTtlField,
+                this::isPositiveInteger,
+                I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_TIMEOUT_ERROR)
+        );
+        setupValidator(
+                dnsHostsField,
+                CachingDns::isValidHosts,
+                I18nUtil.getMessage(MessageKeys.SETTINGS_VALIDATION_DNS_HOSTS_ERROR)
+        );
     }
 
     @Override
@@ -172,6 +238,9 @@ public class RequestSettingsPanelModern extends ModernSettingsPanel {
 
             SettingManager.setFollowRedirects(followRedirectsCheckBox.isSelected());
             SettingManager.setRequestSslVerificationDisabled(sslVerificationDisabledCheckBox.isSelected());
+            SettingManager.setDnsCacheTtl(Integer.parseInt(dnsCacheTtlField.getText().trim()));
+            SettingManager.setDnsSelection(CachingDns.Selection.values()[dnsSelectionComboBox.getSelectedIndex()].name());
+            SettingManager.setDnsHostOverrides(dnsHostsField.getText());
 
             // Clear client cache to apply new settings
             OkHttpClientManager.clearClientCache();
@@ -183,6 +252,9 @@ public class RequestSettingsPanelModern extends ModernSettingsPanel {
             trackComponentValue(maxDownloadSizeField);
             trackComponentValue(followRedirectsCheckBox);
             trackComponentValue(sslVerificationDisabledCheckBox);
+            trackComponentValue(dnsCacheTtlField);
+            trackComponentValue(dnsSelectionComboBox);
+            trackComponentValue(dnsHostsField);
             setHasUnsavedChanges(false);
 
             NotificationUtil.showSuccess(I18nUtil.getMessage(MessageKeys.SETTINGS_SAVE_SUCCESS_MESSAGE));
@@ -7,6 +7,7 @@ import com.laker.postman.ioc.Component;
 import com.laker.postman.ioc.PostConstruct;
 import com.laker.postman.model.ClientCertificate;
 import com.laker.postman.panel.sidebar.ConsolePanel;
+import com.laker.postman.service.http.ssl.SSLConfigurationUtil;
 import com.laker.postman.util.I18nUtil;
 import com.laker.postman.util.MessageKeys;
 import com.laker.postman.util.SystemUtil;
@@ -119,6 +120,7 @@ public class ClientCertificateService {
     public void deleteCertificate(String id) {
         certificates.removeIf(cert -> cert.getId().equals(id));
         save();
+        SSLConfigurationUtil.clearSslCache();
         log.info("Deleted client certificate: {}", id);
     }
 
@@ -6,6 +6,7 @@ import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
 import com.laker.postman.model.Environment;
 import com.laker.postman.model.Workspace;
+import com.laker.postman.util.VariableTemplate;
 import com.laker.postman.util.VariableUtil;
 import com.laker.postman.util.SystemUtil;
 import lombok.Getter;
@@ -15,8 +16,6 @@ import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 环境变量管理服务，负责环境变量的持久化、加载和处理
@@ -36,8 +35,6 @@ public class EnvironmentService {
     @Getter
     private static Environment activeEnvironment = null;
 
-    private static final Pattern VAR_PATTERN = Pattern.compile("\\{\\{(.+?)}}");
-
     // 临时变量，仅本次请求有效，优先级高于环境变量
     private static final ThreadLocal<Map<String, String>> temporaryVariables = ThreadLocal.withInitial(ConcurrentHashMap::new);
 
@@ -61,7 +58,19 @@ public class EnvironmentService {
     }
 
     public static void clearTemporaryVariables() {
+        // 只清空内容，不解除绑定：压测虚拟用户的变量表在多次迭代间复用
         temporaryVariables.get().clear();
+    }
+
+    /**
+     * 将当前线程的临时变量绑定到调用方持有的变量表（如压测虚拟用户自己的变量表），
+     * 变量状态归属于虚拟用户而不是执行线程，需配合 {@link #unbindTemporaryVariables()} 使用
+     */
+    public static void bindTemporaryVariables(Map<String, String> variables) {
+        temporaryVariables.set(variables);
+    }
+
+    public static void unbindTemporaryVariables() {
         temporaryVariables.remove();
     }
 
@@ -242,36 +251,29 @@ public class EnvironmentService {
      * 替换文本中的环境变量占位符
      * 例如: {{baseUrl}}/api/users -> https://api.example.com/api/users
      * 优先级: 临时变量 > 环境变量 > 内置函数
+     * <p>
+     * 不含占位符的文本直接返回；否则使用按文本缓存的预编译模板渲染。
      */
     public static String replaceVariables(String text) {
-        if (text == null || text.isEmpty()) {
+        if (!VariableTemplate.mayContainVariables(text)) {
             return text;
         }
+        return VariableTemplate.of(text).render(EnvironmentService::resolveVariable);
+    }
 
-        Matcher matcher = VAR_PATTERN.matcher(text);
-        StringBuilder result = new StringBuilder();
-
-        while (matcher.find()) {
-            String varName = matcher.group(1);
-            String value = temporaryVariables.get().get(varName); // 优先查临时变量
-            if (value == null && activeEnvironment != null) {
-                value = activeEnvironment.getVariable(varName);
-            }
-            // 检查是否是内置函数
-            if (value == null && VariableUtil.isBuiltInFunction(varName)) {
-                value = VariableUtil.generateBuiltInFunctionValue(varName);
-            }
-            // 如果变量不存在，保留原样
-            if (value == null) {
-                matcher.appendReplacement(result, Matcher.quoteReplacement(matcher.group(0)));
-            } else {
-                // 使用 Matcher.quoteReplacement 来避免 $ 和 \ 被当作特殊字符处理
-                matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+    private static String resolveVariable(String varName) {
+        String value = temporaryVariables.get().get(varName); // 优先查临时变量
+        if (value == null) {
+            Environment env = activeEnvironment;
+            if (env != null) {
+                value = env.getVariable(varName);
             }
         }
-
-        matcher.appendTail(result);
-        return result.toString();
+        // 检查是否是内置函数
+        if (value == null && VariableUtil.isBuiltInFunction(varName)) {
+            value = VariableUtil.generateBuiltInFunctionValue(varName);
+        }
+        return value;
     }
 
     /**
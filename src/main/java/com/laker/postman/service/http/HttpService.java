@@ -36,14 +36,16 @@ public class HttpService {
      * - 压缩前体积先被记录。
      * - br/deflate/gzip 都能自动解压。
      * - 业务逻辑拦截器可安全处理解压后的响应体。
+     * <p>
+     * 派生客户端只取决于（基础客户端、超时、是否记录事件），由 {@link OkHttpClientManager} 缓存复用；
+     * 事件监听器所需的 PreparedRequest 通过请求 tag 传递，不绑定在客户端上。
      */
-    private static OkHttpClient buildDynamicClient(OkHttpClient baseClient, PreparedRequest preparedRequest, int timeoutMs) {
+    static OkHttpClient buildDynamicClient(OkHttpClient baseClient, int timeoutMs, boolean logEvent) {
         OkHttpClient.Builder builder = baseClient.newBuilder();
         // 添加自动解压拦截器
         builder.addNetworkInterceptor(new CompressionDecompressNetworkInterceptor());
-        if (preparedRequest.logEvent) {
-            builder.eventListenerFactory(call -> new EasyConsoleEventListener(preparedRequest));
-        }
+        // 详细事件日志与阶段计时二选一：开启日志时阶段耗时从事件日志中换算
+        builder.eventListenerFactory(logEvent ? EasyConsoleEventListener.FACTORY : PhaseTimingEventListener.FACTORY);
         if (timeoutMs > 0) {
             builder.connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
                     .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
@@ -82,8 +84,9 @@ public class HttpService {
     private static OkHttpClient buildCustomClient(PreparedRequest req) {
         String baseUri = extractBaseUri(req.url);
         int timeoutMs = SettingManager.getRequestTimeout();
-        OkHttpClient baseClient = OkHttpClientManager.getClient(baseUri, req.followRedirects);
-        return buildDynamicClient(baseClient, req, timeoutMs);
+        OkHttpClient baseClient = OkHttpClientManager.getClient(baseUri, req.followRedirects, req.protocols, req.connectionLane);
+        return OkHttpClientManager.getDerivedClient(baseClient, timeoutMs, req.logEvent,
+                base -> buildDynamicClient(base, timeoutMs, req.logEvent));
     }
 
     /**
@@ -92,7 +95,60 @@ public class HttpService {
     private static HttpResponse executeRequest(PreparedRequest req, Request request) throws Exception {
         OkHttpClient client = buildCustomClient(req);
         Call call = client.newCall(request);
-        return callWithRequest(call, client);
+        return callWithRequest(call, client, req);
+    }
+
+    /**
+     * 异步发送 HTTP 请求，由 OkHttp 的 Dispatcher 调度执行，完成后在调度线程上回调
+     * <p>
+     * 请求构建失败（如 URL 非法）时直接抛出异常，不会回调。
+     */
+    public static void sendRequestAsync(PreparedRequest req, ResponseCallback callback) {
+        Request request = buildRequestByType(req);
+        OkHttpClient client = buildCustomClient(req);
+        HttpResponse httpResponse = new HttpResponse();
+        ConnectionPool pool = client.connectionPool();
+        httpResponse.idleConnectionCount = pool.idleConnectionCount();
+        httpResponse.connectionCount = pool.connectionCount();
+        long startTime = System.currentTimeMillis();
+        Call call = client.newCall(request);
+        // 事件监听器在 newCall 时于当前线程创建，需要在这里取出
+        HttpEventInfo httpEventInfo = EasyConsoleEventListener.getAndRemove();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                fillHttpEventInfo(httpResponse, startTime, httpEventInfo);
+                callback.onComplete(null, e);
+            }
+
+            @Override
+            public void onResponse(Call c, Response okResponse) {
+                fillHttpEventInfo(httpResponse, startTime, httpEventInfo);
+                Exception error = null;
+                try {
+                    OkHttpResponseHandler.handleResponse(okResponse, httpResponse, req.bodyPolicy, req.bodyMatchers);
+                    httpResponse.endTime = System.currentTimeMillis();
+                    httpResponse.costMs = httpResponse.endTime - startTime;
+                    if (req.cookieJar == null) {
+                        CookieService.notifyCookieChanged();
+                    }
+                } catch (Exception e) {
+                    error = e;
+                }
+                callback.onComplete(error == null ? httpResponse : null, error);
+            }
+        });
+    }
+
+    /**
+     * 异步请求完成回调
+     */
+    public interface ResponseCallback {
+        /**
+         * @param response 响应，失败时为 null
+         * @param error    失败原因，成功时为 null
+         */
+        void onComplete(HttpResponse response, Exception error);
     }
 
     /**
@@ -114,7 +170,7 @@ public class HttpService {
     }
 
 
-    private static HttpResponse callWithRequest(Call call, OkHttpClient client) throws IOException {
+    private static HttpResponse callWithRequest(Call call, OkHttpClient client, PreparedRequest req) throws IOException {
         long startTime = System.currentTimeMillis();
         HttpResponse httpResponse = new HttpResponse();
         ConnectionPool pool = client.connectionPool();
@@ -124,19 +180,20 @@ public class HttpService {
         try {
             okResponse = call.execute();
         } finally {
-            fillHttpEventInfo(httpResponse, startTime);
+            fillHttpEventInfo(httpResponse, startTime, EasyConsoleEventListener.getAndRemove());
         }
-        OkHttpResponseHandler.handleResponse(okResponse, httpResponse);
+        OkHttpResponseHandler.handleResponse(okResponse, httpResponse, req.bodyPolicy, req.bodyMatchers);
         httpResponse.endTime = System.currentTimeMillis();
         httpResponse.costMs = httpResponse.endTime - startTime;
-        // 响应后主动通知Cookie变化，刷新CookieTablePanel
-        CookieService.notifyCookieChanged();
+        // 响应后主动通知Cookie变化，刷新CookieTablePanel（使用独立 Cookie 存储时全局 Cookie 不变）
+        if (req.cookieJar == null) {
+            CookieService.notifyCookieChanged();
+        }
         return httpResponse;
     }
 
 
-    private static void fillHttpEventInfo(HttpResponse httpResponse, long startTime) {
-        HttpEventInfo httpEventInfo = EasyConsoleEventListener.getAndRemove();
+    private static void fillHttpEventInfo(HttpResponse httpResponse, long startTime, HttpEventInfo httpEventInfo) {
         if (httpEventInfo != null) {
             httpEventInfo.setQueueStart(startTime);
             // 计算排队耗时
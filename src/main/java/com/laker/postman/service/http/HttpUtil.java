@@ -151,7 +151,7 @@ public class HttpUtil {
         Postman pm = (Postman) bindings.get("pm");
         pm.setResponse(resp);
         bindings.put("response", resp);
-        bindings.put("responseBody", resp.body);
+        bindings.put("responseBody", resp.getBody());
         bindings.put("responseHeaders", resp.headers);
         bindings.put("statusCode", resp.code);
     }
@@ -4,6 +4,7 @@ import com.laker.postman.model.HttpRequestItem;
 import com.laker.postman.model.PreparedRequest;
 import com.laker.postman.service.setting.SettingManager;
 import com.laker.postman.service.EnvironmentService;
+import com.laker.postman.util.VariableTemplate;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -65,6 +66,7 @@ public class PreparedRequestBuilder {
 
     private static Map<String, String> replaceVariables(Map<String, String> headers) {
         if (headers == null) return new LinkedHashMap<>();
+        if (!containsVariables(headers)) return headers;
         Map<String, String> processedHeaders = new LinkedHashMap<>();
         for (Map.Entry<String, String> entry : headers.entrySet()) {
             String key = entry.getKey();
@@ -75,4 +77,14 @@ public class PreparedRequestBuilder {
         }
         return processedHeaders;
     }
-}
\ No newline at end of file
+
+    // 所有键值都不含占位符时无需重建 Map
+    private static boolean containsVariables(Map<String, String> map) {
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (VariableTemplate.mayContainVariables(entry.getKey()) || VariableTemplate.mayContainVariables(entry.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,197 @@
+package com.laker.postman.service.http.okhttp;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带缓存的 DNS 解析：静态主机映射优先，其次是按 TTL 过期的解析缓存，最后委托系统解析
+ * <p>
+ * OkHttp 只在新建连接时解析域名，并按返回顺序依次尝试地址，
+ * 因此每次解析按 {@link Selection} 轮转地址列表即可把新连接分散到域名的多个 IP 上。
+ * 每次解析是否命中缓存记录在当前线程上（解析与 dnsStart/dnsEnd 事件在同一线程），
+ * 由 {@link PhaseTimingEventListener} 取出写入请求的阶段计时。
+ */
+@Slf4j
+public class CachingDns implements Dns {
+
+    /**
+     * 多个 IP 时新连接使用哪个地址
+     */
+    public enum Selection {
+        SYSTEM,      // 按解析结果原顺序，总是优先第一个
+        ROUND_ROBIN, // 依次轮换
+        RANDOM       // 随机选择
+    }
+
+    private static final ThreadLocal<Boolean> LAST_HIT = new ThreadLocal<>();
+
+    private final Dns delegate;
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Map<String, List<InetAddress>> overrides = Map.of();
+    private volatile long ttlNanos;
+    private volatile Selection selection = Selection.SYSTEM;
+
+    public CachingDns(Dns delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param ttlSeconds 缓存有效期，0 表示不缓存
+     */
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlNanos = Math.max(0, ttlSeconds) * 1_000_000_000L;
+        cache.clear();
+    }
+
+    public void setSelection(Selection selection) {
+        this.selection = selection != null ? selection : Selection.SYSTEM;
+    }
+
+    /**
+     * 设置静态主机映射（主机名不区分大小写），优先于缓存和系统解析
+     */
+    public void setOverrides(Map<String, List<InetAddress>> overrides) {
+        Map<String, List<InetAddress>> copy = new LinkedHashMap<>();
+        overrides.forEach((host, addresses) -> copy.put(host.toLowerCase(Locale.ROOT), List.copyOf(addresses)));
+        this.overrides = copy;
+    }
+
+    public Map<String, List<InetAddress>> getOverrides() {
+        return overrides;
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        String host = hostname.toLowerCase(Locale.ROOT);
+        List<InetAddress> addresses = overrides.get(host);
+        boolean hit = addresses != null;
+        if (!hit) {
+            Cached cached = cache.get(host);
+            long now = System.nanoTime();
+            if (cached != null && now - cached.expiresAt < 0) {
+                addresses = cached.addresses;
+                hit = true;
+            } else {
+                addresses = delegate.lookup(hostname);
+                if (ttlNanos > 0) {
+                    cache.put(host, new Cached(List.copyOf(addresses), now + ttlNanos));
+                }
+            }
+        }
+        (hit ? hits : misses).increment();
+        LAST_HIT.set(hit);
+        return select(host, addresses);
+    }
+
+    // 轮转而不是只返回一个地址，保留其余地址供 OkHttp 连接失败时依次尝试
+    private List<InetAddress> select(String host, List<InetAddress> addresses) {
+        int size = addresses.size();
+        if (size <= 1 || selection == Selection.SYSTEM) {
+            return addresses;
+        }
+        int offset = selection == Selection.RANDOM
+                ? ThreadLocalRandom.current().nextInt(size)
+                : Math.floorMod(cursors.computeIfAbsent(host, k -> new AtomicInteger()).getAndIncrement(), size);
+        List<InetAddress> rotated = new ArrayList<>(addresses);
+        Collections.rotate(rotated, -offset);
+        return rotated;
+    }
+
+    /**
+     * 取出当前线程上一次解析是否命中缓存（含静态映射），没有解析过时返回 null
+     */
+    public static Boolean takeLastHit() {
+        Boolean hit = LAST_HIT.get();
+        LAST_HIT.remove();
+        return hit;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public void clearCache() {
+        cache.clear();
+        cursors.clear();
+    }
+
+    /**
+     * 解析 hosts 文件格式的映射：每行 {@code IP 主机名 [主机名...]}，{@code #} 之后为注释，也可以用分号分隔多条；
+     * 同一主机名出现多次时保留所有 IP。无法识别的条目记录日志后跳过。
+     */
+    public static Map<String, List<InetAddress>> parseHosts(String text) {
+        Map<String, List<InetAddress>> result = new LinkedHashMap<>();
+        for (String[] parts : entries(text)) {
+            if (parts.length < 2 || !isIpLiteral(parts[0])) {
+                log.warn("忽略无效的主机映射: {}", String.join(" ", parts));
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String host = parts[i].toLowerCase(Locale.ROOT);
+                try {
+                    // IP 字面量不会触发解析，附带主机名便于日志和异常信息
+                    InetAddress ip = InetAddress.getByName(parts[0]);
+                    result.computeIfAbsent(host, k -> new ArrayList<>()).add(InetAddress.getByAddress(host, ip.getAddress()));
+                } catch (UnknownHostException e) {
+                    log.warn("忽略无效的主机映射: {}", String.join(" ", parts));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 检查 hosts 格式文本中的每一条是否都是 {@code IP 主机名}
+     */
+    public static boolean isValidHosts(String text) {
+        for (String[] parts : entries(text)) {
+            if (parts.length < 2 || !isIpLiteral(parts[0])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 按行或分号拆分，去掉注释和空行后按空白拆分
+    private static List<String[]> entries(String text) {
+        List<String[]> entries = new ArrayList<>();
+        if (text == null) {
+            return entries;
+        }
+        for (String line : text.split("[\\r\\n;]+")) {
+            int comment = line.indexOf('#');
+            String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!entry.isEmpty()) {
+                entries.add(entry.split("\\s+"));
+            }
+        }
+        return entries;
+    }
+
+    private static boolean isIpLiteral(String s) {
+        return s.matches("\\d{1,3}(\\.\\d{1,3}){3}") || s.contains(":") && s.matches("[0-9a-fA-F:.]+");
+    }
+
+    private record Cached(List<InetAddress> addresses, long expiresAt) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.laker.postman.service.http.okhttp;
+
+/**
+ * 所有客户端连接池的连接数快照
+ *
+ * @param open 打开的连接数
+ * @param idle 其中空闲的连接数
+ */
+public record ConnectionPoolStats(int open, int idle) {
+    public static final ConnectionPoolStats EMPTY = new ConnectionPoolStats(0, 0);
+
+    /**
+     * 正在被请求占用的连接数
+     */
+    public int inUse() {
+        return Math.max(0, open - idle);
+    }
+}
@@ -30,6 +30,16 @@ import java.util.List;
 @Slf4j
 public class EasyConsoleEventListener extends EventListener {
     private static final ThreadLocal<HttpEventInfo> eventInfoThreadLocal = new ThreadLocal<>();
+    /**
+     * 从请求 tag 中取出 PreparedRequest 创建监听器，客户端可在多个请求间共享
+     */
+    public static final EventListener.Factory FACTORY = call -> {
+        PreparedRequest preparedRequest = call.request().tag(PreparedRequest.class);
+        if (preparedRequest == null || !preparedRequest.logEvent) {
+            return EventListener.NONE;
+        }
+        return new EasyConsoleEventListener(preparedRequest);
+    };
     private final long callStartNanos;
     private final HttpEventInfo info;
     private String reqItemId;
@@ -7,9 +7,11 @@ import okhttp3.*;
 import okhttp3.Authenticator;
 
 import java.net.*;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * OkHttpClient 管理器，按 baseUri（协议+host+port）分配连接池和 OkHttpClient
@@ -19,6 +21,10 @@ import java.util.concurrent.TimeUnit;
 public class OkHttpClientManager {
     // 每个 baseUri 一个连接池和 OkHttpClient
     private static final Map<String, OkHttpClient> clientMap = new ConcurrentHashMap<>();
+    // 在基础客户端上派生的客户端（超时、事件监听等），与基础客户端共享连接池和调度器
+    private static final Map<DerivedClientKey, OkHttpClient> derivedClientMap = new ConcurrentHashMap<>();
+    // 按连接池分流的客户端在缓存 key 中的标记
+    private static final String LANE_KEY = "|lane";
     // 连接池参数
     private static final int MAX_IDLE_CONNECTIONS = 6;
     private static final long KEEP_ALIVE_DURATION = 90L;
@@ -27,14 +33,46 @@ public class OkHttpClientManager {
     private static volatile int maxIdleConnections = MAX_IDLE_CONNECTIONS;
     private static volatile long keepAliveDuration = KEEP_ALIVE_DURATION;
 
+    // 压测期间共享的调度器（控制异步请求并发），为 null 时使用 OkHttp 默认调度器
+    private static volatile Dispatcher dispatcher;
+
     // 全局 CookieManager，支持标准 CookiePolicy
     private static final CookieManager GLOBAL_COOKIE_MANAGER = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
     private static final JavaNetCookieJar GLOBAL_COOKIE_JAR = new JavaNetCookieJar(GLOBAL_COOKIE_MANAGER);
+    // 默认使用全局 Cookie，请求指定了自己的存储（压测虚拟用户）时改用该存储
+    private static final ScopedCookieJar COOKIE_JAR = new ScopedCookieJar(GLOBAL_COOKIE_JAR);
+
+    // 所有客户端共用的 DNS 解析（缓存、静态主机映射、多 IP 选择），修改配置不需要重建客户端
+    private static final CachingDns DNS = new CachingDns(Dns.SYSTEM);
+
+    static {
+        configureDns();
+    }
 
     /**
-     * 动态设置连接池参数（压测时可调大）
+     * 按设置更新 DNS 缓存时间、地址选择方式和静态主机映射
+     */
+    public static void configureDns() {
+        DNS.setTtlSeconds(SettingManager.getDnsCacheTtl());
+        try {
+            DNS.setSelection(CachingDns.Selection.valueOf(SettingManager.getDnsSelection()));
+        } catch (IllegalArgumentException e) {
+            DNS.setSelection(CachingDns.Selection.SYSTEM);
+        }
+        DNS.setOverrides(CachingDns.parseHosts(SettingManager.getDnsHostOverrides()));
+    }
+
+    public static CachingDns getDns() {
+        return DNS;
+    }
+
+    /**
+     * 动态设置连接池参数（压测时可调大），参数未变化时保留现有客户端和连接
      */
     public static void setConnectionPoolConfig(int maxIdle, long keepAliveSeconds) {
+        if (maxIdle == maxIdleConnections && keepAliveSeconds == keepAliveDuration) {
+            return;
+        }
         maxIdleConnections = maxIdle;
         keepAliveDuration = keepAliveSeconds;
         clearClientCache();
@@ -49,6 +87,14 @@ public class OkHttpClientManager {
         clearClientCache();
     }
 
+    /**
+     * 设置新建客户端使用的调度器（压测异步模式按并发用户数调整），传入 null 恢复默认
+     */
+    public static void setDispatcher(Dispatcher runDispatcher) {
+        dispatcher = runDispatcher;
+        clearClientCache();
+    }
+
     /**
      * 清理所有客户端缓存，用于代理设置更改后强制重新创建客户端
      */
@@ -57,15 +103,74 @@ public class OkHttpClientManager {
             client.connectionPool().evictAll();
         }
         clientMap.clear();
+        derivedClientMap.clear();
+    }
+
+    /**
+     * 关闭并移除压测按连接池分流时创建的客户端，普通客户端不受影响
+     */
+    public static void evictLaneClients() {
+        clientMap.entrySet().removeIf(entry -> {
+            if (!entry.getKey().contains(LANE_KEY)) {
+                return false;
+            }
+            OkHttpClient client = entry.getValue();
+            client.connectionPool().evictAll();
+            derivedClientMap.keySet().removeIf(key -> key.baseClient() == client);
+            return true;
+        });
+    }
+
+    /**
+     * 汇总所有基础客户端连接池的打开/空闲连接数（派生客户端与基础客户端共享连接池）
+     */
+    public static ConnectionPoolStats getConnectionPoolStats() {
+        int open = 0;
+        int idle = 0;
+        for (OkHttpClient client : clientMap.values()) {
+            ConnectionPool pool = client.connectionPool();
+            open += pool.connectionCount();
+            idle += pool.idleConnectionCount();
+        }
+        return new ConnectionPoolStats(open, idle);
+    }
+
+    /**
+     * 获取或创建在 baseClient 上派生的客户端，按（基础客户端、超时、是否记录事件）缓存
+     */
+    public static OkHttpClient getDerivedClient(OkHttpClient baseClient, int timeoutMs, boolean logEvent,
+                                                Function<OkHttpClient, OkHttpClient> factory) {
+        DerivedClientKey key = new DerivedClientKey(baseClient, timeoutMs, logEvent);
+        OkHttpClient client = derivedClientMap.get(key);
+        if (client == null) {
+            client = derivedClientMap.computeIfAbsent(key, k -> factory.apply(baseClient));
+        }
+        return client;
     }
 
     /**
      * 获取或创建指定 baseUri 的 OkHttpClient 实例
      */
     public static OkHttpClient getClient(String baseUri, boolean followRedirects) {
+        return getClient(baseUri, followRedirects, null, 0);
+    }
+
+    /**
+     * 获取或创建指定 baseUri 的 OkHttpClient 实例
+     *
+     * @param protocols 限定的协议列表，null 表示 OkHttp 默认（ALPN 协商 HTTP/2，否则 HTTP/1.1）
+     * @param lane      大于 0 时创建独立的连接池，用于把并发分散到多个 HTTP/2 连接
+     */
+    public static OkHttpClient getClient(String baseUri, boolean followRedirects, List<Protocol> protocols, int lane) {
         // 将代理配置也作为客户端缓存key的一部分，确保代理设置变更时重新创建客户端
         String proxyKey = getProxyConfigKey();
         String key = baseUri + "|" + followRedirects + "|" + proxyKey;
+        if (protocols != null) {
+            key += "|" + protocols;
+        }
+        if (lane > 0) {
+            key += LANE_KEY + lane;
+        }
 
         return clientMap.computeIfAbsent(key, k -> {
             OkHttpClient.Builder builder = new OkHttpClient.Builder()
@@ -83,9 +188,20 @@ public class OkHttpClientManager {
                     .followRedirects(followRedirects)
                     .cache(null)
                     .pingInterval(30, TimeUnit.SECONDS);
+            if (protocols != null) {
+                builder.protocols(protocols);
+            }
+
+            builder.dns(DNS);
+
+            // 默认使用全局 JavaNetCookieJar，由拦截器按请求切换到虚拟用户自己的存储
+            builder.cookieJar(COOKIE_JAR);
+            builder.addInterceptor(COOKIE_JAR);
 
-            // 使用全局 JavaNetCookieJar
-            builder.cookieJar(GLOBAL_COOKIE_JAR);
+            Dispatcher runDispatcher = dispatcher;
+            if (runDispatcher != null) {
+                builder.dispatcher(runDispatcher);
+            }
 
             // 配置网络代理
             configureProxy(builder);
@@ -206,4 +322,8 @@ public class OkHttpClientManager {
     public static CookieManager getGlobalCookieManager() {
         return GLOBAL_COOKIE_MANAGER;
     }
+
+    // OkHttpClient 未重写 equals，按实例区分基础客户端
+    private record DerivedClientKey(OkHttpClient baseClient, int timeoutMs, boolean logEvent) {
+    }
 }
\ No newline at end of file
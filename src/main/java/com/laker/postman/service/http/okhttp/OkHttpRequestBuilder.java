@@ -13,7 +13,7 @@ import java.util.Map;
  */
 public class OkHttpRequestBuilder {
     public static Request buildRequest(PreparedRequest req) {
-        Request.Builder builder = new Request.Builder().url(req.url);
+        Request.Builder builder = new Request.Builder().url(req.url).tag(PreparedRequest.class, req);
         String methodUpper = req.method.toUpperCase();
         String contentType = null;
         if (req.headers != null) {
@@ -86,7 +86,7 @@ public class OkHttpRequestBuilder {
                 }
             }
         }
-        Request.Builder builder = new Request.Builder().url(req.url).method(req.method, multipartBuilder.build());
+        Request.Builder builder = new Request.Builder().url(req.url).tag(PreparedRequest.class, req).method(req.method, multipartBuilder.build());
         if (req.headers != null) {
             for (Map.Entry<String, String> entry : req.headers.entrySet()) {
                 String key = entry.getKey();
@@ -113,7 +113,7 @@ public class OkHttpRequestBuilder {
             }
         }
         RequestBody requestBody = formBuilder.build();
-        Request.Builder builder = new Request.Builder().url(req.url).method(req.method, requestBody);
+        Request.Builder builder = new Request.Builder().url(req.url).tag(PreparedRequest.class, req).method(req.method, requestBody);
         boolean hasContentType = false;
         if (req.headers != null) {
             for (Map.Entry<String, String> entry : req.headers.entrySet()) {
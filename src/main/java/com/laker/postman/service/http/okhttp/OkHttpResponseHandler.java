@@ -3,12 +3,15 @@ package com.laker.postman.service.http.okhttp;
 import com.laker.postman.common.component.DownloadProgressDialog;
 import com.laker.postman.service.setting.SettingManager;
 import com.laker.postman.model.HttpResponse;
+import com.laker.postman.model.ResponseBodyPolicy;
 import com.laker.postman.util.I18nUtil;
 import com.laker.postman.util.MessageKeys;
+import com.laker.postman.util.StreamingMatcher;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.MediaType;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.Okio;
 
 import javax.swing.*;
 import java.io.*;
@@ -17,6 +20,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.CRC32;
 
 /**
  * OkHttp 响应处理工具类
@@ -33,6 +37,22 @@ public class OkHttpResponseHandler {
     }
 
     public static void handleResponse(Response okResponse, HttpResponse response) throws IOException {
+        handleResponse(okResponse, response, ResponseBodyPolicy.FULL);
+    }
+
+    /**
+     * 按指定策略处理响应；非 FULL 策略只用于压测，不弹出任何对话框也不写临时文件
+     */
+    public static void handleResponse(Response okResponse, HttpResponse response, ResponseBodyPolicy bodyPolicy) throws IOException {
+        handleResponse(okResponse, response, bodyPolicy, null);
+    }
+
+    /**
+     * 按指定策略处理响应，同时把响应体数据推送给流式匹配器（仅对非 FULL 策略生效），
+     * 这样即使响应体被丢弃或只计算校验和，断言仍可以在读取过程中完成
+     */
+    public static void handleResponse(Response okResponse, HttpResponse response, ResponseBodyPolicy bodyPolicy,
+                                      List<StreamingMatcher> matchers) throws IOException {
         response.code = okResponse.code();
         response.message = okResponse.message();
         response.headers = new LinkedHashMap<>();
@@ -50,6 +70,8 @@ public class OkHttpResponseHandler {
 
         if (isSSEContent(contentType)) {
             handleSseResponse(okResponse, response);
+        } else if (bodyPolicy != null && bodyPolicy != ResponseBodyPolicy.FULL) {
+            consumeBody(okResponse.body(), response, bodyPolicy, matchers);
         } else if (isBinaryContent(contentType)) {
             handleBinaryResponse(okResponse, response);
         } else {
@@ -61,6 +83,92 @@ public class OkHttpResponseHandler {
         okResponse.close();
     }
 
+    private static void consumeBody(ResponseBody body, HttpResponse response, ResponseBodyPolicy bodyPolicy,
+                                    List<StreamingMatcher> matchers) throws IOException {
+        boolean matching = matchers != null && !matchers.isEmpty();
+        if (body == null) {
+            response.body = "";
+            response.bodySize = 0;
+            if (matching) {
+                startMatchers(matchers, StandardCharsets.UTF_8);
+                endMatchers(matchers);
+            }
+            return;
+        }
+        MediaType mediaType = body.contentType();
+        Charset charset = mediaType != null && mediaType.charset() != null ? mediaType.charset() : StandardCharsets.UTF_8;
+        if (matching) {
+            startMatchers(matchers, charset);
+        }
+        switch (bodyPolicy) {
+            case DISCARD -> {
+                if (matching) {
+                    response.bodySize = readChunks(body, null, matchers);
+                } else {
+                    response.bodySize = body.source().readAll(Okio.blackhole());
+                }
+                response.body = "";
+            }
+            case HASH -> {
+                CRC32 crc = new CRC32();
+                response.bodySize = readChunks(body, crc, matchers);
+                response.body = "";
+                response.bodyChecksum = Long.toHexString(crc.getValue());
+            }
+            default -> {
+                byte[] bytes = body.bytes();
+                if (matching) {
+                    updateMatchers(matchers, bytes, bytes.length);
+                }
+                response.setLazyBody(bytes, charset);
+            }
+        }
+        if (matching) {
+            endMatchers(matchers);
+        }
+    }
+
+    // 分块读取响应体，按需计算校验和并推送给匹配器，返回读取的字节数
+    private static long readChunks(ResponseBody body, CRC32 crc, List<StreamingMatcher> matchers) throws IOException {
+        long size = 0;
+        byte[] buf = new byte[8 * 1024];
+        try (InputStream is = body.byteStream()) {
+            int len;
+            while ((len = is.read(buf)) != -1) {
+                if (crc != null) {
+                    crc.update(buf, 0, len);
+                }
+                if (matchers != null) {
+                    updateMatchers(matchers, buf, len);
+                }
+                size += len;
+            }
+        }
+        return size;
+    }
+
+    private static void startMatchers(List<StreamingMatcher> matchers, Charset charset) {
+        for (StreamingMatcher matcher : matchers) {
+            matcher.start(charset);
+        }
+    }
+
+    private static void updateMatchers(List<StreamingMatcher> matchers, byte[] buf, int len) {
+        for (StreamingMatcher matcher : matchers) {
+            if (!matcher.isResolved()) {
+                matcher.update(buf, 0, len);
+            }
+        }
+    }
+
+    private static void endMatchers(List<StreamingMatcher> matchers) {
+        for (StreamingMatcher matcher : matchers) {
+            if (!matcher.isResolved()) {
+                matcher.end();
+            }
+        }
+    }
+
     private static void handleSseResponse(Response okResponse, HttpResponse response) {
         response.body = I18nUtil.getMessage(MessageKeys.SSE_STREAM_UNSUPPORTED);
         response.bodySize = 0;
@@ -0,0 +1,99 @@
+package com.laker.postman.service.http.okhttp;
+
+import com.laker.postman.model.PhaseTimings;
+import com.laker.postman.model.PreparedRequest;
+import okhttp3.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * 轻量事件监听器：只把各网络阶段的 {@link System#nanoTime()} 写入请求自带的 {@link PhaseTimings}
+ * <p>
+ * 不输出日志、不拼接字符串，压测高效模式下也可以开启；
+ * 请求 tag 中的 PreparedRequest 没有 phaseTimings 时不创建监听器。
+ */
+public class PhaseTimingEventListener extends EventListener {
+    public static final EventListener.Factory FACTORY = call -> {
+        PreparedRequest preparedRequest = call.request().tag(PreparedRequest.class);
+        if (preparedRequest == null || preparedRequest.phaseTimings == null) {
+            return EventListener.NONE;
+        }
+        return new PhaseTimingEventListener(preparedRequest.phaseTimings);
+    };
+
+    private final PhaseTimings timings;
+
+    public PhaseTimingEventListener(PhaseTimings timings) {
+        this.timings = timings;
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        timings.mark(PhaseTimings.DNS_START);
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        timings.mark(PhaseTimings.DNS_END);
+        timings.setDnsCacheHit(CachingDns.takeLastHit());
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        timings.mark(PhaseTimings.CONNECT_START);
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        timings.mark(PhaseTimings.SECURE_CONNECT_START);
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        timings.mark(PhaseTimings.SECURE_CONNECT_END);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        timings.mark(PhaseTimings.CONNECT_END);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol, IOException ioe) {
+        timings.mark(PhaseTimings.CONNECT_END);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        timings.mark(PhaseTimings.REQUEST_HEADERS_START);
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        timings.mark(PhaseTimings.REQUEST_HEADERS_END);
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        timings.mark(PhaseTimings.REQUEST_BODY_END);
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        timings.mark(PhaseTimings.RESPONSE_HEADERS_START);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        timings.mark(PhaseTimings.RESPONSE_HEADERS_END);
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        timings.mark(PhaseTimings.RESPONSE_BODY_END);
+    }
+}
@@ -0,0 +1,66 @@
+package com.laker.postman.service.http.okhttp;
+
+import com.laker.postman.model.PreparedRequest;
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 按请求选择 Cookie 存储：请求指定了 {@link PreparedRequest#cookieJar} 时使用它，否则使用默认（全局）存储
+ * <p>
+ * OkHttp 的 CookieJar 只能拿到 URL，因此同时作为应用拦截器，在调用链执行期间把请求的存储绑定到当前线程；
+ * 同步和异步请求的拦截器链（包括重定向）都在同一线程上执行，读写 Cookie 时即可取到。
+ */
+public class ScopedCookieJar implements CookieJar, Interceptor {
+    private static final ThreadLocal<CookieJar> CURRENT = new ThreadLocal<>();
+
+    private final CookieJar defaultJar;
+
+    public ScopedCookieJar(CookieJar defaultJar) {
+        this.defaultJar = defaultJar;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        PreparedRequest req = request.tag(PreparedRequest.class);
+        if (req == null || req.cookieJar == null) {
+            return chain.proceed(request);
+        }
+        CookieJar previous = CURRENT.get();
+        CURRENT.set(req.cookieJar);
+        try {
+            return chain.proceed(request);
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    @Override
+    public void saveFromResponse(@NotNull HttpUrl url, @NotNull List<Cookie> cookies) {
+        current().saveFromResponse(url, cookies);
+    }
+
+    @NotNull
+    @Override
+    public List<Cookie> loadForRequest(@NotNull HttpUrl url) {
+        return current().loadForRequest(url);
+    }
+
+    private CookieJar current() {
+        CookieJar jar = CURRENT.get();
+        return jar != null ? jar : defaultJar;
+    }
+}
@@ -0,0 +1,136 @@
+package com.laker.postman.service.http.okhttp;
+
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+
+import java.net.CookieStore;
+import java.net.HttpCookie;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测虚拟用户独立的 Cookie 存储
+ * <p>
+ * 每个 VU 各自保存会话 Cookie，互不影响，也不写入全局 CookieManager、不触发界面刷新。
+ * 按 Cookie 的域名分组保存，匹配时只查找请求主机及其上级域名；域名、路径和 Secure 的匹配规则由 {@link Cookie#matches} 判断。
+ * 同一 VU 的请求依次执行，锁基本无竞争。
+ */
+public class VirtualUserCookieJar implements CookieJar {
+    private static final String LOCAL_SUFFIX = ".local";
+    private final Map<String, List<Cookie>> cookiesByDomain = new HashMap<>();
+
+    public VirtualUserCookieJar() {
+    }
+
+    /**
+     * @param seed 初始 Cookie（如全局 Cookie 的快照），过期的会被忽略
+     */
+    public VirtualUserCookieJar(List<Cookie> seed) {
+        long now = System.currentTimeMillis();
+        for (Cookie cookie : seed) {
+            if (cookie.expiresAt() > now) {
+                cookiesByDomain.computeIfAbsent(cookie.domain(), k -> new ArrayList<>(2)).add(cookie);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void saveFromResponse(HttpUrl url, List<Cookie> cookies) {
+        long now = System.currentTimeMillis();
+        for (Cookie cookie : cookies) {
+            List<Cookie> list = cookiesByDomain.computeIfAbsent(cookie.domain(), k -> new ArrayList<>(2));
+            // 同名、同域、同路径的 Cookie 被新值替换，已过期的表示删除
+            list.removeIf(c -> c.name().equals(cookie.name()) && c.path().equals(cookie.path())
+                    && c.hostOnly() == cookie.hostOnly());
+            if (cookie.expiresAt() > now) {
+                list.add(cookie);
+            }
+        }
+    }
+
+    @Override
+    public synchronized List<Cookie> loadForRequest(HttpUrl url) {
+        if (cookiesByDomain.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long now = System.currentTimeMillis();
+        List<Cookie> result = null;
+        // 依次查找 a.b.com、b.com、com
+        String domain = url.host();
+        while (domain != null) {
+            List<Cookie> list = cookiesByDomain.get(domain);
+            if (list != null) {
+                for (Iterator<Cookie> it = list.iterator(); it.hasNext(); ) {
+                    Cookie cookie = it.next();
+                    if (cookie.expiresAt() <= now) {
+                        it.remove();
+                    } else if (cookie.matches(url)) {
+                        if (result == null) {
+                            result = new ArrayList<>();
+                        }
+                        result.add(cookie);
+                    }
+                }
+            }
+            int dot = domain.indexOf('.');
+            domain = dot >= 0 ? domain.substring(dot + 1) : null;
+        }
+        return result != null ? result : Collections.emptyList();
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (List<Cookie> list : cookiesByDomain.values()) {
+            size += list.size();
+        }
+        return size;
+    }
+
+    /**
+     * 将全局 CookieStore 中未过期的 Cookie 转换为 OkHttp Cookie，作为各 VU 的初始 Cookie
+     * <p>
+     * 按 RFC 6265 的域名匹配规则，设置了 Domain 属性的 Cookie 同时匹配子域名，与是否以点开头无关。
+     * HttpCookie 不区分 Domain 属性是否显式设置（CookieManager 会把缺省的域名填为请求主机），
+     * 因此快照中的 Cookie 都按域 Cookie 处理，与全局 CookieManager 的匹配结果一致；
+     * 无点主机名（如 localhost）被 CookieManager 填为 {@code localhost.local}，还原为只匹配该主机。
+     */
+    public static List<Cookie> snapshot(CookieStore store) {
+        List<Cookie> result = new ArrayList<>();
+        for (HttpCookie httpCookie : store.getCookies()) {
+            String domain = httpCookie.getDomain();
+            if (httpCookie.hasExpired() || domain == null || domain.isEmpty()) {
+                continue;
+            }
+            Cookie.Builder builder = new Cookie.Builder()
+                    .name(httpCookie.getName())
+                    .value(httpCookie.getValue())
+                    .path(httpCookie.getPath() != null && httpCookie.getPath().startsWith("/") ? httpCookie.getPath() : "/");
+            try {
+                String bare = domain.startsWith(".") ? domain.substring(1) : domain;
+                if (bare.endsWith(LOCAL_SUFFIX) && bare.indexOf('.') == bare.length() - LOCAL_SUFFIX.length()) {
+                    builder.hostOnlyDomain(bare.substring(0, bare.length() - LOCAL_SUFFIX.length()));
+                } else {
+                    builder.domain(bare);
+                }
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (httpCookie.getMaxAge() >= 0) {
+                builder.expiresAt(System.currentTimeMillis() + httpCookie.getMaxAge() * 1000);
+            }
+            if (httpCookie.getSecure()) {
+                builder.secure();
+            }
+            if (httpCookie.isHttpOnly()) {
+                builder.httpOnly();
+            }
+            result.add(builder.build());
+        }
+        return result;
+    }
+}
@@ -10,9 +10,13 @@ import lombok.extern.slf4j.Slf4j;
 import okhttp3.OkHttpClient;
 
 import javax.net.ssl.*;
+import java.io.File;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.text.MessageFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * SSL配置工具类
@@ -42,6 +46,9 @@ public class SSLConfigurationUtil {
     // 存储最近的SSL验证结果，按线程区分
     private static final ThreadLocal<SSLValidationResult> lastValidationResult = new ThreadLocal<>();
 
+    // 按验证模式和客户端证书缓存的 SSL 配置
+    private static final Map<String, SslSetup> sslCache = new ConcurrentHashMap<>();
+
     /**
      * 获取当前线程的SSL验证结果
      */
@@ -90,28 +97,8 @@ public class SSLConfigurationUtil {
     public static void configureSSL(OkHttpClient.Builder builder, SSLVerificationMode mode,
                                     String host, int port) {
         try {
-            // 查找并加载匹配的客户端证书
-            KeyManager[] keyManagers = loadClientCertificate(host, port);
-
-            // 配置 TrustManager
-            X509TrustManager trustManager = configureTrustManager(mode, keyManagers);
-
-            // 严格模式且没有客户端证书：使用默认配置
-            if (trustManager == null) {
-                return;
-            }
-
-            // 初始化 SSL 上下文
-            SSLContext sslContext = SSLContext.getInstance("TLS");
-            // 当 keyManagers 为空数组时，传递 null 更合适
-            KeyManager[] kms = (keyManagers != null && keyManagers.length > 0) ? keyManagers : null;
-            sslContext.init(kms, new TrustManager[]{trustManager}, new java.security.SecureRandom());
-
-            // 使用自定义的 SSLSocketFactory 来捕获证书信息
-            CertificateCapturingSSLSocketFactory socketFactory =
-                    new CertificateCapturingSSLSocketFactory(sslContext);
-
-            builder.sslSocketFactory(socketFactory, trustManager);
+            SslSetup setup = getSslSetup(mode, host, port);
+            builder.sslSocketFactory(setup.socketFactory(), setup.trustManager());
 
             // 配置 HostnameVerifier
             if (mode != SSLVerificationMode.STRICT) {
@@ -127,70 +114,125 @@ public class SSLConfigurationUtil {
     }
 
     /**
-     * 加载客户端证书
+     * 清除缓存的 SSL 上下文，下次创建客户端时重新加载证书
+     */
+    public static void clearSslCache() {
+        sslCache.clear();
+    }
+
+    /**
+     * 获取验证模式和客户端证书对应的 SSL 配置，优先使用缓存
+     */
+    static SslSetup getSslSetup(SSLVerificationMode mode, String host, int port) throws Exception {
+        ClientCertificate clientCert = findClientCertificate(host, port);
+        if (clientCert != null) {
+            try {
+                return getSslSetup(mode, clientCert);
+            } catch (Exception e) {
+                log.error("Failed to load client certificate for host: {}", host, e);
+
+                // 输出到控制台：证书加载失败
+                String message = MessageFormat.format(
+                        I18nUtil.getMessage(MessageKeys.CERT_CONSOLE_LOAD_FAILED),
+                        certDisplayName(clientCert), e.getMessage()
+                );
+                ConsolePanel.appendLog(message, ConsolePanel.LogType.ERROR);
+            }
+        }
+        return getSslSetup(mode, null);
+    }
+
+    /**
+     * 按验证模式和证书（路径 + 修改时间 + 配置版本）缓存 KeyManager、TrustManager 和 SSLSocketFactory
+     * <p>
+     * 相同配置的客户端共享同一个 SSLContext，其会话缓存按主机和端口保存 TLS 会话，
+     * 因此清理客户端缓存或为新 baseUri 创建客户端后仍可恢复会话，不必重新完整握手。
+     */
+    static SslSetup getSslSetup(SSLVerificationMode mode, ClientCertificate clientCert) throws Exception {
+        String key = clientCert == null ? mode.name() : mode.name() + "|" + certIdentity(clientCert);
+        String stamp = clientCert == null ? "" : certStamp(clientCert);
+        SslSetup cached = sslCache.get(key);
+        if (cached != null && cached.stamp().equals(stamp)) {
+            return cached;
+        }
+        synchronized (sslCache) {
+            cached = sslCache.get(key);
+            if (cached != null && cached.stamp().equals(stamp)) {
+                return cached;
+            }
+            KeyManager[] keyManagers = clientCert == null ? null : loadClientCertificate(clientCert);
+            X509TrustManager trustManager = mode == SSLVerificationMode.STRICT
+                    ? getDefaultTrustManager()
+                    : createTrustManager(mode);
+
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagers, new TrustManager[]{trustManager}, new java.security.SecureRandom());
+
+            // 使用自定义的 SSLSocketFactory 来捕获证书信息
+            SslSetup setup = new SslSetup(stamp, new CertificateCapturingSSLSocketFactory(sslContext), trustManager);
+            sslCache.put(key, setup);
+            return setup;
+        }
+    }
+
+    /**
+     * 查找目标主机匹配且文件有效的客户端证书
      */
-    private static KeyManager[] loadClientCertificate(String host, int port) {
+    private static ClientCertificate findClientCertificate(String host, int port) {
         if (host == null || host.isEmpty()) {
-            return new KeyManager[0];
+            return null;
         }
         ClientCertificateService clientCertificateService = BeanFactory.getBean(ClientCertificateService.class);
         ClientCertificate clientCert = clientCertificateService.findMatchingCertificate(host, port);
         if (clientCert == null || !clientCertificateService.validateCertificatePaths(clientCert)) {
-            return new KeyManager[0];
+            return null;
         }
+        return clientCert;
+    }
 
-        try {
-            KeyManager[] keyManagers = ClientCertificateLoader.createKeyManagers(clientCert);
-            log.info("Using client certificate for host: {} ({})", host, clientCert.getName());
-
-            // 输出到控制台：证书加载成功
-            String certName = clientCert.getName() != null && !clientCert.getName().isEmpty()
-                    ? clientCert.getName()
-                    : clientCert.getCertPath();
-            String message = MessageFormat.format(
-                    I18nUtil.getMessage(MessageKeys.CERT_CONSOLE_LOADED),
-                    certName
-            );
-            ConsolePanel.appendLog(message, ConsolePanel.LogType.SUCCESS);
-
-            return keyManagers;
-        } catch (Exception e) {
-            log.error("Failed to load client certificate for host: {}", host, e);
-
-            // 输出到控制台：证书加载失败
-            String certName = clientCert.getName() != null && !clientCert.getName().isEmpty()
-                    ? clientCert.getName()
-                    : clientCert.getCertPath();
-            String message = MessageFormat.format(
-                    I18nUtil.getMessage(MessageKeys.CERT_CONSOLE_LOAD_FAILED),
-                    certName, e.getMessage()
-            );
-            ConsolePanel.appendLog(message, ConsolePanel.LogType.ERROR);
-
-            return new KeyManager[0];
-        }
+    /**
+     * 加载客户端证书
+     */
+    private static KeyManager[] loadClientCertificate(ClientCertificate clientCert) throws Exception {
+        KeyManager[] keyManagers = ClientCertificateLoader.createKeyManagers(clientCert);
+        log.info("Loaded client certificate: {} ({})", clientCert.getName(), clientCert.getCertPath());
+
+        // 输出到控制台：证书加载成功
+        String message = MessageFormat.format(
+                I18nUtil.getMessage(MessageKeys.CERT_CONSOLE_LOADED),
+                certDisplayName(clientCert)
+        );
+        ConsolePanel.appendLog(message, ConsolePanel.LogType.SUCCESS);
+        return keyManagers;
+    }
+
+    private static String certDisplayName(ClientCertificate clientCert) {
+        return clientCert.getName() != null && !clientCert.getName().isEmpty()
+                ? clientCert.getName()
+                : clientCert.getCertPath();
+    }
+
+    // 同一证书配置只保留一个缓存项，配置或文件变化后替换
+    private static String certIdentity(ClientCertificate clientCert) {
+        return clientCert.getId() != null ? clientCert.getId() : clientCert.getCertPath();
+    }
+
+    // 证书文件、私钥文件的修改时间以及配置内容，任一变化都需要重新加载
+    private static String certStamp(ClientCertificate clientCert) {
+        return clientCert.getCertType() + "|" + clientCert.getCertPath() + "|" + lastModified(clientCert.getCertPath())
+                + "|" + clientCert.getKeyPath() + "|" + lastModified(clientCert.getKeyPath())
+                + "|" + clientCert.getUpdatedAt()
+                + "|" + Objects.hash(clientCert.getCertPassword(), clientCert.getKeyPassword());
+    }
+
+    private static long lastModified(String path) {
+        return path == null || path.isEmpty() ? 0 : new File(path).lastModified();
     }
 
     /**
-     * 配置 TrustManager
-     *
-     * @return TrustManager 或 null（表示使用默认配置）
+     * 缓存的 SSL 配置
      */
-    private static X509TrustManager configureTrustManager(SSLVerificationMode mode, KeyManager[] keyManagers)
-            throws SSLConfigurationException {
-        if (mode == SSLVerificationMode.STRICT) {
-            // 严格模式：使用系统默认的信任管理器（只有在有客户端证书时才需要自定义配置）
-            if (keyManagers != null && keyManagers.length > 0) {
-                // 有客户端证书，需要返回默认的 TrustManager 以配置 SSL 上下文
-                return getDefaultTrustManager();
-            } else {
-                // 没有客户端证书，使用默认配置（返回null会跳过自定义配置）
-                return null;
-            }
-        } else {
-            // 宽松模式或信任所有模式
-            return createTrustManager(mode);
-        }
+    record SslSetup(String stamp, SSLSocketFactory socketFactory, X509TrustManager trustManager) {
     }
 
     /**
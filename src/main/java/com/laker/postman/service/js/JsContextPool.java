@@ -0,0 +1,295 @@
+package com.laker.postman.service.js;
+
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GraalJS 上下文池
+ * <p>
+ * 创建 Context 并注入 polyfill 的开销远大于执行一段简短脚本，压测时每个请求都有前置/后置脚本，
+ * 因此上下文在使用后归还池中复用：polyfill 只在创建时注入一次，注入后记录全局对象的全部属性，
+ * 每次归还时删除新增的全局属性（绑定变量、未声明直接赋值的隐式全局变量），并恢复被改写的全局属性，
+ * 脚本状态不会泄漏给下一个租用者；无法恢复时关闭该上下文。
+ * Context 不是线程安全的，同一时刻只会被一个线程租用；空闲数量超过上限时多余的上下文直接关闭。
+ */
+@Slf4j
+public class JsContextPool {
+    public static final int DEFAULT_MAX_IDLE = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+
+    private final Engine engine;
+    private final ConcurrentLinkedDeque<PooledContext> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    // 同时租用数的峰值，压测开始时重置
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    // 记录当前全局属性描述符，返回的函数把全局对象恢复到记录时的状态，全部恢复成功时返回 true
+    private static final String GLOBAL_SNAPSHOT_SCRIPT = """
+            (function () {
+                const g = globalThis;
+                const saved = new Map();
+                for (const name of Reflect.ownKeys(g)) {
+                    saved.set(name, Reflect.getOwnPropertyDescriptor(g, name));
+                }
+                return function reset() {
+                    let clean = true;
+                    for (const name of Reflect.ownKeys(g)) {
+                        if (!saved.has(name) && !Reflect.deleteProperty(g, name)) {
+                            clean = false;
+                        }
+                    }
+                    for (const [name, d] of saved) {
+                        const cur = Reflect.getOwnPropertyDescriptor(g, name);
+                        if (!cur || cur.value !== d.value || cur.get !== d.get || cur.set !== d.set
+                                || cur.writable !== d.writable || cur.enumerable !== d.enumerable) {
+                            if (!Reflect.defineProperty(g, name, d)) {
+                                clean = false;
+                            }
+                        }
+                    }
+                    return clean;
+                };
+            })()
+            """;
+    private volatile int maxIdle = DEFAULT_MAX_IDLE;
+
+    public JsContextPool(Engine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * 设置最多保留的空闲上下文数量，压测时可按并发用户数调大
+     */
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = Math.max(0, maxIdle);
+        trimIdle();
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * 租用一个上下文，并注入本次的绑定变量和输出回调
+     */
+    public PooledContext lease(Map<String, Object> bindings, JsScriptExecutor.OutputCallback outputCallback) {
+        PooledContext pooled = idle.pollFirst();
+        if (pooled != null) {
+            idleCount.decrementAndGet();
+            reused.incrementAndGet();
+        } else {
+            pooled = create();
+        }
+        leases.incrementAndGet();
+        int using = inUse.incrementAndGet();
+        if (using > peakInUse.get()) {
+            peakInUse.accumulateAndGet(using, Math::max);
+        }
+        pooled.bind(bindings, outputCallback);
+        return pooled;
+    }
+
+    /**
+     * 归还上下文；broken 为 true（如脚本被取消或引擎内部错误）时直接关闭不再复用
+     */
+    public void release(PooledContext pooled, boolean broken) {
+        inUse.decrementAndGet();
+        if (!broken) {
+            try {
+                pooled.unbind();
+            } catch (Exception e) {
+                log.warn("重置JS上下文失败，关闭该上下文: {}", e.getMessage());
+                broken = true;
+            }
+        }
+        if (broken || idleCount.get() >= maxIdle) {
+            close(pooled);
+            return;
+        }
+        idleCount.incrementAndGet();
+        idle.offerFirst(pooled);
+    }
+
+    /**
+     * 关闭所有空闲上下文
+     */
+    public void clear() {
+        PooledContext pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            close(pooled);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(idleCount.get(), inUse.get(), peakInUse.get(), created.get(), closed.get(), leases.get(), reused.get());
+    }
+
+    /**
+     * 把同时租用数的峰值重置为当前租用数，用于按次统计压测
+     */
+    public void resetPeakInUse() {
+        peakInUse.set(inUse.get());
+    }
+
+    private void trimIdle() {
+        while (idleCount.get() > maxIdle) {
+            PooledContext pooled = idle.pollLast();
+            if (pooled == null) return;
+            idleCount.decrementAndGet();
+            close(pooled);
+        }
+    }
+
+    private PooledContext create() {
+        RedirectOutputStream out = new RedirectOutputStream();
+        Context context = Context.newBuilder("js")
+                .allowAllAccess(true)
+                .out(out)
+                .err(out)
+                .engine(engine)
+                .build();
+        JsPolyfillInjector.injectAll(context);
+        Value resetGlobals = context.eval("js", GLOBAL_SNAPSHOT_SCRIPT);
+        created.incrementAndGet();
+        return new PooledContext(context, out, resetGlobals);
+    }
+
+    private void close(PooledContext pooled) {
+        try {
+            pooled.context.close(true);
+        } catch (Exception e) {
+            log.debug("关闭JS上下文失败: {}", e.getMessage());
+        }
+        closed.incrementAndGet();
+    }
+
+    /**
+     * 池中的上下文，归还时把全局对象恢复到刚注入 polyfill 后的状态
+     */
+    public static final class PooledContext {
+        private final Context context;
+        private final RedirectOutputStream out;
+        private final Value resetGlobals;
+
+        private PooledContext(Context context, RedirectOutputStream out, Value resetGlobals) {
+            this.context = context;
+            this.out = out;
+            this.resetGlobals = resetGlobals;
+        }
+
+        public Context getContext() {
+            return context;
+        }
+
+        /**
+         * 刷新本次脚本的输出到回调
+         */
+        public void flushOutput() {
+            out.flush();
+        }
+
+        private void bind(Map<String, Object> bindings, JsScriptExecutor.OutputCallback outputCallback) {
+            out.callback = outputCallback;
+            if (bindings != null) {
+                Value js = context.getBindings("js");
+                for (Map.Entry<String, Object> entry : bindings.entrySet()) {
+                    js.putMember(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        private void unbind() {
+            out.discard();
+            out.callback = null;
+            if (!resetGlobals.execute().asBoolean()) {
+                throw new IllegalStateException("global state could not be restored");
+            }
+        }
+    }
+
+    /**
+     * 池状态快照
+     */
+    public static final class Stats {
+        public final int idle;
+        public final int inUse;
+        public final int peakInUse;
+        public final long created;
+        public final long closed;
+        public final long leases;
+        public final long reused;
+
+        Stats(int idle, int inUse, int peakInUse, long created, long closed, long leases, long reused) {
+            this.idle = idle;
+            this.inUse = inUse;
+            this.peakInUse = peakInUse;
+            this.created = created;
+            this.closed = closed;
+            this.leases = leases;
+            this.reused = reused;
+        }
+
+        public double getReuseRate() {
+            return leases == 0 ? 0 : reused * 100.0 / leases;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("idle=%d, inUse=%d, peakInUse=%d, created=%d, closed=%d, leases=%d, reuse=%.1f%%",
+                    idle, inUse, peakInUse, created, closed, leases, getReuseRate());
+        }
+    }
+
+    /**
+     * 按租用者切换输出目标的输出流，按行回调
+     */
+    private static final class RedirectOutputStream extends OutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private volatile JsScriptExecutor.OutputCallback callback;
+
+        @Override
+        public void write(int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            if (buffer.size() == 0) {
+                return;
+            }
+            String chunk = buffer.toString(StandardCharsets.UTF_8);
+            buffer.reset(); // 清空缓冲区
+            JsScriptExecutor.OutputCallback cb = callback;
+            if (cb != null && !chunk.isEmpty()) {
+                for (String line : chunk.split("\n")) {
+                    if (!line.isEmpty()) {
+                        cb.onOutput(line);
+                    }
+                }
+            }
+        }
+
+        void discard() {
+            buffer.reset();
+        }
+    }
+}
@@ -1,16 +1,18 @@
 package com.laker.postman.service.js;
 
-import org.graalvm.polyglot.Context;
+import com.laker.postman.util.LruCache;
 import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
  * JS脚本执行器，使用GraalVM的Polyglot API执行JavaScript脚本。
+ * <p>
+ * 上下文从 {@link JsContextPool} 租用，脚本按内容缓存为 {@link Source}，
+ * 共享 Engine 可以复用已解析/编译的代码。脚本包裹在函数作用域中执行，
+ * 多次在同一上下文中执行时 let/const 声明不会冲突，局部变量也不会泄漏到下一个脚本。
  */
 public class JsScriptExecutor {
 
@@ -18,10 +20,20 @@ public class JsScriptExecutor {
             .option("engine.WarnInterpreterOnly", "false") // 禁用解释器模式警告
             .build();
 
+    private static final JsContextPool CONTEXT_POOL = new JsContextPool(ENGINE);
+
+    private static final int MAX_SOURCE_CACHE_SIZE = 512;
+    // 按条目数和脚本总长度淘汰，超长脚本不缓存
+    private static final LruCache<Source> SOURCE_CACHE = new LruCache<>(MAX_SOURCE_CACHE_SIZE, 2L * 1024 * 1024, 64 * 1024);
+
     private JsScriptExecutor() {
         // 工具类不应该被实例化
     }
 
+    public static JsContextPool getContextPool() {
+        return CONTEXT_POOL;
+    }
+
     /**
      * 执行JS脚本，自动注入所有变量、polyfill，并支持输出回调。
      *
@@ -30,61 +42,30 @@ public class JsScriptExecutor {
      * @param outputCallback 输出回调（可为null）
      */
     public static void executeScript(String script, Map<String, Object> bindings, OutputCallback outputCallback) {
-        OutputStream outputStream = new OutputStream() {
-            private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-
-            @Override
-            public void write(int b) {
-                buffer.write(b);
-            }
-
-            @Override
-            public void flush() throws IOException {
-                super.flush();
-                if (buffer.size() == 0) {
-                    return;
-                }
-                String chunk = bufferToString(buffer);
-                buffer.reset(); // 清空缓冲区
-                if (outputCallback != null && !chunk.isEmpty()) {
-                    for (String line : chunk.split("\n")) {
-                        if (!line.isEmpty()) {
-                            outputCallback.onOutput(line);
-                        }
-                    }
-                }
-            }
-        };
-
-        try (Context context = Context.newBuilder("js")
-                .allowAllAccess(true)
-                .out(outputStream)
-                .err(outputStream)
-                .engine(ENGINE)
-                .build()) {
-            injectBindings(context, bindings);
-            JsPolyfillInjector.injectAll(context);
-            context.eval("js", script);
-
-            // 最后 flush 一次，防止遗漏未输出的内容
-            outputStream.flush();
-        } catch (IOException e) {
-            if (outputCallback != null) {
-                outputCallback.onOutput("Error executing script: " + e.getMessage());
-            }
-        }
-    }
-
-    private static void injectBindings(Context context, Map<String, Object> bindings) {
-        if (bindings != null) {
-            for (var entry : bindings.entrySet()) {
-                context.getBindings("js").putMember(entry.getKey(), entry.getValue());
-            }
+        Source source = getSource(script);
+        JsContextPool.PooledContext pooled = CONTEXT_POOL.lease(bindings, outputCallback);
+        boolean broken = false;
+        try {
+            pooled.getContext().eval(source);
+        } catch (PolyglotException e) {
+            // 被取消、退出或引擎内部错误的上下文不再复用
+            broken = e.isCancelled() || e.isExit() || e.isInternalError();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            broken = true;
+            throw e;
+        } finally {
+            // 最后 flush 一次，防止遗漏未输出的内容（脚本报错前的输出也要回调）
+            pooled.flushOutput();
+            CONTEXT_POOL.release(pooled, broken);
         }
     }
 
-    private static String bufferToString(ByteArrayOutputStream buffer) {
-        return buffer.size() == 0 ? "" : buffer.toString(StandardCharsets.UTF_8);
+    private static Source getSource(String script) {
+        // 首行拼接包裹函数，保证报错行号与原脚本一致
+        return SOURCE_CACHE.get(script, s -> Source.newBuilder("js", "(function () {" + s + "\n})();", "script.js")
+                .cached(true)
+                .buildLiteral());
     }
 
     /**
@@ -93,4 +74,4 @@ public class JsScriptExecutor {
     public interface OutputCallback {
         void onOutput(String output);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,403 @@
+package com.laker.postman.service.performance.assertion;
+
+import com.laker.postman.model.HttpResponse;
+import com.laker.postman.panel.performance.assertion.AssertionData;
+import com.laker.postman.util.BytePattern;
+import com.laker.postman.util.CompiledJsonPath;
+import com.laker.postman.util.I18nUtil;
+import com.laker.postman.util.MessageKeys;
+import com.laker.postman.util.StreamingMatcher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 将界面上的断言配置编译为 {@link CompiledAssertion}
+ * <p>
+ * 类型字符串、比较运算符、期望值、正则和 JSONPath 在编译时解析一次，执行时只做判断；
+ * 配置无效（如响应码不是数字、正则语法错误）时编译为恒失败的断言。
+ * 断言类型通过 {@link #register(String, Factory)} 注册，可以按类型扩展。
+ * <p>
+ * Contains 和 JSONPath 断言编译为流式断言：子串和路径（{@link CompiledJsonPath}）预编译，在读取响应体时逐块匹配，
+ * 压测时响应体无需保留，也不需要解码为字符串或解析整个 JSON。
+ */
+@Slf4j
+public class AssertionCompiler {
+    public static final String RESPONSE_CODE = "Response Code";
+    public static final String CONTAINS = "Contains";
+    public static final String JSON_PATH = "JSONPath";
+    public static final String HEADER = "Header";
+    public static final String REGEX = "Regex";
+    public static final String RESPONSE_TIME = "Response Time";
+    public static final String BODY_SIZE = "Body Size";
+
+    // 比较运算符之外的文本运算符（Header/JSONPath）
+    public static final String OP_CONTAINS = "contains";
+    public static final String OP_MATCHES = "matches";
+    public static final String OP_EXISTS = "exists";
+
+    private static final Map<String, Factory> FACTORIES = new ConcurrentHashMap<>();
+
+    static {
+        register(RESPONSE_CODE, AssertionCompiler::compileResponseCode);
+        register(CONTAINS, AssertionCompiler::compileContains);
+        register(JSON_PATH, AssertionCompiler::compileJsonPath);
+        register(HEADER, AssertionCompiler::compileHeader);
+        register(REGEX, AssertionCompiler::compileRegex);
+        register(RESPONSE_TIME, (data, descriptor) -> compileLongBound(data, descriptor, resp -> resp.costMs));
+        register(BODY_SIZE, (data, descriptor) -> compileLongBound(data, descriptor, resp -> resp.bodySize));
+    }
+
+    private AssertionCompiler() {
+    }
+
+    /**
+     * 断言工厂：按类型把断言配置编译为可重复执行的断言，配置无效时抛出 {@link IllegalArgumentException}
+     */
+    @FunctionalInterface
+    public interface Factory {
+        CompiledAssertion compile(AssertionData data, Descriptor descriptor);
+    }
+
+    /**
+     * 编译前生成好的断言描述信息
+     *
+     * @param type           断言类型
+     * @param name           断言名称，如 {@code Response Code = 200}，用于结果展示和按断言统计
+     * @param failureMessage 失败提示
+     */
+    public record Descriptor(String type, String name, String failureMessage) {
+    }
+
+    /**
+     * 注册（或替换）一种断言类型
+     */
+    public static void register(String type, Factory factory) {
+        FACTORIES.put(type, factory);
+    }
+
+    public static CompiledAssertion compile(AssertionData data) {
+        String type = data.type;
+        String detail = describe(data);
+        String name = detail.isEmpty() ? type : type + " " + detail;
+        Descriptor descriptor = new Descriptor(type, name,
+                I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_ASSERTION_FAILED, type, detail));
+        Factory factory = type != null ? FACTORIES.get(type) : null;
+        if (factory == null) {
+            log.warn("不支持的断言类型: {}", type);
+            return alwaysFail(descriptor);
+        }
+        try {
+            return factory.compile(data, descriptor);
+        } catch (IllegalArgumentException e) {
+            log.warn("断言配置无效: {} ({})", name, e.getMessage());
+            return alwaysFail(descriptor);
+        }
+    }
+
+    // 断言条件的简短描述（不含类型）
+    private static String describe(AssertionData data) {
+        String op = blankToEmpty(data.operator);
+        String value = blankToEmpty(data.value);
+        String content = blankToEmpty(data.content);
+        if (data.type == null) {
+            return "";
+        }
+        String detail = switch (data.type) {
+            case RESPONSE_CODE, RESPONSE_TIME, BODY_SIZE -> op + " " + value;
+            case CONTAINS, REGEX -> CompareOperator.of(op) == CompareOperator.NE ? "!= " + content : content;
+            case JSON_PATH, HEADER -> OP_EXISTS.equals(op) ? value + " " + op : value + " " + op + " " + content;
+            default -> content;
+        };
+        return detail.trim();
+    }
+
+    private static CompiledAssertion alwaysFail(Descriptor descriptor) {
+        return new Simple(descriptor, false, resp -> false);
+    }
+
+    private static CompiledAssertion compileResponseCode(AssertionData data, Descriptor descriptor) {
+        String value = requireText(data.value, "response code");
+        CompareOperator op = requireOperator(data.operator);
+        if (value.matches("\\d+")) {
+            int expect = Integer.parseInt(value);
+            return new Simple(descriptor, false, resp -> op.test(resp.code, expect));
+        }
+        // 范围：2xx、200-299 或逗号分隔的组合，只支持 = 和 !=
+        if (op != CompareOperator.EQ && op != CompareOperator.NE) {
+            throw new IllegalArgumentException("status ranges only support = and !=");
+        }
+        int[] ranges = parseStatusRanges(value);
+        boolean expectIn = op == CompareOperator.EQ;
+        return new Simple(descriptor, false, resp -> inRanges(ranges, resp.code) == expectIn);
+    }
+
+    private static CompiledAssertion compileContains(AssertionData data, Descriptor descriptor) {
+        String content = data.content;
+        if (content == null) {
+            throw new IllegalArgumentException("content is empty");
+        }
+        boolean expectFound = optionalOperator(data.operator) != CompareOperator.NE;
+        BytePattern pattern = BytePattern.compile(content);
+        return new Streaming<>(descriptor, pattern::newMatcher, matcher -> matcher.isFound() == expectFound, resp -> {
+            String body = resp.getBody();
+            return (body != null && body.contains(content)) == expectFound;
+        });
+    }
+
+    private static CompiledAssertion compileJsonPath(AssertionData data, Descriptor descriptor) {
+        CompiledJsonPath path = CompiledJsonPath.compile(data.value);
+        String expect = data.content;
+        Predicate<String> check;
+        if (OP_EXISTS.equals(data.operator)) {
+            check = Objects::nonNull;
+        } else {
+            CompareOperator op = optionalOperator(data.operator);
+            if (op == CompareOperator.EQ) {
+                check = actual -> Objects.equals(actual, expect);
+            } else if (op == CompareOperator.NE) {
+                check = actual -> !Objects.equals(actual, expect);
+            } else {
+                // 数值比较：期望值在编译时解析
+                BigDecimal expected = new BigDecimal(requireText(expect, "expected number"));
+                check = actual -> {
+                    BigDecimal number = toDecimal(actual);
+                    return number != null && op.test(number.compareTo(expected));
+                };
+            }
+        }
+        return new Streaming<>(descriptor, path::newMatcher, matcher -> check.test(matcher.getValue()),
+                resp -> check.test(path.readAsString(resp.getBody())));
+    }
+
+    private static CompiledAssertion compileHeader(AssertionData data, Descriptor descriptor) {
+        String headerName = requireText(data.value, "header name");
+        String expect = data.content != null ? data.content : "";
+        String op = data.operator != null ? data.operator.trim() : "=";
+        Predicate<String> check;
+        if (OP_EXISTS.equals(op)) {
+            check = Objects::nonNull;
+        } else if (OP_CONTAINS.equals(op)) {
+            check = actual -> actual != null && actual.contains(expect);
+        } else if (OP_MATCHES.equals(op)) {
+            Pattern pattern = Pattern.compile(expect);
+            check = actual -> actual != null && pattern.matcher(actual).find();
+        } else {
+            CompareOperator compare = requireOperator(op);
+            if (compare == CompareOperator.EQ) {
+                check = expect::equals;
+            } else if (compare == CompareOperator.NE) {
+                check = actual -> !expect.equals(actual);
+            } else {
+                throw new IllegalArgumentException("unsupported header operator: " + op);
+            }
+        }
+        return new Simple(descriptor, false, resp -> check.test(header(resp, headerName)));
+    }
+
+    private static CompiledAssertion compileRegex(AssertionData data, Descriptor descriptor) {
+        Pattern pattern = Pattern.compile(requireText(data.content, "regex"));
+        boolean expectFound = optionalOperator(data.operator) != CompareOperator.NE;
+        return new Simple(descriptor, true, resp -> {
+            String body = resp.getBody();
+            return (body != null && pattern.matcher(body).find()) == expectFound;
+        });
+    }
+
+    // 响应时间（毫秒）、响应体大小（字节）等数值上下限
+    private static CompiledAssertion compileLongBound(AssertionData data, Descriptor descriptor, LongMetric metric) {
+        long limit = Long.parseLong(requireText(data.value, "limit"));
+        CompareOperator op = requireOperator(data.operator);
+        return new Simple(descriptor, false, resp -> op.test(metric.of(resp), limit));
+    }
+
+    // 2xx、200-299、200,204 等格式，返回按 [low, high] 成对排列的数组
+    static int[] parseStatusRanges(String value) {
+        String[] parts = value.split(",");
+        int[] ranges = new int[parts.length * 2];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i].trim();
+            int low;
+            int high;
+            if (part.matches("[1-5][xX]{2}")) {
+                low = (part.charAt(0) - '0') * 100;
+                high = low + 99;
+            } else if (part.matches("\\d+\\s*-\\s*\\d+")) {
+                String[] bounds = part.split("-");
+                low = Integer.parseInt(bounds[0].trim());
+                high = Integer.parseInt(bounds[1].trim());
+            } else if (part.matches("\\d+")) {
+                low = high = Integer.parseInt(part);
+            } else {
+                throw new IllegalArgumentException("invalid status range: " + part);
+            }
+            ranges[i * 2] = low;
+            ranges[i * 2 + 1] = high;
+        }
+        return ranges;
+    }
+
+    private static boolean inRanges(int[] ranges, int code) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (code >= ranges[i] && code <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 响应头名称不区分大小写，取第一个值
+    private static String header(HttpResponse resp, String name) {
+        if (resp.headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, List<String>> entry : resp.headers.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey())) {
+                List<String> values = entry.getValue();
+                return values == null || values.isEmpty() ? null : values.get(0);
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal toDecimal(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static CompareOperator requireOperator(String symbol) {
+        CompareOperator op = CompareOperator.of(symbol);
+        if (op == null) {
+            throw new IllegalArgumentException("unsupported operator: " + symbol);
+        }
+        return op;
+    }
+
+    // 运算符为空时默认为 =
+    private static CompareOperator optionalOperator(String symbol) {
+        return symbol == null || symbol.isBlank() ? CompareOperator.EQ : requireOperator(symbol);
+    }
+
+    private static String requireText(String text, String what) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException(what + " is empty");
+        }
+        return text.trim();
+    }
+
+    private static String blankToEmpty(String text) {
+        return text == null ? "" : text.trim();
+    }
+
+    private interface ResponsePredicate {
+        boolean test(HttpResponse resp);
+    }
+
+    private interface LongMetric {
+        long of(HttpResponse resp);
+    }
+
+    private static final class Simple implements CompiledAssertion {
+        private final Descriptor descriptor;
+        private final boolean needsBody;
+        private final ResponsePredicate predicate;
+
+        Simple(Descriptor descriptor, boolean needsBody, ResponsePredicate predicate) {
+            this.descriptor = descriptor;
+            this.needsBody = needsBody;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public String getType() {
+            return descriptor.type();
+        }
+
+        @Override
+        public String getName() {
+            return descriptor.name();
+        }
+
+        @Override
+        public String getFailureMessage() {
+            return descriptor.failureMessage();
+        }
+
+        @Override
+        public boolean needsBody() {
+            return needsBody;
+        }
+
+        @Override
+        public boolean test(HttpResponse resp) {
+            return predicate.test(resp);
+        }
+    }
+
+    /**
+     * 流式断言：优先使用读取响应体时完成的匹配器，否则退回到完整响应体上判断
+     */
+    private static final class Streaming<M extends StreamingMatcher> implements CompiledAssertion {
+        private final Descriptor descriptor;
+        private final Supplier<M> matcherFactory;
+        private final Predicate<M> matcherPredicate;
+        private final ResponsePredicate fallback;
+
+        Streaming(Descriptor descriptor, Supplier<M> matcherFactory, Predicate<M> matcherPredicate,
+                  ResponsePredicate fallback) {
+            this.descriptor = descriptor;
+            this.matcherFactory = matcherFactory;
+            this.matcherPredicate = matcherPredicate;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public String getType() {
+            return descriptor.type();
+        }
+
+        @Override
+        public String getName() {
+            return descriptor.name();
+        }
+
+        @Override
+        public String getFailureMessage() {
+            return descriptor.failureMessage();
+        }
+
+        @Override
+        public boolean needsBody() {
+            return false;
+        }
+
+        @Override
+        public StreamingMatcher newMatcher() {
+            return matcherFactory.get();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean test(HttpResponse resp, StreamingMatcher matcher) {
+            return matcherPredicate.test((M) matcher);
+        }
+
+        @Override
+        public boolean test(HttpResponse resp) {
+            return fallback.test(resp);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.laker.postman.service.performance.assertion;
+
+/**
+ * 断言比较运算符，编译时由界面上的符号解析得到
+ */
+public enum CompareOperator {
+    EQ("="),
+    NE("!="),
+    GT(">"),
+    GE(">="),
+    LT("<"),
+    LE("<=");
+
+    private final String symbol;
+
+    CompareOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * 按符号解析，"==" 视为 "="，不支持的符号返回 null
+     */
+    public static CompareOperator of(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        String s = symbol.trim();
+        if ("==".equals(s)) {
+            return EQ;
+        }
+        for (CompareOperator op : values()) {
+            if (op.symbol.equals(s)) {
+                return op;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 根据比较结果（{@code compare(actual, expected)}）判断是否满足
+     */
+    public boolean test(int compareResult) {
+        return switch (this) {
+            case EQ -> compareResult == 0;
+            case NE -> compareResult != 0;
+            case GT -> compareResult > 0;
+            case GE -> compareResult >= 0;
+            case LT -> compareResult < 0;
+            case LE -> compareResult <= 0;
+        };
+    }
+
+    public boolean test(long actual, long expected) {
+        return test(Long.compare(actual, expected));
+    }
+}
@@ -0,0 +1,50 @@
+package com.laker.postman.service.performance.assertion;
+
+import com.laker.postman.model.HttpResponse;
+import com.laker.postman.util.StreamingMatcher;
+
+/**
+ * 预编译断言：运行前完成类型解析、参数转换和失败提示的生成，执行时只做判断
+ */
+public interface CompiledAssertion {
+
+    /**
+     * 断言类型，用于结果展示
+     */
+    String getType();
+
+    /**
+     * 断言名称（类型 + 条件），用于结果展示和按断言统计通过/失败次数
+     */
+    default String getName() {
+        return getType();
+    }
+
+    /**
+     * 断言失败时的提示信息（已生成好，执行时不再拼接）
+     */
+    String getFailureMessage();
+
+    boolean test(HttpResponse resp);
+
+    /**
+     * 是否需要读取响应体文本，不需要时压测可以丢弃响应体
+     */
+    default boolean needsBody() {
+        return true;
+    }
+
+    /**
+     * 创建本次响应使用的流式匹配器，读取响应体时逐块推送数据；返回 null 表示只能在完整响应上判断
+     */
+    default StreamingMatcher newMatcher() {
+        return null;
+    }
+
+    /**
+     * 使用已完成的流式匹配器判断，匹配器未完成（如响应体按完整文本读取）时调用方使用 {@link #test(HttpResponse)}
+     */
+    default boolean test(HttpResponse resp, StreamingMatcher matcher) {
+        return test(resp);
+    }
+}
@@ -0,0 +1,105 @@
+package com.laker.postman.service.performance.distributed;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+/**
+ * 控制端与压测节点之间的 TCP 协议
+ * <p>
+ * 握手：双方交换 MAGIC 和版本号，节点随后发送随机挑战值，控制端回复以共享密钥计算的 HMAC-SHA256，
+ * 节点校验通过后回复 {@link #AUTH_OK}，否则回复 {@link #ERROR} 并断开。密钥本身不在网络上传输。
+ * <p>
+ * 之后每条消息以 1 字节类型开头，后跟该类型的内容：
+ * <ul>
+ *     <li>{@link #PLAN}（控制端 → 节点）：节点编号、节点总数、压测计划 JSON，节点收到后立即开始执行自己的份额</li>
+ *     <li>{@link #STOP}（控制端 → 节点）：停止压测</li>
+ *     <li>{@link #REPORT}（节点 → 控制端）：{@link AgentReport} 增量统计</li>
+ *     <li>{@link #FINISHED}（节点 → 控制端）：压测结束，之前已发送最后一次增量统计</li>
+ *     <li>{@link #ERROR}（节点 → 控制端）：错误信息，节点随后关闭连接</li>
+ * </ul>
+ */
+public final class AgentProtocol {
+    public static final int DEFAULT_PORT = 19099;
+    static final int MAGIC = 0x45504450; // "EPDP"
+    static final int VERSION = 6;
+    // 挑战值长度（字节）
+    static final int CHALLENGE_BYTES = 32;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    static final byte PLAN = 1;
+    static final byte STOP = 2;
+    static final byte REPORT = 3;
+    static final byte FINISHED = 4;
+    static final byte ERROR = 5;
+    static final byte AUTH_OK = 6;
+
+    // 单个字符串的长度上限，防止错误数据导致分配过大内存
+    private static final int MAX_STRING_BYTES = 64 * 1024 * 1024;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private AgentProtocol() {
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeHandshake(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    static byte[] newChallenge() {
+        byte[] challenge = new byte[CHALLENGE_BYTES];
+        RANDOM.nextBytes(challenge);
+        return challenge;
+    }
+
+    /**
+     * 以共享密钥对挑战值计算 HMAC
+     */
+    static byte[] sign(String secret, byte[] challenge) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return mac.doFinal(challenge);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+        }
+    }
+
+    /**
+     * 校验控制端的应答，按常量时间比较
+     */
+    static boolean verify(String secret, byte[] challenge, byte[] response) {
+        return MessageDigest.isEqual(sign(secret, challenge), response);
+    }
+
+    static void readHandshake(DataInput in) throws IOException {
+        int magic = in.readInt();
+        int version = in.readInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException("Incompatible peer: magic=" + Integer.toHexString(magic) + ", version=" + version);
+        }
+    }
+}
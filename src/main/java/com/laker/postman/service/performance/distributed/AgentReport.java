@@ -0,0 +1,178 @@
+package com.laker.postman.service.performance.distributed;
+
+import com.laker.postman.model.PhaseTimings;
+import com.laker.postman.service.performance.metrics.LatencyHistogram;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.metrics.SecondMetrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 压测节点定时上报的增量统计：上次上报以来新增的接口计数、延迟直方图、各网络阶段直方图、DNS 缓存命中数和断言结果，按协议的计数和延迟，未执行的到达数，以及新结束的各秒统计
+ * <p>
+ * 所有内容都可以直接累加，控制端把各节点的上报依次合并到同一个 {@link PerformanceMetrics} 即得到整体结果。
+ */
+public class AgentReport {
+    public int activeUsers;
+    public long firstStartMillis = Long.MAX_VALUE;
+    public long lastEndMillis;
+    public long missedArrivals;
+    public final List<SecondMetrics> seconds = new ArrayList<>();
+    public final List<ApiDelta> apis = new ArrayList<>();
+    public final List<ProtocolDelta> protocols = new ArrayList<>();
+
+    /**
+     * 单个接口的增量
+     */
+    public static class ApiDelta {
+        public String name;
+        public long success;
+        public long fail;
+        public LatencyHistogram latency;
+        // 按 PhaseTimings.Phase 下标
+        public final LatencyHistogram[] phases = new LatencyHistogram[PhaseTimings.Phase.values().length];
+        public long dnsCacheHits;
+        public long dnsCacheMisses;
+        public final List<AssertionDelta> assertions = new ArrayList<>();
+    }
+
+    /**
+     * 单个协议的增量
+     */
+    public static class ProtocolDelta {
+        public String name;
+        public long success;
+        public long fail;
+        public LatencyHistogram latency;
+    }
+
+    /**
+     * 单个断言的增量
+     */
+    public static class AssertionDelta {
+        public String name;
+        public long pass;
+        public long fail;
+    }
+
+    /**
+     * 合并到控制端的汇总统计
+     */
+    public void mergeInto(PerformanceMetrics metrics) {
+        for (ApiDelta api : apis) {
+            metrics.merge(api.name, api.success, api.fail, api.latency);
+            for (PhaseTimings.Phase phase : PhaseTimings.Phase.values()) {
+                metrics.mergePhase(api.name, phase, api.phases[phase.ordinal()]);
+            }
+            if (api.dnsCacheHits != 0 || api.dnsCacheMisses != 0) {
+                metrics.mergeDnsCache(api.name, api.dnsCacheHits, api.dnsCacheMisses);
+            }
+            for (AssertionDelta assertion : api.assertions) {
+                metrics.mergeAssertion(api.name, assertion.name, assertion.pass, assertion.fail);
+            }
+        }
+        for (ProtocolDelta protocol : protocols) {
+            metrics.mergeProtocol(protocol.name, protocol.success, protocol.fail, protocol.latency);
+        }
+        for (SecondMetrics second : seconds) {
+            metrics.mergeSecond(second);
+        }
+        if (lastEndMillis > 0) {
+            metrics.mergeSpan(firstStartMillis, lastEndMillis);
+        }
+        if (missedArrivals > 0) {
+            metrics.recordMissedArrivals(missedArrivals);
+        }
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(activeUsers);
+        out.writeLong(firstStartMillis);
+        out.writeLong(lastEndMillis);
+        out.writeLong(missedArrivals);
+        out.writeInt(seconds.size());
+        for (SecondMetrics s : seconds) {
+            out.writeLong(s.epochSecond);
+            out.writeLong(s.requests);
+            out.writeLong(s.errors);
+            out.writeLong(s.latencySumMicros);
+            out.writeLong(s.minLatencyMicros);
+            out.writeLong(s.maxLatencyMicros);
+            out.writeLong(s.bytes);
+        }
+        out.writeInt(apis.size());
+        for (ApiDelta api : apis) {
+            AgentProtocol.writeString(out, api.name);
+            out.writeLong(api.success);
+            out.writeLong(api.fail);
+            api.latency.writeTo(out);
+            for (LatencyHistogram phase : api.phases) {
+                phase.writeTo(out);
+            }
+            out.writeLong(api.dnsCacheHits);
+            out.writeLong(api.dnsCacheMisses);
+            out.writeInt(api.assertions.size());
+            for (AssertionDelta assertion : api.assertions) {
+                AgentProtocol.writeString(out, assertion.name);
+                out.writeLong(assertion.pass);
+                out.writeLong(assertion.fail);
+            }
+        }
+        out.writeInt(protocols.size());
+        for (ProtocolDelta protocol : protocols) {
+            AgentProtocol.writeString(out, protocol.name);
+            out.writeLong(protocol.success);
+            out.writeLong(protocol.fail);
+            protocol.latency.writeTo(out);
+        }
+    }
+
+    public static AgentReport readFrom(DataInput in) throws IOException {
+        AgentReport report = new AgentReport();
+        report.activeUsers = in.readInt();
+        report.firstStartMillis = in.readLong();
+        report.lastEndMillis = in.readLong();
+        report.missedArrivals = in.readLong();
+        int secondCount = in.readInt();
+        for (int i = 0; i < secondCount; i++) {
+            report.seconds.add(new SecondMetrics(in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+                    in.readLong(), in.readLong(), in.readLong()));
+        }
+        int apiCount = in.readInt();
+        for (int i = 0; i < apiCount; i++) {
+            ApiDelta api = new ApiDelta();
+            api.name = AgentProtocol.readString(in);
+            api.success = in.readLong();
+            api.fail = in.readLong();
+            api.latency = LatencyHistogram.readFrom(in);
+            for (int p = 0; p < api.phases.length; p++) {
+                api.phases[p] = LatencyHistogram.readFrom(in);
+            }
+            api.dnsCacheHits = in.readLong();
+            api.dnsCacheMisses = in.readLong();
+            int assertionCount = in.readInt();
+            for (int j = 0; j < assertionCount; j++) {
+                AssertionDelta assertion = new AssertionDelta();
+                assertion.name = AgentProtocol.readString(in);
+                assertion.pass = in.readLong();
+                assertion.fail = in.readLong();
+                api.assertions.add(assertion);
+            }
+            report.apis.add(api);
+        }
+        int protocolCount = in.readInt();
+        for (int i = 0; i < protocolCount; i++) {
+            ProtocolDelta protocol = new ProtocolDelta();
+            protocol.name = AgentProtocol.readString(in);
+            protocol.success = in.readLong();
+            protocol.fail = in.readLong();
+            protocol.latency = LatencyHistogram.readFrom(in);
+            report.protocols.add(protocol);
+        }
+        return report;
+    }
+}
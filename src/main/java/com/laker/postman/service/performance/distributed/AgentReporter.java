@@ -0,0 +1,137 @@
+package com.laker.postman.service.performance.distributed;
+
+import com.laker.postman.model.PhaseTimings;
+import com.laker.postman.service.performance.engine.PerformanceEngine;
+import com.laker.postman.service.performance.metrics.ApiMetrics;
+import com.laker.postman.service.performance.metrics.AssertionMetrics;
+import com.laker.postman.service.performance.metrics.LatencyHistogram;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.metrics.SecondMetrics;
+import com.laker.postman.service.performance.metrics.SecondMetricsRing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压测节点侧：对比本地累计统计与上次上报时的快照，生成增量 {@link AgentReport}
+ * <p>
+ * 只由上报线程调用，不需要同步；每次上报的内存占用只与接口数有关。
+ */
+class AgentReporter {
+    private final PerformanceEngine engine;
+    private final Map<String, ApiSnapshot> previous = new HashMap<>();
+    private final Map<String, ApiSnapshot> previousProtocols = new HashMap<>();
+    // 已上报的最后一个完整秒
+    private long lastSentSecond;
+    private long previousMissedArrivals;
+
+    AgentReporter(PerformanceEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * @param last 是否为压测结束后的最后一次上报，是则连同当前未结束的秒一起上报
+     */
+    AgentReport next(long nowMillis, boolean last) {
+        PerformanceMetrics metrics = engine.getMetrics();
+        AgentReport report = new AgentReport();
+        report.activeUsers = engine.getActiveUsers();
+        report.firstStartMillis = metrics.getFirstStartMillis();
+        report.lastEndMillis = metrics.getLastEndMillis();
+        long missed = metrics.getMissedArrivalCount();
+        report.missedArrivals = missed - previousMissedArrivals;
+        previousMissedArrivals = missed;
+
+        long upTo = nowMillis / 1000 - (last ? 0 : 1);
+        long from = lastSentSecond == 0 ? engine.getStartTime() / 1000 : lastSentSecond + 1;
+        // 环形缓冲区只保留最近的若干秒
+        from = Math.max(from, upTo - SecondMetricsRing.DEFAULT_CAPACITY + 2);
+        for (long s = from; s <= upTo; s++) {
+            SecondMetrics second = metrics.getSeconds().get(s);
+            if (second.requests > 0) {
+                report.seconds.add(second);
+            }
+        }
+        if (upTo > lastSentSecond) {
+            lastSentSecond = upTo;
+        }
+
+        for (ApiMetrics api : metrics.getApis()) {
+            ApiSnapshot prev = previous.computeIfAbsent(api.getName(), k -> new ApiSnapshot());
+            LatencyHistogram latency = api.latencySnapshot();
+            long success = api.getSuccessCount();
+            long fail = api.getFailCount();
+            AgentReport.ApiDelta delta = new AgentReport.ApiDelta();
+            delta.name = api.getName();
+            delta.success = success - prev.success;
+            delta.fail = fail - prev.fail;
+            delta.latency = latency.minus(prev.latency);
+            boolean phaseChanged = false;
+            for (PhaseTimings.Phase phase : PhaseTimings.Phase.values()) {
+                int i = phase.ordinal();
+                LatencyHistogram phaseLatency = api.phaseSnapshot(phase);
+                delta.phases[i] = phaseLatency.minus(prev.phases[i]);
+                phaseChanged |= delta.phases[i].getTotalCount() != 0;
+                prev.phases[i] = phaseLatency;
+            }
+            long dnsHits = api.getDnsCacheHitCount();
+            long dnsMisses = api.getDnsCacheMissCount();
+            delta.dnsCacheHits = dnsHits - prev.dnsCacheHits;
+            delta.dnsCacheMisses = dnsMisses - prev.dnsCacheMisses;
+            prev.dnsCacheHits = dnsHits;
+            prev.dnsCacheMisses = dnsMisses;
+            phaseChanged |= delta.dnsCacheHits != 0 || delta.dnsCacheMisses != 0;
+            for (AssertionMetrics assertion : api.getAssertions()) {
+                long[] prevCounts = prev.assertions.computeIfAbsent(assertion.getName(), k -> new long[2]);
+                long pass = assertion.getPassCount();
+                long failed = assertion.getFailCount();
+                if (pass != prevCounts[0] || failed != prevCounts[1]) {
+                    AgentReport.AssertionDelta assertionDelta = new AgentReport.AssertionDelta();
+                    assertionDelta.name = assertion.getName();
+                    assertionDelta.pass = pass - prevCounts[0];
+                    assertionDelta.fail = failed - prevCounts[1];
+                    delta.assertions.add(assertionDelta);
+                    prevCounts[0] = pass;
+                    prevCounts[1] = failed;
+                }
+            }
+            prev.success = success;
+            prev.fail = fail;
+            prev.latency = latency;
+            if (delta.success != 0 || delta.fail != 0 || delta.latency.getTotalCount() != 0 || phaseChanged
+                    || !delta.assertions.isEmpty()) {
+                report.apis.add(delta);
+            }
+        }
+
+        for (ApiMetrics protocol : metrics.getProtocols()) {
+            ApiSnapshot prev = previousProtocols.computeIfAbsent(protocol.getName(), k -> new ApiSnapshot());
+            long success = protocol.getSuccessCount();
+            long fail = protocol.getFailCount();
+            if (success == prev.success && fail == prev.fail) {
+                continue;
+            }
+            LatencyHistogram latency = protocol.latencySnapshot();
+            AgentReport.ProtocolDelta delta = new AgentReport.ProtocolDelta();
+            delta.name = protocol.getName();
+            delta.success = success - prev.success;
+            delta.fail = fail - prev.fail;
+            delta.latency = latency.minus(prev.latency);
+            prev.success = success;
+            prev.fail = fail;
+            prev.latency = latency;
+            report.protocols.add(delta);
+        }
+        return report;
+    }
+
+    private static class ApiSnapshot {
+        long success;
+        long fail;
+        LatencyHistogram latency;
+        long dnsCacheHits;
+        long dnsCacheMisses;
+        final LatencyHistogram[] phases = new LatencyHistogram[PhaseTimings.Phase.values().length];
+        final Map<String, long[]> assertions = new HashMap<>();
+    }
+}
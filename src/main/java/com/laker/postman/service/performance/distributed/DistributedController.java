@@ -0,0 +1,244 @@
+package com.laker.postman.service.performance.distributed;
+
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * 分布式压测控制端：连接各压测节点，下发压测计划和节点份额，
+ * 并把各节点回传的增量统计合并到同一个 {@link PerformanceMetrics}
+ * <p>
+ * 合并后的统计与单机压测的数据结构完全相同，界面趋势图和报表无需区分数据来源。
+ */
+@Slf4j
+public class DistributedController {
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+
+    private final String planJson;
+    private final List<InetSocketAddress> agents;
+    private final String secret;
+    private final PerformanceMetrics metrics;
+    private final IntConsumer activeUsersListener;
+    private final BiConsumer<String, String> errorListener;
+    private final List<Connection> connections = new ArrayList<>();
+    private volatile boolean stopped;
+
+    /**
+     * @param planJson            完整压测计划，各节点按自己的编号计算份额
+     * @param secret              与各节点共享的认证密钥
+     * @param metrics             合并目标
+     * @param activeUsersListener 所有节点活跃用户数之和变化时回调
+     * @param errorListener       节点出错时回调（节点地址, 错误信息）
+     */
+    public DistributedController(String planJson, List<InetSocketAddress> agents, String secret, PerformanceMetrics metrics,
+                                 IntConsumer activeUsersListener, BiConsumer<String, String> errorListener) {
+        if (agents == null || agents.isEmpty()) {
+            throw new IllegalArgumentException("No agent configured");
+        }
+        this.planJson = planJson;
+        this.agents = List.copyOf(agents);
+        this.secret = secret;
+        this.metrics = metrics;
+        this.activeUsersListener = activeUsersListener;
+        this.errorListener = errorListener;
+    }
+
+    /**
+     * 连接全部节点并下发计划，阻塞直到所有节点结束、断开或被停止；
+     * 任一节点连接失败时不启动任何节点
+     */
+    public void run() throws IOException {
+        if (secret == null || secret.isBlank()) {
+            throw new IOException("No agent secret configured");
+        }
+        synchronized (connections) {
+            try {
+                for (InetSocketAddress address : agents) {
+                    if (stopped) return;
+                    connections.add(new Connection(address));
+                }
+            } catch (IOException e) {
+                closeAll();
+                throw e;
+            }
+        }
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < connections.size(); i++) {
+            Connection c = connections.get(i);
+            c.sendPlan(i, connections.size(), planJson);
+            Thread t = new Thread(c::readReports, "perf-controller-" + c.name);
+            t.setDaemon(true);
+            readers.add(t);
+            t.start();
+        }
+        if (stopped) {
+            stop();
+        }
+        // 被中断时先通知节点停止，仍等待各节点发回最后一次统计
+        boolean interrupted = false;
+        for (Thread t : readers) {
+            while (t.isAlive()) {
+                try {
+                    t.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    stop();
+                }
+            }
+        }
+        closeAll();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 通知所有节点停止，节点发送最后一次统计后结束
+     */
+    public void stop() {
+        stopped = true;
+        synchronized (connections) {
+            for (Connection c : connections) {
+                c.sendStop();
+            }
+        }
+    }
+
+    private void closeAll() {
+        synchronized (connections) {
+            for (Connection c : connections) {
+                c.close();
+            }
+        }
+    }
+
+    private void fireActiveUsers() {
+        int total = 0;
+        for (Connection c : connections) {
+            total += c.activeUsers;
+        }
+        activeUsersListener.accept(total);
+    }
+
+    private class Connection {
+        final String name;
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        volatile int activeUsers;
+
+        Connection(InetSocketAddress address) throws IOException {
+            this.name = address.getHostString() + ":" + address.getPort();
+            this.socket = new Socket();
+            try {
+                socket.connect(address, CONNECT_TIMEOUT_MS);
+                socket.setTcpNoDelay(true);
+                in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                AgentProtocol.writeHandshake(out);
+                out.flush();
+                AgentProtocol.readHandshake(in);
+                byte[] challenge = new byte[AgentProtocol.CHALLENGE_BYTES];
+                in.readFully(challenge);
+                out.write(AgentProtocol.sign(secret, challenge));
+                out.flush();
+                byte reply = in.readByte();
+                if (reply == AgentProtocol.ERROR) {
+                    throw new IOException(AgentProtocol.readString(in));
+                } else if (reply != AgentProtocol.AUTH_OK) {
+                    throw new IOException("Unexpected handshake reply " + reply);
+                }
+            } catch (IOException e) {
+                socket.close();
+                throw new IOException("Cannot connect to agent " + name + ": " + e.getMessage(), e);
+            }
+        }
+
+        void sendPlan(int index, int count, String plan) throws IOException {
+            synchronized (out) {
+                out.writeByte(AgentProtocol.PLAN);
+                out.writeInt(index);
+                out.writeInt(count);
+                AgentProtocol.writeString(out, plan);
+                out.flush();
+            }
+        }
+
+        void sendStop() {
+            try {
+                synchronized (out) {
+                    out.writeByte(AgentProtocol.STOP);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                log.debug("发送停止指令失败 {}: {}", name, e.getMessage());
+            }
+        }
+
+        // 读取节点上报直到结束或断开
+        void readReports() {
+            try {
+                while (true) {
+                    byte type = in.readByte();
+                    if (type == AgentProtocol.REPORT) {
+                        AgentReport report = AgentReport.readFrom(in);
+                        report.mergeInto(metrics);
+                        if (report.activeUsers != activeUsers) {
+                            activeUsers = report.activeUsers;
+                            fireActiveUsers();
+                        }
+                    } else if (type == AgentProtocol.FINISHED) {
+                        break;
+                    } else if (type == AgentProtocol.ERROR) {
+                        errorListener.accept(name, AgentProtocol.readString(in));
+                        break;
+                    } else {
+                        throw new IOException("Unknown message type " + type);
+                    }
+                }
+            } catch (IOException e) {
+                errorListener.accept(name, "Agent disconnected: " + e.getMessage());
+            } finally {
+                if (activeUsers != 0) {
+                    activeUsers = 0;
+                    fireActiveUsers();
+                }
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * 解析 "host:port" 列表（逗号或空白分隔），省略端口时使用 {@link AgentProtocol#DEFAULT_PORT}
+     */
+    public static List<InetSocketAddress> parseAgents(String text) {
+        List<InetSocketAddress> result = new ArrayList<>();
+        if (text == null) return result;
+        for (String part : text.split("[,\\s]+")) {
+            if (part.isBlank()) continue;
+            int colon = part.lastIndexOf(':');
+            String host = colon > 0 ? part.substring(0, colon) : part;
+            int port = colon > 0 ? Integer.parseInt(part.substring(colon + 1)) : AgentProtocol.DEFAULT_PORT;
+            result.add(new InetSocketAddress(host, port));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,197 @@
+package com.laker.postman.service.performance.distributed;
+
+import com.laker.postman.service.performance.engine.PerformanceEngine;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.PerformancePlanCodec;
+import com.laker.postman.service.performance.plan.PerformancePlanSharding;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+
+/**
+ * 压测节点：监听 TCP 端口，接收控制端下发的压测计划，执行本节点的份额，并定时回传增量统计
+ * <p>
+ * 同一时间只服务一个控制端连接，一次压测结束后继续等待下一次连接；
+ * 控制端断开连接时视为停止指令。
+ * <p>
+ * 计划中的脚本可以访问本机资源，因此控制端必须通过共享密钥认证后才能下发计划。
+ */
+@Slf4j
+public class PerformanceAgent implements Closeable {
+    // 增量统计的上报周期
+    static final long REPORT_INTERVAL_MS = 200;
+    // 握手阶段的读超时，避免未完成握手的连接一直占用节点
+    private static final int HANDSHAKE_TIMEOUT_MS = 10_000;
+
+    private final ServerSocket serverSocket;
+    private final String secret;
+    private volatile boolean closed;
+    private volatile PerformanceEngine currentEngine;
+
+    /**
+     * @param bindAddress 监听地址
+     * @param port        监听端口，0 表示由系统分配
+     * @param secret      与控制端共享的密钥，不能为空
+     */
+    public PerformanceAgent(InetAddress bindAddress, int port, String secret) throws IOException {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("Agent secret is required");
+        }
+        this.secret = secret;
+        this.serverSocket = new ServerSocket(port, 1, bindAddress);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 在后台线程中接受连接，立即返回
+     */
+    public void start() {
+        Thread t = new Thread(this::serve, "perf-agent-" + getPort());
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * 在当前线程循环接受控制端连接，直到 {@link #close()}
+     */
+    public void serve() {
+        log.info("Performance agent listening on {}:{}", serverSocket.getInetAddress().getHostAddress(), getPort());
+        while (!closed) {
+            try (Socket socket = serverSocket.accept()) {
+                socket.setTcpNoDelay(true);
+                handle(socket);
+            } catch (IOException e) {
+                if (!closed) {
+                    log.warn("压测节点连接异常: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+        AgentProtocol.readHandshake(in);
+        AgentProtocol.writeHandshake(out);
+        byte[] challenge = AgentProtocol.newChallenge();
+        out.write(challenge);
+        out.flush();
+        byte[] response = new byte[challenge.length];
+        in.readFully(response);
+        if (!AgentProtocol.verify(secret, challenge, response)) {
+            log.warn("压测节点拒绝未通过认证的连接: {}", socket.getRemoteSocketAddress());
+            sendError(out, "Authentication failed");
+            return;
+        }
+        synchronized (out) {
+            out.writeByte(AgentProtocol.AUTH_OK);
+            out.flush();
+        }
+        socket.setSoTimeout(0);
+        if (in.readByte() != AgentProtocol.PLAN) {
+            throw new IOException("Expected plan message");
+        }
+        int index = in.readInt();
+        int count = in.readInt();
+        String planJson = AgentProtocol.readString(in);
+        PerformanceEngine engine;
+        try {
+            PerformancePlan plan = PerformancePlanSharding.share(PerformancePlanCodec.fromJson(planJson), index, count);
+            engine = new PerformanceEngine(plan);
+        } catch (RuntimeException e) {
+            sendError(out, "Invalid plan: " + e.getMessage());
+            return;
+        }
+        log.info("Running share {}/{} of plan, {} user(s) at most", index + 1, count, engine.getTotalUsers());
+        currentEngine = engine;
+        Thread commandReader = new Thread(() -> readCommands(in, engine), "perf-agent-commands");
+        commandReader.setDaemon(true);
+        commandReader.start();
+
+        AgentReporter reporter = new AgentReporter(engine);
+        engine.start();
+        try {
+            while (engine.isRunning()) {
+                Thread.sleep(REPORT_INTERVAL_MS);
+                sendReport(out, reporter.next(System.currentTimeMillis(), false));
+            }
+            engine.awaitTermination();
+            sendReport(out, reporter.next(System.currentTimeMillis(), true));
+            synchronized (out) {
+                out.writeByte(AgentProtocol.FINISHED);
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            engine.stop();
+        } catch (IOException e) {
+            // 控制端已断开，停止本节点的压测
+            engine.stop();
+            throw e;
+        } finally {
+            currentEngine = null;
+        }
+    }
+
+    // 读取控制端指令，连接断开等同于停止
+    private static void readCommands(DataInputStream in, PerformanceEngine engine) {
+        try {
+            while (true) {
+                byte type = in.readByte();
+                if (type == AgentProtocol.STOP) {
+                    log.info("Stop requested by controller");
+                    engine.stop();
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            engine.stop();
+        } catch (IOException e) {
+            log.warn("读取控制端指令失败: {}", e.getMessage());
+            engine.stop();
+        }
+    }
+
+    private static void sendReport(DataOutputStream out, AgentReport report) throws IOException {
+        synchronized (out) {
+            out.writeByte(AgentProtocol.REPORT);
+            report.writeTo(out);
+            out.flush();
+        }
+    }
+
+    private static void sendError(DataOutputStream out, String message) throws IOException {
+        synchronized (out) {
+            out.writeByte(AgentProtocol.ERROR);
+            AgentProtocol.writeString(out, message);
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PerformanceEngine engine = currentEngine;
+        if (engine != null) {
+            engine.stop();
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.warn("关闭压测节点失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.laker.postman.service.performance.engine;
+
+/**
+ * 到达率（开放模型）调度计划
+ * <p>
+ * 速率在 rampSeconds 内从 startRate 线性变化到 targetRate，之后保持 targetRate，
+ * 直到 durationSeconds 结束。调度器据此依次计算每次迭代的计划开始时间，
+ * 计划时间与服务端响应快慢无关。
+ */
+public class ArrivalRateSchedule {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double startRate;
+    private final double targetRate;
+    private final double rampSeconds;
+    private final long durationNanos;
+
+    /**
+     * @param startRate       起始速率（迭代/秒）
+     * @param targetRate      目标速率（迭代/秒）
+     * @param rampSeconds     速率爬升时间（秒），0 表示从一开始就是目标速率
+     * @param durationSeconds 总持续时间（秒）
+     */
+    public ArrivalRateSchedule(double startRate, double targetRate, int rampSeconds, int durationSeconds) {
+        this.startRate = Math.max(0.001, startRate);
+        this.targetRate = Math.max(0.001, targetRate);
+        this.rampSeconds = Math.max(0, rampSeconds);
+        this.durationNanos = Math.max(0, durationSeconds) * 1_000_000_000L;
+    }
+
+    /**
+     * 指定时刻的目标速率（迭代/秒）
+     */
+    public double rateAt(long elapsedNanos) {
+        double elapsed = elapsedNanos / NANOS_PER_SECOND;
+        if (rampSeconds <= 0 || elapsed >= rampSeconds) {
+            return targetRate;
+        }
+        return startRate + (targetRate - startRate) * elapsed / rampSeconds;
+    }
+
+    /**
+     * 给定当前迭代的计划时刻（相对开始时间），返回下一次迭代的计划时刻；
+     * 超出持续时间时返回 -1
+     */
+    public long nextStartNanos(long elapsedNanos) {
+        long next = elapsedNanos + (long) (NANOS_PER_SECOND / rateAt(elapsedNanos));
+        return next < durationNanos ? next : -1;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+}
@@ -0,0 +1,140 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.service.EnvironmentService;
+import com.laker.postman.service.http.HttpService;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Dispatcher;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 异步采样执行器：虚拟用户不占用线程，每一步（脚本、断言、定时器后的下一个请求）都作为任务提交，
+ * 请求通过 {@code Call.enqueue} 交给本次压测专用的 {@link Dispatcher}，完成后回调继续下一步。
+ * <p>
+ * 脚本和断言在固定大小的工作线程池中执行，定时器由单线程调度器触发。
+ * OkHttp 的异步请求仍在调度器的执行线程上完成网络交换，因此在支持虚拟线程的 JDK 上
+ * 调度器使用虚拟线程执行器，数千个在途请求只占用少量系统线程；否则退回固定上限的平台线程池，
+ * 在途请求数同时被限制为 {@link #FALLBACK_HTTP_THREADS}，超出的请求在调度器中排队。
+ */
+@Slf4j
+public class AsyncSampleExecutor implements AutoCloseable {
+    private static final int WORKER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    /**
+     * 不支持虚拟线程时网络交换使用的平台线程数上限，也是此时的最大在途请求数
+     */
+    public static final int FALLBACK_HTTP_THREADS = Math.min(256, Math.max(32, WORKER_THREADS * 8));
+
+    private final HttpSampler sampler;
+    private final Dispatcher dispatcher;
+    private final ExecutorService dispatcherExecutor;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timers;
+    private final Consumer<VirtualUser> onFailure;
+
+    /**
+     * @param sampler     采样器
+     * @param maxRequests 最大在途请求数，同时作为每个 host 的上限
+     * @param onFailure   VU 的某一步出现未预期异常时的处理（通常结束该 VU）
+     */
+    public AsyncSampleExecutor(HttpSampler sampler, int maxRequests, Consumer<VirtualUser> onFailure) {
+        this.sampler = sampler;
+        this.onFailure = onFailure;
+        ExecutorService virtual = VirtualUserThreads.newVirtualThreadPerTaskExecutor();
+        int limit = Math.max(1, maxRequests);
+        if (virtual != null) {
+            this.dispatcherExecutor = virtual;
+        } else {
+            // 每个在途请求占用一个平台线程，限制线程数，超出的请求由 Dispatcher 排队
+            limit = Math.min(limit, FALLBACK_HTTP_THREADS);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(limit, limit, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), namedThreadFactory("perf-async-http-"));
+            pool.allowCoreThreadTimeOut(true);
+            this.dispatcherExecutor = pool;
+            log.warn("当前 JDK 不支持虚拟线程，异步模式最多 {} 个在途请求（{} 个平台线程）", limit, limit);
+        }
+        this.dispatcher = new Dispatcher(dispatcherExecutor);
+        dispatcher.setMaxRequests(limit);
+        dispatcher.setMaxRequestsPerHost(limit);
+        this.workers = Executors.newFixedThreadPool(WORKER_THREADS, namedThreadFactory("perf-async-worker-"));
+        this.timers = Executors.newSingleThreadScheduledExecutor(namedThreadFactory("perf-async-timer-"));
+    }
+
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * 在工作线程上执行 VU 的一步，执行期间绑定 VU 的变量表
+     */
+    public void execute(VirtualUser vu, Runnable step) {
+        try {
+            workers.execute(() -> runStep(vu, step));
+        } catch (RejectedExecutionException e) {
+            // 执行器已关闭（压测结束），直接结束该 VU
+            onFailure.accept(vu);
+        }
+    }
+
+    /**
+     * 延迟指定毫秒后在工作线程上执行 VU 的下一步
+     */
+    public void schedule(VirtualUser vu, long delayMs, Runnable step) {
+        try {
+            timers.schedule(() -> execute(vu, step), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            onFailure.accept(vu);
+        }
+    }
+
+    /**
+     * 异步执行一次采样，必须在 {@link #execute} 提交的步骤中调用；完成后在工作线程上回调
+     */
+    public void sample(VirtualUser vu, CompiledSampler compiled, Map<String, String> csvRow, boolean logEvent,
+                       Consumer<SampleResult> done) {
+        HttpSampler.Sample sample = sampler.begin(compiled, vu, csvRow, logEvent);
+        if (!sample.isReady()) {
+            done.accept(sampler.finish(sample, null, null, System.nanoTime()));
+            return;
+        }
+        try {
+            HttpService.sendRequestAsync(sample.getRequest(), (resp, error) -> {
+                long endNanos = System.nanoTime();
+                execute(vu, () -> done.accept(sampler.finish(sample, resp, error, endNanos)));
+            });
+        } catch (Exception e) {
+            done.accept(sampler.finish(sample, null, e, System.nanoTime()));
+        }
+    }
+
+    private void runStep(VirtualUser vu, Runnable step) {
+        EnvironmentService.bindTemporaryVariables(vu.getVariables());
+        try {
+            step.run();
+        } catch (Throwable t) {
+            log.error("异步虚拟用户执行异常: {}", t.getMessage(), t);
+            onFailure.accept(vu);
+        } finally {
+            EnvironmentService.unbindTemporaryVariables();
+        }
+    }
+
+    @Override
+    public void close() {
+        timers.shutdownNow();
+        workers.shutdown();
+        dispatcher.cancelAll();
+        dispatcherExecutor.shutdown();
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
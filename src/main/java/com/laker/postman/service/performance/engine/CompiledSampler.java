@@ -0,0 +1,46 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.model.HttpRequestItem;
+import com.laker.postman.model.ResponseBodyPolicy;
+import com.laker.postman.service.performance.assertion.CompiledAssertion;
+import okhttp3.Protocol;
+
+import java.util.List;
+
+/**
+ * 编译后的请求采样器：请求配置为运行开始时的快照，断言已预编译，定时器已合并为一次等待
+ */
+public final class CompiledSampler {
+    public final String name;
+    public final HttpRequestItem request;
+    // 前置/后置脚本，为空白时为 null
+    public final String prescript;
+    public final String postscript;
+    public final List<CompiledAssertion> assertions;
+    // 请求结束后的等待时间（所有定时器之和）
+    public final long timerDelayMs;
+    // 断言和后置脚本所需的最低响应体读取策略
+    public final ResponseBodyPolicy bodyPolicy;
+    // 线程组指定的协议列表，null 表示 OkHttp 默认（ALPN 协商 HTTP/2，否则 HTTP/1.1）
+    public final List<Protocol> protocols;
+    // 线程组的用户分摊到几个独立连接池（HTTP/2 限制每连接流数时大于 1），VU 按编号取模选择
+    public final int connectionLanes;
+
+    CompiledSampler(String name, HttpRequestItem request, List<CompiledAssertion> assertions, long timerDelayMs,
+                    List<Protocol> protocols, int connectionLanes) {
+        this.name = name;
+        this.request = request;
+        this.prescript = blankToNull(request.getPrescript());
+        this.postscript = blankToNull(request.getPostscript());
+        this.assertions = List.copyOf(assertions);
+        this.timerDelayMs = timerDelayMs;
+        this.protocols = protocols;
+        this.connectionLanes = Math.max(1, connectionLanes);
+        boolean needsBody = postscript != null || this.assertions.stream().anyMatch(CompiledAssertion::needsBody);
+        this.bodyPolicy = needsBody ? ResponseBodyPolicy.LAZY : ResponseBodyPolicy.DISCARD;
+    }
+
+    private static String blankToNull(String script) {
+        return script == null || script.isBlank() ? null : script;
+    }
+}
@@ -0,0 +1,22 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+
+import java.util.List;
+
+/**
+ * 编译后的线程组：负载配置快照 + 每次迭代依次执行的采样器
+ */
+public final class CompiledThreadGroup {
+    public final String name;
+    public final ThreadGroupData settings;
+    public final List<CompiledSampler> samplers;
+    public final int maxUsers;
+
+    CompiledThreadGroup(String name, ThreadGroupData settings, List<CompiledSampler> samplers, int maxUsers) {
+        this.name = name;
+        this.settings = settings;
+        this.samplers = List.copyOf(samplers);
+        this.maxUsers = maxUsers;
+    }
+}
@@ -0,0 +1,44 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.service.http.okhttp.ConnectionPoolStats;
+import com.laker.postman.service.http.okhttp.OkHttpClientManager;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+
+/**
+ * 连接池采样器：趋势图每次采样时读取打开/空闲/占用连接数，并按两次采样间的新建连接数计算每秒新建连接数
+ * <p>
+ * 只由趋势图采样线程调用，不需要同步。分布式压测时连接在各节点上，本机连接数为 0，
+ * 每秒新建连接数来自节点上报的建连阶段统计。
+ */
+public class ConnectionPoolSampler {
+    private final PerformanceMetrics metrics;
+    private long lastConnections;
+    private long lastNanos;
+
+    public ConnectionPoolSampler(PerformanceMetrics metrics) {
+        this.metrics = metrics;
+        this.lastConnections = metrics.getNewConnectionCount();
+        this.lastNanos = System.nanoTime();
+    }
+
+    public Sample sample() {
+        long now = System.nanoTime();
+        long connections = metrics.getNewConnectionCount();
+        double perSecond = 0;
+        if (now > lastNanos) {
+            perSecond = Math.max(0, connections - lastConnections) * 1e9 / (now - lastNanos);
+        }
+        lastConnections = connections;
+        lastNanos = now;
+        return new Sample(OkHttpClientManager.getConnectionPoolStats(), perSecond);
+    }
+
+    /**
+     * 一次采样结果
+     *
+     * @param pool                 连接池连接数
+     * @param newConnectionsPerSec 每秒新建连接数
+     */
+    public record Sample(ConnectionPoolStats pool, double newConnectionsPerSec) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.model.PreparedRequest;
+import com.laker.postman.service.http.HttpRequestUtil;
+import com.laker.postman.service.http.PreparedRequestBuilder;
+import com.laker.postman.service.http.okhttp.OkHttpClientManager;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Okio;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 连接预热：在统计窗口开始前向每个目标主机并发发送请求，使连接池中预先建立指定数量的连接
+ * <p>
+ * 目标主机取自执行计划中各请求替换变量后的 URL（前置脚本中动态生成的地址无法预知）。
+ * 主机上有 GET 请求时用该请求的地址预热（GET 无副作用，且部分服务端在 HEAD 响应后关闭连接），
+ * 否则对根路径发送 HEAD；响应体读完丢弃，状态码不影响预热结果。
+ * HTTP/1.1 下每个并发请求占用一个连接，因此 N 个同时发出的请求会建立 N 个连接；
+ * HTTP/2 连接可多路复用，预热后通常只有一个连接；线程组限制每连接流数时按连接池分别预热。
+ * 预热请求由最多 {@link #MAX_WARMUP_THREADS} 个线程执行，超出的请求排队复用已建立的连接。
+ */
+@Slf4j
+class ConnectionWarmer {
+    // 单个主机最多预热的连接数，避免配置错误时创建过多线程
+    static final int MAX_CONNECTIONS_PER_HOST = 500;
+    // 同时执行的预热请求数上限，目标多、连接池多时其余请求排队
+    static final int MAX_WARMUP_THREADS = MAX_CONNECTIONS_PER_HOST;
+
+    private ConnectionWarmer() {
+    }
+
+    /**
+     * 预热执行计划中所有目标主机，阻塞直到全部完成或超时
+     *
+     * @param perHost 每个主机（每个连接池）的连接数，不超过连接池的最大空闲连接数，否则多出的连接会被立即回收
+     * @return 成功完成的预热请求数
+     */
+    static int warmUp(ExecutionPlan plan, int perHost, long timeoutMs) {
+        Map<String, Target> targets = targets(plan);
+        int count = Math.min(perHost, MAX_CONNECTIONS_PER_HOST);
+        if (targets.isEmpty() || count <= 0) {
+            return 0;
+        }
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Runnable> tasks = new ArrayList<>();
+        for (Target target : targets.values()) {
+            Request request = target.getUrl != null
+                    ? new Request.Builder().url(target.getUrl).get().build()
+                    : new Request.Builder().url(target.baseUri + "/").head().build();
+            for (int lane = 0; lane < target.lanes; lane++) {
+                OkHttpClient client = OkHttpClientManager.getClient(target.baseUri, target.followRedirects, target.protocols, lane)
+                        .newBuilder()
+                        .callTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                        .build();
+                // 同一连接池的请求都收到响应后才释放连接，避免先完成的连接被其他预热请求复用
+                CountDownLatch responded = new CountDownLatch(count);
+                for (int i = 0; i < count; i++) {
+                    tasks.add(() -> warm(client, request, target.baseUri, ready, responded, timeoutMs, succeeded));
+                }
+            }
+        }
+        int threads = Math.min(tasks.size(), MAX_WARMUP_THREADS);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "perf-warmup-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        tasks.forEach(executor::execute);
+        executor.shutdown();
+        // 所有线程就绪后同时发出，确保请求并发从而各自建立连接
+        ready.countDown();
+        try {
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("连接预热: {} 个目标, 成功 {}/{}", targets.size(), succeeded.get(), tasks.size());
+        return succeeded.get();
+    }
+
+    private static void warm(OkHttpClient client, Request request, String baseUri, CountDownLatch ready,
+                             CountDownLatch responded, long timeoutMs, AtomicInteger succeeded) {
+        boolean counted = false;
+        try {
+            ready.await();
+            try (Response response = client.newCall(request).execute()) {
+                responded.countDown();
+                counted = true;
+                responded.await(timeoutMs, TimeUnit.MILLISECONDS);
+                // 读完响应体，连接才能放回连接池
+                response.body().source().readAll(Okio.blackhole());
+                succeeded.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("连接预热失败 {}: {}", baseUri, e.getMessage());
+        } finally {
+            // 请求失败时不让同一连接池的其他请求一直等待
+            if (!counted) {
+                responded.countDown();
+            }
+        }
+    }
+
+    // 按基础地址和连接方式（协议、连接池数）去重的预热目标
+    private static Map<String, Target> targets(ExecutionPlan plan) {
+        Map<String, Target> targets = new LinkedHashMap<>();
+        for (CompiledThreadGroup group : plan.threadGroups) {
+            for (CompiledSampler sampler : group.samplers) {
+                try {
+                    PreparedRequest req = PreparedRequestBuilder.build(sampler.request);
+                    PreparedRequestBuilder.replaceVariablesAfterPreScript(req);
+                    String baseUri = HttpRequestUtil.extractBaseUri(req.url);
+                    if (!baseUri.startsWith("http://") && !baseUri.startsWith("https://")) {
+                        continue;
+                    }
+                    String key = baseUri + "|" + sampler.protocols + "|" + sampler.connectionLanes;
+                    Target target = targets.computeIfAbsent(key, k -> new Target(baseUri, req.followRedirects,
+                            sampler.protocols, sampler.connectionLanes));
+                    if (target.getUrl == null && "GET".equalsIgnoreCase(req.method)) {
+                        target.getUrl = req.url;
+                    }
+                } catch (Exception e) {
+                    log.debug("跳过无法解析的请求地址 {}: {}", sampler.name, e.getMessage());
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static class Target {
+        final String baseUri;
+        // 决定使用哪个基础客户端及其连接池
+        final boolean followRedirects;
+        // 与采样器一致的协议列表和连接池数
+        final List<Protocol> protocols;
+        final int lanes;
+        // 该主机上第一个 GET 请求的地址，没有时为 null
+        String getUrl;
+
+        Target(String baseUri, boolean followRedirects, List<Protocol> protocols, int lanes) {
+            this.baseUri = baseUri;
+            this.followRedirects = followRedirects;
+            this.protocols = protocols;
+            this.lanes = lanes;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.laker.postman.service.performance.engine;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.util.ObjectUtil;
+import com.laker.postman.model.HttpRequestItem;
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+import com.laker.postman.service.performance.assertion.AssertionCompiler;
+import com.laker.postman.service.performance.assertion.CompiledAssertion;
+import com.laker.postman.service.performance.plan.AssertionPlan;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.RequestPlan;
+import com.laker.postman.service.performance.plan.ThreadGroupPlan;
+import com.laker.postman.service.performance.plan.TimerPlan;
+import okhttp3.Protocol;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 不可变的执行计划：运行开始时由 {@link PerformancePlan} 编译而来
+ * <p>
+ * 线程组配置和请求均为深拷贝，运行期间在界面上编辑压测树不会影响正在执行的压测；
+ * 执行热路径只遍历扁平的采样器列表，不再访问树结构或按字符串判断断言类型。
+ */
+public final class ExecutionPlan {
+    // 每个线程组最多的独立连接池数，超过后每个连接上的并发流数会高于设置值
+    static final int MAX_CONNECTION_LANES = 64;
+
+    public final String name;
+    public final List<CompiledThreadGroup> threadGroups;
+    public final int totalUsers;
+
+    private ExecutionPlan(String name, List<CompiledThreadGroup> threadGroups) {
+        this.name = name;
+        this.threadGroups = List.copyOf(threadGroups);
+        int total = 0;
+        for (CompiledThreadGroup tg : threadGroups) {
+            total += tg.maxUsers;
+        }
+        this.totalUsers = total;
+    }
+
+    public static ExecutionPlan compile(PerformancePlan plan) {
+        List<CompiledThreadGroup> groups = new ArrayList<>();
+        for (ThreadGroupPlan group : plan.threadGroups) {
+            ThreadGroupData settings = BeanUtil.toBean(group.settings != null ? group.settings : new ThreadGroupData(), ThreadGroupData.class);
+            int maxUsers = ThreadGroupPlan.getMaxUsers(settings);
+            List<Protocol> protocols = settings.transport == ThreadGroupData.Transport.HTTP_2 ? null : settings.transport.getProtocols();
+            int lanes = connectionLanes(settings, maxUsers);
+            List<CompiledSampler> samplers = new ArrayList<>();
+            for (RequestPlan request : group.requests) {
+                if (request.request == null) continue;
+                samplers.add(compile(request, protocols, lanes));
+            }
+            groups.add(new CompiledThreadGroup(group.name, settings, samplers, maxUsers));
+        }
+        return new ExecutionPlan(plan.name, groups);
+    }
+
+    /**
+     * HTTP/2 限制每连接流数时，按最大用户数计算需要的独立连接池数量（不超过 {@link #MAX_CONNECTION_LANES}）；
+     * 其他情况所有用户共用一个连接池
+     */
+    static int connectionLanes(ThreadGroupData settings, int maxUsers) {
+        int streams = settings.maxStreamsPerConnection;
+        if (!settings.transport.isMultiplexed() || streams <= 0) {
+            return 1;
+        }
+        return Math.max(1, Math.min(MAX_CONNECTION_LANES, (maxUsers + streams - 1) / streams));
+    }
+
+    private static CompiledSampler compile(RequestPlan request, List<Protocol> protocols, int lanes) {
+        HttpRequestItem snapshot = ObjectUtil.cloneByStream(request.request);
+        List<CompiledAssertion> assertions = new ArrayList<>();
+        for (AssertionPlan assertion : request.assertions) {
+            if (assertion.data != null) {
+                assertions.add(AssertionCompiler.compile(assertion.data));
+            }
+        }
+        long delayMs = 0;
+        for (TimerPlan timer : request.timers) {
+            if (timer.data != null) {
+                delayMs += Math.max(0, timer.data.delayMs);
+            }
+        }
+        return new CompiledSampler(snapshot.getName(), snapshot, assertions, delayMs, protocols, lanes);
+    }
+}
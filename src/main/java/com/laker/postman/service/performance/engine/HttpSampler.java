@@ -0,0 +1,263 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.model.HttpResponse;
+import com.laker.postman.model.PhaseTimings;
+import com.laker.postman.model.PreparedRequest;
+import com.laker.postman.model.ResponseBodyPolicy;
+import com.laker.postman.model.Postman;
+import com.laker.postman.model.TestResult;
+import com.laker.postman.service.EnvironmentService;
+import com.laker.postman.service.http.HttpSingleRequestExecutor;
+import com.laker.postman.service.http.HttpUtil;
+import com.laker.postman.service.http.PreparedRequestBuilder;
+import com.laker.postman.service.js.JsScriptExecutor;
+import com.laker.postman.service.performance.assertion.CompiledAssertion;
+import com.laker.postman.util.I18nUtil;
+import com.laker.postman.util.MessageKeys;
+import com.laker.postman.util.StreamingMatcher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP 采样器：执行一个请求（前置脚本 → 请求 → 断言 → 后置脚本），不涉及任何界面操作
+ */
+@Slf4j
+public class HttpSampler {
+    private final PerformanceEngineListener output;
+    // 响应体读取策略下限（监听器或用户配置要求），与请求自身需要的策略取较高者
+    private volatile ResponseBodyPolicy minBodyPolicy = ResponseBodyPolicy.DISCARD;
+
+    /**
+     * @param output 脚本控制台输出的接收方
+     */
+    public HttpSampler(PerformanceEngineListener output) {
+        this.output = output;
+    }
+
+    public void setMinBodyPolicy(ResponseBodyPolicy minBodyPolicy) {
+        this.minBodyPolicy = minBodyPolicy != null ? minBodyPolicy : ResponseBodyPolicy.DISCARD;
+    }
+
+    /**
+     * 执行一次请求采样
+     *
+     * @param sampler  编译后的请求
+     * @param vu       执行请求的虚拟用户，决定使用哪个连接池和 Cookie 存储，可为 null
+     * @param csvRow   本次注入的 CSV 数据行，可为 null
+     * @param logEvent 是否记录网络事件日志
+     */
+    public SampleResult sample(CompiledSampler sampler, VirtualUser vu, Map<String, String> csvRow, boolean logEvent) {
+        Sample sample = begin(sampler, vu, csvRow, logEvent);
+        if (!sample.isReady()) {
+            return finish(sample, null, null, System.nanoTime());
+        }
+        HttpResponse resp = null;
+        Exception error = null;
+        try {
+            resp = HttpSingleRequestExecutor.executeHttp(sample.req);
+        } catch (Exception ex) {
+            error = ex;
+        }
+        return finish(sample, resp, error, System.nanoTime());
+    }
+
+    /**
+     * 采样第一阶段：构建请求并执行前置脚本，之后由调用方同步或异步发送 {@link Sample#getRequest()}
+     */
+    public Sample begin(CompiledSampler sampler, VirtualUser vu, Map<String, String> csvRow, boolean logEvent) {
+        Sample sample = new Sample(sampler);
+        SampleResult result = sample.result;
+
+        // 清理上次的临时变量
+        EnvironmentService.clearTemporaryVariables();
+
+        // ====== 前置脚本 ======
+        PreparedRequest req = PreparedRequestBuilder.build(sampler.request);
+        sample.req = req;
+        result.req = req;
+        sample.bindings = HttpUtil.prepareBindings(req);
+        Postman pm = (Postman) sample.bindings.get("pm");
+        sample.pm = pm;
+        // 注入CSV变量到pm
+        if (csvRow != null) {
+            for (Map.Entry<String, String> entry : csvRow.entrySet()) {
+                pm.setVariable(entry.getKey(), entry.getValue());
+            }
+        }
+        String prescript = sampler.prescript;
+        if (prescript != null) {
+            try {
+                JsScriptExecutor.executeScript(prescript, sample.bindings, text -> {
+                    if (!text.isBlank()) {
+                        output.onScriptOutput("[PreScript Console]\n" + text, false);
+                    }
+                });
+            } catch (Exception ex) {
+                log.error("前置脚本: {}", ex.getMessage(), ex);
+                result.errorMsg = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_PRE_SCRIPT_FAILED, ex.getMessage());
+                sample.preOk = false;
+                result.success = false;
+            }
+        }
+
+        // 前置脚本执行完成后，进行变量替换
+        if (sample.preOk) {
+            PreparedRequestBuilder.replaceVariablesAfterPreScript(req);
+            req.logEvent = logEvent; // 记录事件日志
+            req.bodyPolicy = sampler.bodyPolicy.atLeast(minBodyPolicy);
+            req.bodyMatchers = createMatchers(sample);
+            req.phaseTimings = new PhaseTimings();
+            req.protocols = sampler.protocols;
+            req.connectionLane = vu != null && sampler.connectionLanes > 1 ? vu.getId() % sampler.connectionLanes : 0;
+            req.cookieJar = vu != null ? vu.getCookieJar() : null;
+        }
+        sample.startTime = System.currentTimeMillis();
+        sample.startNanos = System.nanoTime();
+        return sample;
+    }
+
+    // 为支持流式判断的断言创建本次响应的匹配器，sample.matchers 与断言列表按下标对应
+    private static List<StreamingMatcher> createMatchers(Sample sample) {
+        List<CompiledAssertion> assertions = sample.sampler.assertions;
+        List<StreamingMatcher> matchers = null;
+        for (int i = 0; i < assertions.size(); i++) {
+            StreamingMatcher matcher = assertions.get(i).newMatcher();
+            if (matcher == null) {
+                continue;
+            }
+            if (matchers == null) {
+                matchers = new ArrayList<>();
+                sample.matchers = new StreamingMatcher[assertions.size()];
+            }
+            sample.matchers[i] = matcher;
+            matchers.add(matcher);
+        }
+        return matchers;
+    }
+
+    /**
+     * 采样第二阶段：根据请求结果执行断言和后置脚本，生成采样结果
+     *
+     * @param resp     响应，请求失败或未发送时为 null
+     * @param error    请求异常，可为 null
+     * @param endNanos 请求完成时的 {@link System#nanoTime()}
+     */
+    public SampleResult finish(Sample sample, HttpResponse resp, Exception error, long endNanos) {
+        SampleResult result = sample.result;
+        List<TestResult> testResults = result.testResults;
+        long startTime = sample.startTime;
+        result.latencyMicros = (endNanos - sample.startNanos) / 1000;
+        long costMs = result.latencyMicros / 1000;
+
+        if (sample.preOk) {
+            if (error != null) {
+                log.error("请求执行失败: {}", error.getMessage(), error);
+                result.errorMsg = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_REQUEST_FAILED, error.getMessage());
+                result.success = false;
+            }
+            // 断言处理
+            List<CompiledAssertion> assertions = sample.sampler.assertions;
+            for (int j = 0; j < assertions.size() && resp != null; j++) {
+                CompiledAssertion assertion = assertions.get(j);
+                StreamingMatcher matcher = sample.matchers != null ? sample.matchers[j] : null;
+                boolean pass = matcher != null && matcher.isResolved() ? assertion.test(resp, matcher) : assertion.test(resp);
+                if (!pass) {
+                    result.success = false;
+                    result.errorMsg = assertion.getFailureMessage();
+                }
+                testResults.add(new TestResult(assertion.getName(), pass, pass ? null : "断言失败"));
+            }
+            // ====== 后置脚本 ======
+            String postscript = sample.sampler.postscript;
+            if (resp != null && postscript != null) {
+                Map<String, Object> bindings = sample.bindings;
+                Postman pm = sample.pm;
+                HttpUtil.postBindings(bindings, resp);
+                try {
+                    JsScriptExecutor.executeScript(postscript, bindings, text -> {
+                        if (!text.isBlank()) {
+                            output.onScriptOutput("[PostScript Console]\n" + text, false);
+                        }
+                    });
+                    if (pm.testResults != null) {
+                        testResults.addAll(pm.testResults);
+                    }
+                } catch (Exception assertionEx) {
+                    log.error("后置脚本执行失败: {}", assertionEx.getMessage(), assertionEx);
+                    if (pm.testResults != null) {
+                        testResults.addAll(pm.testResults);
+                    }
+                    result.errorMsg = assertionEx.getMessage();
+                    result.success = false;
+                }
+            }
+        }
+
+        // 如果响应有记录结束时间则使用，否则使用计算的耗时
+        long cost = resp == null ? costMs : resp.costMs;
+        result.startTime = startTime;
+        result.endTime = resp != null && resp.endTime > 0 ? resp.endTime : startTime + cost;
+        result.resp = resp;
+        result.bytes = resp == null ? 0 : resp.bodySize;
+        result.protocol = resp == null ? null : protocolLabel(resp.protocol);
+        if (sample.preOk) {
+            // 开启网络事件日志时轻量监听器未挂载，从事件日志中换算
+            if (resp != null && resp.httpEventInfo != null) {
+                sample.req.phaseTimings.copyFrom(resp.httpEventInfo);
+            }
+            result.phases = sample.req.phaseTimings;
+        }
+        return result;
+    }
+
+    // OkHttp 的协议标识转为报表中的名称
+    static String protocolLabel(String protocol) {
+        if (protocol == null) {
+            return null;
+        }
+        return switch (protocol) {
+            case "http/1.0" -> "HTTP/1.0";
+            case "http/1.1" -> "HTTP/1.1";
+            case "h2" -> "HTTP/2";
+            case "h2_prior_knowledge" -> "h2c";
+            default -> protocol;
+        };
+    }
+
+    /**
+     * 进行中的一次采样，保存前置脚本阶段的状态供第二阶段使用
+     */
+    public static final class Sample {
+        private final CompiledSampler sampler;
+        private final SampleResult result = new SampleResult();
+        private PreparedRequest req;
+        private Map<String, Object> bindings;
+        private Postman pm;
+        private StreamingMatcher[] matchers;
+        private boolean preOk = true;
+        private long startTime;
+        private long startNanos;
+
+        private Sample(CompiledSampler sampler) {
+            this.sampler = sampler;
+            result.name = sampler.name;
+            result.success = true;
+            result.errorMsg = "";
+            result.testResults = new ArrayList<>();
+        }
+
+        /**
+         * 前置脚本是否成功，失败时不应发送请求
+         */
+        public boolean isReady() {
+            return preOk;
+        }
+
+        public PreparedRequest getRequest() {
+            return req;
+        }
+    }
+}
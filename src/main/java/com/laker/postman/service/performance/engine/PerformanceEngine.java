@@ -0,0 +1,1045 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.model.ResponseBodyPolicy;
+import com.laker.postman.model.TestResult;
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+import com.laker.postman.service.http.okhttp.OkHttpClientManager;
+import com.laker.postman.service.http.okhttp.VirtualUserCookieJar;
+import com.laker.postman.service.js.JsContextPool;
+import com.laker.postman.service.js.JsScriptExecutor;
+import com.laker.postman.service.performance.distributed.DistributedController;
+import com.laker.postman.service.performance.metrics.JsContextUsage;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.PerformancePlanCodec;
+import com.laker.postman.service.setting.SettingManager;
+import com.laker.postman.util.I18nUtil;
+import com.laker.postman.util.MessageKeys;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Cookie;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 压测引擎：按压测计划调度虚拟用户、执行采样并汇总统计，不依赖任何界面组件
+ * <p>
+ * 界面和命令行都只是引擎的监听器（{@link PerformanceEngineListener}），
+ * 统计数据统一写入 {@link PerformanceMetrics}，由调用方按需读取。
+ */
+@Slf4j
+public class PerformanceEngine {
+    // 压测期间最多保留的空闲脚本上下文数量
+    private static final int MAX_POOLED_JS_CONTEXTS = 1024;
+    // 分布式压测时节点在每秒结束后才上报该秒统计，趋势图需要落后这段时间采样
+    private static final long REMOTE_TREND_DELAY_MS = 1000;
+    // 连接预热的最长等待时间
+    private static final long WARMUP_TIMEOUT_MS = 30_000;
+    private final ExecutionPlan plan;
+    // 分布式压测时下发给节点的计划，与执行计划同时固定
+    private final String planJson;
+    private final PerformanceMetrics metrics = new PerformanceMetrics();
+    private final List<PerformanceEngineListener> listeners = new CopyOnWriteArrayList<>();
+    private final HttpSampler sampler;
+    // 活跃用户计数器
+    private final AtomicInteger activeUsers = new AtomicInteger(0);
+    // 虚拟用户编号
+    private final AtomicInteger vuSequence = new AtomicInteger(0);
+    private volatile List<Cookie> cookieSeed = List.of();
+    // CSV行索引分配器
+    private final AtomicInteger csvRowIndex = new AtomicInteger(0);
+    private volatile boolean running = false;
+    private volatile long startTime;
+    private volatile long endTime;
+    private Thread runThread;
+    // 存在异步执行方式的线程组时创建，本次运行结束后关闭
+    private volatile AsyncSampleExecutor asyncExecutor;
+    // 非空时由这些压测节点执行计划，本机只汇总统计
+    private List<InetSocketAddress> remoteAgents = List.of();
+    private String agentSecret;
+    private volatile DistributedController controller;
+
+    // 高效模式：不记录网络事件日志
+    private boolean efficientMode = true;
+    private List<Map<String, String>> csvRows = List.of();
+    // 用户指定的响应体读取策略下限，如需要校验和时指定 HASH
+    private ResponseBodyPolicy minBodyPolicy = ResponseBodyPolicy.DISCARD;
+    // 统计开始前为每个目标主机预先建立的连接数，0 表示不预热
+    private int warmupConnections = 0;
+
+    /**
+     * 创建引擎时即把压测计划编译为不可变的执行计划，之后对原计划的修改不影响本次运行
+     */
+    public PerformanceEngine(PerformancePlan plan) {
+        this.plan = ExecutionPlan.compile(plan);
+        this.planJson = PerformancePlanCodec.toJson(plan);
+        this.sampler = new HttpSampler(new PerformanceEngineListener() {
+            @Override
+            public void onScriptOutput(String output, boolean error) {
+                for (PerformanceEngineListener l : listeners) {
+                    l.onScriptOutput(output, error);
+                }
+            }
+        });
+    }
+
+    public void addListener(PerformanceEngineListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(PerformanceEngineListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void setEfficientMode(boolean efficientMode) {
+        this.efficientMode = efficientMode;
+    }
+
+    public boolean isEfficientMode() {
+        return efficientMode;
+    }
+
+    public void setCsvRows(List<Map<String, String>> csvRows) {
+        this.csvRows = csvRows != null ? List.copyOf(csvRows) : List.of();
+    }
+
+    public void setMinBodyPolicy(ResponseBodyPolicy minBodyPolicy) {
+        this.minBodyPolicy = minBodyPolicy != null ? minBodyPolicy : ResponseBodyPolicy.DISCARD;
+    }
+
+    /**
+     * 统计窗口开始前为每个目标主机预先建立的连接数，不超过连接池的最大空闲连接数
+     */
+    public void setWarmupConnections(int warmupConnections) {
+        this.warmupConnections = Math.max(0, warmupConnections);
+    }
+
+    /**
+     * 指定压测节点后，压测计划按节点拆分并由节点执行，本引擎的统计为各节点合并结果
+     *
+     * @param secret 与各节点共享的认证密钥
+     */
+    public void setRemoteAgents(List<InetSocketAddress> remoteAgents, String secret) {
+        this.remoteAgents = remoteAgents != null ? List.copyOf(remoteAgents) : List.of();
+        this.agentSecret = secret;
+    }
+
+    public boolean isDistributed() {
+        return !remoteAgents.isEmpty();
+    }
+
+    /**
+     * 按秒统计的可见延迟：分布式压测时节点每秒结束后才上报该秒统计
+     */
+    public long getTrendDelayMillis() {
+        return isDistributed() ? REMOTE_TREND_DELAY_MS : 0;
+    }
+
+    public ExecutionPlan getPlan() {
+        return plan;
+    }
+
+    public PerformanceMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getActiveUsers() {
+        return activeUsers.get();
+    }
+
+    public int getTotalUsers() {
+        return plan.totalUsers;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * 本次运行的耗时（毫秒），运行中返回已运行时间
+     */
+    public long getElapsedMillis() {
+        long end = running || endTime == 0 ? System.currentTimeMillis() : endTime;
+        return startTime == 0 ? 0 : end - startTime;
+    }
+
+    /**
+     * 在后台线程中启动压测，立即返回
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        runThread = new Thread(this::execute, "perf-engine");
+        runThread.start();
+    }
+
+    /**
+     * 在当前线程执行压测，直到全部线程组结束或被停止
+     */
+    public void run() {
+        synchronized (this) {
+            if (running) return;
+            running = true;
+            runThread = Thread.currentThread();
+        }
+        execute();
+    }
+
+    /**
+     * 停止压测，正在执行的请求完成后各虚拟用户退出
+     */
+    public void stop() {
+        running = false;
+        DistributedController c = controller;
+        if (c != null) {
+            c.stop();
+        }
+        Thread t = runThread;
+        if (t != null && t.isAlive() && t != Thread.currentThread()) {
+            t.interrupt();
+        }
+    }
+
+    /**
+     * 等待后台压测结束
+     */
+    public void awaitTermination() throws InterruptedException {
+        Thread t = runThread;
+        if (t != null && t != Thread.currentThread()) {
+            t.join();
+        }
+    }
+
+    private void execute() {
+        metrics.clear();
+        vuSequence.set(0);
+        csvRowIndex.set(0);
+        endTime = 0;
+        // 重要：更新开始时间，确保递增线程等模式正常工作
+        startTime = System.currentTimeMillis();
+        // 响应体按需读取：请求自身（断言、后置脚本）、监听器和用户配置中要求最高者
+        ResponseBodyPolicy bodyPolicy = minBodyPolicy;
+        for (PerformanceEngineListener l : listeners) {
+            bodyPolicy = bodyPolicy.atLeast(l.getRequiredBodyPolicy());
+        }
+        sampler.setMinBodyPolicy(bodyPolicy);
+        // 运行开始时的全局 Cookie 快照，供“复制全局”模式的用户作为初始 Cookie
+        cookieSeed = VirtualUserCookieJar.snapshot(OkHttpClientManager.getGlobalCookieManager().getCookieStore());
+        if (isDistributed()) {
+            executeDistributed();
+            return;
+        }
+        // 异步线程组的在途请求上限等于其用户数上限，共享本次运行专用的调度器
+        int asyncUsers = plan.threadGroups.stream().filter(PerformanceEngine::isAsync).mapToInt(g -> g.maxUsers).sum();
+        if (asyncUsers > 0) {
+            asyncExecutor = new AsyncSampleExecutor(sampler, asyncUsers, this::finishAsyncUserOnError);
+            OkHttpClientManager.setDispatcher(asyncExecutor.getDispatcher());
+        }
+        int maxIdleConnections = SettingManager.getJmeterMaxIdleConnections();
+        OkHttpClientManager.setConnectionPoolConfig(maxIdleConnections, SettingManager.getJmeterKeepAliveSeconds());
+        if (warmupConnections > 0 && running) {
+            int warmed = ConnectionWarmer.warmUp(plan, Math.min(warmupConnections, maxIdleConnections), WARMUP_TIMEOUT_MS);
+            for (PerformanceEngineListener l : listeners) {
+                l.onScriptOutput("[Warm-up] " + warmed + " connection request(s) completed", false);
+            }
+            // 预热耗时不计入本次运行，递增等模式从这里开始计时
+            startTime = System.currentTimeMillis();
+        }
+        // 每个并发用户保留一个可复用的脚本上下文
+        JsContextPool jsPool = JsScriptExecutor.getContextPool();
+        jsPool.setMaxIdle(Math.max(JsContextPool.DEFAULT_MAX_IDLE, Math.min(plan.totalUsers, MAX_POOLED_JS_CONTEXTS)));
+        jsPool.resetPeakInUse();
+        JsContextPool.Stats jsStart = jsPool.getStats();
+        for (PerformanceEngineListener l : listeners) {
+            l.onStart(this);
+        }
+        reportExecutorFallbacks();
+        boolean interrupted = false;
+        try {
+            List<Thread> tgThreads = new ArrayList<>();
+            for (CompiledThreadGroup tg : plan.threadGroups) {
+                Thread t = new Thread(() -> runThreadGroup(tg), "perf-tg-" + tg.name);
+                tgThreads.add(t);
+                t.start();
+            }
+            // 停止时中断的是引擎线程，线程组仍在收尾，等全部虚拟用户退出后才结束本次运行
+            for (Thread t : tgThreads) {
+                while (t.isAlive()) {
+                    try {
+                        t.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            running = false;
+            endTime = System.currentTimeMillis();
+            if (asyncExecutor != null) {
+                OkHttpClientManager.setDispatcher(null);
+                asyncExecutor.close();
+                asyncExecutor = null;
+            }
+            // 分流连接池只属于本次运行，结束时关闭，避免下次运行前一直占用连接
+            OkHttpClientManager.evictLaneClients();
+            OkHttpClientManager.setDefaultConnectionPoolConfig();
+            JsContextPool.Stats jsEnd = jsPool.getStats();
+            log.info("JS上下文池: {}", jsEnd);
+            if (jsEnd.leases > jsStart.leases) {
+                metrics.setJsContextUsage(new JsContextUsage(jsEnd.created - jsStart.created, jsEnd.reused - jsStart.reused,
+                        jsEnd.leases - jsStart.leases, jsEnd.peakInUse, jsEnd.idle));
+            }
+            jsPool.setMaxIdle(JsContextPool.DEFAULT_MAX_IDLE);
+            reportMissedArrivals();
+            for (PerformanceEngineListener l : listeners) {
+                l.onFinish(this);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // 当前 JDK 不支持虚拟线程时，虚拟线程模式的线程组实际使用平台线程，异步模式的在途请求数受平台线程数限制，开始时提示用户
+    private void reportExecutorFallbacks() {
+        if (VirtualUserThreads.isVirtualThreadSupported()) {
+            return;
+        }
+        for (CompiledThreadGroup tg : plan.threadGroups) {
+            if (tg.settings.executorType == ThreadGroupData.ExecutorType.VIRTUAL) {
+                String message = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_VIRTUAL_THREAD_FALLBACK,
+                        tg.name, Runtime.version().feature(), tg.maxUsers);
+                log.warn(message);
+                for (PerformanceEngineListener l : listeners) {
+                    l.onScriptOutput(message, true);
+                }
+            } else if (tg.settings.executorType == ThreadGroupData.ExecutorType.ASYNC
+                    && tg.maxUsers > AsyncSampleExecutor.FALLBACK_HTTP_THREADS) {
+                String message = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_ASYNC_THREAD_FALLBACK,
+                        tg.name, Runtime.version().feature(), AsyncSampleExecutor.FALLBACK_HTTP_THREADS);
+                log.warn(message);
+                for (PerformanceEngineListener l : listeners) {
+                    l.onScriptOutput(message, true);
+                }
+            }
+        }
+    }
+
+    // 到达率模式有迭代没有执行时，结束时提示用户：这些到达不在延迟统计中
+    private void reportMissedArrivals() {
+        long missed = metrics.getMissedArrivalCount();
+        if (missed == 0) {
+            return;
+        }
+        String message = I18nUtil.getMessage(MessageKeys.PERFORMANCE_MSG_MISSED_ARRIVALS, missed);
+        log.warn(message);
+        for (PerformanceEngineListener l : listeners) {
+            l.onScriptOutput(message, true);
+        }
+    }
+
+    private void executeDistributed() {
+        DistributedController c = new DistributedController(planJson, remoteAgents, agentSecret, metrics,
+                active -> {
+                    activeUsers.set(active);
+                    fireActiveUsersChanged(active);
+                },
+                (agent, error) -> {
+                    log.warn("压测节点 {}: {}", agent, error);
+                    for (PerformanceEngineListener l : listeners) {
+                        l.onScriptOutput("[Agent " + agent + "] " + error, true);
+                    }
+                });
+        controller = c;
+        for (PerformanceEngineListener l : listeners) {
+            l.onStart(this);
+        }
+        try {
+            if (running) {
+                c.run();
+            }
+        } catch (IOException e) {
+            log.error("分布式压测启动失败: {}", e.getMessage());
+            for (PerformanceEngineListener l : listeners) {
+                l.onScriptOutput(e.getMessage(), true);
+            }
+        } finally {
+            running = false;
+            controller = null;
+            endTime = System.currentTimeMillis();
+            reportMissedArrivals();
+            for (PerformanceEngineListener l : listeners) {
+                l.onFinish(this);
+            }
+        }
+    }
+
+    private void runThreadGroup(CompiledThreadGroup group) {
+        if (!running) return;
+        ThreadGroupData tg = group.settings;
+        // 根据线程模式选择对应的执行策略
+        switch (tg.threadMode) {
+            case FIXED -> runFixedThreads(group, tg);
+            case RAMP_UP -> runRampUpThreads(group, tg);
+            case SPIKE -> runSpikeThreads(group, tg);
+            case STAIRS -> runStairsThreads(group, tg);
+            case ARRIVAL_RATE -> runArrivalRateThreads(group, tg);
+        }
+    }
+
+    // 固定线程模式执行
+    private void runFixedThreads(CompiledThreadGroup group, ThreadGroupData tg) {
+        int numThreads = tg.numThreads;
+        int loops = tg.loops;
+        boolean useTime = tg.useTime;
+        int durationSeconds = tg.duration;
+
+        long groupStart = System.currentTimeMillis();
+        long groupEnd = useTime ? (groupStart + (durationSeconds * 1000L)) : Long.MAX_VALUE;
+        Set<VirtualUser> users = ConcurrentHashMap.newKeySet();
+
+        for (int i = 0; i < numThreads; i++) {
+            if (!running) {
+                break;
+            }
+            // 按时间执行或按循环次数执行
+            AtomicInteger remainingLoops = new AtomicInteger(loops);
+            startLoopingUser(group, users, vu -> useTime
+                    ? System.currentTimeMillis() < groupEnd && running
+                    : running && remainingLoops.getAndDecrement() > 0);
+        }
+        // 等待所有线程完成，或者超时
+        long timeoutMs = useTime ? (durationSeconds + 10L) * 1000 : TimeUnit.HOURS.toMillis(1);
+        try {
+            joinVirtualUsers(users, System.currentTimeMillis() + timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("固定线程执行中断", e);
+        }
+    }
+
+    // 递增线程模式执行
+    private void runRampUpThreads(CompiledThreadGroup group, ThreadGroupData tg) {
+        int startThreads = tg.rampUpStartThreads;
+        int endThreads = tg.rampUpEndThreads;
+        int rampUpTime = tg.rampUpTime;
+        int totalDuration = tg.rampUpDuration;  // 使用总持续时间参数
+
+        // 计算每秒增加的线程数
+        double threadsPerSecond = (double) (endThreads - startThreads) / rampUpTime;
+
+        // 创建调度线程池
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        Set<VirtualUser> users = ConcurrentHashMap.newKeySet();
+
+        // 已启动的线程数
+        AtomicInteger startedThreads = new AtomicInteger(0);
+
+        // 每秒检查并启动新线程
+        scheduler.scheduleAtFixedRate(() -> {
+            if (!running) {
+                scheduler.shutdownNow();
+                return;
+            }
+
+            int currentSecond = (int) (System.currentTimeMillis() - startTime) / 1000;
+            if (currentSecond > totalDuration) {
+                scheduler.shutdown(); // 达到总时间，停止调度
+                return;
+            }
+
+            // 在斜坡上升期间逐步增加线程
+            if (currentSecond <= rampUpTime) {
+                // 计算当前应有的线程数
+                int targetThreads = startThreads + (int) (threadsPerSecond * currentSecond);
+                targetThreads = Math.min(targetThreads, endThreads); // 不超过最大线程数
+
+                // 启动新线程，启动前计数，避免线程尚未运行时重复启动
+                while (startedThreads.get() < targetThreads && running) {
+                    startedThreads.incrementAndGet();
+                    // 循环执行直到结束
+                    startLoopingUser(group, users,
+                            vu -> running && System.currentTimeMillis() - startTime < totalDuration * 1000L);
+                }
+            }
+        }, 0, 1, TimeUnit.SECONDS);
+
+        try {
+            // 等待执行完成
+            scheduler.awaitTermination(totalDuration + 10L, TimeUnit.SECONDS);
+            joinVirtualUsers(users, System.currentTimeMillis() + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scheduler.shutdownNow();
+            log.error("递增线程执行中断", e);
+        }
+    }
+
+    // 尖刺模式执行
+    private void runSpikeThreads(CompiledThreadGroup group, ThreadGroupData tg) {
+        int minThreads = tg.spikeMinThreads;
+        int maxThreads = tg.spikeMaxThreads;
+        int rampUpTime = tg.spikeRampUpTime;
+        int holdTime = tg.spikeHoldTime;
+        int rampDownTime = tg.spikeRampDownTime;
+        int totalTime = tg.spikeDuration;  // 使用ThreadGroupData中定义的总持续时间
+
+        // 创建线程池
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        AtomicInteger startedThreads = new AtomicInteger(0);
+
+        // 跟踪运行中的虚拟用户，每个用户自带预期结束时间
+        Set<VirtualUser> users = ConcurrentHashMap.newKeySet();
+
+        // 计算各阶段所占总时间的比例
+        int phaseSum = rampUpTime + holdTime + rampDownTime;
+        int adjustedRampUpTime = totalTime * rampUpTime / phaseSum;
+        int adjustedHoldTime = totalTime * holdTime / phaseSum;
+        int adjustedRampDownTime = totalTime - adjustedRampUpTime - adjustedHoldTime;
+
+        // 初始阶段: 启动最小线程数
+        adjustSpikeThreadCount(group, tg, startedThreads, minThreads, totalTime, users);
+
+        // 阶段性调度：上升、保持、下降
+        scheduler.scheduleAtFixedRate(() -> {
+            if (!running) {
+                scheduler.shutdownNow();
+                return;
+            }
+
+            long elapsedSeconds = (System.currentTimeMillis() - startTime) / 1000;
+            if (elapsedSeconds >= totalTime) {
+                scheduler.shutdown();
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            int targetThreads;
+
+            // 上升阶段
+            if (elapsedSeconds < adjustedRampUpTime) {
+                double progress = (double) elapsedSeconds / adjustedRampUpTime;
+                targetThreads = minThreads + (int) (progress * (maxThreads - minThreads));
+                // 增加线程
+                adjustSpikeThreadCount(group, tg, startedThreads, targetThreads, totalTime, users);
+            }
+            // 保持阶段
+            else if (elapsedSeconds < adjustedRampUpTime + adjustedHoldTime) {
+                targetThreads = maxThreads;
+                // 保持线程数
+                adjustSpikeThreadCount(group, tg, startedThreads, targetThreads, totalTime, users);
+            }
+            // 下降阶段
+            else {
+                double progress = (double) (elapsedSeconds - adjustedRampUpTime - adjustedHoldTime) / adjustedRampDownTime;
+                targetThreads = maxThreads - (int) (progress * (maxThreads - minThreads));
+                targetThreads = Math.max(targetThreads, minThreads); // 不低于最小线程数
+
+                // 在下降阶段，通过设置用户结束时间来减少活跃线程数
+                int threadsToRemove = startedThreads.get() - targetThreads;
+                if (threadsToRemove > 0) {
+                    // 找出可以终止的用户
+                    users.stream()
+                            .filter(vu -> vu.isAlive() && !vu.isStopScheduled())
+                            .limit(threadsToRemove)
+                            .forEach(vu -> vu.stopAt(now + 500)); // 设置一个短暂的结束时间
+                }
+
+                // 仍然需要增加线程的情况
+                adjustSpikeThreadCount(group, tg, startedThreads, targetThreads, totalTime, users);
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+
+        try {
+            // 等待执行完成
+            scheduler.awaitTermination(totalTime + 10L, TimeUnit.SECONDS);
+            // 确保等待所有用户完成，设置超时时间避免永久阻塞
+            joinVirtualUsers(users, System.currentTimeMillis() + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scheduler.shutdownNow();
+            log.error("尖刺模式执行中断", e);
+        }
+    }
+
+    // 阶梯模式执行
+    private void runStairsThreads(CompiledThreadGroup group, ThreadGroupData tg) {
+        int startThreads = tg.stairsStartThreads;
+        int endThreads = tg.stairsEndThreads;
+        int step = tg.stairsStep;
+        int holdTime = tg.stairsHoldTime;
+        int totalTime = tg.stairsDuration;
+
+        // 创建线程池
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        AtomicInteger startedThreads = new AtomicInteger(0);
+
+        // 跟踪运行中的虚拟用户
+        Set<VirtualUser> users = ConcurrentHashMap.newKeySet();
+
+        // 计算阶梯数量
+        int totalSteps = Math.max(1, (endThreads - startThreads) / step);
+
+        // 记录当前阶梯和上次阶梯变化的时间
+        AtomicInteger currentStair = new AtomicInteger(0);
+        AtomicLong lastStairChangeTime = new AtomicLong(System.currentTimeMillis());
+
+        // 初始阶段: 启动起始线程数
+        addTimedVirtualUsers(group, tg, startedThreads, startThreads, totalTime, users);
+
+        // 阶梯式调度
+        scheduler.scheduleAtFixedRate(() -> {
+            if (!running) {
+                scheduler.shutdownNow();
+                return;
+            }
+
+            long elapsedSeconds = (System.currentTimeMillis() - startTime) / 1000;
+            if (elapsedSeconds >= totalTime) {
+                scheduler.shutdown();
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+
+            // 检查是否需要进入下一个阶梯（考虑保持时间）
+            long timeSinceLastChange = now - lastStairChangeTime.get();
+            int stair = currentStair.get();
+
+            // 如果已经过了当前阶梯的保持时间，并且还没有达到最大阶梯数，则进入下一个阶梯
+            if (timeSinceLastChange >= holdTime * 1000L && stair < totalSteps) {
+                stair = currentStair.incrementAndGet();
+                lastStairChangeTime.set(now);
+            }
+
+            // 计算当前阶梯应有的线程数
+            int targetThreads = startThreads;
+            if (stair > 0 && stair <= totalSteps) {
+                targetThreads = startThreads + stair * step;
+                targetThreads = Math.min(targetThreads, endThreads); // 不超过最大线程数
+            }
+
+            // 阶梯模式下，不需要减少线程，只增加
+            addTimedVirtualUsers(group, tg, startedThreads, targetThreads, totalTime, users);
+        }, 1, 1, TimeUnit.SECONDS);
+
+        try {
+            // 等待执行完成
+            scheduler.awaitTermination(totalTime + 10L, TimeUnit.SECONDS);
+            // 确保等待所有用户完成，设置超时时间避免永久阻塞
+            joinVirtualUsers(users, System.currentTimeMillis() + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scheduler.shutdownNow();
+            log.error("阶梯模式执行中断", e);
+        }
+    }
+
+    // 到达率模式执行：按计划速率派发迭代，空闲用户不足时扩充用户池（不超过上限）
+    private void runArrivalRateThreads(CompiledThreadGroup group, ThreadGroupData tg) {
+        ArrivalRateSchedule schedule = new ArrivalRateSchedule(tg.arrivalStartRate, tg.arrivalTargetRate,
+                tg.arrivalRampTime, tg.arrivalDuration);
+        int maxUsers = Math.max(1, tg.arrivalMaxUsers);
+        if (isAsync(group)) {
+            runAsyncArrivalRate(group, schedule, maxUsers);
+            return;
+        }
+        // 待执行迭代的计划开始时间（nanoTime），最多积压与用户数上限相同的迭代，超出时计为未执行
+        BlockingQueue<Long> pending = new LinkedBlockingQueue<>(maxUsers);
+        AtomicInteger idleUsers = new AtomicInteger(0);
+        AtomicBoolean dispatching = new AtomicBoolean(true);
+        Set<VirtualUser> users = ConcurrentHashMap.newKeySet();
+
+        long baseNanos = System.nanoTime();
+        long offset = 0;
+        try {
+            while (running && offset >= 0) {
+                long intendedStart = baseNanos + offset;
+                long waitNanos = intendedStart - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                    continue;
+                }
+                if (!pending.offer(intendedStart)) {
+                    metrics.recordMissedArrival();
+                }
+                if (pending.size() > idleUsers.get() && users.size() < maxUsers) {
+                    startVirtualUser(tg, users, vu -> {
+                        while (running) {
+                            Long scheduled;
+                            idleUsers.incrementAndGet();
+                            try {
+                                scheduled = pending.poll(100, TimeUnit.MILLISECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            } finally {
+                                idleUsers.decrementAndGet();
+                            }
+                            if (scheduled == null) {
+                                if (!dispatching.get()) return;
+                                continue;
+                            }
+                            // 从计划时间而不是实际开始时间计算延迟，排队时间计入响应时间
+                            runTaskIteration(group, vu, Math.max(0, System.nanoTime() - scheduled));
+                        }
+                    });
+                }
+                offset = schedule.nextStartNanos(offset);
+            }
+        } finally {
+            dispatching.set(false);
+        }
+
+        try {
+            // 已派发未执行的迭代在持续时间结束后不再执行，计为未执行的到达
+            dropPendingArrivals(pending);
+            joinVirtualUsers(users, System.currentTimeMillis() + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("到达率模式执行中断", e);
+        }
+    }
+
+    // 异步到达率模式：按计划速率派发迭代，由空闲的异步用户取出执行，用户不足时扩充（不超过上限）
+    private void runAsyncArrivalRate(CompiledThreadGroup group, ArrivalRateSchedule schedule, int maxUsers) {
+        Queue<Long> pending = new LinkedBlockingQueue<>(maxUsers);
+        Deque<VirtualUser> idle = new ConcurrentLinkedDeque<>();
+        AtomicBoolean dispatching = new AtomicBoolean(true);
+        Set<VirtualUser> users = ConcurrentHashMap.newKeySet();
+        ArrivalQueue queue = new ArrivalQueue(group, users, pending, idle, dispatching);
+
+        long baseNanos = System.nanoTime();
+        long offset = 0;
+        try {
+            while (running && offset >= 0) {
+                long intendedStart = baseNanos + offset;
+                long waitNanos = intendedStart - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                    continue;
+                }
+                if (!pending.offer(intendedStart)) {
+                    metrics.recordMissedArrival();
+                }
+                VirtualUser vu = idle.pollFirst();
+                if (vu == null && users.size() < maxUsers) {
+                    vu = newAsyncUser(group.settings, users);
+                }
+                if (vu != null) {
+                    pollArrival(queue, vu);
+                }
+                offset = schedule.nextStartNanos(offset);
+            }
+        } finally {
+            dispatching.set(false);
+        }
+
+        try {
+            // 已派发未执行的迭代在持续时间结束后不再执行，计为未执行的到达
+            dropPendingArrivals(pending);
+            VirtualUser vu;
+            while ((vu = idle.pollFirst()) != null) {
+                finishAsyncUser(vu, users);
+            }
+            joinVirtualUsers(users, System.currentTimeMillis() + 10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("到达率模式执行中断", e);
+        }
+    }
+
+    // 丢弃积压的迭代：这些是排队最久的到达，不能静默丢掉，否则服务端饱和时延迟统计会偏低
+    private void dropPendingArrivals(Queue<Long> pending) {
+        long dropped = 0;
+        while (pending.poll() != null) {
+            dropped++;
+        }
+        if (dropped > 0) {
+            metrics.recordMissedArrivals(dropped);
+        }
+    }
+
+    // 异步到达率用户取出下一个待执行迭代，没有时回到空闲队列
+    private void pollArrival(ArrivalQueue queue, VirtualUser vu) {
+        asyncExecutor.execute(vu, () -> {
+            Long scheduled = running ? queue.pending.poll() : null;
+            if (scheduled != null) {
+                // 从计划时间而不是实际开始时间计算延迟，排队时间计入响应时间
+                runAsyncIteration(queue.group, vu, Math.max(0, System.nanoTime() - scheduled), () -> pollArrival(queue, vu));
+                return;
+            }
+            queue.idle.offerFirst(vu);
+            // 进入空闲队列后再检查一次，避免错过派发线程刚放入的迭代或派发结束
+            boolean ended = !queue.dispatching.get() || !running;
+            if ((ended || !queue.pending.isEmpty()) && queue.idle.remove(vu)) {
+                if (ended) {
+                    finishAsyncUser(vu, queue.users);
+                } else {
+                    pollArrival(queue, vu);
+                }
+            }
+        });
+    }
+
+    // 专用于尖刺模式的线程数调整方法
+    private void adjustSpikeThreadCount(CompiledThreadGroup group, ThreadGroupData tg,
+                                        AtomicInteger startedThreads, int targetThreads,
+                                        int totalTime, Set<VirtualUser> users) {
+        int current = startedThreads.get();
+
+        // 需要增加线程
+        if (current < targetThreads) {
+            addTimedVirtualUsers(group, tg, startedThreads, targetThreads, totalTime, users);
+        }
+        // 需要减少线程 - 缓慢减少，而不是一次性全部标记为结束
+        else if (current > targetThreads) {
+            int threadsToRemove = current - targetThreads;
+            long now = System.currentTimeMillis();
+
+            // 找出所有可以终止的用户
+            List<VirtualUser> availableUsers = users.stream()
+                    .filter(vu -> vu.isAlive() && !vu.isStopScheduled())
+                    .limit(threadsToRemove)
+                    .toList();
+
+            // 如果有可终止的用户，则设置它们分散结束
+            if (!availableUsers.isEmpty()) {
+                // 计算实际的下降时间（按比例）
+                int phaseSum = tg.spikeRampUpTime + tg.spikeHoldTime + tg.spikeRampDownTime;
+                int adjustedRampDownTime = tg.spikeDuration * tg.spikeRampDownTime / phaseSum;
+                adjustedRampDownTime = Math.max(adjustedRampDownTime, 1); // 至少1秒
+
+                // 计算从现在到下降结束还剩多少时间
+                long elapsedSeconds = (now - startTime) / 1000;
+                long rampDownStartTime = (long) (tg.spikeRampUpTime + tg.spikeHoldTime) * tg.spikeDuration / phaseSum;
+                long timeLeftInRampDown = Math.max(1, adjustedRampDownTime - (elapsedSeconds - rampDownStartTime));
+
+                // 为用户设置不同的结束时间，均匀分布在剩余下降时间内
+                for (int i = 0; i < availableUsers.size(); i++) {
+                    long stopAt = now + (i + 1) * timeLeftInRampDown * 1000 / (availableUsers.size() + 1);
+                    availableUsers.get(i).stopAt(stopAt);
+                }
+            }
+        }
+    }
+
+    // 补充虚拟用户直到已启动数达到目标，新用户持续运行到测试结束或被标记为应该结束
+    private void addTimedVirtualUsers(CompiledThreadGroup group, ThreadGroupData tg, AtomicInteger startedThreads,
+                                      int targetThreads, int totalTime, Set<VirtualUser> users) {
+        while (startedThreads.get() < targetThreads && running) {
+            startedThreads.incrementAndGet();
+            startLoopingUser(group, users, vu -> {
+                long now = System.currentTimeMillis();
+                return running && now - startTime < totalTime * 1000L && !vu.shouldStop(now);
+            });
+        }
+    }
+
+    private static boolean isAsync(CompiledThreadGroup group) {
+        return group.settings.executorType == ThreadGroupData.ExecutorType.ASYNC;
+    }
+
+    /**
+     * 启动一个虚拟用户，每次迭代前检查 hasNext，返回 false 时退出
+     * <p>
+     * 线程执行方式下循环执行迭代；异步执行方式下每次迭代完成后回调检查并开始下一次。
+     */
+    private void startLoopingUser(CompiledThreadGroup group, Set<VirtualUser> users, Predicate<VirtualUser> hasNext) {
+        if (isAsync(group)) {
+            runAsyncLoop(group, newAsyncUser(group.settings, users), users, hasNext);
+            return;
+        }
+        startVirtualUser(group.settings, users, vu -> {
+            while (hasNext.test(vu)) {
+                runTaskIteration(group, vu);
+            }
+        });
+    }
+
+    private void runAsyncLoop(CompiledThreadGroup group, VirtualUser vu, Set<VirtualUser> users, Predicate<VirtualUser> hasNext) {
+        asyncExecutor.execute(vu, () -> {
+            if (!hasNext.test(vu)) {
+                finishAsyncUser(vu, users);
+                return;
+            }
+            // 每次迭代都重新提交任务，避免前置脚本连续失败时同步回调导致调用栈无限增长
+            runAsyncIteration(group, vu, 0, () -> runAsyncLoop(group, vu, users, hasNext));
+        });
+    }
+
+    // 异步执行一次迭代，所有请求完成（或停止）后调用 onDone
+    private void runAsyncIteration(CompiledThreadGroup group, VirtualUser vu, long scheduleDelayNanos, Runnable onDone) {
+        runAsyncSampler(group, vu, 0, scheduleDelayNanos, onDone);
+    }
+
+    private void runAsyncSampler(CompiledThreadGroup group, VirtualUser vu, int index, long scheduleDelayNanos, Runnable onDone) {
+        List<CompiledSampler> samplers = group.samplers;
+        if (index >= samplers.size() || !running) {
+            onDone.run();
+            return;
+        }
+        CompiledSampler request = samplers.get(index);
+        asyncExecutor.sample(vu, request, nextCsvRow(), !efficientMode, result -> {
+            recordSample(result, scheduleDelayNanos);
+            Runnable next = () -> runAsyncSampler(group, vu, index + 1, 0, onDone);
+            if (request.timerDelayMs > 0) {
+                asyncExecutor.schedule(vu, request.timerDelayMs, next);
+            } else {
+                next.run();
+            }
+        });
+    }
+
+    // 创建一个不占用线程的异步虚拟用户
+    private VirtualUser newAsyncUser(ThreadGroupData tg, Set<VirtualUser> users) {
+        VirtualUser vu = newVirtualUser(tg);
+        users.add(vu);
+        fireActiveUsersChanged(activeUsers.incrementAndGet());
+        return vu;
+    }
+
+    // 先减少活跃用户数再唤醒等待该用户的线程组，线程组结束时活跃用户数已是最终值
+    private void finishAsyncUser(VirtualUser vu, Set<VirtualUser> users) {
+        users.remove(vu);
+        vu.markFinished(() -> fireActiveUsersChanged(activeUsers.decrementAndGet()));
+    }
+
+    // 异步步骤出现未预期的异常，或压测结束后仍有回调到达时结束该用户
+    private void finishAsyncUserOnError(VirtualUser vu) {
+        vu.markFinished(() -> fireActiveUsersChanged(activeUsers.decrementAndGet()));
+    }
+
+    /**
+     * 按线程组配置的执行方式（平台线程/虚拟线程）启动一个虚拟用户
+     */
+    private VirtualUser startVirtualUser(ThreadGroupData tg, Set<VirtualUser> users, Consumer<VirtualUser> body) {
+        VirtualUser vu = newVirtualUser(tg);
+        users.add(vu);
+        boolean virtual = tg.executorType == ThreadGroupData.ExecutorType.VIRTUAL;
+        VirtualUserThreads.start(vu, virtual, () -> {
+            fireActiveUsersChanged(activeUsers.incrementAndGet());
+            try {
+                body.accept(vu);
+            } finally {
+                fireActiveUsersChanged(activeUsers.decrementAndGet());
+                users.remove(vu);
+                vu.markFinished();
+            }
+        });
+        return vu;
+    }
+
+    // 按线程组的 Cookie 设置为新用户分配独立的 Cookie 存储
+    private VirtualUser newVirtualUser(ThreadGroupData tg) {
+        VirtualUser vu = new VirtualUser(vuSequence.incrementAndGet());
+        if (tg.cookieMode == ThreadGroupData.CookieMode.VIRTUAL_USER) {
+            vu.setCookieJar(new VirtualUserCookieJar());
+        } else if (tg.cookieMode == ThreadGroupData.CookieMode.VIRTUAL_USER_SEEDED) {
+            vu.setCookieJar(new VirtualUserCookieJar(cookieSeed));
+        }
+        return vu;
+    }
+
+    // 等待所有虚拟用户结束，最多等到deadline
+    private void joinVirtualUsers(Set<VirtualUser> users, long deadline) throws InterruptedException {
+        for (VirtualUser vu : List.copyOf(users)) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return;
+            }
+            vu.join(remaining);
+        }
+    }
+
+    private void fireActiveUsersChanged(int active) {
+        for (PerformanceEngineListener l : listeners) {
+            l.onActiveUsersChanged(active);
+        }
+    }
+
+    // 执行一次迭代
+    private void runTaskIteration(CompiledThreadGroup group, VirtualUser vu) {
+        runTaskIteration(group, vu, 0);
+    }
+
+    /**
+     * 执行一次迭代
+     *
+     * @param scheduleDelayNanos 迭代实际开始时间晚于计划时间的部分，计入本次迭代第一个请求的响应时间
+     */
+    private void runTaskIteration(CompiledThreadGroup group, VirtualUser vu, long scheduleDelayNanos) {
+        List<CompiledSampler> samplers = group.samplers;
+        for (int i = 0; i < samplers.size() && running; i++) {
+            executeRequest(samplers.get(i), vu, scheduleDelayNanos);
+            scheduleDelayNanos = 0;
+        }
+    }
+
+    // 轮流分配 CSV 数据行，没有数据时返回 null
+    private Map<String, String> nextCsvRow() {
+        List<Map<String, String>> rows = csvRows;
+        if (rows.isEmpty()) {
+            return null;
+        }
+        return rows.get(csvRowIndex.getAndIncrement() % rows.size());
+    }
+
+    // 记录统计并通知监听器
+    private void recordSample(SampleResult result, long scheduleDelayNanos) {
+        // 到达率模式下把排队等待时间计入响应时间（协调遗漏修正）
+        result.latencyMicros += scheduleDelayNanos / 1000;
+        result.startTime -= scheduleDelayNanos / 1_000_000;
+        metrics.record(result.name, result.startTime, result.endTime, result.latencyMicros, result.success, result.bytes);
+        if (result.phases != null) {
+            metrics.recordPhases(result.name, result.phases);
+        }
+        if (result.protocol != null) {
+            metrics.recordProtocol(result.protocol, result.latencyMicros, result.success);
+        }
+        List<TestResult> testResults = result.testResults;
+        if (testResults != null) {
+            for (int i = 0; i < testResults.size(); i++) {
+                TestResult test = testResults.get(i);
+                metrics.recordAssertion(result.name, test.name, test.passed);
+            }
+        }
+        for (PerformanceEngineListener l : listeners) {
+            l.onSample(result);
+        }
+    }
+
+    // 执行单个请求：采样、记录统计、通知监听器，然后执行定时器等待
+    private void executeRequest(CompiledSampler request, VirtualUser vu, long scheduleDelayNanos) {
+        SampleResult result = sampler.sample(request, vu, nextCsvRow(), !efficientMode);
+        recordSample(result, scheduleDelayNanos);
+
+        // ====== 定时器延迟（sleep） ======
+        if (request.timerDelayMs > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(request.timerDelayMs);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 异步到达率模式中一个线程组的派发状态
+     */
+    private record ArrivalQueue(CompiledThreadGroup group, Set<VirtualUser> users, Queue<Long> pending,
+                                Deque<VirtualUser> idle, AtomicBoolean dispatching) {
+    }
+}
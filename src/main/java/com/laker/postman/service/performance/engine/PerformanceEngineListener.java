@@ -0,0 +1,43 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.model.ResponseBodyPolicy;
+
+/**
+ * 压测引擎事件监听
+ * <p>
+ * 回调在压测线程上同步执行，实现方需要自行切换线程（如界面监听器切换到 EDT），
+ * 且不应在回调中阻塞。
+ */
+public interface PerformanceEngineListener {
+
+    /**
+     * 监听器在 {@link #onSample} 中需要的最低响应体读取策略，如界面结果树需要展示响应体
+     */
+    default ResponseBodyPolicy getRequiredBodyPolicy() {
+        return ResponseBodyPolicy.DISCARD;
+    }
+
+    default void onStart(PerformanceEngine engine) {
+    }
+
+    /**
+     * 活跃用户数变化，虚拟用户启动或结束时触发，调用频率可能很高
+     */
+    default void onActiveUsersChanged(int activeUsers) {
+    }
+
+    /**
+     * 每个请求采样完成后触发
+     */
+    default void onSample(SampleResult result) {
+    }
+
+    /**
+     * 前置/后置脚本产生的控制台输出
+     */
+    default void onScriptOutput(String output, boolean error) {
+    }
+
+    default void onFinish(PerformanceEngine engine) {
+    }
+}
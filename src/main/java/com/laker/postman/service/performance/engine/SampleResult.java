@@ -0,0 +1,26 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.model.HttpResponse;
+import com.laker.postman.model.PhaseTimings;
+import com.laker.postman.model.PreparedRequest;
+import com.laker.postman.model.TestResult;
+
+import java.util.List;
+
+/**
+ * 一次请求采样的结果
+ */
+public class SampleResult {
+    public String name;
+    public boolean success;
+    public String errorMsg;
+    public PreparedRequest req;
+    public HttpResponse resp;
+    public List<TestResult> testResults;
+    public long startTime;      // 请求开始时间（毫秒）
+    public long endTime;        // 请求结束时间（毫秒）
+    public long latencyMicros;  // 响应时间（微秒）
+    public long bytes;          // 响应字节数
+    public PhaseTimings phases; // 各网络阶段耗时，请求未发送时为 null
+    public String protocol;     // 实际使用的协议（HTTP/1.1、HTTP/2、h2c），没有收到响应时为 null
+}
@@ -0,0 +1,98 @@
+package com.laker.postman.service.performance.engine;
+
+import okhttp3.CookieJar;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 压测虚拟用户（VU）
+ * <p>
+ * 虚拟用户自己持有变量表和停止时间等状态，与执行它的线程解耦：
+ * 无论运行在平台线程、虚拟线程上还是由异步回调驱动，状态都随 VU 对象传递，不依赖线程身份。
+ */
+public class VirtualUser {
+    private final int id;
+    // VU 级临时变量，运行期间绑定到 EnvironmentService
+    private final Map<String, String> variables = new ConcurrentHashMap<>();
+    // VU 独立的 Cookie 存储，null 表示使用全局 Cookie
+    private volatile CookieJar cookieJar;
+    // 计划停止时间（毫秒），Long.MAX_VALUE 表示一直运行到压测结束
+    private volatile long stopAt = Long.MAX_VALUE;
+    // 创建即视为存活，执行结束后计数归零
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final AtomicBoolean done = new AtomicBoolean(false);
+
+    public VirtualUser(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Map<String, String> getVariables() {
+        return variables;
+    }
+
+    public CookieJar getCookieJar() {
+        return cookieJar;
+    }
+
+    public void setCookieJar(CookieJar cookieJar) {
+        this.cookieJar = cookieJar;
+    }
+
+    /**
+     * 计划在指定时间停止（当前迭代结束后退出）
+     */
+    public void stopAt(long millis) {
+        this.stopAt = millis;
+    }
+
+    public boolean isStopScheduled() {
+        return stopAt != Long.MAX_VALUE;
+    }
+
+    public boolean shouldStop(long nowMillis) {
+        return nowMillis >= stopAt;
+    }
+
+    public boolean isAlive() {
+        return finished.getCount() > 0;
+    }
+
+    /**
+     * 等待 VU 执行结束
+     */
+    public void join(long timeoutMillis) throws InterruptedException {
+        finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 标记 VU 执行结束，只有第一次调用返回 true
+     */
+    boolean markFinished() {
+        return markFinished(null);
+    }
+
+    /**
+     * 标记 VU 执行结束，只有第一次调用返回 true 并执行 onFinished；onFinished 在等待该 VU 的线程被唤醒之前执行
+     */
+    boolean markFinished(Runnable onFinished) {
+        if (!done.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            if (onFinished != null) {
+                onFinished.run();
+            }
+        } finally {
+            finished.countDown();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.service.EnvironmentService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 虚拟用户线程启动工具
+ * <p>
+ * 支持平台线程和 Java 21 虚拟线程两种方式。项目以 Java 17 编译，
+ * 因此通过反射调用 {@code Thread.ofVirtual()}，运行在低版本 JDK 上时自动退回平台线程。
+ * 虚拟线程执行阻塞的 OkHttp 调用时，会在 socket I/O 上挂起并让出载体线程，
+ * 因此数万个并发用户只占用少量系统线程。
+ */
+@Slf4j
+public class VirtualUserThreads {
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_UNSTARTED;
+    private static final Method NEW_VIRTUAL_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        Method virtualExecutor = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            name = builderClass.getMethod("name", String.class);
+            unstarted = builderClass.getMethod("unstarted", Runnable.class);
+            virtualExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (ReflectiveOperationException e) {
+            log.info("当前JDK不支持虚拟线程，虚拟线程模式将使用平台线程: {}", System.getProperty("java.version"));
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_UNSTARTED = unstarted;
+        NEW_VIRTUAL_EXECUTOR = virtualExecutor;
+    }
+
+    private VirtualUserThreads() {
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * 为虚拟用户启动执行线程，执行期间把 VU 的变量表绑定为当前线程的临时变量
+     *
+     * @param user    虚拟用户
+     * @param virtual 是否使用虚拟线程
+     * @param body    VU 的执行逻辑
+     * @return 已启动的线程
+     */
+    public static Thread start(VirtualUser user, boolean virtual, Runnable body) {
+        Runnable task = () -> {
+            EnvironmentService.bindTemporaryVariables(user.getVariables());
+            try {
+                body.run();
+            } finally {
+                EnvironmentService.unbindTemporaryVariables();
+            }
+        };
+        String name = "perf-vu-" + user.getId();
+        Thread thread = virtual ? newVirtualThread(name, task) : null;
+        if (thread == null) {
+            thread = new Thread(task, name);
+        }
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器，当前JDK不支持虚拟线程时返回 null
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_EXECUTOR == null) return null;
+        try {
+            return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("创建虚拟线程执行器失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Thread newVirtualThread(String name, Runnable task) {
+        if (OF_VIRTUAL == null) return null;
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, name);
+            return (Thread) BUILDER_UNSTARTED.invoke(builder, task);
+        } catch (ReflectiveOperationException e) {
+            log.warn("创建虚拟线程失败，改用平台线程: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.laker.postman.service.performance.journal;
+
+/**
+ * 样本日志中的一条记录
+ * <p>
+ * 读取时同一个对象会被复用，回调之外需要保留数据时应自行拷贝字段。
+ */
+public class JournalRecord {
+    // 错误码
+    public static final byte ERROR_NONE = 0;
+    // 没有响应：前置脚本失败、连接或读取异常等
+    public static final byte ERROR_NO_RESPONSE = 1;
+    // 响应码 >= 400
+    public static final byte ERROR_HTTP_STATUS = 2;
+    // 有正常响应，但断言或后置脚本失败
+    public static final byte ERROR_ASSERTION = 3;
+
+    public long endMillis;       // 请求结束时间（毫秒）
+    public long latencyMicros;   // 响应时间（微秒）
+    public long bytes;           // 响应字节数
+    public int apiId;            // 接口编号，对应 SampleJournalReader#getApiName
+    public int status;           // HTTP 响应码，没有响应时为 0
+    public boolean success;
+    public byte errorCode;
+
+    public long getStartMillis() {
+        return endMillis - latencyMicros / 1000;
+    }
+}
@@ -0,0 +1,394 @@
+package com.laker.postman.service.performance.journal;
+
+import com.laker.postman.model.HttpResponse;
+import com.laker.postman.service.performance.engine.PerformanceEngine;
+import com.laker.postman.service.performance.engine.PerformanceEngineListener;
+import com.laker.postman.service.performance.engine.SampleResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 压测样本日志：每个样本写一条定长二进制记录，顺序追加到内存映射的分段文件
+ * <p>
+ * 压测线程只把样本字段写入无锁有界队列，由单个写线程批量写入映射内存，堆内存占用与样本数量无关。
+ * 每段文件按 {@value #WINDOW_RECORDS} 条记录的窗口逐步映射和扩展，不预先占满整段，
+ * 写完的窗口和关闭的分段立即解除映射，文件随后即可删除（Windows 下映射中的文件无法删除）。
+ * 记录的时间戳字段最后写入，读取时遇到时间戳为 0 的记录即视为结尾，因此进程异常退出后
+ * 已写入页缓存的记录仍可通过 {@link SampleJournalReader} 读取。
+ * <p>
+ * 目录结构：{@code apis.tsv} 保存接口编号与名称，{@code segment-000000.journal} 起为数据分段，
+ * 每段文件头 {@value #HEADER_SIZE} 字节，之后是 {@value #RECORD_SIZE} 字节的记录：
+ * <pre>
+ * 0  long endMillis
+ * 8  long latencyMicros
+ * 16 long bytes
+ * 24 int  apiId
+ * 28 short status
+ * 30 byte success
+ * 31 byte errorCode
+ * </pre>
+ */
+@Slf4j
+public class SampleJournal implements PerformanceEngineListener, AutoCloseable {
+    static final int MAGIC = 0x45504A31; // "EPJ1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 32;
+    // 文件头中"已正常关闭"标记的位置
+    static final int CLOSED_FLAG_OFFSET = 24;
+    static final String API_FILE = "apis.tsv";
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    // 默认每段 100 万条记录，约 32MB
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+    private static final int QUEUE_CAPACITY = 1 << 16;
+    // 关闭时把 tail 推进到不可能出现的位置，之后的写入方都不能再占用槽位
+    private static final long SEALED = Long.MAX_VALUE / 2;
+    // 每次映射的记录数，约 1MB
+    static final int WINDOW_RECORDS = 1 << 15;
+    // 通过 sun.misc.Unsafe.invokeCleaner 立即解除映射，不可用时等待 GC 回收
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (Exception e) {
+            log.debug("无法主动解除文件映射: {}", e.getMessage());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Path dir;
+    private final int segmentRecords;
+    private final Map<String, Integer> apiIds = new ConcurrentHashMap<>();
+    private final AtomicInteger apiSequence = new AtomicInteger();
+
+    // 多生产者单消费者有界队列：每个槽位的序号表示槽位状态，字段存放在并行数组中，不产生对象分配
+    private final int mask = QUEUE_CAPACITY - 1;
+    private final AtomicLongArray sequences = new AtomicLongArray(QUEUE_CAPACITY);
+    private final long[] endMillis = new long[QUEUE_CAPACITY];
+    private final long[] latencies = new long[QUEUE_CAPACITY];
+    private final long[] byteCounts = new long[QUEUE_CAPACITY];
+    private final int[] apis = new int[QUEUE_CAPACITY];
+    private final int[] statuses = new int[QUEUE_CAPACITY];
+    private final byte[] flags = new byte[QUEUE_CAPACITY];
+    private final byte[] errors = new byte[QUEUE_CAPACITY];
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // 仅写线程访问
+
+    private final Thread writer;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closing;
+
+    // 以下字段仅写线程访问
+    private FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowPosition;
+    private int windowEnd;
+    private int segmentIndex = -1;
+    private int segmentCount;
+
+    public SampleJournal(File dir) throws IOException {
+        this(dir, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    public SampleJournal(File dir, int segmentRecords) throws IOException {
+        if (segmentRecords <= 0 || segmentRecords > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IllegalArgumentException("segmentRecords out of range: " + segmentRecords);
+        }
+        this.dir = dir.toPath();
+        this.segmentRecords = segmentRecords;
+        Files.createDirectories(this.dir);
+        for (int i = 0; i < QUEUE_CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        openSegment(0);
+        writer = new Thread(this::writeLoop, "perf-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public File getDirectory() {
+        return dir.toFile();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * 日志关闭后仍提交的样本数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void onSample(SampleResult result) {
+        append(result);
+    }
+
+    @Override
+    public void onFinish(PerformanceEngine engine) {
+        close();
+    }
+
+    /**
+     * 追加一个样本，可在任意线程调用；队列已满时短暂等待写线程腾出空间
+     */
+    public void append(SampleResult result) {
+        HttpResponse resp = result.resp;
+        int status = resp == null ? 0 : resp.code;
+        byte error;
+        if (result.success) {
+            error = JournalRecord.ERROR_NONE;
+        } else if (resp == null) {
+            error = JournalRecord.ERROR_NO_RESPONSE;
+        } else if (status >= 400) {
+            error = JournalRecord.ERROR_HTTP_STATUS;
+        } else {
+            error = JournalRecord.ERROR_ASSERTION;
+        }
+        append(result.name, result.endTime, result.latencyMicros, result.bytes, status, result.success, error);
+    }
+
+    public void append(String api, long endTime, long latencyMicros, long bytes, int status, boolean success, byte errorCode) {
+        int apiId = apiId(api == null ? "" : api);
+        long pos;
+        while (true) {
+            if (closing) {
+                dropped.increment();
+                return;
+            }
+            pos = tail.get();
+            long seq = sequences.get((int) (pos & mask));
+            if (seq == pos) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+            } else if (seq < pos) {
+                // 队列已满，等待写线程
+                LockSupport.parkNanos(10_000);
+            }
+        }
+        int slot = (int) (pos & mask);
+        endMillis[slot] = Math.max(1, endTime);
+        latencies[slot] = latencyMicros;
+        byteCounts[slot] = bytes;
+        apis[slot] = apiId;
+        statuses[slot] = status;
+        flags[slot] = (byte) (success ? 1 : 0);
+        errors[slot] = errorCode;
+        sequences.set(slot, pos + 1);
+    }
+
+    // 接口编号在首次出现时分配，并立即追加到名称文件，保证记录引用的编号总能找到名称
+    private int apiId(String api) {
+        Integer id = apiIds.get(api);
+        if (id != null) return id;
+        return apiIds.computeIfAbsent(api, name -> {
+            int newId = apiSequence.getAndIncrement();
+            String line = newId + "\t" + name.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ') + "\n";
+            try {
+                Files.writeString(dir.resolve(API_FILE), line, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.warn("写入样本日志接口名称失败: {}", e.getMessage());
+            }
+            return newId;
+        });
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                boolean done = closing;
+                int n = drain();
+                if (n == 0) {
+                    // 关闭前已占用槽位的写入方可能还没发布，等全部发布并写入后封住队列再退出
+                    if (done && sealIfDrained()) break;
+                    LockSupport.parkNanos(done ? 10_000 : 1_000_000);
+                }
+            }
+        } catch (IOException e) {
+            closing = true;
+            log.error("写入样本日志失败: {}", e.getMessage(), e);
+        } finally {
+            finishSegment(true);
+        }
+    }
+
+    private boolean sealIfDrained() {
+        long t = tail.get();
+        return t == head && tail.compareAndSet(t, t + SEALED);
+    }
+
+    // 取出队列中已发布的全部样本写入映射内存
+    private int drain() throws IOException {
+        int n = 0;
+        while (true) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) break;
+            if (segmentCount == segmentRecords) {
+                finishSegment(false);
+                openSegment(segmentIndex + 1);
+            } else if (segmentCount == windowEnd) {
+                mapWindow();
+            }
+            int off = (int) (HEADER_SIZE + (long) segmentCount * RECORD_SIZE - windowPosition);
+            MappedByteBuffer segment = window;
+            segment.putLong(off + 8, latencies[slot]);
+            segment.putLong(off + 16, byteCounts[slot]);
+            segment.putInt(off + 24, apis[slot]);
+            segment.putShort(off + 28, (short) statuses[slot]);
+            segment.put(off + 30, flags[slot]);
+            segment.put(off + 31, errors[slot]);
+            // 时间戳最后写入，作为记录已完整写入的标记
+            segment.putLong(off, endMillis[slot]);
+            segmentCount++;
+            sequences.set(slot, head + QUEUE_CAPACITY);
+            head++;
+            n++;
+        }
+        if (n > 0) {
+            written.add(n);
+        }
+        return n;
+    }
+
+    private void openSegment(int index) throws IOException {
+        Path file = dir.resolve(segmentFileName(index));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmentIndex = index;
+        segmentCount = 0;
+        // 第一个窗口从文件头开始映射
+        mapWindow();
+        window.putInt(0, MAGIC);
+        window.putInt(4, VERSION);
+        window.putInt(8, RECORD_SIZE);
+        window.putInt(12, index);
+        window.putLong(16, System.currentTimeMillis());
+    }
+
+    // 解除上一个窗口的映射，从当前记录位置起映射下一个窗口，文件随之扩展
+    private void mapWindow() throws IOException {
+        unmap(window);
+        window = null;
+        int records = Math.min(WINDOW_RECORDS, segmentRecords - segmentCount);
+        long position = segmentCount == 0 ? 0 : HEADER_SIZE + (long) segmentCount * RECORD_SIZE;
+        long end = HEADER_SIZE + (long) (segmentCount + records) * RECORD_SIZE;
+        window = channel.map(FileChannel.MapMode.READ_WRITE, position, end - position);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowPosition = position;
+        windowEnd = segmentCount + records;
+    }
+
+    // 结束当前分段：刷盘、解除映射并关闭文件，最后一段在日志关闭时写入正常关闭标记
+    private void finishSegment(boolean last) {
+        if (channel == null) return;
+        try {
+            if (window != null) {
+                window.force();
+            }
+            unmap(window);
+            window = null;
+            if (last) {
+                channel.write(ByteBuffer.wrap(new byte[]{1}), CLOSED_FLAG_OFFSET);
+                channel.force(false);
+            }
+            channel.close();
+        } catch (IOException e) {
+            log.warn("关闭样本日志分段失败: {}", e.getMessage());
+        } finally {
+            window = null;
+            channel = null;
+        }
+    }
+
+    /**
+     * 立即解除文件映射，调用后不能再访问该缓冲区
+     */
+    static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null || INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (Exception e) {
+            log.debug("解除文件映射失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 停止接收样本，等待队列中的样本全部写入后关闭文件
+     */
+    @Override
+    public void close() {
+        closing = true;
+        LockSupport.unpark(writer);
+        if (writer != Thread.currentThread()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static String segmentFileName(int index) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * 在 root 下为一次压测创建日志目录，并只保留最近 keep 次运行的日志
+     */
+    public static File newRunDirectory(File root, String runName, int keep) {
+        keep = Math.max(1, keep);
+        File[] runs = root.listFiles(File::isDirectory);
+        if (runs != null && runs.length >= keep) {
+            Arrays.sort(runs, Comparator.comparing(File::getName));
+            for (int i = 0; i <= runs.length - keep; i++) {
+                deleteRecursively(runs[i]);
+            }
+        }
+        return new File(root, runName);
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        if (!file.delete()) {
+            log.warn("删除过期样本日志失败: {}", file.getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.laker.postman.service.performance.journal;
+
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.metrics.SecondMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * 顺序扫描 {@link SampleJournal} 写入的样本日志，用于事后生成报表、趋势或排查异常退出的压测
+ * <p>
+ * 扫描时逐段映射文件并复用同一个 {@link JournalRecord}，内存占用与样本数量无关；
+ * 每段扫描结束后立即解除映射，不妨碍删除日志目录。
+ */
+public class SampleJournalReader {
+    private final Path dir;
+    private final Map<Integer, String> apiNames = new HashMap<>();
+    private final List<Path> segments = new ArrayList<>();
+
+    private SampleJournalReader(Path dir) {
+        this.dir = dir;
+    }
+
+    public static SampleJournalReader open(File dir) throws IOException {
+        SampleJournalReader reader = new SampleJournalReader(dir.toPath());
+        Path apiFile = reader.dir.resolve(SampleJournal.API_FILE);
+        if (Files.isRegularFile(apiFile)) {
+            for (String line : Files.readAllLines(apiFile, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    reader.apiNames.put(Integer.parseInt(line.substring(0, tab)), line.substring(tab + 1));
+                }
+            }
+        }
+        for (int i = 0; ; i++) {
+            Path segment = reader.dir.resolve(SampleJournal.segmentFileName(i));
+            if (!Files.isRegularFile(segment)) break;
+            reader.segments.add(segment);
+        }
+        if (reader.segments.isEmpty()) {
+            throw new IOException("No journal segment found in " + dir.getAbsolutePath());
+        }
+        return reader;
+    }
+
+    public String getApiName(int apiId) {
+        return apiNames.getOrDefault(apiId, "#" + apiId);
+    }
+
+    /**
+     * 全部接口编号与名称
+     */
+    public Map<Integer, String> getApiNames() {
+        return Collections.unmodifiableMap(apiNames);
+    }
+
+    public String getName() {
+        return dir.getFileName().toString();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 最后一个分段是否写入了正常关闭标记，为 false 表示压测进程异常退出
+     */
+    public boolean isClosedCleanly() throws IOException {
+        try (FileChannel channel = FileChannel.open(segments.get(segments.size() - 1), StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SampleJournal.HEADER_SIZE);
+            try {
+                return header.get(SampleJournal.CLOSED_FLAG_OFFSET) == 1;
+            } finally {
+                SampleJournal.unmap(header);
+            }
+        }
+    }
+
+    /**
+     * 按写入顺序遍历全部记录
+     *
+     * @return 记录数
+     */
+    public long forEach(Consumer<JournalRecord> consumer) throws IOException {
+        long count = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            count += forEachInSegment(i, consumer);
+        }
+        return count;
+    }
+
+    /**
+     * 遍历单个分段的记录，不同分段可由多个线程并行扫描
+     *
+     * @return 记录数
+     */
+    public long forEachInSegment(int index, Consumer<JournalRecord> consumer) throws IOException {
+        Path segment = segments.get(index);
+        JournalRecord record = new JournalRecord();
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = mapSegment(channel, segment);
+            if (buf == null) return 0;
+            try {
+                int limit = buf.capacity() - SampleJournal.RECORD_SIZE;
+                for (int o = SampleJournal.HEADER_SIZE; o <= limit; o += SampleJournal.RECORD_SIZE) {
+                    long end = buf.getLong(o);
+                    // 时间戳为 0 表示后面没有已完整写入的记录
+                    if (end == 0) break;
+                    record.endMillis = end;
+                    record.latencyMicros = buf.getLong(o + 8);
+                    record.bytes = buf.getLong(o + 16);
+                    record.apiId = buf.getInt(o + 24);
+                    record.status = buf.getShort(o + 28) & 0xffff;
+                    record.success = buf.get(o + 30) != 0;
+                    record.errorCode = buf.get(o + 31);
+                    consumer.accept(record);
+                    count++;
+                }
+            } finally {
+                SampleJournal.unmap(buf);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 第一条和最后一条记录的结束时间（毫秒），没有记录时返回 null；
+     * 最后一段按二分查找定位结尾，不需要扫描全部记录
+     */
+    public long[] getTimeRange() throws IOException {
+        long first = 0;
+        try (FileChannel channel = FileChannel.open(segments.get(0), StandardOpenOption.READ)) {
+            MappedByteBuffer buf = mapSegment(channel, segments.get(0));
+            if (buf != null && buf.capacity() >= SampleJournal.HEADER_SIZE + SampleJournal.RECORD_SIZE) {
+                first = buf.getLong(SampleJournal.HEADER_SIZE);
+            }
+            SampleJournal.unmap(buf);
+        }
+        if (first == 0) return null;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            try (FileChannel channel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                MappedByteBuffer buf = mapSegment(channel, segments.get(i));
+                if (buf == null) continue;
+                // 已写入的记录连续排列，查找最后一个时间戳非 0 的记录
+                int lo = 0;
+                int hi = (buf.capacity() - SampleJournal.HEADER_SIZE) / SampleJournal.RECORD_SIZE - 1;
+                int last = -1;
+                while (lo <= hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (buf.getLong(SampleJournal.HEADER_SIZE + mid * SampleJournal.RECORD_SIZE) != 0) {
+                        last = mid;
+                        lo = mid + 1;
+                    } else {
+                        hi = mid - 1;
+                    }
+                }
+                long lastEnd = last >= 0 ? buf.getLong(SampleJournal.HEADER_SIZE + last * SampleJournal.RECORD_SIZE) : 0;
+                SampleJournal.unmap(buf);
+                if (last >= 0) {
+                    return new long[]{first, lastEnd};
+                }
+            }
+        }
+        return new long[]{first, first};
+    }
+
+    // 映射并校验分段文件，文件不完整时返回 null
+    private static MappedByteBuffer mapSegment(FileChannel channel, Path segment) throws IOException {
+        long size = channel.size();
+        if (size < SampleJournal.HEADER_SIZE) return null;
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.getInt(0) != SampleJournal.MAGIC) {
+            SampleJournal.unmap(buf);
+            throw new IOException("Not a sample journal segment: " + segment);
+        }
+        if (buf.getInt(4) != SampleJournal.VERSION || buf.getInt(8) != SampleJournal.RECORD_SIZE) {
+            SampleJournal.unmap(buf);
+            throw new IOException("Unsupported journal version in " + segment);
+        }
+        return buf;
+    }
+
+    /**
+     * 扫描日志重建汇总统计，可直接用于 {@link com.laker.postman.service.performance.report.PerformanceSummary}
+     */
+    public PerformanceMetrics toMetrics() throws IOException {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        String[] names = new String[1];
+        int[] lastId = {-1};
+        forEach(r -> {
+            if (r.apiId != lastId[0]) {
+                names[0] = getApiName(r.apiId);
+                lastId[0] = r.apiId;
+            }
+            metrics.record(names[0], r.getStartMillis(), r.endMillis, r.latencyMicros, r.success, r.bytes);
+        });
+        return metrics;
+    }
+
+    /**
+     * 扫描日志计算整个压测过程的按秒趋势，按时间升序，没有样本的秒不输出
+     */
+    public List<SecondMetrics> perSecond() throws IOException {
+        TreeMap<Long, long[]> seconds = new TreeMap<>();
+        forEach(r -> {
+            // requests, errors, latencySum, min, max, bytes
+            long[] s = seconds.computeIfAbsent(r.endMillis / 1000, k -> new long[]{0, 0, 0, Long.MAX_VALUE, 0, 0});
+            s[0]++;
+            if (!r.success) s[1]++;
+            s[2] += r.latencyMicros;
+            s[3] = Math.min(s[3], r.latencyMicros);
+            s[4] = Math.max(s[4], r.latencyMicros);
+            s[5] += Math.max(0, r.bytes);
+        });
+        List<SecondMetrics> result = new ArrayList<>(seconds.size());
+        for (Map.Entry<Long, long[]> e : seconds.entrySet()) {
+            long[] s = e.getValue();
+            result.add(new SecondMetrics(e.getKey(), s[0], s[1], s[2], s[3], s[4], s[5]));
+        }
+        return result;
+    }
+}
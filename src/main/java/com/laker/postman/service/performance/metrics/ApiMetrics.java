@@ -0,0 +1,132 @@
+package com.laker.postman.service.performance.metrics;
+
+import com.laker.postman.model.PhaseTimings;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个接口的统计数据：延迟直方图 + 成功/失败计数 + 按断言的通过/失败计数 + 各网络阶段的延迟直方图 + DNS 缓存命中计数
+ */
+public class ApiMetrics {
+    private static final PhaseTimings.Phase[] PHASES = PhaseTimings.Phase.values();
+    private final String name;
+    private final StripedLatencyHistogram latency = new StripedLatencyHistogram();
+    private final LongAdder success = new LongAdder();
+    private final LongAdder fail = new LongAdder();
+    // 按断言名称统计，报表按名称排序
+    private final Map<String, AssertionMetrics> assertions = new ConcurrentHashMap<>();
+    // 按 PhaseTimings.Phase 下标，分片按需创建，未发生的阶段不占内存
+    private final StripedLatencyHistogram[] phases = new StripedLatencyHistogram[PHASES.length];
+    // DNS 解析命中缓存（含静态主机映射）/未命中的次数
+    private final LongAdder dnsCacheHits = new LongAdder();
+    private final LongAdder dnsCacheMisses = new LongAdder();
+
+    public ApiMetrics(String name) {
+        this.name = name;
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new StripedLatencyHistogram();
+        }
+    }
+
+    public void record(long latencyMicros, boolean ok) {
+        latency.recordMicros(latencyMicros);
+        if (ok) {
+            success.increment();
+        } else {
+            fail.increment();
+        }
+    }
+
+    public void recordAssertion(String assertion, boolean passed) {
+        AssertionMetrics m = assertions.get(assertion);
+        if (m == null) {
+            m = assertions.computeIfAbsent(assertion, AssertionMetrics::new);
+        }
+        m.record(passed);
+    }
+
+    /**
+     * 记录一次请求各网络阶段的耗时，未发生的阶段（如复用连接时的建连）不计数
+     */
+    public void recordPhases(PhaseTimings timings) {
+        for (int i = 0; i < PHASES.length; i++) {
+            long micros = timings.getMicros(PHASES[i]);
+            if (micros >= 0) {
+                phases[i].recordMicros(micros);
+            }
+        }
+        Boolean dnsCacheHit = timings.getDnsCacheHit();
+        if (dnsCacheHit != null) {
+            (dnsCacheHit ? dnsCacheHits : dnsCacheMisses).increment();
+        }
+    }
+
+    public void mergeDnsCache(long hits, long misses) {
+        dnsCacheHits.add(hits);
+        dnsCacheMisses.add(misses);
+    }
+
+    public long getDnsCacheHitCount() {
+        return dnsCacheHits.sum();
+    }
+
+    public long getDnsCacheMissCount() {
+        return dnsCacheMisses.sum();
+    }
+
+    public void mergePhase(PhaseTimings.Phase phase, LatencyHistogram delta) {
+        if (delta != null && delta.getTotalCount() > 0) {
+            phases[phase.ordinal()].add(delta);
+        }
+    }
+
+    /**
+     * 合并一份增量统计，例如远程压测节点上报的数据
+     */
+    public void merge(long successDelta, long failDelta, LatencyHistogram latencyDelta) {
+        latency.add(latencyDelta);
+        success.add(successDelta);
+        fail.add(failDelta);
+    }
+
+    public void mergeAssertion(String assertion, long pass, long fail) {
+        assertions.computeIfAbsent(assertion, AssertionMetrics::new).add(pass, fail);
+    }
+
+    public Collection<AssertionMetrics> getAssertions() {
+        return assertions.values();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSuccessCount() {
+        return success.sum();
+    }
+
+    public long getFailCount() {
+        return fail.sum();
+    }
+
+    public long getTotalCount() {
+        return success.sum() + fail.sum();
+    }
+
+    /**
+     * 合并各线程分片后的延迟直方图
+     */
+    public LatencyHistogram latencySnapshot() {
+        return latency.snapshot();
+    }
+
+    /**
+     * 指定网络阶段合并各线程分片后的延迟直方图
+     */
+    public LatencyHistogram phaseSnapshot(PhaseTimings.Phase phase) {
+        return phases[phase.ordinal()].snapshot();
+    }
+}
@@ -0,0 +1,45 @@
+package com.laker.postman.service.performance.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个断言的通过/失败计数
+ */
+public class AssertionMetrics {
+    private final String name;
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public AssertionMetrics(String name) {
+        this.name = name;
+    }
+
+    public void record(boolean pass) {
+        if (pass) {
+            passed.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    public void add(long pass, long fail) {
+        passed.add(pass);
+        failed.add(fail);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getPassCount() {
+        return passed.sum();
+    }
+
+    public long getFailCount() {
+        return failed.sum();
+    }
+
+    public long getTotalCount() {
+        return passed.sum() + failed.sum();
+    }
+}
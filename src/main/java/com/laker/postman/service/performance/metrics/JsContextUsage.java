@@ -0,0 +1,20 @@
+package com.laker.postman.service.performance.metrics;
+
+/**
+ * 一次压测运行中脚本上下文池的使用情况
+ *
+ * @param created   本次运行新建的上下文数
+ * @param reused    本次运行复用空闲上下文的次数
+ * @param leases    本次运行租用上下文的总次数
+ * @param peakInUse 同时租用的上下文数峰值
+ * @param idle      运行结束时池中的空闲上下文数
+ */
+public record JsContextUsage(long created, long reused, long leases, int peakInUse, int idle) {
+
+    /**
+     * 复用率（百分比），没有租用时为 0
+     */
+    public double reuseRate() {
+        return leases == 0 ? 0 : reused * 100.0 / leases;
+    }
+}
@@ -0,0 +1,236 @@
+package com.laker.postman.service.performance.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 高动态范围（HDR）延迟直方图，记录单位为微秒，内存占用固定
+ * <p>
+ * 分桶方式为对数-线性：小于 {@link #SUB_BUCKET_COUNT} 的值逐个计数，
+ * 更大的值按 2 的幂划分区间，每个区间再线性切分为 {@link #SUB_BUCKET_HALF_COUNT} 个子桶，
+ * 因此任意值的相对误差不超过 1/128（约 0.8%）。
+ * 可记录范围 0 ~ 2^36 微秒（约 19 小时），超出部分按最大值计。
+ * <p>
+ * 所有计数器均为原子类型，可被多个线程无锁并发写入；
+ * 百分位计算只遍历固定数量的桶，与样本数量无关。
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << SUB_BUCKET_HALF_BITS;
+    private static final int MAX_VALUE_BITS = 36;
+    public static final long MAX_TRACKABLE_MICROS = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong minMicros = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * 记录一个延迟值（微秒）
+     */
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_TRACKABLE_MICROS));
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+        minMicros.accumulateAndGet(value, Math::min);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * 将另一个直方图的数据累加到当前直方图
+     */
+    public void add(LatencyHistogram other) {
+        if (other == null || other.getTotalCount() == 0) return;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalMicros.addAndGet(other.totalMicros.get());
+        minMicros.accumulateAndGet(other.minMicros.get(), Math::min);
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+
+    /**
+     * 当前直方图减去较早的快照，得到两次快照之间新增的样本，用于增量上报；
+     * 最小/最大值无法相减，沿用当前直方图的值（合并后整体的最小/最大值仍然正确）
+     */
+    public LatencyHistogram minus(LatencyHistogram previous) {
+        LatencyHistogram delta = new LatencyHistogram();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = counts.get(i) - (previous == null ? 0 : previous.counts.get(i));
+            if (c > 0) {
+                delta.counts.set(i, c);
+            }
+        }
+        long count = getTotalCount() - (previous == null ? 0 : previous.getTotalCount());
+        if (count > 0) {
+            delta.totalCount.set(count);
+            delta.totalMicros.set(totalMicros.get() - (previous == null ? 0 : previous.totalMicros.get()));
+            delta.minMicros.set(minMicros.get());
+            delta.maxMicros.set(maxMicros.get());
+        }
+        return delta;
+    }
+
+    /**
+     * 以稀疏格式写出：非空桶数量、（桶下标, 计数）列表，以及总数、总和、最小值、最大值
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int nonEmpty = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts.get(i) != 0) nonEmpty++;
+        }
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < BUCKET_COUNT && nonEmpty > 0; i++) {
+            long c = counts.get(i);
+            if (c != 0) {
+                out.writeShort(i);
+                out.writeLong(c);
+                nonEmpty--;
+            }
+        }
+        out.writeLong(totalCount.get());
+        out.writeLong(totalMicros.get());
+        out.writeLong(minMicros.get());
+        out.writeLong(maxMicros.get());
+    }
+
+    /**
+     * 读取 {@link #writeTo(DataOutput)} 写出的直方图
+     */
+    public static LatencyHistogram readFrom(DataInput in) throws IOException {
+        LatencyHistogram h = new LatencyHistogram();
+        int nonEmpty = in.readInt();
+        if (nonEmpty < 0 || nonEmpty > BUCKET_COUNT) {
+            throw new IOException("Invalid histogram bucket count: " + nonEmpty);
+        }
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = in.readUnsignedShort();
+            long c = in.readLong();
+            if (index >= BUCKET_COUNT) {
+                throw new IOException("Invalid histogram bucket index: " + index);
+            }
+            h.counts.set(index, c);
+        }
+        h.totalCount.set(in.readLong());
+        h.totalMicros.set(in.readLong());
+        h.minMicros.set(in.readLong());
+        h.maxMicros.set(in.readLong());
+        return h;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalMicros.set(0);
+        minMicros.set(Long.MAX_VALUE);
+        maxMicros.set(0);
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getTotalMicros() {
+        return totalMicros.get();
+    }
+
+    public long getMinMicros() {
+        return getTotalCount() == 0 ? 0 : minMicros.get();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public double getMeanMicros() {
+        long count = getTotalCount();
+        return count == 0 ? 0 : (double) totalMicros.get() / count;
+    }
+
+    /**
+     * 获取指定百分位的延迟值（微秒）
+     *
+     * @param percentile 百分位，取值 0~100，如 99.9
+     * @return 该百分位对应桶的上界（不超过实际最大值），无数据时返回 0
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getTotalCount();
+        if (count == 0) return 0;
+        double p = Math.max(0, Math.min(percentile, 100.0));
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.max(getMinMicros(), Math.min(highestEquivalentValue(i), getMaxMicros()));
+            }
+        }
+        return getMaxMicros();
+    }
+
+    /**
+     * 遍历所有非空桶，回调参数为（桶下界微秒, 桶上界微秒, 计数）
+     */
+    public void forEachBucket(BucketVisitor visitor) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = counts.get(i);
+            if (c != 0) {
+                visitor.visit(lowestEquivalentValue(i), highestEquivalentValue(i), c);
+            }
+        }
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_HALF_BITS;
+        int subIndex = (int) (value >>> exponent) - SUB_BUCKET_HALF_COUNT;
+        return SUB_BUCKET_COUNT + (exponent - 1) * SUB_BUCKET_HALF_COUNT + subIndex;
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int exponent = offset / SUB_BUCKET_HALF_COUNT + 1;
+        long sub = (offset % SUB_BUCKET_HALF_COUNT) + SUB_BUCKET_HALF_COUNT;
+        return sub << exponent;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        return lowestEquivalentValue(index) + (1L << exponent) - 1;
+    }
+
+    /**
+     * 桶遍历回调
+     */
+    public interface BucketVisitor {
+        void visit(long lowMicros, long highMicros, long count);
+    }
+}
@@ -0,0 +1,225 @@
+package com.laker.postman.service.performance.metrics;
+
+import com.laker.postman.model.PhaseTimings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一次压测运行的汇总统计，按接口名分别维护 {@link ApiMetrics}
+ * <p>
+ * 所有写入方法均为无锁实现，供压测线程直接调用；
+ * 报表在需要时读取快照，内存占用与样本数量无关。
+ */
+public class PerformanceMetrics {
+    private final Map<String, ApiMetrics> apis = new ConcurrentHashMap<>();
+    // 按实际使用的协议（HTTP/1.1、HTTP/2、h2c）统计，只包含收到响应的请求
+    private final Map<String, ApiMetrics> protocols = new ConcurrentHashMap<>();
+    // 第一个请求的开始时间和最后一个请求的结束时间（毫秒），用于计算整体QPS
+    private final AtomicLong firstStartMillis = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong lastEndMillis = new AtomicLong(0);
+    // 按秒统计，用于趋势图
+    private final SecondMetricsRing seconds = new SecondMetricsRing();
+    // 新建连接（TCP 建连）次数，趋势图按秒取差值得到每秒新建连接数
+    private final LongAdder newConnections = new LongAdder();
+    // 到达率模式下计划了但没有执行的迭代（积压超过用户数上限，或压测结束时仍在排队）
+    private final LongAdder missedArrivals = new LongAdder();
+    // 本机执行时引擎在结束时写入的脚本上下文池使用情况，没有执行脚本时为 null
+    private volatile JsContextUsage jsContextUsage;
+
+    /**
+     * 记录一个请求样本
+     *
+     * @param api           接口名
+     * @param startMillis   请求开始时间（毫秒）
+     * @param endMillis     请求结束时间（毫秒）
+     * @param latencyMicros 响应时间（微秒）
+     * @param success       是否成功
+     * @param bytes         响应字节数
+     */
+    public void record(String api, long startMillis, long endMillis, long latencyMicros, boolean success, long bytes) {
+        apis.computeIfAbsent(api, ApiMetrics::new).record(latencyMicros, success);
+        seconds.record(endMillis, latencyMicros, success, bytes);
+        firstStartMillis.accumulateAndGet(startMillis, Math::min);
+        lastEndMillis.accumulateAndGet(endMillis, Math::max);
+    }
+
+    /**
+     * 记录一个断言（包括后置脚本中的 pm.test）的结果
+     */
+    public void recordAssertion(String api, String assertion, boolean passed) {
+        apis.computeIfAbsent(api, ApiMetrics::new).recordAssertion(assertion, passed);
+    }
+
+    /**
+     * 记录一个请求样本的各网络阶段耗时
+     */
+    public void recordPhases(String api, PhaseTimings timings) {
+        apis.computeIfAbsent(api, ApiMetrics::new).recordPhases(timings);
+        if (timings.getMicros(PhaseTimings.Phase.CONNECT) >= 0) {
+            newConnections.increment();
+        }
+    }
+
+    public void mergePhase(String api, PhaseTimings.Phase phase, LatencyHistogram delta) {
+        apis.computeIfAbsent(api, ApiMetrics::new).mergePhase(phase, delta);
+        if (phase == PhaseTimings.Phase.CONNECT && delta != null) {
+            newConnections.add(delta.getTotalCount());
+        }
+    }
+
+    /**
+     * 按协议记录一个收到响应的请求样本
+     */
+    public void recordProtocol(String protocol, long latencyMicros, boolean success) {
+        protocols.computeIfAbsent(protocol, ApiMetrics::new).record(latencyMicros, success);
+    }
+
+    public void mergeProtocol(String protocol, long successDelta, long failDelta, LatencyHistogram latencyDelta) {
+        protocols.computeIfAbsent(protocol, ApiMetrics::new).merge(successDelta, failDelta, latencyDelta);
+    }
+
+    public Collection<ApiMetrics> getProtocols() {
+        return protocols.values();
+    }
+
+    public void mergeDnsCache(String api, long hits, long misses) {
+        apis.computeIfAbsent(api, ApiMetrics::new).mergeDnsCache(hits, misses);
+    }
+
+    public long getNewConnectionCount() {
+        return newConnections.sum();
+    }
+
+    public void recordMissedArrival() {
+        missedArrivals.increment();
+    }
+
+    public void recordMissedArrivals(long count) {
+        missedArrivals.add(count);
+    }
+
+    public long getMissedArrivalCount() {
+        return missedArrivals.sum();
+    }
+
+    public JsContextUsage getJsContextUsage() {
+        return jsContextUsage;
+    }
+
+    public void setJsContextUsage(JsContextUsage jsContextUsage) {
+        this.jsContextUsage = jsContextUsage;
+    }
+
+    /**
+     * 合并远程压测节点上报的单个接口增量统计
+     */
+    public void merge(String api, long successDelta, long failDelta, LatencyHistogram latencyDelta) {
+        apis.computeIfAbsent(api, ApiMetrics::new).merge(successDelta, failDelta, latencyDelta);
+    }
+
+    public void mergeAssertion(String api, String assertion, long pass, long fail) {
+        apis.computeIfAbsent(api, ApiMetrics::new).mergeAssertion(assertion, pass, fail);
+    }
+
+    /**
+     * 合并远程压测节点上报的按秒统计
+     */
+    public void mergeSecond(SecondMetrics second) {
+        seconds.merge(second);
+    }
+
+    /**
+     * 合并远程压测节点的首个请求开始时间和最后请求结束时间
+     */
+    public void mergeSpan(long firstStart, long lastEnd) {
+        if (firstStart > 0 && firstStart != Long.MAX_VALUE) {
+            firstStartMillis.accumulateAndGet(firstStart, Math::min);
+        }
+        lastEndMillis.accumulateAndGet(lastEnd, Math::max);
+    }
+
+    public long getFirstStartMillis() {
+        return firstStartMillis.get();
+    }
+
+    public long getLastEndMillis() {
+        return lastEndMillis.get();
+    }
+
+    public Collection<ApiMetrics> getApis() {
+        return apis.values();
+    }
+
+    public List<String> getApiNames() {
+        return new ArrayList<>(apis.keySet());
+    }
+
+    public ApiMetrics getApi(String api) {
+        return apis.get(api);
+    }
+
+    /**
+     * 最近一个已结束的完整秒的统计
+     */
+    public SecondMetrics lastCompleteSecond(long nowMillis) {
+        return seconds.lastCompleteSecond(nowMillis);
+    }
+
+    public SecondMetricsRing getSeconds() {
+        return seconds;
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (ApiMetrics m : apis.values()) {
+            total += m.getTotalCount();
+        }
+        return total;
+    }
+
+    public long getSuccessCount() {
+        long total = 0;
+        for (ApiMetrics m : apis.values()) {
+            total += m.getSuccessCount();
+        }
+        return total;
+    }
+
+    /**
+     * 所有接口合并后的延迟直方图
+     */
+    public LatencyHistogram totalLatencySnapshot() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (ApiMetrics m : apis.values()) {
+            total.add(m.latencySnapshot());
+        }
+        return total;
+    }
+
+    /**
+     * 从第一个请求开始到最后一个请求结束的时间跨度（毫秒），无数据时返回 0
+     */
+    public long getSpanMillis() {
+        long start = firstStartMillis.get();
+        long end = lastEndMillis.get();
+        if (start == Long.MAX_VALUE || end <= 0) return 0;
+        return Math.max(1, end - start);
+    }
+
+    public void clear() {
+        apis.clear();
+        protocols.clear();
+        firstStartMillis.set(Long.MAX_VALUE);
+        lastEndMillis.set(0);
+        seconds.clear();
+        newConnections.reset();
+        missedArrivals.reset();
+        jsContextUsage = null;
+    }
+}
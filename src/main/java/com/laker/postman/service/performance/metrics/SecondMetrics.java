@@ -0,0 +1,58 @@
+package com.laker.postman.service.performance.metrics;
+
+/**
+ * 某一秒内的请求统计快照（不可变）
+ * <p>
+ * 同一秒的多个快照可以通过 {@link #merge(SecondMetrics)} 合并，
+ * 例如合并多个压测节点上报的数据。
+ */
+public class SecondMetrics {
+    public final long epochSecond;
+    public final long requests;
+    public final long errors;
+    public final long latencySumMicros;
+    public final long minLatencyMicros;
+    public final long maxLatencyMicros;
+    public final long bytes;
+
+    public SecondMetrics(long epochSecond, long requests, long errors, long latencySumMicros,
+                         long minLatencyMicros, long maxLatencyMicros, long bytes) {
+        this.epochSecond = epochSecond;
+        this.requests = requests;
+        this.errors = errors;
+        this.latencySumMicros = latencySumMicros;
+        this.minLatencyMicros = minLatencyMicros;
+        this.maxLatencyMicros = maxLatencyMicros;
+        this.bytes = bytes;
+    }
+
+    public static SecondMetrics empty(long epochSecond) {
+        return new SecondMetrics(epochSecond, 0, 0, 0, 0, 0, 0);
+    }
+
+    public double getAvgLatencyMillis() {
+        return requests == 0 ? 0 : latencySumMicros / 1000.0 / requests;
+    }
+
+    public double getErrorPercent() {
+        return requests == 0 ? 0 : errors * 100.0 / requests;
+    }
+
+    /**
+     * 合并同一秒的另一份统计
+     */
+    public SecondMetrics merge(SecondMetrics other) {
+        if (other == null || other.requests == 0) return this;
+        if (requests == 0) {
+            return new SecondMetrics(epochSecond, other.requests, other.errors, other.latencySumMicros,
+                    other.minLatencyMicros, other.maxLatencyMicros, other.bytes);
+        }
+        return new SecondMetrics(epochSecond,
+                requests + other.requests,
+                errors + other.errors,
+                latencySumMicros + other.latencySumMicros,
+                Math.min(minLatencyMicros, other.minLatencyMicros),
+                Math.max(maxLatencyMicros, other.maxLatencyMicros),
+                bytes + other.bytes);
+    }
+}
@@ -0,0 +1,146 @@
+package com.laker.postman.service.performance.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按秒分桶的环形统计缓冲区
+ * <p>
+ * 以请求结束时刻所在的秒（epoch second）为键，桶位置为 {@code second % capacity}。
+ * 写入时若桶已属于更早的秒，则用 CAS 换成新桶，不加锁；
+ * 计数器使用 {@link LongAdder}，多线程写入时自动分片。
+ * 只保留最近 capacity 秒的数据，内存占用与压测时长无关。
+ */
+public class SecondMetricsRing {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final int mask;
+    private final AtomicReferenceArray<Bucket> buckets;
+    // 因过旧而被丢弃的样本数（例如请求耗时超过 capacity 秒）
+    private final LongAdder dropped = new LongAdder();
+
+    public SecondMetricsRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SecondMetricsRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * 记录一个请求样本
+     *
+     * @param endMillis     请求结束时间（毫秒）
+     * @param latencyMicros 响应时间（微秒）
+     * @param success       是否成功
+     * @param bytes         响应字节数
+     */
+    public void record(long endMillis, long latencyMicros, boolean success, long bytes) {
+        long second = endMillis / 1000;
+        Bucket bucket = bucketFor(second);
+        if (bucket == null) {
+            dropped.increment();
+            return;
+        }
+        bucket.requests.increment();
+        if (!success) {
+            bucket.errors.increment();
+        }
+        bucket.latencySumMicros.add(latencyMicros);
+        bucket.minLatencyMicros.accumulateAndGet(latencyMicros, Math::min);
+        bucket.maxLatencyMicros.accumulateAndGet(latencyMicros, Math::max);
+        if (bytes > 0) {
+            bucket.bytes.add(bytes);
+        }
+    }
+
+    /**
+     * 合并一份按秒统计快照，例如远程压测节点上报的数据
+     */
+    public void merge(SecondMetrics metrics) {
+        if (metrics == null || metrics.requests == 0) return;
+        Bucket bucket = bucketFor(metrics.epochSecond);
+        if (bucket == null) {
+            dropped.add(metrics.requests);
+            return;
+        }
+        bucket.requests.add(metrics.requests);
+        bucket.errors.add(metrics.errors);
+        bucket.latencySumMicros.add(metrics.latencySumMicros);
+        bucket.minLatencyMicros.accumulateAndGet(metrics.minLatencyMicros, Math::min);
+        bucket.maxLatencyMicros.accumulateAndGet(metrics.maxLatencyMicros, Math::max);
+        bucket.bytes.add(metrics.bytes);
+    }
+
+    /**
+     * 读取指定秒的统计，O(1)；该秒没有数据或已被覆盖时返回空快照
+     */
+    public SecondMetrics get(long epochSecond) {
+        Bucket bucket = buckets.get(index(epochSecond));
+        if (bucket == null || bucket.second != epochSecond) {
+            return SecondMetrics.empty(epochSecond);
+        }
+        return bucket.snapshot();
+    }
+
+    /**
+     * 读取最近一个已结束的完整秒
+     */
+    public SecondMetrics lastCompleteSecond(long nowMillis) {
+        return get(nowMillis / 1000 - 1);
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public void clear() {
+        for (int i = 0; i <= mask; i++) {
+            buckets.set(i, null);
+        }
+        dropped.reset();
+    }
+
+    private Bucket bucketFor(long second) {
+        int idx = index(second);
+        while (true) {
+            Bucket current = buckets.get(idx);
+            if (current != null) {
+                if (current.second == second) return current;
+                if (current.second > second) return null; // 样本过旧，桶已被更新的秒占用
+            }
+            Bucket created = new Bucket(second);
+            if (buckets.compareAndSet(idx, current, created)) {
+                return created;
+            }
+        }
+    }
+
+    private int index(long second) {
+        return (int) (second & mask);
+    }
+
+    private static class Bucket {
+        final long second;
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder latencySumMicros = new LongAdder();
+        final AtomicLong minLatencyMicros = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong maxLatencyMicros = new AtomicLong();
+        final LongAdder bytes = new LongAdder();
+
+        Bucket(long second) {
+            this.second = second;
+        }
+
+        SecondMetrics snapshot() {
+            long count = requests.sum();
+            long min = minLatencyMicros.get();
+            return new SecondMetrics(second, count, errors.sum(), latencySumMicros.sum(),
+                    min == Long.MAX_VALUE ? 0 : min, maxLatencyMicros.get(), bytes.sum());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.laker.postman.service.performance.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 按线程分片的延迟直方图
+ * <p>
+ * 压测线程按线程ID散列到不同分片写入，避免所有线程争用同一组计数器；
+ * 分片按需创建，读取时再合并为一个 {@link LatencyHistogram} 快照。
+ */
+public class StripedLatencyHistogram {
+    private static final int STRIPE_COUNT = stripeCount();
+    private static final int STRIPE_MASK = STRIPE_COUNT - 1;
+
+    private final AtomicReferenceArray<LatencyHistogram> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+
+    public void recordMicros(long micros) {
+        stripe().recordMicros(micros);
+    }
+
+    /**
+     * 累加另一个直方图的数据，例如远程压测节点上报的增量
+     */
+    public void add(LatencyHistogram histogram) {
+        stripe().add(histogram);
+    }
+
+    /**
+     * 合并所有分片，返回一个独立的直方图快照
+     */
+    public LatencyHistogram snapshot() {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            LatencyHistogram h = stripes.get(i);
+            if (h != null) {
+                merged.add(h);
+            }
+        }
+        return merged;
+    }
+
+    public void reset() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            LatencyHistogram h = stripes.get(i);
+            if (h != null) {
+                h.reset();
+            }
+        }
+    }
+
+    private LatencyHistogram stripe() {
+        long id = Thread.currentThread().getId();
+        int idx = (int) (id ^ (id >>> 16)) & STRIPE_MASK;
+        LatencyHistogram h = stripes.get(idx);
+        if (h == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            h = stripes.compareAndSet(idx, null, created) ? created : stripes.get(idx);
+        }
+        return h;
+    }
+
+    private static int stripeCount() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int n = Integer.highestOneBit(Math.max(1, cpus * 2 - 1)) << 1;
+        return Math.max(2, Math.min(n, 64));
+    }
+}
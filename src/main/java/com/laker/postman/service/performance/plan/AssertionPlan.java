@@ -0,0 +1,19 @@
+package com.laker.postman.service.performance.plan;
+
+import com.laker.postman.panel.performance.assertion.AssertionData;
+
+/**
+ * 请求断言
+ */
+public class AssertionPlan {
+    public String name;
+    public AssertionData data = new AssertionData();
+
+    public AssertionPlan() {
+    }
+
+    public AssertionPlan(String name, AssertionData data) {
+        this.name = name;
+        this.data = data != null ? data : new AssertionData();
+    }
+}
@@ -0,0 +1,30 @@
+package com.laker.postman.service.performance.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 压测计划：与界面无关的测试计划模型，可保存为 JSON 文件并在无界面模式下执行
+ */
+public class PerformancePlan {
+    public String name;
+    public List<ThreadGroupPlan> threadGroups = new ArrayList<>();
+
+    public PerformancePlan() {
+    }
+
+    public PerformancePlan(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 所有线程组的最大用户数之和
+     */
+    public int getTotalUsers() {
+        int total = 0;
+        for (ThreadGroupPlan tg : threadGroups) {
+            total += tg.getMaxUsers();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,75 @@
+package com.laker.postman.service.performance.plan;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 压测计划的 JSON 读写
+ * <p>
+ * 枚举按 name() 存储（其 toString() 为界面显示名，随语言变化），其余字段由 Hutool 按 Bean 映射。
+ */
+public class PerformancePlanCodec {
+    private static final String THREAD_MODE = "threadMode";
+    private static final String EXECUTOR_TYPE = "executorType";
+    private static final String TRANSPORT = "transport";
+    private static final String COOKIE_MODE = "cookieMode";
+
+    private PerformancePlanCodec() {
+    }
+
+    public static String toJson(PerformancePlan plan) {
+        JSONObject json = JSONUtil.parseObj(plan);
+        JSONArray groups = json.getJSONArray("threadGroups");
+        for (int i = 0; groups != null && i < groups.size(); i++) {
+            ThreadGroupData settings = plan.threadGroups.get(i).settings;
+            JSONObject settingsJson = groups.getJSONObject(i).getJSONObject("settings");
+            settingsJson.set(THREAD_MODE, settings.threadMode.name());
+            settingsJson.set(EXECUTOR_TYPE, settings.executorType.name());
+            settingsJson.set(TRANSPORT, settings.transport.name());
+            settingsJson.set(COOKIE_MODE, settings.cookieMode.name());
+        }
+        return json.toStringPretty();
+    }
+
+    public static PerformancePlan fromJson(String text) {
+        JSONObject json = JSONUtil.parseObj(text);
+        JSONArray groups = json.getJSONArray("threadGroups");
+        // 先取出枚举字段，Bean 转换后再按名称还原
+        String[][] enums = new String[groups == null ? 0 : groups.size()][];
+        for (int i = 0; i < enums.length; i++) {
+            JSONObject settingsJson = groups.getJSONObject(i).getJSONObject("settings");
+            if (settingsJson != null) {
+                enums[i] = new String[]{(String) settingsJson.remove(THREAD_MODE), (String) settingsJson.remove(EXECUTOR_TYPE),
+                        (String) settingsJson.remove(TRANSPORT), (String) settingsJson.remove(COOKIE_MODE)};
+            }
+        }
+        PerformancePlan plan = JSONUtil.toBean(json, PerformancePlan.class);
+        for (int i = 0; i < enums.length; i++) {
+            ThreadGroupPlan tg = plan.threadGroups.get(i);
+            if (tg.settings == null) {
+                tg.settings = new ThreadGroupData();
+            }
+            if (enums[i] != null) {
+                if (enums[i][0] != null) tg.settings.threadMode = ThreadGroupData.ThreadMode.valueOf(enums[i][0]);
+                if (enums[i][1] != null) tg.settings.executorType = ThreadGroupData.ExecutorType.valueOf(enums[i][1]);
+                if (enums[i][2] != null) tg.settings.transport = ThreadGroupData.Transport.valueOf(enums[i][2]);
+                if (enums[i][3] != null) tg.settings.cookieMode = ThreadGroupData.CookieMode.valueOf(enums[i][3]);
+            }
+        }
+        return plan;
+    }
+
+    public static void save(PerformancePlan plan, File file) {
+        FileUtil.writeString(toJson(plan), file, StandardCharsets.UTF_8);
+    }
+
+    public static PerformancePlan load(File file) {
+        return fromJson(FileUtil.readString(file, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package com.laker.postman.service.performance.plan;
+
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+
+import java.util.Iterator;
+
+/**
+ * 分布式压测时把压测计划按节点拆分
+ * <p>
+ * 每个线程组的用户数（到达率模式为速率和用户池上限）按节点数均分，余数依次分给编号靠前的节点；
+ * 持续时间、爬升时间等时间参数保持不变，各节点同时开始，合并后的负载曲线与单机执行时一致。
+ * 某个节点分到的峰值用户数为 0 时，该节点不执行这个线程组。
+ */
+public class PerformancePlanSharding {
+
+    private PerformancePlanSharding() {
+    }
+
+    /**
+     * 计算第 index 个节点（从 0 开始，共 count 个）应执行的计划，返回独立副本，不修改原计划
+     */
+    public static PerformancePlan share(PerformancePlan plan, int index, int count) {
+        if (count <= 0 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + "/" + count);
+        }
+        PerformancePlan copy = PerformancePlanCodec.fromJson(PerformancePlanCodec.toJson(plan));
+        if (count == 1) {
+            return copy;
+        }
+        Iterator<ThreadGroupPlan> it = copy.threadGroups.iterator();
+        while (it.hasNext()) {
+            ThreadGroupData tg = it.next().settings;
+            switch (tg.threadMode) {
+                case FIXED -> tg.numThreads = share(tg.numThreads, index, count);
+                case RAMP_UP -> {
+                    tg.rampUpStartThreads = share(tg.rampUpStartThreads, index, count);
+                    tg.rampUpEndThreads = share(tg.rampUpEndThreads, index, count);
+                }
+                case SPIKE -> {
+                    tg.spikeMinThreads = share(tg.spikeMinThreads, index, count);
+                    tg.spikeMaxThreads = share(tg.spikeMaxThreads, index, count);
+                }
+                case STAIRS -> {
+                    tg.stairsStartThreads = share(tg.stairsStartThreads, index, count);
+                    tg.stairsEndThreads = share(tg.stairsEndThreads, index, count);
+                    tg.stairsStep = Math.max(1, share(tg.stairsStep, index, count));
+                }
+                case ARRIVAL_RATE -> {
+                    tg.arrivalStartRate = share(tg.arrivalStartRate, index, count);
+                    tg.arrivalTargetRate = share(tg.arrivalTargetRate, index, count);
+                    tg.arrivalMaxUsers = share(tg.arrivalMaxUsers, index, count);
+                }
+            }
+            boolean idle = tg.threadMode == ThreadGroupData.ThreadMode.ARRIVAL_RATE
+                    ? tg.arrivalTargetRate == 0 && tg.arrivalStartRate == 0 || tg.arrivalMaxUsers == 0
+                    : ThreadGroupPlan.getMaxUsers(tg) == 0;
+            if (idle) {
+                it.remove();
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * total 均分到 count 个节点后第 index 个节点的份额
+     */
+    static int share(int total, int index, int count) {
+        return total / count + (index < total % count ? 1 : 0);
+    }
+}
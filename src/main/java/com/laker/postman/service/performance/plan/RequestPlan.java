@@ -0,0 +1,24 @@
+package com.laker.postman.service.performance.plan;
+
+import com.laker.postman.model.HttpRequestItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 线程组中的一个请求，及其断言和定时器
+ */
+public class RequestPlan {
+    public String name;
+    public HttpRequestItem request;
+    public List<AssertionPlan> assertions = new ArrayList<>();
+    public List<TimerPlan> timers = new ArrayList<>();
+
+    public RequestPlan() {
+    }
+
+    public RequestPlan(String name, HttpRequestItem request) {
+        this.name = name;
+        this.request = request;
+    }
+}
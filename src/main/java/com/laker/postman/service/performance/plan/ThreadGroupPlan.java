@@ -0,0 +1,40 @@
+package com.laker.postman.service.performance.plan;
+
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 线程组：负载模型配置 + 每次迭代依次执行的请求
+ */
+public class ThreadGroupPlan {
+    public String name;
+    public ThreadGroupData settings = new ThreadGroupData();
+    public List<RequestPlan> requests = new ArrayList<>();
+
+    public ThreadGroupPlan() {
+    }
+
+    public ThreadGroupPlan(String name, ThreadGroupData settings) {
+        this.name = name;
+        this.settings = settings != null ? settings : new ThreadGroupData();
+    }
+
+    /**
+     * 按线程模式计算该线程组的最大用户数
+     */
+    public int getMaxUsers() {
+        return getMaxUsers(settings);
+    }
+
+    public static int getMaxUsers(ThreadGroupData settings) {
+        return switch (settings.threadMode) {
+            case FIXED -> settings.numThreads;
+            case RAMP_UP -> settings.rampUpEndThreads;
+            case SPIKE -> settings.spikeMaxThreads;
+            case STAIRS -> settings.stairsEndThreads;
+            case ARRIVAL_RATE -> settings.arrivalMaxUsers;
+        };
+    }
+}
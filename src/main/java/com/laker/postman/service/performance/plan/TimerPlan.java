@@ -0,0 +1,19 @@
+package com.laker.postman.service.performance.plan;
+
+import com.laker.postman.panel.performance.timer.TimerData;
+
+/**
+ * 请求后的固定等待
+ */
+public class TimerPlan {
+    public String name;
+    public TimerData data = new TimerData();
+
+    public TimerPlan() {
+    }
+
+    public TimerPlan(String name, TimerData data) {
+        this.name = name;
+        this.data = data != null ? data : new TimerData();
+    }
+}
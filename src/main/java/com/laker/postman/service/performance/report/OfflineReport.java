@@ -0,0 +1,585 @@
+package com.laker.postman.service.performance.report;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import com.laker.postman.service.performance.journal.JournalRecord;
+import com.laker.postman.service.performance.journal.SampleJournalReader;
+import com.laker.postman.service.performance.metrics.LatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 离线报告：扫描一次压测的样本日志，重新计算按接口和按时间段的百分位、吞吐量、错误分布与延迟分布，
+ * 输出为自包含的 HTML（内联样式和 SVG 图表，不依赖外部资源）和 JSON
+ * <p>
+ * 日志分段由多个线程并行扫描，每个线程按接口编号维护独立的直方图和计数，全部扫描完成后再合并，
+ * 扫描过程无共享写入；内存占用只与接口数和时间段数有关，与样本数量无关。
+ */
+public class OfflineReport {
+    // 趋势最多划分的时间段数，时间段长度按压测时长自动放大
+    public static final int MAX_INTERVALS = 240;
+    public static final String HTML_FILE = "report.html";
+    public static final String JSON_FILE = "report.json";
+    // 延迟分布的区间边界（毫秒），按 1-2-5 递增
+    private static final long[] DISTRIBUTION_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500,
+            1000, 2000, 5000, 10000, 20000, 60000};
+    private static final int CHART_WIDTH = 960;
+    private static final int CHART_HEIGHT = 240;
+
+    public final String name;
+    public final long startMillis;
+    public final long endMillis;
+    public final long intervalMillis;
+    public final List<PerformanceSummary.Row> rows;
+    public final List<ErrorRow> errors;
+    public final List<IntervalRow> timeline;
+    public final List<DistributionRow> distribution;
+
+    private OfflineReport(String name, long startMillis, long endMillis, long intervalMillis,
+                          List<PerformanceSummary.Row> rows, List<ErrorRow> errors,
+                          List<IntervalRow> timeline, List<DistributionRow> distribution) {
+        this.name = name;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.intervalMillis = intervalMillis;
+        this.rows = rows;
+        this.errors = errors;
+        this.timeline = timeline;
+        this.distribution = distribution;
+    }
+
+    public static OfflineReport build(File journalDir) throws IOException {
+        return build(SampleJournalReader.open(journalDir), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 并行扫描样本日志生成报告
+     *
+     * @param threads 扫描线程数，不超过分段数
+     */
+    public static OfflineReport build(SampleJournalReader reader, int threads) throws IOException {
+        long[] range = reader.getTimeRange();
+        if (range == null) {
+            return new OfflineReport(reader.getName(), 0, 0, 1000, List.of(), List.of(), List.of(), List.of());
+        }
+        // 记录按写入顺序排列，结束时间大致递增；向前预留 1 秒给先写入但较早结束的样本
+        long origin = (range[0] / 1000 - 1) * 1000;
+        long span = Math.max(1, range[1] - origin + 1);
+        long seconds = (span + 999) / 1000;
+        long interval = (seconds + MAX_INTERVALS - 1) / MAX_INTERVALS * 1000;
+        // 多留一个时间段，容纳结束时间晚于最后一条记录的样本
+        int intervals = (int) ((span + interval - 1) / interval) + 1;
+
+        int workers = Math.max(1, Math.min(threads, reader.getSegmentCount()));
+        Partial total = new Partial(origin, interval, intervals);
+        if (workers == 1) {
+            for (int i = 0; i < reader.getSegmentCount(); i++) {
+                reader.forEachInSegment(i, total::accept);
+            }
+        } else {
+            AtomicInteger nextSegment = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+                Thread t = new Thread(r, "perf-report-scan");
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                List<Future<Partial>> futures = new ArrayList<>();
+                for (int w = 0; w < workers; w++) {
+                    futures.add(pool.submit(() -> {
+                        Partial partial = new Partial(origin, interval, intervals);
+                        int index;
+                        while ((index = nextSegment.getAndIncrement()) < reader.getSegmentCount()) {
+                            reader.forEachInSegment(index, partial::accept);
+                        }
+                        return partial;
+                    }));
+                }
+                for (Future<Partial> future : futures) {
+                    total.merge(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Report generation interrupted", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException io ? io : new IOException(cause);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        return total.toReport(reader);
+    }
+
+    public long getTotalCount() {
+        return rows.isEmpty() ? 0 : rows.get(rows.size() - 1).total;
+    }
+
+    /**
+     * 在目录下写入 report.html 和 report.json
+     */
+    public void write(File outDir) throws IOException {
+        Files.createDirectories(outDir.toPath());
+        Files.writeString(new File(outDir, HTML_FILE).toPath(), toHtml(), StandardCharsets.UTF_8);
+        Files.writeString(new File(outDir, JSON_FILE).toPath(), toJson(), StandardCharsets.UTF_8);
+    }
+
+    public String toJson() {
+        JSONObject json = new JSONObject();
+        json.set("name", name);
+        json.set("startMillis", startMillis);
+        json.set("endMillis", endMillis);
+        json.set("intervalMillis", intervalMillis);
+        JSONArray apis = new JSONArray();
+        for (PerformanceSummary.Row r : rows) {
+            JSONObject row = new JSONObject();
+            row.set("name", r.name);
+            row.set("total", r.total);
+            row.set("success", r.success);
+            row.set("fail", r.fail);
+            row.set("successRate", r.successRate);
+            row.set("qps", r.qps);
+            row.set("avgMs", r.avgMs);
+            row.set("minMs", r.minMs);
+            row.set("maxMs", r.maxMs);
+            row.set("p50Ms", r.p50Ms);
+            row.set("p90Ms", r.p90Ms);
+            row.set("p95Ms", r.p95Ms);
+            row.set("p99Ms", r.p99Ms);
+            row.set("p999Ms", r.p999Ms);
+            apis.add(row);
+        }
+        json.set("apis", apis);
+        JSONArray errorArray = new JSONArray();
+        for (ErrorRow r : errors) {
+            JSONObject row = new JSONObject();
+            row.set("api", r.api);
+            row.set("error", r.error);
+            row.set("status", r.status);
+            row.set("count", r.count);
+            errorArray.add(row);
+        }
+        json.set("errors", errorArray);
+        JSONArray timelineArray = new JSONArray();
+        for (IntervalRow r : timeline) {
+            JSONObject row = new JSONObject();
+            row.set("startMillis", r.startMillis);
+            row.set("requests", r.requests);
+            row.set("errors", r.errors);
+            row.set("qps", r.qps);
+            row.set("avgMs", r.avgMs);
+            row.set("p50Ms", r.p50Ms);
+            row.set("p90Ms", r.p90Ms);
+            row.set("p99Ms", r.p99Ms);
+            timelineArray.add(row);
+        }
+        json.set("timeline", timelineArray);
+        JSONArray distributionArray = new JSONArray();
+        for (DistributionRow r : distribution) {
+            JSONObject row = new JSONObject();
+            row.set("fromMs", r.fromMs);
+            row.set("toMs", r.toMs);
+            row.set("count", r.count);
+            distributionArray.add(row);
+        }
+        json.set("distribution", distributionArray);
+        return json.toStringPretty();
+    }
+
+    public String toHtml() {
+        SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        StringBuilder sb = new StringBuilder(16 * 1024);
+        sb.append("<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>Performance Report - ")
+                .append(escape(name)).append("</title>\n<style>")
+                .append("body{font-family:-apple-system,Segoe UI,Helvetica,Arial,sans-serif;margin:24px;color:#212529}")
+                .append("table{border-collapse:collapse;margin:8px 0 24px}th,td{border:1px solid #dee2e6;padding:4px 10px;text-align:right}")
+                .append("th{background:#f1f3f5}td:first-child,th:first-child{text-align:left}tr.total{font-weight:bold}")
+                .append(".fail{color:#dc3545}svg{border:1px solid #dee2e6;margin-bottom:24px}")
+                .append("</style></head><body>\n");
+        sb.append("<h1>").append(escape(name)).append("</h1>\n<p>")
+                .append(timeFormat.format(new Date(startMillis))).append(" ~ ").append(timeFormat.format(new Date(endMillis)))
+                .append(", ").append(format("%.1f", (endMillis - startMillis) / 1000.0)).append("s, ")
+                .append(getTotalCount()).append(" samples</p>\n");
+
+        sb.append("<h2>APIs</h2>\n<table><tr><th>API</th><th>Total</th><th>Success</th><th>Fail</th><th>Success%</th>")
+                .append("<th>QPS</th><th>Avg(ms)</th><th>Min(ms)</th><th>P50(ms)</th><th>P90(ms)</th><th>P95(ms)</th>")
+                .append("<th>P99(ms)</th><th>P99.9(ms)</th><th>Max(ms)</th></tr>\n");
+        for (PerformanceSummary.Row r : rows) {
+            sb.append(PerformanceSummary.TOTAL.equals(r.name) ? "<tr class=\"total\">" : "<tr>")
+                    .append("<td>").append(escape(r.name)).append("</td>")
+                    .append(cell(r.total)).append(cell(r.success))
+                    .append(r.fail > 0 ? "<td class=\"fail\">" + r.fail + "</td>" : cell(r.fail))
+                    .append(cell(format("%.2f", r.successRate))).append(cell(format("%.1f", r.qps)))
+                    .append(cell(r.avgMs)).append(cell(r.minMs)).append(cell(r.p50Ms)).append(cell(r.p90Ms))
+                    .append(cell(r.p95Ms)).append(cell(r.p99Ms)).append(cell(r.p999Ms)).append(cell(r.maxMs))
+                    .append("</tr>\n");
+        }
+        sb.append("</table>\n");
+
+        sb.append("<h2>Throughput (req/s)</h2>\n");
+        appendLineChart(sb, timeline.stream().mapToDouble(r -> r.qps).toArray(), "#4c82ce");
+        sb.append("<h2>Latency P50 / P90 / P99 (ms)</h2>\n");
+        appendLineChart(sb, new double[][]{
+                timeline.stream().mapToDouble(r -> r.p50Ms).toArray(),
+                timeline.stream().mapToDouble(r -> r.p90Ms).toArray(),
+                timeline.stream().mapToDouble(r -> r.p99Ms).toArray()
+        }, new String[]{"#28a745", "#ffc107", "#dc3545"});
+
+        sb.append("<h2>Latency Distribution</h2>\n");
+        appendBarChart(sb);
+        sb.append("<table><tr><th>Latency</th><th>Count</th><th>%</th></tr>\n");
+        long total = getTotalCount();
+        for (DistributionRow r : distribution) {
+            sb.append("<tr><td>").append(r.getLabel()).append("</td>").append(cell(r.count))
+                    .append(cell(format("%.2f", total > 0 ? r.count * 100.0 / total : 0))).append("</tr>\n");
+        }
+        sb.append("</table>\n");
+
+        sb.append("<h2>Errors</h2>\n");
+        if (errors.isEmpty()) {
+            sb.append("<p>No errors.</p>\n");
+        } else {
+            sb.append("<table><tr><th>API</th><th>Error</th><th>Status</th><th>Count</th></tr>\n");
+            for (ErrorRow r : errors) {
+                sb.append("<tr><td>").append(escape(r.api)).append("</td><td>").append(r.error).append("</td>")
+                        .append(cell(r.status == 0 ? "-" : String.valueOf(r.status))).append(cell(r.count)).append("</tr>\n");
+            }
+            sb.append("</table>\n");
+        }
+
+        sb.append("<h2>Timeline</h2>\n<table><tr><th>Time</th><th>Requests</th><th>Errors</th><th>QPS</th>")
+                .append("<th>Avg(ms)</th><th>P50(ms)</th><th>P90(ms)</th><th>P99(ms)</th></tr>\n");
+        SimpleDateFormat clock = new SimpleDateFormat("HH:mm:ss");
+        for (IntervalRow r : timeline) {
+            sb.append("<tr><td>").append(clock.format(new Date(r.startMillis))).append("</td>")
+                    .append(cell(r.requests)).append(cell(r.errors)).append(cell(format("%.1f", r.qps)))
+                    .append(cell(r.avgMs)).append(cell(r.p50Ms)).append(cell(r.p90Ms)).append(cell(r.p99Ms))
+                    .append("</tr>\n");
+        }
+        sb.append("</table>\n</body></html>\n");
+        return sb.toString();
+    }
+
+    private static void appendLineChart(StringBuilder sb, double[] values, String color) {
+        appendLineChart(sb, new double[][]{values}, new String[]{color});
+    }
+
+    private static void appendLineChart(StringBuilder sb, double[][] series, String[] colors) {
+        double max = 0;
+        int n = 0;
+        for (double[] values : series) {
+            n = Math.max(n, values.length);
+            for (double v : values) {
+                max = Math.max(max, v);
+            }
+        }
+        sb.append("<svg width=\"").append(CHART_WIDTH).append("\" height=\"").append(CHART_HEIGHT).append("\">");
+        sb.append("<text x=\"4\" y=\"14\" font-size=\"12\">").append(format("%.1f", max)).append("</text>");
+        if (n > 0 && max > 0) {
+            double dx = n > 1 ? (CHART_WIDTH - 10.0) / (n - 1) : 0;
+            for (int s = 0; s < series.length; s++) {
+                sb.append("<polyline fill=\"none\" stroke-width=\"1.5\" stroke=\"").append(colors[s]).append("\" points=\"");
+                double[] values = series[s];
+                for (int i = 0; i < values.length; i++) {
+                    double x = 5 + i * dx;
+                    double y = CHART_HEIGHT - 5 - values[i] / max * (CHART_HEIGHT - 25);
+                    sb.append(format("%.1f,%.1f ", x, y));
+                }
+                sb.append("\"/>");
+            }
+        }
+        sb.append("</svg>\n");
+    }
+
+    private void appendBarChart(StringBuilder sb) {
+        long max = 0;
+        for (DistributionRow r : distribution) {
+            max = Math.max(max, r.count);
+        }
+        int n = distribution.size();
+        sb.append("<svg width=\"").append(CHART_WIDTH).append("\" height=\"").append(CHART_HEIGHT).append("\">");
+        if (n > 0 && max > 0) {
+            double w = (CHART_WIDTH - 10.0) / n;
+            for (int i = 0; i < n; i++) {
+                DistributionRow r = distribution.get(i);
+                double h = r.count * (CHART_HEIGHT - 40.0) / max;
+                double x = 5 + i * w;
+                sb.append(format("<rect x=\"%.1f\" y=\"%.1f\" width=\"%.1f\" height=\"%.1f\" fill=\"#4c82ce\"/>",
+                        x + 2, CHART_HEIGHT - 20 - h, w - 4, h));
+                sb.append(format("<text x=\"%.1f\" y=\"%d\" font-size=\"10\" text-anchor=\"middle\">%s</text>",
+                        x + w / 2, CHART_HEIGHT - 6, r.getLabel()));
+            }
+        }
+        sb.append("</svg>\n");
+    }
+
+    private static String cell(Object value) {
+        return "<td>" + value + "</td>";
+    }
+
+    private static String format(String pattern, Object... args) {
+        return String.format(Locale.ROOT, pattern, args);
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // 微秒转毫秒，保留两位小数
+    private static double toMillis(double micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    static String errorName(byte errorCode) {
+        return switch (errorCode) {
+            case JournalRecord.ERROR_NO_RESPONSE -> "NO_RESPONSE";
+            case JournalRecord.ERROR_HTTP_STATUS -> "HTTP_STATUS";
+            case JournalRecord.ERROR_ASSERTION -> "ASSERTION";
+            default -> "NONE";
+        };
+    }
+
+    /**
+     * 按接口、错误类型和响应码统计的失败次数
+     */
+    public static class ErrorRow {
+        public final String api;
+        public final String error;
+        public final int status;
+        public final long count;
+
+        ErrorRow(String api, String error, int status, long count) {
+            this.api = api;
+            this.error = error;
+            this.status = status;
+            this.count = count;
+        }
+    }
+
+    /**
+     * 一个时间段内所有接口合并后的统计
+     */
+    public static class IntervalRow {
+        public final long startMillis;
+        public final long requests;
+        public final long errors;
+        public final double qps;
+        public final double avgMs;
+        public final double p50Ms;
+        public final double p90Ms;
+        public final double p99Ms;
+
+        IntervalRow(long startMillis, long intervalMillis, long errors, LatencyHistogram histogram) {
+            this.startMillis = startMillis;
+            this.requests = histogram.getTotalCount();
+            this.errors = errors;
+            this.qps = requests * 1000.0 / intervalMillis;
+            this.avgMs = toMillis(histogram.getMeanMicros());
+            this.p50Ms = toMillis(histogram.getValueAtPercentile(50));
+            this.p90Ms = toMillis(histogram.getValueAtPercentile(90));
+            this.p99Ms = toMillis(histogram.getValueAtPercentile(99));
+        }
+    }
+
+    /**
+     * 延迟分布区间 [fromMs, toMs)，toMs 为 -1 表示无上限
+     */
+    public static class DistributionRow {
+        public final long fromMs;
+        public final long toMs;
+        public final long count;
+
+        DistributionRow(long fromMs, long toMs, long count) {
+            this.fromMs = fromMs;
+            this.toMs = toMs;
+            this.count = count;
+        }
+
+        public String getLabel() {
+            return toMs < 0 ? "&ge;" + fromMs + "ms" : fromMs + "-" + toMs + "ms";
+        }
+    }
+
+    /**
+     * 单个扫描线程的聚合结果，只由该线程写入
+     */
+    private static final class Partial {
+        private final long origin;
+        private final long interval;
+        private final LatencyHistogram[] intervalLatency;
+        private final long[] intervalErrors;
+        private ApiAggregate[] apis = new ApiAggregate[16];
+        private long minStart = Long.MAX_VALUE;
+        private long maxEnd;
+
+        Partial(long origin, long interval, int intervals) {
+            this.origin = origin;
+            this.interval = interval;
+            this.intervalLatency = new LatencyHistogram[intervals];
+            this.intervalErrors = new long[intervals];
+        }
+
+        void accept(JournalRecord r) {
+            int id = r.apiId;
+            if (id >= apis.length) {
+                apis = Arrays.copyOf(apis, Math.max(id + 1, apis.length * 2));
+            }
+            ApiAggregate api = apis[id];
+            if (api == null) {
+                api = apis[id] = new ApiAggregate();
+            }
+            api.record(r);
+            int slot = (int) Math.max(0, Math.min(intervalLatency.length - 1, (r.endMillis - origin) / interval));
+            LatencyHistogram h = intervalLatency[slot];
+            if (h == null) {
+                h = intervalLatency[slot] = new LatencyHistogram();
+            }
+            h.recordMicros(r.latencyMicros);
+            if (!r.success) {
+                intervalErrors[slot]++;
+            }
+            minStart = Math.min(minStart, r.getStartMillis());
+            maxEnd = Math.max(maxEnd, r.endMillis);
+        }
+
+        void merge(Partial other) {
+            if (other.apis.length > apis.length) {
+                apis = Arrays.copyOf(apis, other.apis.length);
+            }
+            for (int i = 0; i < other.apis.length; i++) {
+                ApiAggregate o = other.apis[i];
+                if (o == null) continue;
+                if (apis[i] == null) {
+                    apis[i] = o;
+                } else {
+                    apis[i].merge(o);
+                }
+            }
+            for (int i = 0; i < intervalLatency.length; i++) {
+                LatencyHistogram o = other.intervalLatency[i];
+                if (o == null) continue;
+                if (intervalLatency[i] == null) {
+                    intervalLatency[i] = o;
+                } else {
+                    intervalLatency[i].add(o);
+                }
+                intervalErrors[i] += other.intervalErrors[i];
+            }
+            minStart = Math.min(minStart, other.minStart);
+            maxEnd = Math.max(maxEnd, other.maxEnd);
+        }
+
+        OfflineReport toReport(SampleJournalReader reader) {
+            if (maxEnd == 0) {
+                return new OfflineReport(reader.getName(), 0, 0, interval, List.of(), List.of(), List.of(), List.of());
+            }
+            long spanMs = Math.max(1, maxEnd - minStart);
+            List<PerformanceSummary.Row> rows = new ArrayList<>();
+            List<ErrorRow> errors = new ArrayList<>();
+            LatencyHistogram totalLatency = new LatencyHistogram();
+            long totalSuccess = 0;
+            for (int i = 0; i < apis.length; i++) {
+                ApiAggregate api = apis[i];
+                if (api == null) continue;
+                String name = reader.getApiName(i);
+                rows.add(new PerformanceSummary.Row(name, api.latency.getTotalCount(), api.success, api.latency, spanMs));
+                totalLatency.add(api.latency);
+                totalSuccess += api.success;
+                for (Map.Entry<Integer, long[]> e : api.failures.entrySet()) {
+                    int key = e.getKey();
+                    errors.add(new ErrorRow(name, errorName((byte) (key >>> 16)), key & 0xffff, e.getValue()[0]));
+                }
+            }
+            rows.sort((a, b) -> a.name.compareTo(b.name));
+            rows.add(new PerformanceSummary.Row(PerformanceSummary.TOTAL, totalLatency.getTotalCount(), totalSuccess, totalLatency, spanMs));
+            errors.sort((a, b) -> Long.compare(b.count, a.count));
+
+            List<IntervalRow> timeline = new ArrayList<>();
+            for (int i = 0; i < intervalLatency.length; i++) {
+                if (intervalLatency[i] != null) {
+                    timeline.add(new IntervalRow(origin + i * interval, interval, intervalErrors[i], intervalLatency[i]));
+                }
+            }
+            return new OfflineReport(reader.getName(), minStart, maxEnd, interval, rows, errors, timeline,
+                    distributionOf(totalLatency));
+        }
+
+        // 把直方图的细分桶归并到固定的毫秒区间
+        private static List<DistributionRow> distributionOf(LatencyHistogram histogram) {
+            long[] counts = new long[DISTRIBUTION_BOUNDS_MS.length + 1];
+            histogram.forEachBucket((low, high, count) -> {
+                long ms = low / 1000;
+                int i = 0;
+                while (i < DISTRIBUTION_BOUNDS_MS.length && ms >= DISTRIBUTION_BOUNDS_MS[i]) {
+                    i++;
+                }
+                counts[i] += count;
+            });
+            int last = counts.length - 1;
+            while (last > 0 && counts[last] == 0) {
+                last--;
+            }
+            List<DistributionRow> rows = new ArrayList<>();
+            for (int i = 0; i <= last; i++) {
+                long from = i == 0 ? 0 : DISTRIBUTION_BOUNDS_MS[i - 1];
+                long to = i < DISTRIBUTION_BOUNDS_MS.length ? DISTRIBUTION_BOUNDS_MS[i] : -1;
+                rows.add(new DistributionRow(from, to, counts[i]));
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * 单个接口的聚合数据
+     */
+    private static final class ApiAggregate {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        // 键为 errorCode << 16 | status
+        private final Map<Integer, long[]> failures = new HashMap<>();
+        private long success;
+
+        void record(JournalRecord r) {
+            latency.recordMicros(r.latencyMicros);
+            if (r.success) {
+                success++;
+            } else {
+                failures.computeIfAbsent((r.errorCode & 0xff) << 16 | r.status, k -> new long[1])[0]++;
+            }
+        }
+
+        void merge(ApiAggregate other) {
+            latency.add(other.latency);
+            success += other.success;
+            for (Map.Entry<Integer, long[]> e : other.failures.entrySet()) {
+                failures.computeIfAbsent(e.getKey(), k -> new long[1])[0] += e.getValue()[0];
+            }
+        }
+    }
+}
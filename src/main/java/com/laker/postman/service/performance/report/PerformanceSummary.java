@@ -0,0 +1,332 @@
+package com.laker.postman.service.performance.report;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import com.laker.postman.model.PhaseTimings;
+import com.laker.postman.service.performance.metrics.ApiMetrics;
+import com.laker.postman.service.performance.metrics.AssertionMetrics;
+import com.laker.postman.service.performance.metrics.JsContextUsage;
+import com.laker.postman.service.performance.metrics.LatencyHistogram;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 压测汇总：按接口和整体计算请求数、成功率、QPS 与延迟百分位，按协议的同类统计，各网络阶段的耗时分布，每个断言的通过/失败次数，
+ * 以及脚本上下文池的使用情况，输出为文本表格或 JSON
+ */
+public class PerformanceSummary {
+    public static final String TOTAL = "Total";
+
+    public final String planName;
+    public final long durationMillis;
+    public final List<Row> rows;
+    public final List<AssertionRow> assertions;
+    public final List<PhaseRow> phases;
+    // 按实际使用的协议汇总，只包含收到响应的请求
+    public final List<Row> protocols;
+    // 到达率模式下计划了但没有执行的迭代数
+    public final long missedArrivals;
+    // 脚本上下文池的使用情况，没有执行脚本（或分布式执行）时为 null
+    public final JsContextUsage jsContexts;
+
+    private PerformanceSummary(String planName, long durationMillis, List<Row> rows, List<AssertionRow> assertions,
+                               List<PhaseRow> phases, List<Row> protocols, long missedArrivals, JsContextUsage jsContexts) {
+        this.planName = planName;
+        this.durationMillis = durationMillis;
+        this.rows = rows;
+        this.assertions = assertions;
+        this.phases = phases;
+        this.protocols = protocols;
+        this.missedArrivals = missedArrivals;
+        this.jsContexts = jsContexts;
+    }
+
+    /**
+     * 按接口汇总统计数据，最后一行为所有接口合并后的整体统计
+     */
+    public static PerformanceSummary of(String planName, long durationMillis, PerformanceMetrics metrics) {
+        long spanMs = metrics.getSpanMillis();
+        List<Row> rows = new ArrayList<>();
+        for (ApiMetrics api : metrics.getApis()) {
+            rows.add(new Row(api.getName(), api.getTotalCount(), api.getSuccessCount(), api.latencySnapshot(), spanMs));
+        }
+        if (!rows.isEmpty()) {
+            rows.add(new Row(TOTAL, metrics.getTotalCount(), metrics.getSuccessCount(), metrics.totalLatencySnapshot(), spanMs));
+        }
+        return new PerformanceSummary(planName, durationMillis, rows, assertionRows(metrics), phaseRows(metrics),
+                protocolRows(metrics), metrics.getMissedArrivalCount(), metrics.getJsContextUsage());
+    }
+
+    /**
+     * 按协议名排序的协议统计
+     */
+    public static List<Row> protocolRows(PerformanceMetrics metrics) {
+        long spanMs = metrics.getSpanMillis();
+        List<Row> result = new ArrayList<>();
+        for (ApiMetrics protocol : metrics.getProtocols()) {
+            result.add(new Row(protocol.getName(), protocol.getTotalCount(), protocol.getSuccessCount(),
+                    protocol.latencySnapshot(), spanMs));
+        }
+        result.sort(Comparator.comparing((Row r) -> r.name));
+        return result;
+    }
+
+    /**
+     * 按接口名排序的各网络阶段耗时统计，只包含发生过的阶段
+     */
+    public static List<PhaseRow> phaseRows(PerformanceMetrics metrics) {
+        List<PhaseRow> result = new ArrayList<>();
+        for (ApiMetrics api : metrics.getApis()) {
+            for (PhaseTimings.Phase phase : PhaseTimings.Phase.values()) {
+                LatencyHistogram histogram = api.phaseSnapshot(phase);
+                if (histogram.getTotalCount() > 0) {
+                    result.add(new PhaseRow(api.getName(), phase, histogram, dnsCacheHitRate(api, phase)));
+                }
+            }
+        }
+        result.sort(Comparator.comparing((PhaseRow r) -> r.api).thenComparing(r -> r.phase));
+        return result;
+    }
+
+    // DNS 阶段的缓存命中率（百分比），其他阶段或没有命中记录时为 -1
+    private static double dnsCacheHitRate(ApiMetrics api, PhaseTimings.Phase phase) {
+        if (phase != PhaseTimings.Phase.DNS) {
+            return -1;
+        }
+        long hits = api.getDnsCacheHitCount();
+        long total = hits + api.getDnsCacheMissCount();
+        return total > 0 ? hits * 100.0 / total : -1;
+    }
+
+    /**
+     * 按接口、断言名称排序的断言统计
+     */
+    public static List<AssertionRow> assertionRows(PerformanceMetrics metrics) {
+        List<AssertionRow> result = new ArrayList<>();
+        for (ApiMetrics api : metrics.getApis()) {
+            for (AssertionMetrics assertion : api.getAssertions()) {
+                result.add(new AssertionRow(api.getName(), assertion.getName(), assertion.getPassCount(), assertion.getFailCount()));
+            }
+        }
+        result.sort(Comparator.comparing((AssertionRow r) -> r.api).thenComparing(r -> r.assertion));
+        return result;
+    }
+
+    public long getFailCount() {
+        return rows.isEmpty() ? 0 : rows.get(rows.size() - 1).fail;
+    }
+
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Plan: %s, Duration: %.2fs%n", planName, durationMillis / 1000.0));
+        String format = "%-32s %10s %10s %10s %8s %10s %10s %10s %10s %10s %10s %10s%n";
+        sb.append(String.format(Locale.ROOT, format, "API", "Total", "Success", "Fail", "Success%", "QPS",
+                "Avg(ms)", "P50(ms)", "P90(ms)", "P95(ms)", "P99(ms)", "Max(ms)"));
+        for (Row r : rows) {
+            sb.append(String.format(Locale.ROOT, format, r.name, r.total, r.success, r.fail,
+                    String.format(Locale.ROOT, "%.2f", r.successRate), String.format(Locale.ROOT, "%.1f", r.qps),
+                    r.avgMs, r.p50Ms, r.p90Ms, r.p95Ms, r.p99Ms, r.maxMs));
+        }
+        if (missedArrivals > 0) {
+            sb.append(String.format(Locale.ROOT, "Missed arrivals: %d (scheduled iterations that never started, not included in latency)%n",
+                    missedArrivals));
+        }
+        if (jsContexts != null) {
+            sb.append(String.format(Locale.ROOT, "JS contexts: created %d, reused %d (%.2f%%), peak in use %d, idle at end %d%n",
+                    jsContexts.created(), jsContexts.reused(), jsContexts.reuseRate(), jsContexts.peakInUse(), jsContexts.idle()));
+        }
+        if (!protocols.isEmpty()) {
+            sb.append(String.format(Locale.ROOT, "%n" + format, "Protocol", "Total", "Success", "Fail", "Success%", "QPS",
+                    "Avg(ms)", "P50(ms)", "P90(ms)", "P95(ms)", "P99(ms)", "Max(ms)"));
+            for (Row r : protocols) {
+                sb.append(String.format(Locale.ROOT, format, r.name, r.total, r.success, r.fail,
+                        String.format(Locale.ROOT, "%.2f", r.successRate), String.format(Locale.ROOT, "%.1f", r.qps),
+                        r.avgMs, r.p50Ms, r.p90Ms, r.p95Ms, r.p99Ms, r.maxMs));
+            }
+        }
+        if (!phases.isEmpty()) {
+            String phaseFormat = "%-32s %-10s %10s %10s %10s %10s %10s %10s %10s%n";
+            sb.append(String.format(Locale.ROOT, "%n" + phaseFormat, "API", "Phase", "Count",
+                    "Avg(ms)", "P50(ms)", "P90(ms)", "P99(ms)", "Max(ms)", "CacheHit%"));
+            for (PhaseRow r : phases) {
+                sb.append(String.format(Locale.ROOT, phaseFormat, r.api, r.phase.getLabel(), r.count,
+                        r.avgMs, r.p50Ms, r.p90Ms, r.p99Ms, r.maxMs,
+                        r.cacheHitRate >= 0 ? String.format(Locale.ROOT, "%.2f", r.cacheHitRate) : "-"));
+            }
+        }
+        if (!assertions.isEmpty()) {
+            String assertionFormat = "%-32s %-40s %10s %10s %8s%n";
+            sb.append(String.format(Locale.ROOT, "%n" + assertionFormat, "API", "Assertion", "Pass", "Fail", "Fail%"));
+            for (AssertionRow r : assertions) {
+                sb.append(String.format(Locale.ROOT, assertionFormat, r.api, r.assertion, r.pass, r.fail,
+                        String.format(Locale.ROOT, "%.2f", r.failRate)));
+            }
+        }
+        return sb.toString();
+    }
+
+    public String toJson() {
+        JSONObject json = new JSONObject();
+        json.set("plan", planName);
+        json.set("durationMillis", durationMillis);
+        json.set("missedArrivals", missedArrivals);
+        if (jsContexts != null) {
+            JSONObject js = new JSONObject();
+            js.set("created", jsContexts.created());
+            js.set("reused", jsContexts.reused());
+            js.set("leases", jsContexts.leases());
+            js.set("reuseRate", jsContexts.reuseRate());
+            js.set("peakInUse", jsContexts.peakInUse());
+            js.set("idle", jsContexts.idle());
+            json.set("jsContexts", js);
+        }
+        json.set("apis", toJsonArray(rows));
+        json.set("protocols", toJsonArray(protocols));
+        JSONArray assertionArray = new JSONArray();
+        for (AssertionRow r : assertions) {
+            JSONObject row = new JSONObject();
+            row.set("api", r.api);
+            row.set("assertion", r.assertion);
+            row.set("pass", r.pass);
+            row.set("fail", r.fail);
+            row.set("failRate", r.failRate);
+            assertionArray.add(row);
+        }
+        json.set("assertions", assertionArray);
+        JSONArray phaseArray = new JSONArray();
+        for (PhaseRow r : phases) {
+            JSONObject row = new JSONObject();
+            row.set("api", r.api);
+            row.set("phase", r.phase.getLabel());
+            row.set("count", r.count);
+            row.set("avgMs", r.avgMs);
+            row.set("p50Ms", r.p50Ms);
+            row.set("p90Ms", r.p90Ms);
+            row.set("p99Ms", r.p99Ms);
+            row.set("maxMs", r.maxMs);
+            if (r.cacheHitRate >= 0) {
+                row.set("cacheHitRate", r.cacheHitRate);
+            }
+            phaseArray.add(row);
+        }
+        json.set("phases", phaseArray);
+        return json.toStringPretty();
+    }
+
+    private static JSONArray toJsonArray(List<Row> rows) {
+        JSONArray array = new JSONArray();
+        for (Row r : rows) {
+            JSONObject row = new JSONObject();
+            row.set("name", r.name);
+            row.set("total", r.total);
+            row.set("success", r.success);
+            row.set("fail", r.fail);
+            row.set("successRate", r.successRate);
+            row.set("qps", r.qps);
+            row.set("avgMs", r.avgMs);
+            row.set("minMs", r.minMs);
+            row.set("maxMs", r.maxMs);
+            row.set("p50Ms", r.p50Ms);
+            row.set("p90Ms", r.p90Ms);
+            row.set("p95Ms", r.p95Ms);
+            row.set("p99Ms", r.p99Ms);
+            row.set("p999Ms", r.p999Ms);
+            array.add(row);
+        }
+        return array;
+    }
+
+    /**
+     * 单个接口（或整体）的汇总行，延迟单位为毫秒
+     */
+    public static class Row {
+        public final String name;
+        public final long total;
+        public final long success;
+        public final long fail;
+        public final double successRate;
+        public final double qps;
+        public final double avgMs;
+        public final double minMs;
+        public final double maxMs;
+        public final double p50Ms;
+        public final double p90Ms;
+        public final double p95Ms;
+        public final double p99Ms;
+        public final double p999Ms;
+
+        Row(String name, long total, long success, LatencyHistogram histogram, long spanMs) {
+            this.name = name;
+            this.total = total;
+            this.success = success;
+            this.fail = total - success;
+            this.successRate = total > 0 ? success * 100.0 / total : 0;
+            this.qps = spanMs > 0 ? total * 1000.0 / spanMs : 0;
+            this.avgMs = toMillis(histogram.getMeanMicros());
+            this.minMs = toMillis(histogram.getMinMicros());
+            this.maxMs = toMillis(histogram.getMaxMicros());
+            this.p50Ms = toMillis(histogram.getValueAtPercentile(50));
+            this.p90Ms = toMillis(histogram.getValueAtPercentile(90));
+            this.p95Ms = toMillis(histogram.getValueAtPercentile(95));
+            this.p99Ms = toMillis(histogram.getValueAtPercentile(99));
+            this.p999Ms = toMillis(histogram.getValueAtPercentile(99.9));
+        }
+    }
+
+    /**
+     * 单个断言的汇总行
+     */
+    public static class AssertionRow {
+        public final String api;
+        public final String assertion;
+        public final long pass;
+        public final long fail;
+        public final double failRate;
+
+        AssertionRow(String api, String assertion, long pass, long fail) {
+            this.api = api;
+            this.assertion = assertion;
+            this.pass = pass;
+            this.fail = fail;
+            long total = pass + fail;
+            this.failRate = total > 0 ? fail * 100.0 / total : 0;
+        }
+    }
+
+    /**
+     * 单个接口某个网络阶段的耗时分布，延迟单位为毫秒；DNS 阶段附带缓存命中率
+     */
+    public static class PhaseRow {
+        public final String api;
+        public final PhaseTimings.Phase phase;
+        public final long count;
+        public final double avgMs;
+        public final double p50Ms;
+        public final double p90Ms;
+        public final double p99Ms;
+        public final double maxMs;
+        // 缓存命中率（百分比），不适用时为 -1
+        public final double cacheHitRate;
+
+        PhaseRow(String api, PhaseTimings.Phase phase, LatencyHistogram histogram, double cacheHitRate) {
+            this.api = api;
+            this.phase = phase;
+            this.count = histogram.getTotalCount();
+            this.avgMs = toMillis(histogram.getMeanMicros());
+            this.p50Ms = toMillis(histogram.getValueAtPercentile(50));
+            this.p90Ms = toMillis(histogram.getValueAtPercentile(90));
+            this.p99Ms = toMillis(histogram.getValueAtPercentile(99));
+            this.maxMs = toMillis(histogram.getMaxMicros());
+            this.cacheHitRate = cacheHitRate;
+        }
+    }
+
+    // 微秒转毫秒，保留两位小数
+    private static double toMillis(double micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+}
@@ -162,7 +162,7 @@ public class HttpHtmlRenderer {
             sb.append("</div>");
         }
         sb.append("<div style='margin-bottom:8px;'><b style='color:#388e3c;'>Body</b></div>");
-        String responseBody = safeTruncateContent(resp.body);
+        String responseBody = safeTruncateContent(resp.getBody());
         // 使用更简单但更有效的换行控制
         sb.append("<pre style='background:rgb(245,247,250);padding:8px;border-radius:4px;font-size:9px;color:#222;white-space:pre-wrap;word-break:break-all;overflow-wrap:break-word;width:100%;max-width:100%;margin:0;box-sizing:border-box;overflow:hidden;'>").append(escapeHtml(responseBody)).append("</pre>");
         sb.append("</div>");
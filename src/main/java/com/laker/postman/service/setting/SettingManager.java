@@ -126,6 +126,146 @@ public class SettingManager {
         save();
     }
 
+    /**
+     * 压测结果树最多保留的节点数，超出后淘汰最早的节点
+     */
+    public static int getPerformanceResultTreeMaxNodes() {
+        String val = props.getProperty("performance_result_tree_max_nodes");
+        if (val != null) {
+            try {
+                int max = Integer.parseInt(val);
+                return max > 0 ? max : 10000;
+            } catch (NumberFormatException e) {
+                return 10000;
+            }
+        }
+        return 10000;
+    }
+
+    public static void setPerformanceResultTreeMaxNodes(int maxNodes) {
+        props.setProperty("performance_result_tree_max_nodes", String.valueOf(maxNodes));
+        save();
+    }
+
+    /**
+     * 压测结果树最多占用的内存（MB，按请求和响应体大小估算），超出后淘汰最早的节点
+     */
+    public static int getPerformanceResultTreeMaxMb() {
+        String val = props.getProperty("performance_result_tree_max_mb");
+        if (val != null) {
+            try {
+                int max = Integer.parseInt(val);
+                return max > 0 ? max : 64;
+            } catch (NumberFormatException e) {
+                return 64;
+            }
+        }
+        return 64;
+    }
+
+    public static void setPerformanceResultTreeMaxMb(int maxMb) {
+        props.setProperty("performance_result_tree_max_mb", String.valueOf(maxMb));
+        save();
+    }
+
+    /**
+     * 控制台最多保留的日志条数，超出后淘汰最早的日志
+     */
+    public static int getConsoleMaxLines() {
+        String val = props.getProperty("console_max_lines");
+        if (val != null) {
+            try {
+                int max = Integer.parseInt(val);
+                return max > 0 ? max : 5000;
+            } catch (NumberFormatException e) {
+                return 5000;
+            }
+        }
+        return 5000;
+    }
+
+    public static void setConsoleMaxLines(int maxLines) {
+        props.setProperty("console_max_lines", String.valueOf(maxLines));
+        save();
+    }
+
+    /**
+     * 界面压测是否把每个样本写入磁盘样本日志（用户目录下 perf-journal），默认关闭
+     */
+    public static boolean isPerformanceJournalEnabled() {
+        return Boolean.parseBoolean(props.getProperty("performance_journal_enabled"));
+    }
+
+    public static void setPerformanceJournalEnabled(boolean enabled) {
+        props.setProperty("performance_journal_enabled", String.valueOf(enabled));
+        save();
+    }
+
+    /**
+     * 最多保留最近几次压测的样本日志
+     */
+    public static int getPerformanceJournalKeepRuns() {
+        String val = props.getProperty("performance_journal_keep_runs");
+        if (val != null) {
+            try {
+                int keep = Integer.parseInt(val);
+                return keep > 0 ? keep : 5;
+            } catch (NumberFormatException e) {
+                return 5;
+            }
+        }
+        return 5;
+    }
+
+    public static void setPerformanceJournalKeepRuns(int keep) {
+        props.setProperty("performance_journal_keep_runs", String.valueOf(keep));
+        save();
+    }
+
+    /**
+     * 压测统计开始前为每个目标主机预先建立的连接数，0 表示不预热
+     */
+    public static int getPerformanceWarmupConnections() {
+        String val = props.getProperty("performance_warmup_connections");
+        if (val != null) {
+            try {
+                return Math.max(0, Integer.parseInt(val));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    public static void setPerformanceWarmupConnections(int connections) {
+        props.setProperty("performance_warmup_connections", String.valueOf(connections));
+        save();
+    }
+
+    /**
+     * 界面分布式压测的节点列表（host:port，逗号分隔），为空时在本机执行
+     */
+    public static String getPerformanceAgents() {
+        return props.getProperty("performance_agents", "");
+    }
+
+    public static void setPerformanceAgents(String agents) {
+        props.setProperty("performance_agents", agents == null ? "" : agents.trim());
+        save();
+    }
+
+    /**
+     * 与压测节点共享的认证密钥（节点启动时通过 --secret 或环境变量指定同一值）
+     */
+    public static String getPerformanceAgentSecret() {
+        return props.getProperty("performance_agent_secret", "");
+    }
+
+    public static void setPerformanceAgentSecret(String secret) {
+        props.setProperty("performance_agent_secret", secret == null ? "" : secret.trim());
+        save();
+    }
+
     public static boolean isShowDownloadProgressDialog() {
         String val = props.getProperty("show_download_progress_dialog");
         if (val != null) {
@@ -188,6 +328,53 @@ public class SettingManager {
         OkHttpClientManager.clearClientCache();
     }
 
+    /**
+     * DNS 解析结果缓存时间（秒），0 表示不缓存
+     */
+    public static int getDnsCacheTtl() {
+        String val = props.getProperty("dns_cache_ttl");
+        if (val != null) {
+            try {
+                return Math.max(0, Integer.parseInt(val));
+            } catch (NumberFormatException e) {
+                return 30;
+            }
+        }
+        return 30; // 与 JVM 默认的 networkaddress.cache.ttl 一致
+    }
+
+    public static void setDnsCacheTtl(int seconds) {
+        props.setProperty("dns_cache_ttl", String.valueOf(seconds));
+        save();
+        OkHttpClientManager.configureDns();
+    }
+
+    /**
+     * 域名有多个 IP 时新连接的地址选择方式：SYSTEM、ROUND_ROBIN、RANDOM
+     */
+    public static String getDnsSelection() {
+        return props.getProperty("dns_selection", "SYSTEM");
+    }
+
+    public static void setDnsSelection(String selection) {
+        props.setProperty("dns_selection", selection);
+        save();
+        OkHttpClientManager.configureDns();
+    }
+
+    /**
+     * 静态主机映射，hosts 文件格式（IP 主机名），多条用换行或分号分隔
+     */
+    public static String getDnsHostOverrides() {
+        return props.getProperty("dns_host_overrides", "");
+    }
+
+    public static void setDnsHostOverrides(String hosts) {
+        props.setProperty("dns_host_overrides", hosts == null ? "" : hosts.trim());
+        save();
+        OkHttpClientManager.configureDns();
+    }
+
     public static int getMaxHistoryCount() {
         String val = props.getProperty("max_history_count");
         if (val != null) {
@@ -0,0 +1,81 @@
+package com.laker.postman.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 固定容量的环形缓冲区，多个生产线程写入，单个消费者批量取出
+ * <p>
+ * 缓冲区满时覆盖最早的元素并累计丢弃数，生产者永远不会阻塞或被消费者拖慢；
+ * 临界区只有数组下标运算，锁竞争极短。
+ */
+public final class BoundedRingBuffer<T> {
+    private final Object[] items;
+    private int head;
+    private int size;
+    private long dropped;
+
+    public BoundedRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.items = new Object[capacity];
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * 写入元素，缓冲区已满时覆盖最早的元素
+     *
+     * @return 是否未发生覆盖
+     */
+    public synchronized boolean offer(T item) {
+        int capacity = items.length;
+        if (size == capacity) {
+            items[head] = item;
+            head = (head + 1) % capacity;
+            dropped++;
+            return false;
+        }
+        items[(head + size) % capacity] = item;
+        size++;
+        return true;
+    }
+
+    /**
+     * 按写入顺序取出全部元素
+     *
+     * @return 上次取出以来被覆盖丢弃的元素数
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized long drainTo(List<? super T> target) {
+        int capacity = items.length;
+        for (int i = 0; i < size; i++) {
+            int idx = (head + i) % capacity;
+            target.add((T) items[idx]);
+            items[idx] = null;
+        }
+        head = 0;
+        size = 0;
+        long result = dropped;
+        dropped = 0;
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(items, null);
+        head = 0;
+        size = 0;
+        dropped = 0;
+    }
+}
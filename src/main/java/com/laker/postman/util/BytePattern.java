@@ -0,0 +1,156 @@
+package com.laker.postman.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 预编译的字节子串（Boyer-Moore-Horspool 算法）
+ * <p>
+ * 用于在响应体字节上直接查找文本，不需要把响应体解码为字符串；
+ * {@link #newMatcher()} 创建的流式匹配器可以跨数据块查找，只保留上一块末尾的 {@code m-1} 个字节。
+ */
+public final class BytePattern {
+    private final String text;
+    private final byte[] pattern;
+    private final int[] shift = new int[256];
+
+    private BytePattern(String text, byte[] pattern) {
+        this.text = text;
+        this.pattern = pattern;
+        int m = pattern.length;
+        Arrays.fill(shift, Math.max(1, m));
+        for (int i = 0; i < m - 1; i++) {
+            shift[pattern[i] & 0xff] = m - 1 - i;
+        }
+    }
+
+    /**
+     * 按 UTF-8 编码编译文本
+     */
+    public static BytePattern compile(String text) {
+        return new BytePattern(text, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int length() {
+        return pattern.length;
+    }
+
+    /**
+     * 在 text[from, to) 中查找，返回匹配起始位置，未找到返回 -1
+     */
+    public int indexOf(byte[] text, int from, int to) {
+        int m = pattern.length;
+        if (m == 0) {
+            return from;
+        }
+        int last = m - 1;
+        byte lastByte = pattern[last];
+        int i = from;
+        while (i <= to - m) {
+            byte b = text[i + last];
+            if (b == lastByte) {
+                int j = last - 1;
+                while (j >= 0 && text[i + j] == pattern[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return i;
+                }
+            }
+            i += shift[b & 0xff];
+        }
+        return -1;
+    }
+
+    /**
+     * 创建用于一个响应的流式匹配器
+     */
+    public Matcher newMatcher() {
+        return new Matcher();
+    }
+
+    /**
+     * 流式子串匹配器，找到后忽略后续数据
+     */
+    public final class Matcher implements StreamingMatcher {
+        private BytePattern active = BytePattern.this;
+        // 上一块末尾保留的字节 + 下一块开头的字节，用于查找跨块的匹配
+        private byte[] window;
+        private int carry;
+        private boolean found;
+        private boolean ended;
+        // 字符集不能按字节匹配时退回为解码后查找
+        private ByteArrayOutputStream fallback;
+        private Charset fallbackCharset;
+
+        private Matcher() {
+        }
+
+        @Override
+        public void start(Charset charset) {
+            if (!StreamingMatcher.isByteSearchable(charset)) {
+                fallback = new ByteArrayOutputStream();
+                fallbackCharset = charset;
+                return;
+            }
+            if (charset != null && !StandardCharsets.UTF_8.equals(charset)) {
+                active = new BytePattern(text, text.getBytes(charset));
+            }
+            found = active.length() == 0;
+            window = new byte[Math.max(0, 2 * (active.length() - 1))];
+        }
+
+        @Override
+        public void update(byte[] buf, int off, int len) {
+            if (found || len <= 0) {
+                return;
+            }
+            if (fallback != null) {
+                fallback.write(buf, off, len);
+                return;
+            }
+            int keepMax = active.length() - 1;
+            int head = Math.min(keepMax, len);
+            if (carry > 0) {
+                System.arraycopy(buf, off, window, carry, head);
+                if (active.indexOf(window, 0, carry + head) >= 0) {
+                    found = true;
+                    return;
+                }
+            }
+            if (active.indexOf(buf, off, off + len) >= 0) {
+                found = true;
+                return;
+            }
+            if (len >= keepMax) {
+                System.arraycopy(buf, off + len - keepMax, window, 0, keepMax);
+                carry = keepMax;
+            } else {
+                int total = carry + head;
+                int keep = Math.min(keepMax, total);
+                System.arraycopy(window, total - keep, window, 0, keep);
+                carry = keep;
+            }
+        }
+
+        @Override
+        public void end() {
+            if (fallback != null) {
+                found = new String(fallback.toByteArray(), fallbackCharset).contains(text);
+                fallback = null;
+            }
+            ended = true;
+        }
+
+        @Override
+        public boolean isResolved() {
+            return found || ended;
+        }
+
+        public boolean isFound() {
+            return found;
+        }
+    }
+}
@@ -0,0 +1,818 @@
+package com.laker.postman.util;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONNull;
+import cn.hutool.json.JSONUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 预编译的 JSONPath 表达式
+ * <p>
+ * 表达式只解析一次，编译为步骤数组并按表达式文本缓存，求值时不再做任何字符串拆分。支持的语法：
+ * <ul>
+ *     <li>{@code $.a.b}、{@code $['a']['b']}、{@code $.a[0]}、{@code $.a[-1]}，省略 {@code $.} 的 {@code a.b} 也可以</li>
+ *     <li>通配符 {@code $.a.*}、{@code $.a[*]}，递归下降 {@code $..id}、{@code $..[0]}</li>
+ *     <li>联合 {@code $['a','b']}、{@code $.a[0,2]}，切片 {@code $.a[1:3]}、{@code $.a[::-1]}</li>
+ *     <li>过滤 {@code $.list[?(@.price < 10 && @.tags)]}，支持 {@code == != < <= > >= =~}、{@code && || !}、
+ *     {@code @}/{@code $} 开头的路径以及数字、字符串、true/false/null 和 {@code /regex/i}</li>
+ * </ul>
+ * 求值对象可以是已解析的 JSON 树（任意 Map/List，如 Hutool 的 JSONObject/JSONArray）、JSON 字符串，
+ * 也可以通过 {@link #newMatcher()} 在读取字节流时求值。
+ */
+public final class CompiledJsonPath {
+    private static final int MAX_CACHE_SIZE = 1024;
+    private static final LruCache<CompiledJsonPath> CACHE = new LruCache<>(MAX_CACHE_SIZE, 256 * 1024, 4096);
+    // 过滤表达式中路径不存在（区别于 JSON null）
+    private static final Object NOTHING = new Object();
+
+    private final String expression;
+    private final Step[] steps;
+    private final boolean definite;
+    // 只包含键名和非负下标的确定路径可以用流式扫描求值，否则为 null
+    private final StreamingJsonPath streaming;
+
+    private CompiledJsonPath(String expression, Step[] steps) {
+        this.expression = expression;
+        this.steps = steps;
+        boolean isDefinite = true;
+        boolean streamable = steps.length > 0;
+        for (Step step : steps) {
+            if (step.deep || step.selectors.length != 1 || !step.selectors[0].isSingular()) {
+                isDefinite = false;
+                streamable = false;
+                break;
+            }
+            Selector selector = step.selectors[0];
+            if (selector instanceof IndexSelector index && index.index < 0) {
+                streamable = false;
+            }
+        }
+        this.definite = isDefinite;
+        this.streaming = streamable ? toStreaming(expression, steps) : null;
+    }
+
+    /**
+     * 获取（或编译并缓存）表达式
+     *
+     * @throws IllegalArgumentException 表达式语法错误
+     */
+    public static CompiledJsonPath compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("JSONPath is empty");
+        }
+        return CACHE.get(expression, e -> new CompiledJsonPath(e, new Parser(e.trim()).parseRoot()));
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * 是否最多只有一个结果（不含通配符、递归下降、联合、切片和过滤）
+     */
+    public boolean isDefinite() {
+        return definite;
+    }
+
+    /**
+     * 求值，返回所有匹配的值
+     *
+     * @param root JSON 树（Map/List）或 JSON 字符串
+     */
+    public List<Object> evaluate(Object root) {
+        if (root instanceof String str) {
+            if (!JSONUtil.isTypeJSON(str)) {
+                return List.of();
+            }
+            root = JSONUtil.parse(str);
+        }
+        if (root == null) {
+            return List.of();
+        }
+        return evaluate(steps, root, root);
+    }
+
+    /**
+     * 求值：确定路径返回匹配的值（不存在时为 null），其他路径返回所有匹配值组成的 JSONArray
+     */
+    public Object read(Object root) {
+        List<Object> results = evaluate(root);
+        if (definite) {
+            return results.isEmpty() ? null : results.get(0);
+        }
+        JSONArray array = new JSONArray();
+        array.addAll(results);
+        return array;
+    }
+
+    /**
+     * 求值并转为文本，结果与 {@link JsonPathUtil#extractJsonPath(Object, String)} 一致
+     */
+    public String readAsString(Object root) {
+        Object value = read(root);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * 创建用于一个响应的流式求值器：只含键名和下标的确定路径逐块扫描，找到目标后即可停止；
+     * 其他路径先缓存字节，数据结束后解析求值
+     */
+    public Matcher newMatcher() {
+        return streaming != null ? streaming.newMatcher() : new BufferedMatcher();
+    }
+
+    /**
+     * 流式求值器，数据结束（或提前确定结果）后通过 {@link #getValue()} 获取文本结果
+     */
+    public interface Matcher extends StreamingMatcher {
+        String getValue();
+    }
+
+    private final class BufferedMatcher implements Matcher {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private Charset charset = StandardCharsets.UTF_8;
+        private boolean ended;
+        private String value;
+
+        @Override
+        public void start(Charset responseCharset) {
+            if (responseCharset != null) {
+                charset = responseCharset;
+            }
+        }
+
+        @Override
+        public void update(byte[] buf, int off, int len) {
+            buffer.write(buf, off, len);
+        }
+
+        @Override
+        public void end() {
+            value = readAsString(new String(buffer.toByteArray(), charset));
+            ended = true;
+        }
+
+        @Override
+        public boolean isResolved() {
+            return ended;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+    }
+
+    private static StreamingJsonPath toStreaming(String expression, Step[] steps) {
+        String[] keys = new String[steps.length];
+        int[] indexes = new int[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            Selector selector = steps[i].selectors[0];
+            if (selector instanceof NameSelector name) {
+                keys[i] = name.name;
+            } else {
+                indexes[i] = ((IndexSelector) selector).index;
+            }
+        }
+        return StreamingJsonPath.of(expression, keys, indexes);
+    }
+
+    // ==================== 求值 ====================
+
+    private static List<Object> evaluate(Step[] steps, Object node, Object root) {
+        List<Object> current = new ArrayList<>(1);
+        current.add(node);
+        for (Step step : steps) {
+            List<Object> next = new ArrayList<>();
+            for (Object value : current) {
+                if (step.deep) {
+                    descend(step.selectors, value, root, next);
+                } else {
+                    for (Selector selector : step.selectors) {
+                        selector.select(value, root, next);
+                    }
+                }
+            }
+            if (next.isEmpty()) {
+                return next;
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    // 递归下降：对节点自身及所有子孙节点应用选择器
+    private static void descend(Selector[] selectors, Object node, Object root, List<Object> out) {
+        for (Selector selector : selectors) {
+            selector.select(node, root, out);
+        }
+        for (Object child : children(node)) {
+            if (child instanceof Map || child instanceof List) {
+                descend(selectors, child, root, out);
+            }
+        }
+    }
+
+    private static Collection<?> children(Object node) {
+        if (node instanceof Map<?, ?> map) {
+            return map.values();
+        }
+        if (node instanceof List<?> list) {
+            return list;
+        }
+        return List.of();
+    }
+
+    private record Step(boolean deep, Selector[] selectors) {
+    }
+
+    private interface Selector {
+        void select(Object node, Object root, List<Object> out);
+
+        default boolean isSingular() {
+            return false;
+        }
+    }
+
+    private record NameSelector(String name) implements Selector {
+        @Override
+        public void select(Object node, Object root, List<Object> out) {
+            if (node instanceof Map<?, ?> map) {
+                Object value = map.get(name);
+                if (value != null) {
+                    out.add(value);
+                }
+            }
+        }
+
+        @Override
+        public boolean isSingular() {
+            return true;
+        }
+    }
+
+    private record IndexSelector(int index) implements Selector {
+        @Override
+        public void select(Object node, Object root, List<Object> out) {
+            if (node instanceof List<?> list) {
+                int i = index < 0 ? list.size() + index : index;
+                if (i >= 0 && i < list.size()) {
+                    Object value = list.get(i);
+                    if (value != null) {
+                        out.add(value);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean isSingular() {
+            return true;
+        }
+    }
+
+    private record WildcardSelector() implements Selector {
+        @Override
+        public void select(Object node, Object root, List<Object> out) {
+            for (Object child : children(node)) {
+                if (child != null) {
+                    out.add(child);
+                }
+            }
+        }
+    }
+
+    private record SliceSelector(Integer start, Integer end, int step) implements Selector {
+        @Override
+        public void select(Object node, Object root, List<Object> out) {
+            if (!(node instanceof List<?> list) || step == 0) {
+                return;
+            }
+            int len = list.size();
+            if (step > 0) {
+                int lower = Math.max(0, bound(start == null ? 0 : start, len));
+                int upper = Math.max(0, bound(end == null ? len : end, len));
+                for (int i = lower; i < upper; i += step) {
+                    addIfPresent(list.get(i), out);
+                }
+            } else {
+                int upper = bound(start == null ? len - 1 : start, len);
+                int lower = end == null ? -1 : bound(end, len);
+                for (int i = Math.min(upper, len - 1); i > lower; i += step) {
+                    addIfPresent(list.get(i), out);
+                }
+            }
+        }
+
+        private static int bound(int i, int len) {
+            int n = i < 0 ? len + i : i;
+            return Math.max(-1, Math.min(n, len));
+        }
+
+        private static void addIfPresent(Object value, List<Object> out) {
+            if (value != null) {
+                out.add(value);
+            }
+        }
+    }
+
+    private record FilterSelector(Expr expr) implements Selector {
+        @Override
+        public void select(Object node, Object root, List<Object> out) {
+            for (Object child : children(node)) {
+                if (child != null && expr.test(child, root)) {
+                    out.add(child);
+                }
+            }
+        }
+    }
+
+    // ==================== 过滤表达式 ====================
+
+    private interface Expr {
+        boolean test(Object current, Object root);
+    }
+
+    private interface Operand {
+        /**
+         * 取值，不存在时返回 {@link #NOTHING}
+         */
+        Object value(Object current, Object root);
+    }
+
+    private record PathOperand(boolean relative, Step[] steps) implements Operand, Expr {
+        @Override
+        public Object value(Object current, Object root) {
+            List<Object> results = evaluate(steps, relative ? current : root, root);
+            return results.size() == 1 ? results.get(0) : NOTHING;
+        }
+
+        // 单独出现时表示存在性判断
+        @Override
+        public boolean test(Object current, Object root) {
+            return !evaluate(steps, relative ? current : root, root).isEmpty();
+        }
+    }
+
+    private record LiteralOperand(Object literal) implements Operand {
+        @Override
+        public Object value(Object current, Object root) {
+            return literal;
+        }
+    }
+
+    private record Comparison(Operand left, String op, Operand right) implements Expr {
+        @Override
+        public boolean test(Object current, Object root) {
+            Object l = left.value(current, root);
+            Object r = right.value(current, root);
+            return switch (op) {
+                case "==" -> isEqual(l, r);
+                case "!=" -> !isEqual(l, r);
+                case "<" -> isLess(l, r);
+                case "<=" -> isLess(l, r) || isEqual(l, r);
+                case ">" -> isLess(r, l);
+                case ">=" -> isLess(r, l) || isEqual(l, r);
+                default -> false;
+            };
+        }
+    }
+
+    private record RegexMatch(Operand left, Pattern pattern) implements Expr {
+        @Override
+        public boolean test(Object current, Object root) {
+            Object value = left.value(current, root);
+            return value instanceof String str && pattern.matcher(str).matches();
+        }
+    }
+
+    private record Not(Expr expr) implements Expr {
+        @Override
+        public boolean test(Object current, Object root) {
+            return !expr.test(current, root);
+        }
+    }
+
+    private record And(Expr left, Expr right) implements Expr {
+        @Override
+        public boolean test(Object current, Object root) {
+            return left.test(current, root) && right.test(current, root);
+        }
+    }
+
+    private record Or(Expr left, Expr right) implements Expr {
+        @Override
+        public boolean test(Object current, Object root) {
+            return left.test(current, root) || right.test(current, root);
+        }
+    }
+
+    private record Constant(boolean value) implements Expr {
+        @Override
+        public boolean test(Object current, Object root) {
+            return value;
+        }
+    }
+
+    private static boolean isEqual(Object l, Object r) {
+        if (l == NOTHING || r == NOTHING) {
+            return l == r;
+        }
+        if (isNull(l) || isNull(r)) {
+            return isNull(l) && isNull(r);
+        }
+        if (l instanceof Number && r instanceof Number) {
+            BigDecimal a = toDecimal(l);
+            BigDecimal b = toDecimal(r);
+            return a != null && b != null && a.compareTo(b) == 0;
+        }
+        return Objects.equals(l, r);
+    }
+
+    private static boolean isLess(Object l, Object r) {
+        if (l instanceof Number && r instanceof Number) {
+            BigDecimal a = toDecimal(l);
+            BigDecimal b = toDecimal(r);
+            return a != null && b != null && a.compareTo(b) < 0;
+        }
+        if (l instanceof String a && r instanceof String b) {
+            return a.compareTo(b) < 0;
+        }
+        return false;
+    }
+
+    private static boolean isNull(Object value) {
+        return value == null || value instanceof JSONNull;
+    }
+
+    private static BigDecimal toDecimal(Object number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        try {
+            return new BigDecimal(number.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ==================== 解析 ====================
+
+    private static final class Parser {
+        private final String s;
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        Step[] parseRoot() {
+            List<Step> steps = new ArrayList<>();
+            if (peek() == '$') {
+                pos++;
+            } else if (peek() != '.' && peek() != '[') {
+                // 兼容省略 $. 的写法：a.b[0]
+                steps.add(new Step(false, new Selector[]{dotMember(false)}));
+            }
+            parseSegments(steps, false);
+            if (pos < s.length()) {
+                throw error("unexpected character '" + s.charAt(pos) + "'");
+            }
+            return steps.toArray(new Step[0]);
+        }
+
+        // embedded 为 true 时解析过滤表达式中的路径，遇到其他字符即结束
+        private void parseSegments(List<Step> steps, boolean embedded) {
+            while (pos < s.length()) {
+                char c = s.charAt(pos);
+                if (c == '.') {
+                    if (s.startsWith("..", pos)) {
+                        pos += 2;
+                        if (peek() == '[') {
+                            steps.add(new Step(true, bracket()));
+                        } else {
+                            steps.add(new Step(true, new Selector[]{dotMember(embedded)}));
+                        }
+                    } else {
+                        pos++;
+                        steps.add(new Step(false, new Selector[]{dotMember(embedded)}));
+                    }
+                } else if (c == '[') {
+                    steps.add(new Step(false, bracket()));
+                } else if (embedded) {
+                    return;
+                } else {
+                    throw error("unexpected character '" + c + "'");
+                }
+            }
+        }
+
+        private Selector dotMember(boolean embedded) {
+            if (peek() == '*') {
+                pos++;
+                return new WildcardSelector();
+            }
+            int start = pos;
+            while (pos < s.length()) {
+                char c = s.charAt(pos);
+                if (c == '.' || c == '[' || (embedded && !isNameChar(c))) {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw error("missing property name");
+            }
+            return new NameSelector(s.substring(start, pos));
+        }
+
+        private Selector[] bracket() {
+            pos++; // [
+            List<Selector> selectors = new ArrayList<>();
+            while (true) {
+                skipWhitespace();
+                selectors.add(selector());
+                skipWhitespace();
+                char c = peek();
+                pos++;
+                if (c == ']') {
+                    return selectors.toArray(new Selector[0]);
+                }
+                if (c != ',') {
+                    throw error("expected ',' or ']'");
+                }
+            }
+        }
+
+        private Selector selector() {
+            char c = peek();
+            if (c == '*') {
+                pos++;
+                return new WildcardSelector();
+            }
+            if (c == '\'' || c == '"') {
+                return new NameSelector(quoted());
+            }
+            if (c == '?') {
+                pos++;
+                skipWhitespace();
+                return new FilterSelector(or());
+            }
+            Integer start = optionalInt();
+            if (peek() != ':') {
+                if (start == null) {
+                    throw error("invalid selector");
+                }
+                return new IndexSelector(start);
+            }
+            pos++;
+            skipWhitespace();
+            Integer end = optionalInt();
+            int step = 1;
+            if (peek() == ':') {
+                pos++;
+                skipWhitespace();
+                Integer st = optionalInt();
+                step = st == null ? 1 : st;
+            }
+            return new SliceSelector(start, end, step);
+        }
+
+        private Expr or() {
+            Expr left = and();
+            while (skipWhitespace() && s.startsWith("||", pos)) {
+                pos += 2;
+                left = new Or(left, and());
+            }
+            return left;
+        }
+
+        private Expr and() {
+            Expr left = unary();
+            while (skipWhitespace() && s.startsWith("&&", pos)) {
+                pos += 2;
+                left = new And(left, unary());
+            }
+            return left;
+        }
+
+        private Expr unary() {
+            skipWhitespace();
+            if (peek() == '!' && !s.startsWith("!=", pos)) {
+                pos++;
+                return new Not(unary());
+            }
+            if (peek() == '(') {
+                pos++;
+                Expr expr = or();
+                skipWhitespace();
+                expect(')');
+                return expr;
+            }
+            return comparison();
+        }
+
+        private Expr comparison() {
+            Operand left = operand();
+            skipWhitespace();
+            if (s.startsWith("=~", pos)) {
+                pos += 2;
+                skipWhitespace();
+                return new RegexMatch(left, regex());
+            }
+            String op = comparisonOperator();
+            if (op == null) {
+                if (left instanceof PathOperand path) {
+                    return path;
+                }
+                if (left instanceof LiteralOperand literal && literal.literal instanceof Boolean b) {
+                    return new Constant(b);
+                }
+                throw error("expected comparison operator");
+            }
+            skipWhitespace();
+            return new Comparison(left, op, operand());
+        }
+
+        private String comparisonOperator() {
+            for (String op : new String[]{"==", "!=", "<=", ">=", "<", ">"}) {
+                if (s.startsWith(op, pos)) {
+                    pos += op.length();
+                    return op;
+                }
+            }
+            return null;
+        }
+
+        private Operand operand() {
+            char c = peek();
+            if (c == '@' || c == '$') {
+                pos++;
+                List<Step> steps = new ArrayList<>();
+                parseSegments(steps, true);
+                return new PathOperand(c == '@', steps.toArray(new Step[0]));
+            }
+            if (c == '\'' || c == '"') {
+                return new LiteralOperand(quoted());
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                int start = pos;
+                pos++;
+                while (pos < s.length() && "0123456789.eE+-".indexOf(s.charAt(pos)) >= 0) {
+                    pos++;
+                }
+                try {
+                    return new LiteralOperand(new BigDecimal(s.substring(start, pos)));
+                } catch (NumberFormatException e) {
+                    throw error("invalid number");
+                }
+            }
+            for (String word : new String[]{"true", "false", "null"}) {
+                if (s.startsWith(word, pos)) {
+                    pos += word.length();
+                    return new LiteralOperand(switch (word) {
+                        case "true" -> Boolean.TRUE;
+                        case "false" -> Boolean.FALSE;
+                        default -> JSONNull.NULL;
+                    });
+                }
+            }
+            throw error("invalid operand");
+        }
+
+        private Pattern regex() {
+            if (peek() == '\'' || peek() == '"') {
+                return compilePattern(quoted(), 0);
+            }
+            expect('/');
+            StringBuilder sb = new StringBuilder();
+            while (pos < s.length() && s.charAt(pos) != '/') {
+                char c = s.charAt(pos++);
+                if (c == '\\' && pos < s.length() && s.charAt(pos) == '/') {
+                    c = s.charAt(pos++);
+                } else if (c == '\\' && pos < s.length()) {
+                    sb.append(c);
+                    c = s.charAt(pos++);
+                }
+                sb.append(c);
+            }
+            expect('/');
+            int flags = 0;
+            while (pos < s.length() && Character.isLetter(s.charAt(pos))) {
+                char f = s.charAt(pos++);
+                if (f == 'i') {
+                    flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+                } else if (f == 's') {
+                    flags |= Pattern.DOTALL;
+                } else if (f == 'm') {
+                    flags |= Pattern.MULTILINE;
+                } else {
+                    throw error("unsupported regex flag '" + f + "'");
+                }
+            }
+            return compilePattern(sb.toString(), flags);
+        }
+
+        private Pattern compilePattern(String regex, int flags) {
+            try {
+                return Pattern.compile(regex, flags);
+            } catch (PatternSyntaxException e) {
+                throw error("invalid regex: " + e.getDescription());
+            }
+        }
+
+        private String quoted() {
+            char quote = s.charAt(pos++);
+            StringBuilder sb = new StringBuilder();
+            while (pos < s.length()) {
+                char c = s.charAt(pos++);
+                if (c == quote) {
+                    return sb.toString();
+                }
+                if (c == '\\' && pos < s.length()) {
+                    char e = s.charAt(pos++);
+                    switch (e) {
+                        case 'n' -> sb.append('\n');
+                        case 't' -> sb.append('\t');
+                        case 'r' -> sb.append('\r');
+                        case 'b' -> sb.append('\b');
+                        case 'f' -> sb.append('\f');
+                        case 'u' -> {
+                            if (pos + 4 > s.length()) {
+                                throw error("invalid unicode escape");
+                            }
+                            try {
+                                sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                            } catch (NumberFormatException ex) {
+                                throw error("invalid unicode escape");
+                            }
+                            pos += 4;
+                        }
+                        default -> sb.append(e);
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private Integer optionalInt() {
+            int start = pos;
+            if (peek() == '-') {
+                pos++;
+            }
+            while (pos < s.length() && Character.isDigit(s.charAt(pos))) {
+                pos++;
+            }
+            if (pos == start) {
+                return null;
+            }
+            try {
+                Integer value = Integer.parseInt(s.substring(start, pos));
+                skipWhitespace();
+                return value;
+            } catch (NumberFormatException e) {
+                throw error("invalid index");
+            }
+        }
+
+        private static boolean isNameChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '$';
+        }
+
+        private char peek() {
+            return pos < s.length() ? s.charAt(pos) : '\0';
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        // 始终返回 true，便于在循环条件中使用
+        private boolean skipWhitespace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+                pos++;
+            }
+            return true;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSONPath '" + s + "' at " + pos + ": " + message);
+        }
+    }
+}
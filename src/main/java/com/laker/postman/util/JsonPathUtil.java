@@ -1,9 +1,5 @@
 package com.laker.postman.util;
 
-import cn.hutool.json.JSONArray;
-import cn.hutool.json.JSONObject;
-import cn.hutool.json.JSONUtil;
-
 public class JsonPathUtil {
 
     private JsonPathUtil() {
@@ -11,46 +7,20 @@ public class JsonPathUtil {
     }
 
     /**
-     * 从JSON对象中提取指定路径的值，支持简单的$.a.b[0].c格式
+     * 从JSON对象中提取指定路径的值，表达式编译后缓存，语法见 {@link CompiledJsonPath}
      *
      * @param jsonObj 可以是JSONObject/JSONArray/String
-     * @param path    形如$.a.b[0].c
-     * @return 提取到的值，找不到返回null
+     * @param path    形如$.a.b[0].c、$..id、$.list[?(@.price > 10)].name
+     * @return 提取到的值（结果不唯一的路径返回所有匹配值组成的 JSON 数组），找不到或表达式无效返回null
      */
     public static String extractJsonPath(Object jsonObj, String path) {
         if (jsonObj == null || path == null || path.isEmpty()) return null;
-        if (jsonObj instanceof String str) {
-            if (!JSONUtil.isTypeJSON(str)) return null;
-            jsonObj = JSONUtil.parse(str);
-        }
-        if (path.startsWith("$.")) path = path.substring(2);
-        String[] segments = path.split("\\.");
-        Object current = jsonObj;
-        for (String segment : segments) {
-            if (current == null) return null;
-            if (segment.contains("[") && segment.contains("]")) {
-                String arrayName = segment.substring(0, segment.indexOf("["));
-                String indexStr = segment.substring(segment.indexOf("[") + 1, segment.indexOf("]"));
-                int index;
-                try {
-                    index = Integer.parseInt(indexStr);
-                } catch (Exception e) {
-                    return null;
-                }
-                if (current instanceof JSONObject obj) {
-                    Object arr = obj.get(arrayName);
-                    if (arr instanceof JSONArray jsonArr) {
-                        if (index >= 0 && index < jsonArr.size()) {
-                            current = jsonArr.get(index);
-                        } else return null;
-                    } else return null;
-                } else return null;
-            } else {
-                if (current instanceof JSONObject obj) {
-                    current = obj.get(segment);
-                } else return null;
-            }
+        CompiledJsonPath compiled;
+        try {
+            compiled = CompiledJsonPath.compile(path);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-        return current != null ? current.toString() : null;
+        return compiled.readAsString(jsonObj);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.laker.postman.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 以字符串为键、按条目数和键总长度双重限制的 LRU 缓存，用于缓存模板、脚本、表达式等按源文本编译的结果
+ * <p>
+ * 编译结果的大小与源文本长度大致成正比，因此按键长度计算占用；超过 maxKeyLength 的文本不缓存，
+ * 每次直接编译，避免大请求体长期占用内存。容量较大时缓存按键的哈希分为多段，每段独立加锁，
+ * 多个压测线程同时读取时锁竞争很小；编译在锁外进行。
+ */
+public final class LruCache<V> {
+    private static final int STRIPES = 16;
+    private static final int MIN_STRIPE_ENTRIES = 16;
+
+    private final Stripe<V>[] stripes;
+    private final int maxKeyLength;
+
+    /**
+     * @param maxEntries   最多缓存的条目数
+     * @param maxKeyChars  所有键的总长度上限（字符数）
+     * @param maxKeyLength 单个键的长度上限，超过时不缓存
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public LruCache(int maxEntries, long maxKeyChars, int maxKeyLength) {
+        if (maxEntries <= 0 || maxKeyChars <= 0 || maxKeyLength <= 0) {
+            throw new IllegalArgumentException("cache limits must be positive");
+        }
+        this.maxKeyLength = maxKeyLength;
+        // 容量较小时不分段，严格按最久未用淘汰
+        int stripeCount = maxEntries >= STRIPES * MIN_STRIPE_ENTRIES ? STRIPES : 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(Math.max(1, maxEntries / stripeCount), Math.max(1, maxKeyChars / stripeCount));
+        }
+    }
+
+    /**
+     * 获取缓存的值，不存在时用 loader 计算并缓存；loader 抛出的异常原样抛出，不缓存
+     */
+    public V get(String key, Function<String, V> loader) {
+        if (key.length() > maxKeyLength) {
+            return loader.apply(key);
+        }
+        Stripe<V> stripe = stripeFor(key);
+        V value = stripe.get(key);
+        if (value == null) {
+            value = stripe.putIfAbsent(key, loader.apply(key));
+        }
+        return value;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Stripe<V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private Stripe<V> stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[((h ^ (h >>> 16)) & 0x7fffffff) % stripes.length];
+    }
+
+    private static final class Stripe<V> {
+        private final int maxEntries;
+        private final long maxKeyChars;
+        private final LinkedHashMap<String, V> map = new LinkedHashMap<>(16, 0.75f, true);
+        private long keyChars;
+
+        Stripe(int maxEntries, long maxKeyChars) {
+            this.maxEntries = maxEntries;
+            this.maxKeyChars = maxKeyChars;
+        }
+
+        synchronized V get(String key) {
+            return map.get(key);
+        }
+
+        // 其他线程已缓存同一个键时返回已有的值
+        synchronized V putIfAbsent(String key, V value) {
+            V existing = map.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            map.put(key, value);
+            keyChars += key.length();
+            Iterator<Map.Entry<String, V>> it = map.entrySet().iterator();
+            while ((map.size() > maxEntries || keyChars > maxKeyChars) && map.size() > 1) {
+                Map.Entry<String, V> eldest = it.next();
+                keyChars -= eldest.getKey().length();
+                it.remove();
+            }
+            return value;
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+
+        synchronized void clear() {
+            map.clear();
+            keyChars = 0;
+        }
+    }
+}
@@ -106,6 +106,7 @@ public final class MessageKeys {
     public static final String GENERAL_CANCEL = "button.cancel";
     public static final String GENERAL_SEARCH = "general.search";
     public static final String CONSOLE_TITLE = "console.title";
+    public static final String CONSOLE_LOGS_DROPPED = "console.logs_dropped";
 
     // ============ 工作区选择对话框 ============
     public static final String WORKSPACE_SELECT_HINT = "workspace.select.hint";
@@ -418,10 +419,19 @@ public final class MessageKeys {
     public static final String PERFORMANCE_MSG_EXECUTION_COMPLETED = "performance.msg.execution_completed";
     public static final String PERFORMANCE_MSG_PRE_SCRIPT_FAILED = "performance.msg.pre_script_failed";
     public static final String PERFORMANCE_MSG_REQUEST_FAILED = "performance.msg.request_failed";
+    public static final String PERFORMANCE_MSG_VIRTUAL_THREAD_FALLBACK = "performance.msg.virtual_thread_fallback";
+    public static final String PERFORMANCE_MSG_ASYNC_THREAD_FALLBACK = "performance.msg.async_thread_fallback";
+    public static final String PERFORMANCE_MSG_MISSED_ARRIVALS = "performance.msg.missed_arrivals";
     public static final String PERFORMANCE_MSG_ASSERTION_FAILED = "performance.msg.assertion_failed";
     public static final String PERFORMANCE_TEST_PLAN = "performance.test_plan";
     public static final String PERFORMANCE_THREAD_GROUP = "performance.thread_group";
     public static final String PERFORMANCE_DEFAULT_REQUEST = "performance.default_request";
+    public static final String PERFORMANCE_PLAN_SAVE = "performance.plan.save";
+    public static final String PERFORMANCE_PLAN_LOAD = "performance.plan.load";
+    public static final String PERFORMANCE_PLAN_FILE_FILTER = "performance.plan.file_filter";
+    public static final String PERFORMANCE_PLAN_SAVE_SUCCESS = "performance.plan.save_success";
+    public static final String PERFORMANCE_PLAN_SAVE_FAILED = "performance.plan.save_failed";
+    public static final String PERFORMANCE_PLAN_LOAD_FAILED = "performance.plan.load_failed";
 
     // ============ 性能趋势相关 ============
     public static final String PERFORMANCE_TREND_THREADS = "performance.trend.threads";
@@ -435,6 +445,11 @@ public final class MessageKeys {
     public static final String PERFORMANCE_TREND_METRIC_VALUE = "performance.trend.metric_value";
     public static final String PERFORMANCE_TREND_METRICS = "performance.trend.metrics";
     public static final String PERFORMANCE_TREND_NO_METRIC_SELECTED = "performance.trend.no_metric_selected";
+    public static final String PERFORMANCE_TREND_CONNECTIONS = "performance.trend.connections";
+    public static final String PERFORMANCE_TREND_OPEN_CONNECTIONS = "performance.trend.open_connections";
+    public static final String PERFORMANCE_TREND_IDLE_CONNECTIONS = "performance.trend.idle_connections";
+    public static final String PERFORMANCE_TREND_IN_USE_CONNECTIONS = "performance.trend.in_use_connections";
+    public static final String PERFORMANCE_TREND_NEW_CONNECTIONS = "performance.trend.new_connections";
 
     // ============ 历史记录相关 ============
     public static final String HISTORY_EMPTY_BODY = "history.empty_body";
@@ -598,6 +613,27 @@ public final class MessageKeys {
     public static final String THREADGROUP_MODE_RAMP_UP = "threadgroup.mode.ramp_up";
     public static final String THREADGROUP_MODE_SPIKE = "threadgroup.mode.spike";
     public static final String THREADGROUP_MODE_STAIRS = "threadgroup.mode.stairs";
+    public static final String THREADGROUP_MODE_ARRIVAL_RATE = "threadgroup.mode.arrival_rate";
+
+    // 线程组执行方式
+    public static final String THREADGROUP_EXECUTOR_LABEL = "threadgroup.executor.label";
+    public static final String THREADGROUP_EXECUTOR_PLATFORM = "threadgroup.executor.platform";
+    public static final String THREADGROUP_EXECUTOR_VIRTUAL = "threadgroup.executor.virtual";
+    public static final String THREADGROUP_EXECUTOR_ASYNC = "threadgroup.executor.async";
+    public static final String THREADGROUP_EXECUTOR_VIRTUAL_UNSUPPORTED = "threadgroup.executor.virtual.unsupported";
+    public static final String THREADGROUP_EXECUTOR_VIRTUAL_UNSUPPORTED_TOOLTIP = "threadgroup.executor.virtual.unsupported.tooltip";
+    public static final String THREADGROUP_EXECUTOR_ASYNC_LIMITED_TOOLTIP = "threadgroup.executor.async.limited.tooltip";
+    public static final String THREADGROUP_TRANSPORT_LABEL = "threadgroup.transport.label";
+    public static final String THREADGROUP_TRANSPORT_HTTP1 = "threadgroup.transport.http1";
+    public static final String THREADGROUP_TRANSPORT_HTTP2 = "threadgroup.transport.http2";
+    public static final String THREADGROUP_TRANSPORT_H2C = "threadgroup.transport.h2c";
+    public static final String THREADGROUP_TRANSPORT_MAX_STREAMS = "threadgroup.transport.max_streams";
+    public static final String THREADGROUP_TRANSPORT_MAX_STREAMS_TOOLTIP = "threadgroup.transport.max_streams.tooltip";
+    public static final String THREADGROUP_COOKIE_LABEL = "threadgroup.cookie.label";
+    public static final String THREADGROUP_COOKIE_TOOLTIP = "threadgroup.cookie.tooltip";
+    public static final String THREADGROUP_COOKIE_GLOBAL = "threadgroup.cookie.global";
+    public static final String THREADGROUP_COOKIE_VIRTUAL_USER = "threadgroup.cookie.virtual_user";
+    public static final String THREADGROUP_COOKIE_VIRTUAL_USER_SEEDED = "threadgroup.cookie.virtual_user_seeded";
 
     // 线程组界面标签
     public static final String THREADGROUP_MODE_LABEL = "threadgroup.mode.label";
@@ -631,6 +667,13 @@ public final class MessageKeys {
     public static final String THREADGROUP_STAIRS_HOLD_TIME = "threadgroup.stairs.hold_time";
     public static final String THREADGROUP_STAIRS_TEST_DURATION = "threadgroup.stairs.test_duration";
 
+    // 到达率模式标签
+    public static final String THREADGROUP_ARRIVAL_START_RATE = "threadgroup.arrival.start_rate";
+    public static final String THREADGROUP_ARRIVAL_TARGET_RATE = "threadgroup.arrival.target_rate";
+    public static final String THREADGROUP_ARRIVAL_RAMP_TIME = "threadgroup.arrival.ramp_time";
+    public static final String THREADGROUP_ARRIVAL_MAX_USERS = "threadgroup.arrival.max_users";
+    public static final String THREADGROUP_ARRIVAL_TEST_DURATION = "threadgroup.arrival.test_duration";
+
     // 预览面板标签
     public static final String THREADGROUP_PREVIEW_TIME_SECONDS = "threadgroup.preview.time_seconds";
     public static final String THREADGROUP_PREVIEW_MODE_PREFIX = "threadgroup.preview.mode_prefix";
@@ -662,6 +705,18 @@ public final class MessageKeys {
     public static final String SETTINGS_REQUEST_FOLLOW_REDIRECTS_CHECKBOX = "settings.request.follow_redirects.checkbox";
     public static final String SETTINGS_REQUEST_SSL_VERIFICATION_TOOLTIP = "settings.request.ssl_verification.tooltip";
     public static final String SETTINGS_REQUEST_SSL_VERIFICATION_CHECKBOX = "settings.request.ssl_verification.checkbox";
+    public static final String SETTINGS_DNS_TITLE = "settings.dns.title";
+    public static final String SETTINGS_DNS_DESCRIPTION = "settings.dns.description";
+    public static final String SETTINGS_DNS_CACHE_TTL = "settings.dns.cache_ttl";
+    public static final String SETTINGS_DNS_CACHE_TTL_TOOLTIP = "settings.dns.cache_ttl.tooltip";
+    public static final String SETTINGS_DNS_SELECTION = "settings.dns.selection";
+    public static final String SETTINGS_DNS_SELECTION_TOOLTIP = "settings.dns.selection.tooltip";
+    public static final String SETTINGS_DNS_SELECTION_SYSTEM = "settings.dns.selection.system";
+    public static final String SETTINGS_DNS_SELECTION_ROUND_ROBIN = "settings.dns.selection.round_robin";
+    public static final String SETTINGS_DNS_SELECTION_RANDOM = "settings.dns.selection.random";
+    public static final String SETTINGS_DNS_HOSTS = "settings.dns.hosts";
+    public static final String SETTINGS_DNS_HOSTS_TOOLTIP = "settings.dns.hosts.tooltip";
+    public static final String SETTINGS_VALIDATION_DNS_HOSTS_ERROR = "settings.validation.dns_hosts.error";
 
     // JMeter settings section
     public static final String SETTINGS_JMETER_TITLE = "settings.jmeter.title";
@@ -669,6 +724,24 @@ public final class MessageKeys {
     public static final String SETTINGS_JMETER_MAX_IDLE_TOOLTIP = "settings.jmeter.max_idle.tooltip";
     public static final String SETTINGS_JMETER_KEEP_ALIVE = "settings.jmeter.keep_alive";
     public static final String SETTINGS_JMETER_KEEP_ALIVE_TOOLTIP = "settings.jmeter.keep_alive.tooltip";
+    public static final String SETTINGS_PERFORMANCE_WARMUP_CONNECTIONS = "settings.performance.warmup_connections";
+    public static final String SETTINGS_PERFORMANCE_WARMUP_CONNECTIONS_TOOLTIP = "settings.performance.warmup_connections.tooltip";
+    public static final String SETTINGS_PERFORMANCE_RESULT_TREE_MAX_NODES = "settings.performance.result_tree_max_nodes";
+    public static final String SETTINGS_PERFORMANCE_RESULT_TREE_MAX_NODES_TOOLTIP = "settings.performance.result_tree_max_nodes.tooltip";
+    public static final String SETTINGS_PERFORMANCE_CONSOLE_MAX_LINES = "settings.performance.console_max_lines";
+    public static final String SETTINGS_PERFORMANCE_CONSOLE_MAX_LINES_TOOLTIP = "settings.performance.console_max_lines.tooltip";
+    public static final String SETTINGS_PERFORMANCE_DISTRIBUTED_TITLE = "settings.performance.distributed.title";
+    public static final String SETTINGS_PERFORMANCE_AGENTS = "settings.performance.agents";
+    public static final String SETTINGS_PERFORMANCE_AGENTS_TOOLTIP = "settings.performance.agents.tooltip";
+    public static final String SETTINGS_PERFORMANCE_AGENT_SECRET = "settings.performance.agent_secret";
+    public static final String SETTINGS_PERFORMANCE_AGENT_SECRET_TOOLTIP = "settings.performance.agent_secret.tooltip";
+    public static final String SETTINGS_PERFORMANCE_RESULTS_TITLE = "settings.performance.results.title";
+    public static final String SETTINGS_PERFORMANCE_RESULT_TREE_MAX_MB = "settings.performance.result_tree_max_mb";
+    public static final String SETTINGS_PERFORMANCE_RESULT_TREE_MAX_MB_TOOLTIP = "settings.performance.result_tree_max_mb.tooltip";
+    public static final String SETTINGS_PERFORMANCE_JOURNAL_ENABLED = "settings.performance.journal_enabled";
+    public static final String SETTINGS_PERFORMANCE_JOURNAL_ENABLED_TOOLTIP = "settings.performance.journal_enabled.tooltip";
+    public static final String SETTINGS_PERFORMANCE_JOURNAL_KEEP_RUNS = "settings.performance.journal_keep_runs";
+    public static final String SETTINGS_PERFORMANCE_JOURNAL_KEEP_RUNS_TOOLTIP = "settings.performance.journal_keep_runs.tooltip";
 
     // Download settings section
     public static final String SETTINGS_DOWNLOAD_TITLE = "settings.download.title";
@@ -695,6 +768,10 @@ public final class MessageKeys {
     public static final String SETTINGS_VALIDATION_MAX_DOWNLOAD_SIZE_ERROR = "settings.validation.max_download_size.error";
     public static final String SETTINGS_VALIDATION_MAX_IDLE_ERROR = "settings.validation.max_idle.error";
     public static final String SETTINGS_VALIDATION_KEEP_ALIVE_ERROR = "settings.validation.keep_alive.error";
+    public static final String SETTINGS_VALIDATION_POSITIVE_INTEGER_ERROR = "settings.validation.positive_integer.error";
+    public static final String SETTINGS_VALIDATION_NON_NEGATIVE_INTEGER_ERROR = "settings.validation.non_negative_integer.error";
+    public static final String SETTINGS_VALIDATION_AGENTS_ERROR = "settings.validation.agents.error";
+    public static final String SETTINGS_VALIDATION_AGENT_SECRET_ERROR = "settings.validation.agent_secret.error";
     public static final String SETTINGS_VALIDATION_THRESHOLD_ERROR = "settings.validation.threshold.error";
     public static final String SETTINGS_VALIDATION_MAX_HISTORY_ERROR = "settings.validation.max_history.error";
     public static final String SETTINGS_VALIDATION_MAX_OPENED_REQUESTS_ERROR = "settings.validation.max_opened_requests_error";
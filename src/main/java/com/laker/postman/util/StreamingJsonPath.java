@@ -0,0 +1,450 @@
+package com.laker.postman.util;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 流式 JSONPath 求值，由 {@link CompiledJsonPath} 为只含键名和非负下标的确定路径（{@code $.a.b[0].c}）创建
+ * <p>
+ * 不构建 JSON 对象树：{@link #newMatcher()} 创建的匹配器逐字节扫描响应体，只跟踪当前位置是否仍在目标路径上，
+ * 目标值一旦读完或可以确定不存在就停止解析。目标是对象或数组时只解析该子树。
+ * <p>
+ * 与整体解析的差异：重复的键取第一个出现的值；只接受标准 JSON（以及单引号字符串），
+ * 目标值之后的内容不再校验。
+ */
+final class StreamingJsonPath {
+    private final String path;
+    // 路径展开为逐层的步骤：keys[i] 不为 null 表示按键取值，否则按 indexes[i] 取数组元素
+    private final String[] keys;
+    private final byte[][] keyBytes;
+    private final int[] indexes;
+
+    private StreamingJsonPath(String path, String[] keys, int[] indexes) {
+        this.path = path;
+        this.keys = keys;
+        this.indexes = indexes;
+        this.keyBytes = new byte[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            keyBytes[i] = keys[i] != null ? keys[i].getBytes(StandardCharsets.UTF_8) : null;
+        }
+    }
+
+    /**
+     * 由已解析的步骤创建（供 {@link CompiledJsonPath} 使用），path 仅用于字符集回退时的整体求值
+     */
+    static StreamingJsonPath of(String path, String[] keys, int[] indexes) {
+        return new StreamingJsonPath(path, keys.clone(), indexes.clone());
+    }
+
+    /**
+     * 创建用于一个响应的流式匹配器
+     */
+    public Matcher newMatcher() {
+        return new Matcher();
+    }
+
+    /**
+     * 流式取值：按块接收 JSON 字节，结果确定后忽略后续数据
+     */
+    public final class Matcher implements CompiledJsonPath.Matcher {
+        private static final int VALUE = 0;
+        private static final int OBJECT_KEY = 1;
+        private static final int COLON = 2;
+        private static final int AFTER_VALUE = 3;
+        private static final int STRING = 4;
+        private static final int LITERAL = 5;
+        private static final int DONE = 6;
+
+        private int state = VALUE;
+        private Charset charset = StandardCharsets.UTF_8;
+        // 容器栈：类型（'{' 或 '['）以及数组当前元素下标
+        private byte[] types = new byte[16];
+        private int[] counts = new int[16];
+        private int depth;
+        // 栈底的 onPathDepth 个容器位于目标路径上
+        private int onPathDepth;
+        // 路径上最深的对象中，当前键是否与路径匹配
+        private boolean keyMatches;
+        // 字符串/字面量状态
+        private boolean inKey;
+        private byte quote;
+        private boolean escape;
+        private boolean captureToken;
+        private boolean targetScalar;
+        private byte[] token = new byte[64];
+        private int tokenLen;
+        // 目标是对象或数组时保存其原始字节
+        private boolean capturingContainer;
+        private int captureDepth;
+        private byte[] capture;
+        private int captureLen;
+
+        private boolean resolved;
+        private String value;
+        // 字符集不能按字节扫描时退回为整体解析
+        private ByteArrayOutputStream fallback;
+
+        @Override
+        public void start(Charset responseCharset) {
+            if (responseCharset != null) {
+                this.charset = responseCharset;
+            }
+            if (!resolved && !StreamingMatcher.isByteSearchable(responseCharset)) {
+                fallback = new ByteArrayOutputStream();
+            }
+        }
+
+        @Override
+        public void update(byte[] buf, int off, int len) {
+            if (fallback != null) {
+                fallback.write(buf, off, len);
+                return;
+            }
+            int end = off + len;
+            for (int i = off; i < end && !resolved; i++) {
+                process(buf[i]);
+            }
+        }
+
+        @Override
+        public void end() {
+            if (fallback != null) {
+                String json = new String(fallback.toByteArray(), charset);
+                fallback = null;
+                resolve(JsonPathUtil.extractJsonPath(json, path));
+            }
+            if (!resolved) {
+                resolve(null);
+            }
+        }
+
+        @Override
+        public boolean isResolved() {
+            return resolved;
+        }
+
+        /**
+         * 取到的值，路径不存在时为 null
+         */
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        private void process(byte b) {
+            if (capturingContainer) {
+                appendCapture(b);
+            }
+            switch (state) {
+                case STRING -> processString(b);
+                case LITERAL -> {
+                    if (isLiteralChar(b)) {
+                        if (captureToken) appendToken(b);
+                        return;
+                    }
+                    endLiteral();
+                    if (!resolved) {
+                        state = AFTER_VALUE;
+                        processStructure(b);
+                    }
+                }
+                default -> processStructure(b);
+            }
+        }
+
+        private void processString(byte b) {
+            if (escape) {
+                escape = false;
+            } else if (b == '\\') {
+                escape = true;
+            } else if (b == quote) {
+                endString();
+                return;
+            }
+            if (captureToken) appendToken(b);
+        }
+
+        private void processStructure(byte b) {
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                return;
+            }
+            switch (state) {
+                case VALUE -> beginValue(b);
+                case OBJECT_KEY -> {
+                    if (b == '"' || b == '\'') {
+                        state = STRING;
+                        inKey = true;
+                        quote = b;
+                        // 只有路径上最深的对象需要比较键
+                        captureToken = depth == onPathDepth;
+                        tokenLen = 0;
+                    } else if (b == '}') {
+                        close(b);
+                    } else {
+                        resolve(null);
+                    }
+                }
+                case COLON -> {
+                    if (b == ':') {
+                        state = VALUE;
+                    } else {
+                        resolve(null);
+                    }
+                }
+                case AFTER_VALUE -> {
+                    if (b == ',') {
+                        if (types[depth - 1] == '{') {
+                            state = OBJECT_KEY;
+                        } else {
+                            counts[depth - 1]++;
+                            state = VALUE;
+                        }
+                    } else if (b == '}' || b == ']') {
+                        close(b);
+                    } else {
+                        resolve(null);
+                    }
+                }
+                case DONE -> {
+                    // 根节点结束后的内容忽略
+                }
+                default -> resolve(null);
+            }
+        }
+
+        private void beginValue(byte b) {
+            boolean onPath;
+            if (depth == 0) {
+                onPath = true;
+            } else if (depth == onPathDepth) {
+                int parent = depth - 1;
+                onPath = types[parent] == '[' ? counts[parent] == indexes[parent] : keyMatches;
+            } else {
+                onPath = false;
+            }
+            boolean target = onPath && depth == keys.length;
+            if (b == '{' || b == '[') {
+                if (target) {
+                    capturingContainer = true;
+                    captureDepth = depth;
+                    captureLen = 0;
+                    appendCapture(b);
+                    push(b, false);
+                } else if (onPath) {
+                    // 路径的下一步决定需要的容器类型：按键取值需要对象，按下标取值需要数组
+                    boolean needObject = keys[depth] != null;
+                    if (needObject != (b == '{')) {
+                        resolve(null);
+                        return;
+                    }
+                    push(b, true);
+                } else {
+                    push(b, false);
+                }
+                state = b == '{' ? OBJECT_KEY : VALUE;
+                return;
+            }
+            if (b == ']' && depth > 0 && types[depth - 1] == '[') {
+                close(b);
+                return;
+            }
+            if (onPath && !target) {
+                // 路径中间的值不是容器（或根节点不是 JSON 对象/数组）
+                resolve(null);
+                return;
+            }
+            if (b == '"' || b == '\'') {
+                state = STRING;
+                inKey = false;
+                quote = b;
+            } else if (isLiteralChar(b)) {
+                state = LITERAL;
+            } else {
+                resolve(null);
+                return;
+            }
+            captureToken = target;
+            targetScalar = target;
+            tokenLen = 0;
+            if (state == LITERAL && target) {
+                appendToken(b);
+            }
+        }
+
+        private void endString() {
+            if (inKey) {
+                keyMatches = captureToken && keyEquals(keys[depth - 1], keyBytes[depth - 1]);
+                state = COLON;
+                return;
+            }
+            if (targetScalar) {
+                resolve(unescape(new String(token, 0, tokenLen, charset)));
+                return;
+            }
+            state = AFTER_VALUE;
+        }
+
+        private void endLiteral() {
+            if (targetScalar) {
+                resolve(normalizeLiteral(new String(token, 0, tokenLen, StandardCharsets.ISO_8859_1)));
+            }
+        }
+
+        private void push(byte type, boolean onPath) {
+            if (depth == types.length) {
+                byte[] t = new byte[depth * 2];
+                System.arraycopy(types, 0, t, 0, depth);
+                types = t;
+                int[] c = new int[depth * 2];
+                System.arraycopy(counts, 0, c, 0, depth);
+                counts = c;
+            }
+            types[depth] = type;
+            counts[depth] = 0;
+            depth++;
+            if (onPath) {
+                onPathDepth = depth;
+            }
+            keyMatches = false;
+        }
+
+        private void close(byte b) {
+            if (depth == 0 || types[depth - 1] != (b == '}' ? '{' : '[')) {
+                resolve(null);
+                return;
+            }
+            if (depth <= onPathDepth) {
+                // 路径上的容器结束仍未找到下一步
+                resolve(null);
+                return;
+            }
+            depth--;
+            if (capturingContainer && depth == captureDepth) {
+                capturingContainer = false;
+                resolve(parseContainer(new String(capture, 0, captureLen, charset)));
+                return;
+            }
+            state = depth == 0 ? DONE : AFTER_VALUE;
+        }
+
+        private boolean keyEquals(String key, byte[] expected) {
+            if (key == null) {
+                return false;
+            }
+            boolean hasEscape = false;
+            for (int i = 0; i < tokenLen; i++) {
+                if (token[i] == '\\') {
+                    hasEscape = true;
+                    break;
+                }
+            }
+            if (!hasEscape && StandardCharsets.UTF_8.equals(charset)) {
+                if (tokenLen != expected.length) return false;
+                for (int i = 0; i < tokenLen; i++) {
+                    if (token[i] != expected[i]) return false;
+                }
+                return true;
+            }
+            return key.equals(unescape(new String(token, 0, tokenLen, charset)));
+        }
+
+        private void resolve(String result) {
+            value = result;
+            resolved = true;
+        }
+
+        private void appendToken(byte b) {
+            if (tokenLen == token.length) {
+                byte[] t = new byte[tokenLen * 2];
+                System.arraycopy(token, 0, t, 0, tokenLen);
+                token = t;
+            }
+            token[tokenLen++] = b;
+        }
+
+        private void appendCapture(byte b) {
+            if (capture == null) {
+                capture = new byte[256];
+            } else if (captureLen == capture.length) {
+                byte[] c = new byte[captureLen * 2];
+                System.arraycopy(capture, 0, c, 0, captureLen);
+                capture = c;
+            }
+            capture[captureLen++] = b;
+        }
+    }
+
+    private static boolean isLiteralChar(byte b) {
+        return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z')
+                || b == '-' || b == '+' || b == '.';
+    }
+
+    // 与 Hutool 解析结果保持一致：null 值被忽略，数字按 Hutool 的数值类型输出
+    private static String normalizeLiteral(String literal) {
+        switch (literal) {
+            case "null":
+                return null;
+            case "true":
+            case "false":
+                return literal;
+            default:
+                try {
+                    JSONArray array = JSONUtil.parseArray("[" + literal + "]");
+                    Object v = array.isEmpty() ? null : array.get(0);
+                    return v != null ? v.toString() : null;
+                } catch (Exception e) {
+                    return null;
+                }
+        }
+    }
+
+    private static String parseContainer(String json) {
+        try {
+            return JSONUtil.parse(json).toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String unescape(String s) {
+        int slash = s.indexOf('\\');
+        if (slash < 0) {
+            return s;
+        }
+        StringBuilder sb = new StringBuilder(s.length());
+        sb.append(s, 0, slash);
+        for (int i = slash; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '\\' || i + 1 >= s.length()) {
+                sb.append(c);
+                continue;
+            }
+            char e = s.charAt(++i);
+            switch (e) {
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (i + 4 < s.length()) {
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(i + 1, i + 5), 16));
+                            i += 4;
+                        } catch (NumberFormatException ex) {
+                            sb.append(e);
+                        }
+                    } else {
+                        sb.append(e);
+                    }
+                }
+                default -> sb.append(e);
+            }
+        }
+        return sb.toString();
+    }
+}
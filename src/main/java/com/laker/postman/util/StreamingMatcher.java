@@ -0,0 +1,41 @@
+package com.laker.postman.util;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 流式匹配器：在读取响应体的同时逐块接收数据，结果确定后即可不再处理后续数据
+ * <p>
+ * 调用顺序为 {@link #start} → 若干次 {@link #update} → {@link #end}，实例只用于一个响应。
+ */
+public interface StreamingMatcher {
+
+    /**
+     * 开始接收数据
+     *
+     * @param charset 响应体字符集
+     */
+    void start(Charset charset);
+
+    void update(byte[] buf, int off, int len);
+
+    /**
+     * 数据结束
+     */
+    void end();
+
+    /**
+     * 结果是否已确定（已找到结果或已接收全部数据）
+     */
+    boolean isResolved();
+
+    /**
+     * 字符集的 ASCII 字节在多字节字符中不会出现，可以直接按字节匹配
+     */
+    static boolean isByteSearchable(Charset charset) {
+        return charset == null
+                || StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+}
@@ -0,0 +1,129 @@
+package com.laker.postman.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 预编译的 {{var}} 模板
+ * <p>
+ * 源字符串只解析一次，拆分为字面量片段和变量名，渲染时单次遍历写入预估好容量的缓冲区。
+ * 解析规则与正则 {@code \{\{(.+?)}}} 完全一致：变量名至少一个字符、不含换行，取最近的 {@code }}}。
+ * <p>
+ * 模板按源字符串缓存，字符串内容被编辑后自然对应新的缓存项；缓存按条目数和源文本总长度淘汰最久未用的模板，
+ * 超过 {@value #MAX_CACHED_LENGTH} 个字符的文本（如大请求体）每次直接解析，不缓存。
+ */
+public final class VariableTemplate {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int MAX_CACHE_SIZE = 2048;
+    private static final int MAX_CACHED_LENGTH = 64 * 1024;
+    // 每个变量预估的替换长度，用于预分配缓冲区
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+    private static final LruCache<VariableTemplate> CACHE = new LruCache<>(MAX_CACHE_SIZE, 2L * 1024 * 1024, MAX_CACHED_LENGTH);
+
+    private final String source;
+    // 长度为 names.length + 1，literals[i] 位于 names[i] 之前
+    private final String[] literals;
+    private final String[] names;
+    private final int literalLength;
+
+    private VariableTemplate(String source, String[] literals, String[] names) {
+        this.source = source;
+        this.literals = literals;
+        this.names = names;
+        int len = 0;
+        for (String literal : literals) {
+            len += literal.length();
+        }
+        this.literalLength = len;
+    }
+
+    /**
+     * 文本中是否可能包含占位符，不包含时无需任何替换
+     */
+    public static boolean mayContainVariables(String text) {
+        return text != null && text.contains(OPEN);
+    }
+
+    /**
+     * 获取（或解析并缓存）模板
+     */
+    public static VariableTemplate of(String text) {
+        return CACHE.get(text, VariableTemplate::parse);
+    }
+
+    /**
+     * 解析模板，不经过缓存
+     */
+    public static VariableTemplate parse(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int literalStart = 0;
+        int pos = text.indexOf(OPEN);
+        while (pos >= 0) {
+            int close = findClose(text, pos + OPEN.length());
+            if (close < 0) {
+                // 与正则一致：从下一个字符重新尝试匹配
+                pos = text.indexOf(OPEN, pos + 1);
+                continue;
+            }
+            literals.add(text.substring(literalStart, pos));
+            names.add(text.substring(pos + OPEN.length(), close));
+            literalStart = close + CLOSE.length();
+            pos = text.indexOf(OPEN, literalStart);
+        }
+        literals.add(text.substring(literalStart));
+        return new VariableTemplate(text, literals.toArray(new String[0]), names.toArray(new String[0]));
+    }
+
+    // 变量名至少一个字符且不跨行，返回最近的 }} 位置，不存在时返回 -1
+    private static int findClose(String text, int nameStart) {
+        int len = text.length();
+        if (nameStart >= len || isLineTerminator(text.charAt(nameStart))) {
+            return -1;
+        }
+        for (int i = nameStart + 1; i < len; i++) {
+            if (text.startsWith(CLOSE, i)) {
+                return i;
+            }
+            if (isLineTerminator(text.charAt(i))) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    public boolean hasVariables() {
+        return names.length > 0;
+    }
+
+    public List<String> getVariableNames() {
+        return List.of(names);
+    }
+
+    /**
+     * 渲染模板，resolver 返回 null 的变量保留原始占位符
+     */
+    public String render(Function<String, String> resolver) {
+        if (names.length == 0) {
+            return source;
+        }
+        StringBuilder sb = new StringBuilder(literalLength + names.length * ESTIMATED_VALUE_LENGTH);
+        for (int i = 0; i < names.length; i++) {
+            sb.append(literals[i]);
+            String value = resolver.apply(names[i]);
+            if (value == null) {
+                sb.append(OPEN).append(names[i]).append(CLOSE);
+            } else {
+                sb.append(value);
+            }
+        }
+        sb.append(literals[names.length]);
+        return sb.toString();
+    }
+}
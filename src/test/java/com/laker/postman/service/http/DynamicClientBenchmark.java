@@ -0,0 +1,56 @@
+package com.laker.postman.service.http;
+
+import com.laker.postman.model.PreparedRequest;
+import com.laker.postman.service.http.okhttp.OkHttpClientManager;
+import com.laker.postman.service.http.okhttp.OkHttpRequestBuilder;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH 基准：对比每次请求重新派生 OkHttpClient 与缓存派生客户端的开销（只创建 Call，不发送请求）
+ * <p>
+ * 在 IDE 中运行 main 方法即可（需要先执行 mvn test-compile 生成 JMH 元数据）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicClientBenchmark {
+    private OkHttpClient base;
+    private PreparedRequest req;
+    private Request request;
+
+    @Setup
+    public void setUp() {
+        base = new OkHttpClient();
+        req = new PreparedRequest();
+        req.method = "GET";
+        req.url = "http://localhost:8080/api";
+        req.logEvent = false;
+        request = OkHttpRequestBuilder.buildRequest(req);
+    }
+
+    @Benchmark
+    public Call rebuildPerCall() {
+        return HttpService.buildDynamicClient(base, 3000, req.logEvent).newCall(request);
+    }
+
+    @Benchmark
+    public Call cachedDerived() {
+        return OkHttpClientManager.getDerivedClient(base, 3000, req.logEvent,
+                b -> HttpService.buildDynamicClient(b, 3000, req.logEvent)).newCall(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DynamicClientBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.laker.postman.service.http.okhttp;
+
+import com.laker.postman.model.PhaseTimings;
+import com.laker.postman.model.PreparedRequest;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.testng.annotations.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * DNS 缓存、静态主机映射与多 IP 选择测试
+ */
+public class CachingDnsTest {
+
+    @Test(description = "TTL 内复用解析结果，并记录命中/未命中")
+    public void testCacheWithinTtl() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = new CachingDns(countingDns(lookups, "10.0.0.1"));
+        dns.setTtlSeconds(60);
+
+        assertEquals(dns.lookup("Example.com").get(0).getHostAddress(), "10.0.0.1");
+        assertEquals(CachingDns.takeLastHit(), Boolean.FALSE);
+        dns.lookup("example.com");
+        assertEquals(CachingDns.takeLastHit(), Boolean.TRUE);
+        assertNull(CachingDns.takeLastHit());
+        assertEquals(lookups.get(), 1);
+        assertEquals(dns.getHitCount(), 1);
+        assertEquals(dns.getMissCount(), 1);
+
+        dns.setTtlSeconds(0);
+        dns.lookup("example.com");
+        dns.lookup("example.com");
+        assertEquals(lookups.get(), 3);
+    }
+
+    @Test(description = "静态主机映射优先于系统解析，支持注释、分号和一行多个主机名")
+    public void testOverrides() throws Exception {
+        String hosts = "# local stand-ins\n127.0.0.1 api.test Web.Test ; 127.0.0.2 api.test\n\n::1 v6.test";
+        assertTrue(CachingDns.isValidHosts(hosts));
+        assertFalse(CachingDns.isValidHosts("api.test 127.0.0.1"));
+        assertFalse(CachingDns.isValidHosts("127.0.0.1"));
+        Map<String, List<InetAddress>> parsed = CachingDns.parseHosts(hosts);
+        assertEquals(parsed.get("api.test").size(), 2);
+        assertEquals(parsed.get("web.test").get(0).getHostAddress(), "127.0.0.1");
+        assertTrue(parsed.get("v6.test").get(0).isLoopbackAddress());
+
+        AtomicInteger lookups = new AtomicInteger();
+        CachingDns dns = new CachingDns(countingDns(lookups, "10.0.0.1"));
+        dns.setOverrides(parsed);
+        assertEquals(dns.lookup("WEB.test").get(0).getHostAddress(), "127.0.0.1");
+        assertEquals(CachingDns.takeLastHit(), Boolean.TRUE);
+        assertEquals(lookups.get(), 0);
+    }
+
+    @Test(description = "轮询时每次解析把下一个地址排在最前，其余地址保留供失败重试")
+    public void testRoundRobin() throws Exception {
+        CachingDns dns = new CachingDns(countingDns(new AtomicInteger(), "10.0.0.1", "10.0.0.2", "10.0.0.3"));
+        dns.setTtlSeconds(60);
+        dns.setSelection(CachingDns.Selection.ROUND_ROBIN);
+        String[] firsts = new String[4];
+        for (int i = 0; i < firsts.length; i++) {
+            List<InetAddress> addresses = dns.lookup("example.com");
+            assertEquals(addresses.size(), 3);
+            firsts[i] = addresses.get(0).getHostAddress();
+        }
+        assertEquals(firsts, new String[]{"10.0.0.1", "10.0.0.2", "10.0.0.3", "10.0.0.1"});
+
+        dns.setSelection(CachingDns.Selection.SYSTEM);
+        assertEquals(dns.lookup("example.com").get(0).getHostAddress(), "10.0.0.1");
+    }
+
+    @Test(description = "通过静态映射访问本地服务，阶段计时中记录 DNS 命中")
+    public void testPhaseTimingsRecordCacheHit() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 10);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            CachingDns dns = new CachingDns(Dns.SYSTEM);
+            dns.setOverrides(CachingDns.parseHosts("127.0.0.1 stand-in.test"));
+            OkHttpClient client = new OkHttpClient.Builder()
+                    .dns(dns)
+                    .eventListenerFactory(PhaseTimingEventListener.FACTORY)
+                    .build();
+            PreparedRequest req = new PreparedRequest();
+            req.phaseTimings = new PhaseTimings();
+            Request request = new Request.Builder()
+                    .url("http://stand-in.test:" + server.getAddress().getPort() + "/")
+                    .tag(PreparedRequest.class, req)
+                    .build();
+            try (Response response = client.newCall(request).execute()) {
+                assertEquals(response.code(), 204);
+            }
+            assertEquals(req.phaseTimings.getDnsCacheHit(), Boolean.TRUE);
+            assertTrue(req.phaseTimings.getMicros(PhaseTimings.Phase.DNS) >= 0);
+            client.connectionPool().evictAll();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static Dns countingDns(AtomicInteger lookups, String... ips) {
+        return hostname -> {
+            lookups.incrementAndGet();
+            List<InetAddress> addresses = new ArrayList<>();
+            for (String ip : ips) {
+                addresses.add(InetAddress.getByName(ip));
+            }
+            return addresses;
+        };
+    }
+}
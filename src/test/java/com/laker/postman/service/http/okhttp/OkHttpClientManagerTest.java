@@ -0,0 +1,48 @@
+package com.laker.postman.service.http.okhttp;
+
+import com.laker.postman.model.PreparedRequest;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * 派生客户端缓存测试
+ */
+public class OkHttpClientManagerTest {
+
+    @Test(description = "相同的基础客户端、超时和事件开关复用同一个派生客户端")
+    public void testDerivedClientCache() {
+        OkHttpClient base = new OkHttpClient();
+        OkHttpClient a = OkHttpClientManager.getDerivedClient(base, 3000, false, OkHttpClientManagerTest::derive);
+        OkHttpClient b = OkHttpClientManager.getDerivedClient(base, 3000, false, OkHttpClientManagerTest::derive);
+        OkHttpClient c = OkHttpClientManager.getDerivedClient(base, 5000, false, OkHttpClientManagerTest::derive);
+        OkHttpClient d = OkHttpClientManager.getDerivedClient(new OkHttpClient(), 3000, false, OkHttpClientManagerTest::derive);
+        assertSame(a, b);
+        assertNotSame(a, c);
+        assertNotSame(a, d);
+        assertSame(a.connectionPool(), base.connectionPool());
+
+        OkHttpClientManager.clearClientCache();
+        assertNotSame(OkHttpClientManager.getDerivedClient(base, 3000, false, OkHttpClientManagerTest::derive), a);
+    }
+
+    @Test(description = "事件监听器从请求 tag 中获取 PreparedRequest")
+    public void testEventListenerFromTag() {
+        OkHttpClient client = new OkHttpClient.Builder().eventListenerFactory(EasyConsoleEventListener.FACTORY).build();
+        PreparedRequest req = new PreparedRequest();
+        req.url = "http://localhost/";
+        req.logEvent = true;
+        Request tagged = new Request.Builder().url(req.url).tag(PreparedRequest.class, req).build();
+        Request untagged = new Request.Builder().url(req.url).build();
+        assertTrue(EasyConsoleEventListener.FACTORY.create(client.newCall(tagged)) instanceof EasyConsoleEventListener);
+        assertSame(EasyConsoleEventListener.FACTORY.create(client.newCall(untagged)), EventListener.NONE);
+        EasyConsoleEventListener.getAndRemove();
+    }
+
+    private static OkHttpClient derive(OkHttpClient base) {
+        return base.newBuilder().build();
+    }
+}
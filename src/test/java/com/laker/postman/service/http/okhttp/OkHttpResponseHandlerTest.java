@@ -0,0 +1,66 @@
+package com.laker.postman.service.http.okhttp;
+
+import com.laker.postman.model.HttpResponse;
+import com.laker.postman.model.ResponseBodyPolicy;
+import okhttp3.*;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import static org.testng.Assert.*;
+
+/**
+ * 响应体读取策略测试
+ */
+public class OkHttpResponseHandlerTest {
+    private static final String BODY = "{\"name\":\"测试\",\"items\":[1,2,3]}";
+
+    @Test(description = "DISCARD 只记录字节数")
+    public void testDiscard() throws Exception {
+        HttpResponse resp = handle(ResponseBodyPolicy.DISCARD);
+        assertEquals(resp.code, 200);
+        assertEquals(resp.bodySize, BODY.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(resp.getBody(), "");
+        assertNull(resp.bodyChecksum);
+    }
+
+    @Test(description = "HASH 记录字节数和 CRC32 校验和")
+    public void testHash() throws Exception {
+        HttpResponse resp = handle(ResponseBodyPolicy.HASH);
+        CRC32 crc = new CRC32();
+        crc.update(BODY.getBytes(StandardCharsets.UTF_8));
+        assertEquals(resp.bodyChecksum, Long.toHexString(crc.getValue()));
+        assertEquals(resp.bodySize, BODY.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test(description = "LAZY 保留原始字节，读取时按响应字符集解码")
+    public void testLazy() throws Exception {
+        HttpResponse resp = handle(ResponseBodyPolicy.LAZY);
+        assertNull(resp.body);
+        assertEquals(resp.getBody(), BODY);
+        assertSame(resp.getBody(), resp.body);
+    }
+
+    @Test(description = "策略按开销取较高者")
+    public void testAtLeast() {
+        assertEquals(ResponseBodyPolicy.DISCARD.atLeast(ResponseBodyPolicy.LAZY), ResponseBodyPolicy.LAZY);
+        assertEquals(ResponseBodyPolicy.LAZY.atLeast(ResponseBodyPolicy.HASH), ResponseBodyPolicy.LAZY);
+        assertEquals(ResponseBodyPolicy.HASH.atLeast(null), ResponseBodyPolicy.HASH);
+    }
+
+    private static HttpResponse handle(ResponseBodyPolicy policy) throws Exception {
+        Request request = new Request.Builder().url("http://localhost/api").build();
+        Response okResponse = new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .header("Content-Type", "application/json; charset=utf-8")
+                .body(ResponseBody.create(BODY, MediaType.get("application/json; charset=utf-8")))
+                .build();
+        HttpResponse resp = new HttpResponse();
+        OkHttpResponseHandler.handleResponse(okResponse, resp, policy);
+        return resp;
+    }
+}
@@ -0,0 +1,121 @@
+package com.laker.postman.service.http.okhttp;
+
+import com.laker.postman.model.PreparedRequest;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Cookie;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.testng.annotations.Test;
+
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.HttpCookie;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * 虚拟用户独立 Cookie 存储测试
+ */
+public class VirtualUserCookieJarTest {
+
+    @Test(description = "按域名、路径匹配，同名 Cookie 被替换，过期 Cookie 被删除")
+    public void testMatching() {
+        VirtualUserCookieJar jar = new VirtualUserCookieJar();
+        HttpUrl url = HttpUrl.get("https://api.example.com/orders/1");
+        jar.saveFromResponse(url, List.of(
+                Cookie.parse(url, "sid=1; Path=/"),
+                Cookie.parse(url, "shared=a; Domain=example.com; Path=/"),
+                Cookie.parse(url, "scoped=x; Path=/orders")));
+
+        assertEquals(names(jar.loadForRequest(url)), List.of("sid", "scoped", "shared"));
+        assertEquals(names(jar.loadForRequest(HttpUrl.get("https://api.example.com/users"))), List.of("sid", "shared"));
+        assertEquals(names(jar.loadForRequest(HttpUrl.get("https://www.example.com/"))), List.of("shared"));
+        assertTrue(jar.loadForRequest(HttpUrl.get("https://other.com/")).isEmpty());
+
+        jar.saveFromResponse(url, List.of(Cookie.parse(url, "sid=2; Path=/")));
+        assertEquals(jar.loadForRequest(url).stream().filter(c -> c.name().equals("sid")).findFirst().orElseThrow().value(), "2");
+        jar.saveFromResponse(url, List.of(Cookie.parse(url, "sid=; Path=/; Max-Age=0")));
+        assertEquals(names(jar.loadForRequest(url)), List.of("scoped", "shared"));
+        assertEquals(jar.size(), 2);
+    }
+
+    @Test(description = "全局 Cookie 快照：按 RFC 6265 设置了 Domain 的 Cookie 匹配子域名，不论是否以点开头")
+    public void testSnapshot() throws Exception {
+        // 与全局 CookieManager 相同的策略
+        CookieManager manager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        manager.put(URI.create("https://api.example.com/"), Map.of("Set-Cookie", List.of(
+                "token=t1; Path=/", "lang=zh; Domain=example.com; Path=/")));
+        HttpCookie dotted = new HttpCookie("theme", "dark");
+        dotted.setDomain(".example.com");
+        dotted.setPath("/");
+        manager.getCookieStore().add(null, dotted);
+        manager.put(URI.create("http://localhost:8080/"), Map.of("Set-Cookie", List.of("local=1; Path=/")));
+
+        VirtualUserCookieJar jar = new VirtualUserCookieJar(VirtualUserCookieJar.snapshot(manager.getCookieStore()));
+        assertEquals(jar.size(), 4);
+        assertEquals(names(jar.loadForRequest(HttpUrl.get("https://api.example.com/"))), List.of("token", "lang", "theme"));
+        assertEquals(names(jar.loadForRequest(HttpUrl.get("https://www.example.com/"))), List.of("lang", "theme"));
+        assertEquals(names(jar.loadForRequest(HttpUrl.get("https://example.com/"))), List.of("lang", "theme"));
+        assertEquals(names(jar.loadForRequest(HttpUrl.get("http://localhost:8080/"))), List.of("local"));
+        assertTrue(jar.loadForRequest(HttpUrl.get("https://other.com/")).isEmpty());
+    }
+
+    @Test(description = "请求指定的存储代替全局 Cookie，各用户会话互不影响")
+    public void testScopedPerRequest() throws Exception {
+        AtomicInteger sessions = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 10);
+        server.createContext("/", exchange -> {
+            String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+            if (cookie == null) {
+                exchange.getResponseHeaders().add("Set-Cookie", "sid=" + sessions.incrementAndGet() + "; Path=/");
+                cookie = "";
+            }
+            byte[] body = cookie.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            CookieManager global = new CookieManager();
+            ScopedCookieJar scoped = new ScopedCookieJar(new okhttp3.JavaNetCookieJar(global));
+            OkHttpClient client = new OkHttpClient.Builder().cookieJar(scoped).addInterceptor(scoped).build();
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+            VirtualUserCookieJar user1 = new VirtualUserCookieJar();
+            VirtualUserCookieJar user2 = new VirtualUserCookieJar();
+
+            assertEquals(call(client, url, user1), "");
+            assertEquals(call(client, url, user2), "");
+            assertEquals(call(client, url, user1), "sid=1");
+            assertEquals(call(client, url, user2), "sid=2");
+            assertTrue(global.getCookieStore().getCookies().isEmpty());
+
+            assertEquals(call(client, url, null), "");
+            assertEquals(global.getCookieStore().getCookies().size(), 1);
+            client.connectionPool().evictAll();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static String call(OkHttpClient client, String url, VirtualUserCookieJar jar) throws Exception {
+        PreparedRequest req = new PreparedRequest();
+        req.cookieJar = jar;
+        Request request = new Request.Builder().url(url).tag(PreparedRequest.class, req).build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.body().string();
+        }
+    }
+
+    private static List<String> names(List<Cookie> cookies) {
+        return cookies.stream().map(Cookie::name).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.laker.postman.service.http.ssl;
+
+import com.laker.postman.model.ClientCertificate;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import javax.net.ssl.SSLSocketFactory;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.*;
+
+/**
+ * SSL 配置缓存测试
+ */
+public class SSLConfigurationUtilTest {
+
+    @AfterClass
+    public void tearDown() {
+        SSLConfigurationUtil.clearSslCache();
+    }
+
+    @Test(description = "无客户端证书时同一验证模式共享 SSLSocketFactory")
+    public void testSharedWithoutCertificate() throws Exception {
+        SSLConfigurationUtil.clearSslCache();
+        SSLSocketFactory lenient = SSLConfigurationUtil.getSslSetup(SSLConfigurationUtil.SSLVerificationMode.LENIENT, null).socketFactory();
+        assertSame(SSLConfigurationUtil.getSslSetup(SSLConfigurationUtil.SSLVerificationMode.LENIENT, null).socketFactory(), lenient);
+        assertNotSame(SSLConfigurationUtil.getSslSetup(SSLConfigurationUtil.SSLVerificationMode.STRICT, null).socketFactory(), lenient);
+    }
+
+    @Test(description = "客户端证书按路径、修改时间和配置缓存，文件更新后重新加载")
+    public void testCertificateCache() throws Exception {
+        Path dir = Files.createTempDirectory("ssl-cache");
+        File pfx = dir.resolve("client.p12").toFile();
+        Process keytool = new ProcessBuilder(System.getProperty("java.home") + "/bin/keytool",
+                "-genkeypair", "-alias", "client", "-keyalg", "RSA", "-keysize", "2048",
+                "-dname", "CN=client", "-validity", "1", "-storetype", "PKCS12",
+                "-keystore", pfx.getAbsolutePath(), "-storepass", "changeit", "-keypass", "changeit")
+                .redirectErrorStream(true)
+                .start();
+        assertEquals(keytool.waitFor(), 0);
+
+        ClientCertificate cert = new ClientCertificate();
+        cert.setId("client");
+        cert.setCertPath(pfx.getAbsolutePath());
+        cert.setCertPassword("changeit");
+
+        SSLConfigurationUtil.SslSetup first = SSLConfigurationUtil.getSslSetup(SSLConfigurationUtil.SSLVerificationMode.STRICT, cert);
+        assertSame(SSLConfigurationUtil.getSslSetup(SSLConfigurationUtil.SSLVerificationMode.STRICT, cert), first);
+        assertNotSame(SSLConfigurationUtil.getSslSetup(SSLConfigurationUtil.SSLVerificationMode.LENIENT, cert), first);
+
+        assertTrue(pfx.setLastModified(pfx.lastModified() - 60_000));
+        SSLConfigurationUtil.SslSetup reloaded = SSLConfigurationUtil.getSslSetup(SSLConfigurationUtil.SSLVerificationMode.STRICT, cert);
+        assertNotSame(reloaded, first);
+        assertSame(SSLConfigurationUtil.getSslSetup(SSLConfigurationUtil.SSLVerificationMode.STRICT, cert), reloaded);
+
+        cert.setCertPassword("wrong");
+        assertThrows(Exception.class, () -> SSLConfigurationUtil.getSslSetup(SSLConfigurationUtil.SSLVerificationMode.STRICT, cert));
+
+        Files.deleteIfExists(pfx.toPath());
+        Files.deleteIfExists(dir);
+    }
+}
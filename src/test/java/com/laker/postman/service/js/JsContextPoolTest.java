@@ -0,0 +1,55 @@
+package com.laker.postman.service.js;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+/**
+ * JS上下文池测试
+ */
+public class JsContextPoolTest {
+
+    @Test(description = "上下文归还后被复用，polyfill 仍可用且输出回调到本次调用方")
+    public void testReuseAndOutput() {
+        JsContextPool pool = JsScriptExecutor.getContextPool();
+        long reusedBefore = pool.getStats().reused;
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        JsScriptExecutor.executeScript("console.log(btoa('ab'));", Map.of(), first::add);
+        JsScriptExecutor.executeScript("console.log('second');", Map.of(), second::add);
+        assertEquals(first, List.of("YWI="));
+        assertEquals(second, List.of("second"));
+        assertTrue(pool.getStats().reused > reusedBefore);
+    }
+
+    @Test(description = "复用的上下文不残留上次的绑定变量和脚本变量")
+    public void testIsolationBetweenRuns() {
+        List<String> out = new ArrayList<>();
+        JsScriptExecutor.executeScript("const token = input; console.log(token);", Map.of("input", "v1"), out::add);
+        JsScriptExecutor.executeScript("const token = typeof input; console.log(token);", Map.of(), out::add);
+        assertEquals(out, List.of("v1", "undefined"));
+    }
+
+    @Test(description = "隐式全局变量和被改写的全局属性在归还时恢复，不泄漏给下一个租用者")
+    public void testGlobalsRestored() {
+        List<String> out = new ArrayList<>();
+        JsScriptExecutor.executeScript("leaked = 'x'; globalThis.btoa = function () { return 'hijacked'; };"
+                + " console.log(typeof leaked);", Map.of(), out::add);
+        JsScriptExecutor.executeScript("console.log(typeof leaked); console.log(btoa('ab'));", Map.of(), out::add);
+        assertEquals(out, List.of("string", "undefined", "YWI="));
+    }
+
+    @Test(description = "脚本异常向上抛出，上下文不再复用")
+    public void testBrokenScript() {
+        JsContextPool pool = JsScriptExecutor.getContextPool();
+        assertThrows(RuntimeException.class, () -> JsScriptExecutor.executeScript("throw new Error('boom');", Map.of(), null));
+        List<String> out = new ArrayList<>();
+        JsScriptExecutor.executeScript("console.log('ok');", Map.of(), out::add);
+        assertEquals(out, List.of("ok"));
+        assertEquals(pool.getStats().inUse, 0);
+    }
+}
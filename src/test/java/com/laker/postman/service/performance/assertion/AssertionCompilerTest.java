@@ -0,0 +1,156 @@
+package com.laker.postman.service.performance.assertion;
+
+import com.laker.postman.model.HttpResponse;
+import com.laker.postman.panel.performance.assertion.AssertionData;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.report.PerformanceSummary;
+import com.laker.postman.util.StreamingMatcher;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * 断言编译测试
+ */
+public class AssertionCompilerTest {
+
+    @Test(description = "响应码支持比较运算符和范围")
+    public void testStatusRanges() {
+        CompiledAssertion success = compile(AssertionCompiler.RESPONSE_CODE, "=", "2xx", "");
+        assertTrue(success.test(response(204)));
+        assertFalse(success.test(response(302)));
+        CompiledAssertion notServerError = compile(AssertionCompiler.RESPONSE_CODE, "!=", "500-599,429", "");
+        assertTrue(notServerError.test(response(404)));
+        assertFalse(notServerError.test(response(429)));
+        assertFalse(notServerError.test(response(503)));
+        CompiledAssertion ge = compile(AssertionCompiler.RESPONSE_CODE, ">=", "400", "");
+        assertTrue(ge.test(response(400)));
+        assertFalse(ge.test(response(399)));
+        // 范围只支持 = 和 !=，配置无效时恒失败
+        assertFalse(compile(AssertionCompiler.RESPONSE_CODE, ">", "2xx", "").test(response(500)));
+        assertEquals(success.getName(), "Response Code = 2xx");
+    }
+
+    @Test(description = "响应头断言不区分名称大小写")
+    public void testHeader() {
+        HttpResponse resp = response(200);
+        resp.headers = new LinkedHashMap<>();
+        resp.headers.put("content-type", List.of("application/json; charset=utf-8"));
+        assertTrue(compile(AssertionCompiler.HEADER, "contains", "Content-Type", "json").test(resp));
+        assertTrue(compile(AssertionCompiler.HEADER, "matches", "Content-Type", "^application/.+utf-8$").test(resp));
+        assertTrue(compile(AssertionCompiler.HEADER, "exists", "CONTENT-TYPE", "").test(resp));
+        assertFalse(compile(AssertionCompiler.HEADER, "exists", "X-Trace", "").test(resp));
+        assertFalse(compile(AssertionCompiler.HEADER, "=", "Content-Type", "text/html").test(resp));
+        assertTrue(compile(AssertionCompiler.HEADER, "!=", "Content-Type", "text/html").test(resp));
+    }
+
+    @Test(description = "正则、响应时间和响应体大小")
+    public void testRegexAndBounds() {
+        HttpResponse resp = response(200);
+        resp.body = "{\"token\":\"abc123\"}";
+        resp.costMs = 120;
+        resp.bodySize = 2048;
+        CompiledAssertion regex = compile(AssertionCompiler.REGEX, "=", "", "\"token\":\"[a-z]+\\d+\"");
+        assertTrue(regex.needsBody());
+        assertTrue(regex.test(resp));
+        assertFalse(compile(AssertionCompiler.REGEX, "=", "", "([").test(resp));
+        assertTrue(compile(AssertionCompiler.RESPONSE_TIME, "<=", "120", "").test(resp));
+        assertFalse(compile(AssertionCompiler.RESPONSE_TIME, "<", "100", "").test(resp));
+        CompiledAssertion size = compile(AssertionCompiler.BODY_SIZE, "<", "4096", "");
+        assertFalse(size.needsBody());
+        assertTrue(size.test(resp));
+        assertFalse(compile(AssertionCompiler.BODY_SIZE, ">", "4096", "").test(resp));
+    }
+
+    @Test(description = "JSONPath 支持不等、存在和数值比较，流式与整体判断一致")
+    public void testJsonPath() {
+        String body = "{\"data\":{\"count\":12,\"price\":\"9.90\",\"name\":\"a\"}}";
+        HttpResponse resp = response(200);
+        resp.body = body;
+        Object[][] cases = {
+                {"$.data.count", ">", "10", true},
+                {"$.data.count", "<=", "11.5", false},
+                {"$.data.price", ">=", "9.9", true},
+                {"$.data.name", ">", "1", false},
+                {"$.data.name", "!=", "b", true},
+                {"$.data.name", "exists", "", true},
+                {"$.data.missing", "exists", "", false},
+                {"$..count", "=", "[12]", true},
+        };
+        for (Object[] c : cases) {
+            CompiledAssertion assertion = compile(AssertionCompiler.JSON_PATH, (String) c[1], (String) c[0], (String) c[2]);
+            assertEquals(assertion.test(resp), c[3], c[0] + " " + c[1] + " " + c[2]);
+            StreamingMatcher matcher = assertion.newMatcher();
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            matcher.start(StandardCharsets.UTF_8);
+            matcher.update(bytes, 0, bytes.length);
+            if (!matcher.isResolved()) {
+                matcher.end();
+            }
+            assertEquals(assertion.test(null, matcher), c[3], "stream " + c[0] + " " + c[1] + " " + c[2]);
+        }
+        // 期望值不是数字时无法做数值比较
+        assertFalse(compile(AssertionCompiler.JSON_PATH, ">", "$.data.count", "abc").test(resp));
+    }
+
+    @Test(description = "可注册自定义断言类型")
+    public void testRegister() {
+        AssertionCompiler.register("Even Code", (data, descriptor) -> new CompiledAssertion() {
+            @Override
+            public String getType() {
+                return descriptor.type();
+            }
+
+            @Override
+            public String getFailureMessage() {
+                return descriptor.failureMessage();
+            }
+
+            @Override
+            public boolean test(HttpResponse resp) {
+                return resp.code % 2 == 0;
+            }
+        });
+        CompiledAssertion even = compile("Even Code", "=", "", "");
+        assertTrue(even.test(response(200)));
+        assertFalse(even.test(response(201)));
+        assertFalse(compile("Unknown", "=", "", "").test(response(200)));
+    }
+
+    @Test(description = "按断言统计通过/失败次数并输出到报表")
+    public void testAssertionCounters() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.recordAssertion("api", "Response Code = 200", true);
+        metrics.recordAssertion("api", "Response Code = 200", false);
+        metrics.recordAssertion("api", "Body Size < 10", true);
+        PerformanceSummary summary = PerformanceSummary.of("plan", 1000, metrics);
+        assertEquals(summary.assertions.size(), 2);
+        PerformanceSummary.AssertionRow code = summary.assertions.get(1);
+        assertEquals(code.assertion, "Response Code = 200");
+        assertEquals(code.pass, 1);
+        assertEquals(code.fail, 1);
+        assertEquals(code.failRate, 50.0);
+        assertTrue(summary.toText().contains("Response Code = 200"));
+        assertTrue(summary.toJson().contains("\"failRate\""));
+    }
+
+    private static CompiledAssertion compile(String type, String operator, String value, String content) {
+        AssertionData data = new AssertionData();
+        data.type = type;
+        data.operator = operator;
+        data.value = value;
+        data.content = content;
+        return AssertionCompiler.compile(data);
+    }
+
+    private static HttpResponse response(int code) {
+        HttpResponse resp = new HttpResponse();
+        resp.code = code;
+        resp.body = "";
+        return resp;
+    }
+}
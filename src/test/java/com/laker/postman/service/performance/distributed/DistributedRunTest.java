@@ -0,0 +1,181 @@
+package com.laker.postman.service.performance.distributed;
+
+import com.laker.postman.ioc.ApplicationContext;
+import com.laker.postman.ioc.BeanFactory;
+import com.laker.postman.model.HttpRequestItem;
+import com.laker.postman.model.PhaseTimings;
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+import com.laker.postman.service.performance.engine.PerformanceEngine;
+import com.laker.postman.service.performance.engine.PerformanceEngineListener;
+import com.laker.postman.service.performance.metrics.ApiMetrics;
+import com.laker.postman.service.performance.metrics.LatencyHistogram;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.PerformancePlanSharding;
+import com.laker.postman.service.performance.plan.RequestPlan;
+import com.laker.postman.service.performance.plan.ThreadGroupPlan;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * 分布式压测测试：多个本机压测节点执行同一计划，控制端合并统计
+ */
+public class DistributedRunTest {
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private static final String SECRET = "test-secret";
+    private final List<PerformanceAgent> agents = new ArrayList<>();
+
+    @BeforeClass
+    public void startServer() throws Exception {
+        // 容器不支持重复扫描，其它测试类可能已初始化过
+        ApplicationContext.getInstance().clear();
+        BeanFactory.init("com.laker.postman.service");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 100);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            byte[] body = "{\"code\":0}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        for (int i = 0; i < 3; i++) {
+            PerformanceAgent agent = new PerformanceAgent(InetAddress.getLoopbackAddress(), 0, SECRET);
+            agent.start();
+            agents.add(agent);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        agents.forEach(PerformanceAgent::close);
+        server.stop(0);
+        ApplicationContext.getInstance().clear();
+    }
+
+    @Test(description = "用户数按节点均分，余数分给编号靠前的节点，分不到用户的线程组被移除")
+    public void testSharding() {
+        PerformancePlan plan = plan(7, 2);
+        ThreadGroupData small = new ThreadGroupData();
+        small.threadMode = ThreadGroupData.ThreadMode.FIXED;
+        small.numThreads = 1;
+        plan.threadGroups.add(new ThreadGroupPlan("small", small));
+
+        PerformancePlan first = PerformancePlanSharding.share(plan, 0, 3);
+        PerformancePlan last = PerformancePlanSharding.share(plan, 2, 3);
+
+        assertEquals(first.threadGroups.size(), 2);
+        assertEquals(first.threadGroups.get(0).settings.numThreads, 3);
+        assertEquals(last.threadGroups.size(), 1);
+        assertEquals(last.threadGroups.get(0).settings.numThreads, 2);
+        assertEquals(last.threadGroups.get(0).settings.loops, 2);
+        // 原计划不受影响
+        assertEquals(plan.threadGroups.get(0).settings.numThreads, 7);
+    }
+
+    @Test(description = "增量直方图经序列化后合并，与整体直方图一致")
+    public void testHistogramDeltaRoundTrip() throws Exception {
+        LatencyHistogram total = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            total.recordMicros(i * 1000L);
+        }
+        LatencyHistogram first = total.minus(null);
+        for (int i = 101; i <= 150; i++) {
+            total.recordMicros(i * 1000L);
+        }
+        LatencyHistogram second = total.minus(first);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        second.writeTo(new DataOutputStream(bytes));
+        LatencyHistogram decoded = LatencyHistogram.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(decoded.getTotalCount(), 50);
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.add(first);
+        merged.add(decoded);
+        assertEquals(merged.getTotalCount(), 150);
+        assertEquals(merged.getValueAtPercentile(99), total.getValueAtPercentile(99));
+    }
+
+    @Test(description = "三个本机节点执行同一计划，控制端统计等于各节点请求数之和")
+    public void testRunOnLocalAgents() {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (PerformanceAgent agent : agents) {
+            addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), agent.getPort()));
+        }
+        hits.set(0);
+        PerformanceEngine engine = new PerformanceEngine(plan(7, 5));
+        engine.setRemoteAgents(addresses, SECRET);
+        engine.run();
+
+        PerformanceMetrics metrics = engine.getMetrics();
+        assertEquals(hits.get(), 35);
+        assertEquals(metrics.getTotalCount(), 35);
+        assertEquals(metrics.getSuccessCount(), 35);
+        ApiMetrics api = metrics.getApis().iterator().next();
+        assertEquals(api.latencySnapshot().getTotalCount(), 35);
+        assertEquals(api.phaseSnapshot(PhaseTimings.Phase.TTFB).getTotalCount(), 35);
+        long perSecond = 0;
+        for (long s = metrics.getFirstStartMillis() / 1000; s <= metrics.getLastEndMillis() / 1000; s++) {
+            perSecond += metrics.getSeconds().get(s).requests;
+        }
+        assertEquals(perSecond, 35);
+        assertEquals(engine.getActiveUsers(), 0);
+        assertFalse(engine.isRunning());
+    }
+
+    @Test(description = "密钥不一致时节点拒绝连接，不执行任何请求")
+    public void testRejectsWrongSecret() {
+        List<String> errors = new ArrayList<>();
+        hits.set(0);
+        PerformanceEngine engine = new PerformanceEngine(plan(2, 1));
+        engine.setRemoteAgents(List.of(new InetSocketAddress(InetAddress.getLoopbackAddress(), agents.get(0).getPort())), "wrong");
+        engine.addListener(new PerformanceEngineListener() {
+            @Override
+            public void onScriptOutput(String output, boolean error) {
+                errors.add(output);
+            }
+        });
+        engine.run();
+
+        assertEquals(hits.get(), 0);
+        assertEquals(engine.getMetrics().getTotalCount(), 0);
+        assertTrue(errors.stream().anyMatch(e -> e.contains("Authentication failed")), errors.toString());
+        assertFalse(AgentProtocol.verify(SECRET, AgentProtocol.newChallenge(), AgentProtocol.sign(SECRET, AgentProtocol.newChallenge())));
+    }
+
+    private PerformancePlan plan(int users, int loops) {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.FIXED;
+        settings.numThreads = users;
+        settings.loops = loops;
+        settings.useTime = false;
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("home");
+        item.setMethod("GET");
+        item.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ThreadGroupPlan group = new ThreadGroupPlan("group", settings);
+        group.requests.add(new RequestPlan("home", item));
+        PerformancePlan plan = new PerformancePlan("plan");
+        plan.threadGroups.add(group);
+        return plan;
+    }
+}
@@ -0,0 +1,55 @@
+package com.laker.postman.service.performance.engine;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * 到达率调度计划测试
+ */
+public class ArrivalRateScheduleTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test(description = "恒定速率下迭代间隔固定，持续时间内的迭代数等于速率乘以时长")
+    public void testConstantRate() {
+        ArrivalRateSchedule schedule = new ArrivalRateSchedule(10, 10, 0, 2);
+        assertEquals(schedule.getDurationNanos(), 2 * SECOND);
+        assertEquals(schedule.nextStartNanos(0), SECOND / 10);
+        assertEquals(countArrivals(schedule), 20);
+    }
+
+    @Test(description = "爬升期间速率从起始速率线性变化到目标速率，之后保持目标速率")
+    public void testRamp() {
+        ArrivalRateSchedule schedule = new ArrivalRateSchedule(10, 50, 4, 10);
+        assertEquals(schedule.rateAt(0), 10.0, 1e-9);
+        assertEquals(schedule.rateAt(2 * SECOND), 30.0, 1e-9);
+        assertEquals(schedule.rateAt(4 * SECOND), 50.0, 1e-9);
+        assertEquals(schedule.rateAt(8 * SECOND), 50.0, 1e-9);
+        // 爬升期间平均 30 次/秒共 4 秒，之后 50 次/秒共 6 秒
+        int arrivals = countArrivals(schedule);
+        assertTrue(Math.abs(arrivals - 420) <= 3, "arrivals=" + arrivals);
+    }
+
+    @Test(description = "超出持续时间后不再调度迭代")
+    public void testEndsAtDuration() {
+        ArrivalRateSchedule schedule = new ArrivalRateSchedule(1, 1, 0, 3);
+        assertEquals(schedule.nextStartNanos(SECOND), 2 * SECOND);
+        assertEquals(schedule.nextStartNanos(2 * SECOND), -1);
+        assertEquals(new ArrivalRateSchedule(10, 10, 0, 0).nextStartNanos(0), -1);
+    }
+
+    @Test(description = "速率为 0 时按最小速率调度，不会出现除零或无限循环")
+    public void testZeroRateClamped() {
+        ArrivalRateSchedule schedule = new ArrivalRateSchedule(0, 0, 0, 60);
+        assertTrue(schedule.rateAt(0) > 0);
+        assertEquals(schedule.nextStartNanos(0), -1);
+    }
+
+    private static int countArrivals(ArrivalRateSchedule schedule) {
+        int count = 0;
+        for (long t = 0; t >= 0; t = schedule.nextStartNanos(t)) {
+            count++;
+        }
+        return count;
+    }
+}
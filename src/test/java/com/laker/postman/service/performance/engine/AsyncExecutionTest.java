@@ -0,0 +1,285 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.ioc.BeanFactory;
+import com.laker.postman.model.HttpRequestItem;
+import com.laker.postman.model.PhaseTimings;
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+import com.laker.postman.service.performance.metrics.ApiMetrics;
+import com.laker.postman.service.performance.metrics.JsContextUsage;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.RequestPlan;
+import com.laker.postman.service.performance.plan.ThreadGroupPlan;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * 异步执行方式测试
+ */
+public class AsyncExecutionTest {
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+
+    @BeforeClass
+    public void startServer() throws Exception {
+        // 与命令行压测一致，只初始化服务层 Bean
+        BeanFactory.init("com.laker.postman.service");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 100);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            byte[] body = "{\"code\":0}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(400);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"code\":0}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+        BeanFactory.destroy();
+    }
+
+    @Test(description = "当前 JDK 不支持虚拟线程时，虚拟线程模式的线程组照常执行，并在开始时提示退回平台线程")
+    public void testVirtualThreadFallbackReported() {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.FIXED;
+        settings.executorType = ThreadGroupData.ExecutorType.VIRTUAL;
+        settings.numThreads = 2;
+        settings.loops = 1;
+        settings.useTime = false;
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("home");
+        item.setMethod("GET");
+        item.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ThreadGroupPlan group = new ThreadGroupPlan("virtual", settings);
+        group.requests.add(new RequestPlan("home", item));
+        PerformancePlan plan = new PerformancePlan("plan");
+        plan.threadGroups.add(group);
+
+        List<String> warnings = new ArrayList<>();
+        PerformanceEngine engine = new PerformanceEngine(plan);
+        engine.addListener(new PerformanceEngineListener() {
+            @Override
+            public void onScriptOutput(String output, boolean error) {
+                if (error) warnings.add(output);
+            }
+        });
+        engine.run();
+
+        assertEquals(engine.getMetrics().getSuccessCount(), 2);
+        assertEquals(warnings.stream().anyMatch(w -> w.contains("virtual")), !VirtualUserThreads.isVirtualThreadSupported(), warnings.toString());
+    }
+
+    @Test(description = "当前 JDK 不支持虚拟线程时，异步模式的在途请求数受平台线程上限约束，并在开始时提示")
+    public void testAsyncFallbackLimited() {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.FIXED;
+        settings.executorType = ThreadGroupData.ExecutorType.ASYNC;
+        settings.numThreads = AsyncSampleExecutor.FALLBACK_HTTP_THREADS + 1;
+        settings.loops = 1;
+        settings.useTime = false;
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("home");
+        item.setMethod("GET");
+        item.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ThreadGroupPlan group = new ThreadGroupPlan("async", settings);
+        group.requests.add(new RequestPlan("home", item));
+        PerformancePlan plan = new PerformancePlan("plan");
+        plan.threadGroups.add(group);
+
+        List<String> warnings = new ArrayList<>();
+        PerformanceEngine engine = new PerformanceEngine(plan);
+        engine.addListener(new PerformanceEngineListener() {
+            @Override
+            public void onScriptOutput(String output, boolean error) {
+                if (error) warnings.add(output);
+            }
+        });
+        engine.run();
+
+        assertEquals(engine.getMetrics().getSuccessCount(), settings.numThreads);
+        assertEquals(warnings.stream().anyMatch(w -> w.contains("async")), !VirtualUserThreads.isVirtualThreadSupported(), warnings.toString());
+    }
+
+    @Test(description = "服务端变慢时，到达率模式没有执行的迭代计为未执行的到达，而不是静默丢弃")
+    public void testMissedArrivalsCounted() {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.ARRIVAL_RATE;
+        settings.executorType = ThreadGroupData.ExecutorType.ASYNC;
+        settings.arrivalStartRate = 50;
+        settings.arrivalTargetRate = 50;
+        settings.arrivalRampTime = 0;
+        settings.arrivalDuration = 1;
+        settings.arrivalMaxUsers = 2;
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("slow");
+        item.setMethod("GET");
+        item.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/slow");
+        ThreadGroupPlan group = new ThreadGroupPlan("arrival", settings);
+        group.requests.add(new RequestPlan("slow", item));
+        PerformancePlan plan = new PerformancePlan("plan");
+        plan.threadGroups.add(group);
+
+        PerformanceEngine engine = new PerformanceEngine(plan);
+        engine.run();
+
+        PerformanceMetrics metrics = engine.getMetrics();
+        // 1 秒内计划 50 次迭代，2 个用户每次 400ms 只能执行少数几次，其余都计为未执行
+        assertTrue(metrics.getMissedArrivalCount() > 30, "missed=" + metrics.getMissedArrivalCount());
+        assertEquals(metrics.getTotalCount() + metrics.getMissedArrivalCount(), 50);
+    }
+
+    @Test(description = "停止压测时等待进行中的请求完成、全部用户退出后才触发 onFinish")
+    public void testStopWaitsForUsers() throws Exception {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.FIXED;
+        settings.numThreads = 3;
+        settings.loops = 100;
+        settings.useTime = false;
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("slow");
+        item.setMethod("GET");
+        item.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/slow");
+        ThreadGroupPlan group = new ThreadGroupPlan("stop", settings);
+        group.requests.add(new RequestPlan("slow", item));
+        PerformancePlan plan = new PerformancePlan("plan");
+        plan.threadGroups.add(group);
+
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger samplesAfterFinish = new AtomicInteger();
+        AtomicInteger activeAtFinish = new AtomicInteger(-1);
+        CountDownLatch allActive = new CountDownLatch(1);
+        PerformanceEngine engine = new PerformanceEngine(plan);
+        engine.addListener(new PerformanceEngineListener() {
+            @Override
+            public void onActiveUsersChanged(int activeUsers) {
+                if (activeUsers == 3) allActive.countDown();
+            }
+
+            @Override
+            public void onSample(SampleResult result) {
+                if (finished.get() > 0) samplesAfterFinish.incrementAndGet();
+            }
+
+            @Override
+            public void onFinish(PerformanceEngine e) {
+                activeAtFinish.set(e.getActiveUsers());
+                finished.incrementAndGet();
+            }
+        });
+        engine.start();
+        // 每个请求 400ms，停止时 3 个用户都在等待响应
+        assertTrue(allActive.await(10, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        engine.stop();
+        engine.awaitTermination();
+        Thread.sleep(500);
+
+        assertEquals(finished.get(), 1);
+        assertEquals(activeAtFinish.get(), 0);
+        assertEquals(samplesAfterFinish.get(), 0);
+    }
+
+    @Test(description = "执行脚本时，本次运行的脚本上下文池使用情况写入统计")
+    public void testJsContextUsageRecorded() {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.FIXED;
+        settings.numThreads = 2;
+        settings.loops = 5;
+        settings.useTime = false;
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("home");
+        item.setMethod("GET");
+        item.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        item.setPostscript("pm.test('ok', function () { pm.response.to.have.status(200); });");
+        ThreadGroupPlan group = new ThreadGroupPlan("scripted", settings);
+        group.requests.add(new RequestPlan("home", item));
+        PerformancePlan plan = new PerformancePlan("plan");
+        plan.threadGroups.add(group);
+
+        PerformanceEngine engine = new PerformanceEngine(plan);
+        engine.run();
+
+        JsContextUsage usage = engine.getMetrics().getJsContextUsage();
+        assertNotNull(usage);
+        assertEquals(usage.leases(), 10);
+        assertEquals(usage.created() + usage.reused(), 10);
+        assertTrue(usage.peakInUse() >= 1 && usage.peakInUse() <= 2, "peak=" + usage.peakInUse());
+        // 运行结束时上下文都已归还池中
+        assertTrue(usage.idle() > 0, "idle=" + usage.idle());
+    }
+
+    @Test(description = "固定模式按循环次数异步执行，所有用户完成后引擎结束")
+    public void testFixedLoops() {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.FIXED;
+        settings.executorType = ThreadGroupData.ExecutorType.ASYNC;
+        settings.numThreads = 10;
+        settings.loops = 3;
+        settings.useTime = false;
+        // 明文地址下 ALPN 不可用，回落到 HTTP/1.1；用户分摊到 3 个连接池
+        settings.transport = ThreadGroupData.Transport.HTTP_2;
+        settings.maxStreamsPerConnection = 4;
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("home");
+        item.setMethod("GET");
+        item.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ThreadGroupPlan group = new ThreadGroupPlan("async", settings);
+        group.requests.add(new RequestPlan("home", item));
+        group.requests.add(new RequestPlan("again", item));
+        PerformancePlan plan = new PerformancePlan("plan");
+        plan.threadGroups.add(group);
+
+        hits.set(0);
+        PerformanceEngine engine = new PerformanceEngine(plan);
+        engine.run();
+
+        PerformanceMetrics metrics = engine.getMetrics();
+        assertEquals(hits.get(), 60);
+        assertEquals(metrics.getTotalCount(), 60);
+        assertEquals(metrics.getSuccessCount(), 60);
+        // 每个请求都有首字节时间，只有新建连接的请求才有建连耗时
+        long ttfb = 0;
+        long connects = 0;
+        for (ApiMetrics api : metrics.getApis()) {
+            ttfb += api.phaseSnapshot(PhaseTimings.Phase.TTFB).getTotalCount();
+            connects += api.phaseSnapshot(PhaseTimings.Phase.CONNECT).getTotalCount();
+            assertEquals(api.phaseSnapshot(PhaseTimings.Phase.TLS).getTotalCount(), 0);
+        }
+        assertEquals(ttfb, 60);
+        assertTrue(connects >= 1 && connects <= 60, "connects=" + connects);
+        assertEquals(metrics.getProtocols().size(), 1);
+        ApiMetrics protocol = metrics.getProtocols().iterator().next();
+        assertEquals(protocol.getName(), "HTTP/1.1");
+        assertEquals(protocol.getTotalCount(), 60);
+        assertEquals(engine.getActiveUsers(), 0);
+        assertFalse(engine.isRunning());
+    }
+}
@@ -0,0 +1,109 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.ioc.ApplicationContext;
+import com.laker.postman.ioc.BeanFactory;
+import com.laker.postman.model.HttpRequestItem;
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+import com.laker.postman.service.http.okhttp.ConnectionPoolStats;
+import com.laker.postman.service.http.okhttp.OkHttpClientManager;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.RequestPlan;
+import com.laker.postman.service.performance.plan.ThreadGroupPlan;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * 连接预热与连接池采样测试
+ */
+public class ConnectionWarmupTest {
+    private HttpServer server;
+    private final AtomicInteger heads = new AtomicInteger();
+    private final AtomicInteger gets = new AtomicInteger();
+
+    @BeforeClass
+    public void startServer() throws Exception {
+        // 容器不支持重复扫描，其它测试类可能已初始化过
+        ApplicationContext.getInstance().clear();
+        BeanFactory.init("com.laker.postman.service");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 100);
+        server.createContext("/", exchange -> {
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                heads.incrementAndGet();
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                gets.incrementAndGet();
+                byte[] body = "{\"code\":0}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+        ApplicationContext.getInstance().clear();
+    }
+
+    @Test(description = "预热后连接池中已有连接，压测请求不再新建连接")
+    public void testWarmupOpensConnectionsBeforeRun() {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.FIXED;
+        settings.numThreads = 4;
+        settings.loops = 5;
+        settings.useTime = false;
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("home");
+        item.setMethod("GET");
+        item.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        ThreadGroupPlan group = new ThreadGroupPlan("group", settings);
+        group.requests.add(new RequestPlan("home", item));
+        PerformancePlan plan = new PerformancePlan("plan");
+        plan.threadGroups.add(group);
+
+        PerformanceEngine engine = new PerformanceEngine(plan);
+        engine.setWarmupConnections(4);
+        ConnectionPoolSampler sampler = new ConnectionPoolSampler(engine.getMetrics());
+        engine.run();
+
+        PerformanceMetrics metrics = engine.getMetrics();
+        // 有 GET 请求时用该请求预热
+        assertEquals(heads.get(), 0);
+        assertEquals(gets.get(), 24);
+        assertEquals(metrics.getTotalCount(), 20);
+        assertEquals(metrics.getNewConnectionCount(), 0);
+        assertEquals(sampler.sample().newConnectionsPerSec(), 0.0);
+    }
+
+    @Test(description = "运行结束时只移除分流连接池的客户端")
+    public void testEvictLaneClients() {
+        String baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+        OkHttpClient shared = OkHttpClientManager.getClient(baseUri, true, null, 0);
+        OkHttpClient lane = OkHttpClientManager.getClient(baseUri, true, null, 2);
+        OkHttpClientManager.evictLaneClients();
+        assertSame(OkHttpClientManager.getClient(baseUri, true, null, 0), shared);
+        assertNotSame(OkHttpClientManager.getClient(baseUri, true, null, 2), lane);
+    }
+
+    @Test(description = "占用连接数为打开连接数减空闲连接数")
+    public void testPoolStats() {
+        ConnectionPoolStats stats = new ConnectionPoolStats(10, 4);
+        assertEquals(stats.inUse(), 6);
+        assertEquals(new ConnectionPoolStats(2, 3).inUse(), 0);
+        assertTrue(OkHttpClientManager.getConnectionPoolStats().open() >= 0);
+    }
+}
@@ -0,0 +1,166 @@
+package com.laker.postman.service.performance.engine;
+
+import com.laker.postman.model.HttpRequestItem;
+import com.laker.postman.model.HttpResponse;
+import com.laker.postman.model.ResponseBodyPolicy;
+import com.laker.postman.panel.performance.assertion.AssertionData;
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+import com.laker.postman.panel.performance.timer.TimerData;
+import com.laker.postman.service.performance.assertion.AssertionCompiler;
+import com.laker.postman.service.performance.assertion.CompiledAssertion;
+import com.laker.postman.service.performance.plan.AssertionPlan;
+import com.laker.postman.service.performance.plan.PerformancePlan;
+import com.laker.postman.service.performance.plan.RequestPlan;
+import com.laker.postman.service.performance.plan.ThreadGroupPlan;
+import com.laker.postman.service.performance.plan.TimerPlan;
+import okhttp3.Protocol;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * 执行计划编译测试
+ */
+public class ExecutionPlanTest {
+
+    @Test(description = "编译后为快照，修改原计划不影响执行计划")
+    public void testSnapshotIsolation() {
+        PerformancePlan plan = createPlan();
+        ExecutionPlan compiled = ExecutionPlan.compile(plan);
+
+        ThreadGroupPlan group = plan.threadGroups.get(0);
+        group.settings.numThreads = 99;
+        group.requests.get(0).request.setUrl("https://changed.example.com");
+        group.requests.get(0).timers.get(0).data.delayMs = 5000;
+        group.requests.add(new RequestPlan("new", new HttpRequestItem()));
+
+        CompiledThreadGroup tg = compiled.threadGroups.get(0);
+        assertEquals(tg.settings.numThreads, 5);
+        assertEquals(tg.settings.executorType, ThreadGroupData.ExecutorType.VIRTUAL);
+        assertEquals(compiled.totalUsers, 5);
+        assertEquals(tg.samplers.size(), 1);
+        CompiledSampler sampler = tg.samplers.get(0);
+        assertEquals(sampler.request.getUrl(), "https://example.com/api");
+        assertEquals(sampler.timerDelayMs, 300);
+        assertNull(sampler.prescript);
+        assertEquals(sampler.postscript, "pm.test('ok', function () {});");
+    }
+
+    @Test(description = "传输协议设置：h2c 限定协议列表，限制每连接流数时按用户数划分连接池")
+    public void testTransport() {
+        PerformancePlan plan = createPlan();
+        ThreadGroupData settings = plan.threadGroups.get(0).settings;
+        CompiledSampler alpn = ExecutionPlan.compile(plan).threadGroups.get(0).samplers.get(0);
+        assertNull(alpn.protocols);
+        assertEquals(alpn.connectionLanes, 1);
+
+        settings.transport = ThreadGroupData.Transport.H2C;
+        settings.maxStreamsPerConnection = 2;
+        CompiledSampler h2c = ExecutionPlan.compile(plan).threadGroups.get(0).samplers.get(0);
+        assertEquals(h2c.protocols, List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+        assertEquals(h2c.connectionLanes, 3);
+
+        // 用户很多时连接池数量有上限
+        settings.numThreads = 10_000;
+        CompiledSampler many = ExecutionPlan.compile(plan).threadGroups.get(0).samplers.get(0);
+        assertEquals(many.connectionLanes, ExecutionPlan.MAX_CONNECTION_LANES);
+
+        // HTTP/1.1 每个连接同时只有一个请求，不划分连接池
+        settings.transport = ThreadGroupData.Transport.HTTP_1_1;
+        CompiledSampler http1 = ExecutionPlan.compile(plan).threadGroups.get(0).samplers.get(0);
+        assertEquals(http1.protocols, List.of(Protocol.HTTP_1_1));
+        assertEquals(http1.connectionLanes, 1);
+    }
+
+    @Test(description = "响应码断言预解析运算符和期望值")
+    public void testResponseCodeAssertion() {
+        CompiledAssertion eq = compileAssertion("Response Code", "=", "200", "");
+        CompiledAssertion gt = compileAssertion("Response Code", ">", "399", "");
+        CompiledAssertion invalid = compileAssertion("Response Code", "=", "abc", "");
+        assertTrue(eq.test(response(200, "")));
+        assertFalse(eq.test(response(500, "")));
+        assertTrue(gt.test(response(404, "")));
+        assertFalse(gt.test(response(200, "")));
+        assertFalse(invalid.test(response(200, "")));
+        assertEquals(eq.getType(), "Response Code");
+    }
+
+    @Test(description = "包含与JSONPath断言")
+    public void testBodyAssertions() {
+        CompiledAssertion contains = compileAssertion("Contains", "=", "", "success");
+        CompiledAssertion jsonPath = compileAssertion("JSONPath", "=", "$.data.id", "42");
+        HttpResponse ok = response(200, "{\"status\":\"success\",\"data\":{\"id\":42}}");
+        assertTrue(contains.test(ok));
+        assertTrue(jsonPath.test(ok));
+        HttpResponse bad = response(200, "{\"status\":\"fail\",\"data\":{\"id\":7}}");
+        assertFalse(contains.test(bad));
+        assertFalse(jsonPath.test(bad));
+        assertNotNull(contains.getFailureMessage());
+    }
+
+    @Test(description = "只有响应码或流式断言时丢弃响应体，存在后置脚本时按需解码")
+    public void testBodyPolicy() {
+        PerformancePlan plan = createPlan();
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("codeOnly");
+        item.setUrl("https://example.com/code");
+        RequestPlan codeOnly = new RequestPlan("codeOnly", item);
+        AssertionData code = new AssertionData();
+        code.type = AssertionCompiler.RESPONSE_CODE;
+        code.operator = "=";
+        code.value = "200";
+        codeOnly.assertions.add(new AssertionPlan("Assertion", code));
+        AssertionData contains = new AssertionData();
+        contains.type = AssertionCompiler.CONTAINS;
+        contains.content = "ok";
+        codeOnly.assertions.add(new AssertionPlan("Assertion", contains));
+        plan.threadGroups.get(0).requests.add(codeOnly);
+
+        ExecutionPlan compiled = ExecutionPlan.compile(plan);
+        assertEquals(compiled.threadGroups.get(0).samplers.get(0).bodyPolicy, ResponseBodyPolicy.LAZY);
+        assertEquals(compiled.threadGroups.get(0).samplers.get(1).bodyPolicy, ResponseBodyPolicy.DISCARD);
+    }
+
+    private static PerformancePlan createPlan() {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.FIXED;
+        settings.numThreads = 5;
+        settings.executorType = ThreadGroupData.ExecutorType.VIRTUAL;
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("api");
+        item.setUrl("https://example.com/api");
+        item.setPrescript("  ");
+        item.setPostscript("pm.test('ok', function () {});");
+        RequestPlan request = new RequestPlan("api", item);
+        TimerData t1 = new TimerData();
+        t1.delayMs = 100;
+        TimerData t2 = new TimerData();
+        t2.delayMs = 200;
+        request.timers.add(new TimerPlan("Timer", t1));
+        request.timers.add(new TimerPlan("Timer", t2));
+        request.assertions.add(new AssertionPlan("Assertion", new AssertionData()));
+        ThreadGroupPlan group = new ThreadGroupPlan("group", settings);
+        group.requests.add(request);
+        PerformancePlan plan = new PerformancePlan("plan");
+        plan.threadGroups.add(group);
+        return plan;
+    }
+
+    private static CompiledAssertion compileAssertion(String type, String operator, String value, String content) {
+        AssertionData data = new AssertionData();
+        data.type = type;
+        data.operator = operator;
+        data.value = value;
+        data.content = content;
+        return AssertionCompiler.compile(data);
+    }
+
+    private static HttpResponse response(int code, String body) {
+        HttpResponse resp = new HttpResponse();
+        resp.code = code;
+        resp.body = body;
+        return resp;
+    }
+}
@@ -0,0 +1,235 @@
+package com.laker.postman.service.performance.journal;
+
+import com.laker.postman.model.HttpResponse;
+import com.laker.postman.service.performance.engine.SampleResult;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import com.laker.postman.service.performance.metrics.SecondMetrics;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.testng.Assert.*;
+
+/**
+ * 样本日志写入与扫描测试
+ */
+public class SampleJournalTest {
+    private File dir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal-test").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        delete(dir);
+    }
+
+    @Test(description = "跨分段写入后按顺序读回全部字段")
+    public void testRoundTripAcrossSegments() throws IOException {
+        SampleJournal journal = new SampleJournal(dir, 4);
+        for (int i = 0; i < 10; i++) {
+            journal.append(i % 2 == 0 ? "login" : "query", 1_000_000L + i, 1000L * (i + 1), 10 + i, 200, true, JournalRecord.ERROR_NONE);
+        }
+        journal.close();
+        assertEquals(journal.getWrittenCount(), 10);
+
+        SampleJournalReader reader = SampleJournalReader.open(dir);
+        assertEquals(reader.getSegmentCount(), 3);
+        assertTrue(reader.isClosedCleanly());
+        List<Long> ends = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        long count = reader.forEach(r -> {
+            ends.add(r.endMillis);
+            names.add(reader.getApiName(r.apiId));
+            assertEquals(r.latencyMicros, 1000L * (r.endMillis - 1_000_000L + 1));
+            assertEquals(r.bytes, 10 + r.endMillis - 1_000_000L);
+            assertEquals(r.status, 200);
+            assertTrue(r.success);
+        });
+        assertEquals(count, 10);
+        assertEquals(ends.get(0).longValue(), 1_000_000L);
+        assertEquals(ends.get(9).longValue(), 1_000_009L);
+        assertEquals(names.get(0), "login");
+        assertEquals(names.get(1), "query");
+    }
+
+    @Test(description = "分段文件按窗口逐步扩展，不预先占满整段，跨窗口的记录完整读回")
+    public void testSegmentGrowsByWindow() throws IOException {
+        SampleJournal journal = new SampleJournal(dir);
+        int total = SampleJournal.WINDOW_RECORDS + 10;
+        for (int i = 0; i < total; i++) {
+            journal.append("api", 1_000_000L + i, 1000, 10, 200, true, JournalRecord.ERROR_NONE);
+        }
+        journal.close();
+
+        File segment = new File(dir, SampleJournal.segmentFileName(0));
+        assertEquals(segment.length(), SampleJournal.HEADER_SIZE + 2L * SampleJournal.WINDOW_RECORDS * SampleJournal.RECORD_SIZE);
+        SampleJournalReader reader = SampleJournalReader.open(dir);
+        assertTrue(reader.isClosedCleanly());
+        assertEquals(reader.forEach(r -> {
+        }), total);
+        assertEquals(reader.getTimeRange()[1], 1_000_000L + total - 1);
+    }
+
+    @Test(description = "根据采样结果推导响应码和错误码")
+    public void testErrorCodes() throws IOException {
+        SampleJournal journal = new SampleJournal(dir, 16);
+        journal.append(sample(true, 200));
+        journal.append(sample(false, 0));
+        journal.append(sample(false, 503));
+        journal.append(sample(false, 200));
+        journal.close();
+
+        List<Byte> errors = new ArrayList<>();
+        List<Integer> statuses = new ArrayList<>();
+        SampleJournalReader.open(dir).forEach(r -> {
+            errors.add(r.errorCode);
+            statuses.add(r.status);
+        });
+        assertEquals(errors, List.of(JournalRecord.ERROR_NONE, JournalRecord.ERROR_NO_RESPONSE,
+                JournalRecord.ERROR_HTTP_STATUS, JournalRecord.ERROR_ASSERTION));
+        assertEquals(statuses, List.of(200, 0, 503, 200));
+    }
+
+    @Test(description = "扫描日志重建汇总统计和按秒趋势")
+    public void testMetricsAndTrend() throws IOException {
+        SampleJournal journal = new SampleJournal(dir, 8);
+        journal.append("api", 5_000L, 2_000, 100, 200, true, JournalRecord.ERROR_NONE);
+        journal.append("api", 5_500L, 4_000, 100, 500, false, JournalRecord.ERROR_HTTP_STATUS);
+        journal.append("api", 6_100L, 3_000, 50, 200, true, JournalRecord.ERROR_NONE);
+        journal.close();
+
+        SampleJournalReader reader = SampleJournalReader.open(dir);
+        PerformanceMetrics metrics = reader.toMetrics();
+        assertEquals(metrics.getTotalCount(), 3);
+        assertEquals(metrics.getSuccessCount(), 2);
+        assertEquals(metrics.getApi("api").getFailCount(), 1);
+
+        List<SecondMetrics> seconds = reader.perSecond();
+        assertEquals(seconds.size(), 2);
+        assertEquals(seconds.get(0).epochSecond, 5);
+        assertEquals(seconds.get(0).requests, 2);
+        assertEquals(seconds.get(0).errors, 1);
+        assertEquals(seconds.get(0).maxLatencyMicros, 4_000);
+        assertEquals(seconds.get(0).bytes, 200);
+        assertEquals(seconds.get(1).requests, 1);
+    }
+
+    @Test(description = "未关闭的日志也能读到已写入的记录")
+    public void testReadWithoutClose() throws Exception {
+        SampleJournal journal = new SampleJournal(dir, 16);
+        journal.append("api", 1_000L, 1_000, 0, 200, true, JournalRecord.ERROR_NONE);
+        journal.append("api", 2_000L, 1_000, 0, 200, true, JournalRecord.ERROR_NONE);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (journal.getWrittenCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        SampleJournalReader reader = SampleJournalReader.open(dir);
+        assertFalse(reader.isClosedCleanly());
+        assertEquals(reader.forEach(r -> {
+        }), 2);
+        journal.close();
+    }
+
+    @Test(description = "多线程并发写入不丢失样本")
+    public void testConcurrentAppend() throws Exception {
+        SampleJournal journal = new SampleJournal(dir, 10_000);
+        int threads = 4;
+        int perThread = 50_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            String api = "api-" + t;
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    journal.append(api, 1_000L + i, 100, 1, 200, true, JournalRecord.ERROR_NONE);
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        journal.close();
+        assertEquals(journal.getWrittenCount(), (long) threads * perThread);
+        SampleJournalReader reader = SampleJournalReader.open(dir);
+        PerformanceMetrics metrics = reader.toMetrics();
+        assertEquals(metrics.getTotalCount(), (long) threads * perThread);
+        assertEquals(metrics.getApi("api-3").getTotalCount(), perThread);
+    }
+
+    @Test(description = "写入过程中关闭日志，每个样本要么写入要么计入丢弃")
+    public void testCloseWhileAppending() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            File runDir = new File(dir, "run-" + round);
+            SampleJournal journal = new SampleJournal(runDir, 10_000);
+            int threads = 4;
+            long[] appended = new long[threads];
+            CountDownLatch started = new CountDownLatch(threads);
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int index = t;
+                Thread producer = new Thread(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 20_000; i++) {
+                        journal.append("api", 1_000L + i, 100, 1, 200, true, JournalRecord.ERROR_NONE);
+                        appended[index]++;
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            started.await();
+            journal.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            long total = 0;
+            for (long n : appended) total += n;
+            assertEquals(journal.getWrittenCount() + journal.getDroppedCount(), total);
+            assertEquals(SampleJournalReader.open(runDir).toMetrics().getTotalCount(), journal.getWrittenCount());
+        }
+    }
+
+    @Test(description = "只保留最近几次运行的日志目录")
+    public void testNewRunDirectory() {
+        for (String name : List.of("run-1", "run-2", "run-3")) {
+            assertTrue(new File(dir, name).mkdirs());
+        }
+        File next = SampleJournal.newRunDirectory(dir, "run-4", 2);
+        assertEquals(next, new File(dir, "run-4"));
+        assertFalse(new File(dir, "run-1").exists());
+        assertFalse(new File(dir, "run-2").exists());
+        assertTrue(new File(dir, "run-3").exists());
+    }
+
+    private static SampleResult sample(boolean success, int code) {
+        SampleResult result = new SampleResult();
+        result.name = "api";
+        result.success = success;
+        result.endTime = 1_000L;
+        result.latencyMicros = 500;
+        if (code > 0) {
+            HttpResponse resp = new HttpResponse();
+            resp.code = code;
+            result.resp = resp;
+        }
+        return result;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
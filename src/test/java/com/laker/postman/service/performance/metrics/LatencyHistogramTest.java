@@ -0,0 +1,107 @@
+package com.laker.postman.service.performance.metrics;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+/**
+ * 延迟直方图测试
+ */
+public class LatencyHistogramTest {
+
+    @Test(description = "桶下标与上下界一致")
+    public void testBucketBounds() {
+        long[] values = {0, 1, 255, 256, 257, 511, 512, 1000, 123_456, 9_999_999, LatencyHistogram.MAX_TRACKABLE_MICROS};
+        for (long v : values) {
+            int idx = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.lowestEquivalentValue(idx) <= v, "lowest > " + v);
+            assertTrue(LatencyHistogram.highestEquivalentValue(idx) >= v, "highest < " + v);
+        }
+        // 相邻桶首尾相接
+        for (int i = 0; i < LatencyHistogram.indexOf(LatencyHistogram.MAX_TRACKABLE_MICROS); i++) {
+            assertEquals(LatencyHistogram.lowestEquivalentValue(i + 1), LatencyHistogram.highestEquivalentValue(i) + 1);
+        }
+    }
+
+    @Test(description = "百分位误差在精度范围内")
+    public void testPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            h.recordMicros(i * 100L); // 0.1ms ~ 1000ms
+        }
+        assertEquals(h.getTotalCount(), 10_000);
+        assertEquals(h.getMinMicros(), 100);
+        assertEquals(h.getMaxMicros(), 1_000_000);
+        assertEquals(h.getMeanMicros(), 500_050.0, 0.001);
+        assertWithinPrecision(h.getValueAtPercentile(50), 500_000);
+        assertWithinPrecision(h.getValueAtPercentile(90), 900_000);
+        assertWithinPrecision(h.getValueAtPercentile(99), 990_000);
+        assertWithinPrecision(h.getValueAtPercentile(99.9), 999_000);
+        assertEquals(h.getValueAtPercentile(100), 1_000_000);
+    }
+
+    @Test(description = "空直方图返回0")
+    public void testEmpty() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(h.getValueAtPercentile(99), 0);
+        assertEquals(h.getMinMicros(), 0);
+        assertEquals(h.getMeanMicros(), 0.0);
+    }
+
+    @Test(description = "合并直方图与直接记录结果一致")
+    public void testMerge() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        for (int i = 0; i < 5000; i++) {
+            long v = (i * 7919L) % 200_000;
+            (i % 2 == 0 ? a : b).recordMicros(v);
+            all.recordMicros(v);
+        }
+        LatencyHistogram merged = a.copy();
+        merged.add(b);
+        assertEquals(merged.getTotalCount(), all.getTotalCount());
+        assertEquals(merged.getMinMicros(), all.getMinMicros());
+        assertEquals(merged.getMaxMicros(), all.getMaxMicros());
+        for (double p : new double[]{50, 75, 90, 95, 99, 99.9}) {
+            assertEquals(merged.getValueAtPercentile(p), all.getValueAtPercentile(p));
+        }
+    }
+
+    @Test(description = "多线程分片写入后快照计数准确")
+    public void testStripedConcurrentRecord() throws Exception {
+        StripedLatencyHistogram striped = new StripedLatencyHistogram();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    striped.recordMicros(i);
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        LatencyHistogram snapshot = striped.snapshot();
+        assertEquals(snapshot.getTotalCount(), 80_000);
+        assertEquals(snapshot.getMinMicros(), 1);
+        assertEquals(snapshot.getMaxMicros(), 10_000);
+        assertWithinPrecision(snapshot.getValueAtPercentile(50), 5_000);
+    }
+
+    private static void assertWithinPrecision(long actual, long expected) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error <= 1.0 / 128, "actual=" + actual + ", expected=" + expected);
+    }
+}
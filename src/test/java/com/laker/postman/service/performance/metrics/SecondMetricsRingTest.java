@@ -0,0 +1,54 @@
+package com.laker.postman.service.performance.metrics;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * 按秒环形统计测试
+ */
+public class SecondMetricsRingTest {
+
+    @Test(description = "同一秒内的样本累加到同一个桶")
+    public void testRecordSameSecond() {
+        SecondMetricsRing ring = new SecondMetricsRing(8);
+        ring.record(10_100, 1000, true, 100);
+        ring.record(10_500, 3000, false, 200);
+        ring.record(10_999, 2000, true, 0);
+
+        SecondMetrics m = ring.get(10);
+        assertEquals(m.requests, 3);
+        assertEquals(m.errors, 1);
+        assertEquals(m.minLatencyMicros, 1000);
+        assertEquals(m.maxLatencyMicros, 3000);
+        assertEquals(m.bytes, 300);
+        assertEquals(m.getAvgLatencyMillis(), 2.0, 0.0001);
+        assertEquals(ring.lastCompleteSecond(11_200).requests, 3);
+    }
+
+    @Test(description = "环形覆盖后旧秒数据失效，过旧样本被丢弃")
+    public void testWrapAround() {
+        SecondMetricsRing ring = new SecondMetricsRing(8);
+        ring.record(1_000, 10, true, 0);
+        ring.record(9_000, 20, true, 0); // 与第1秒落在同一个桶
+        assertEquals(ring.get(1).requests, 0);
+        assertEquals(ring.get(9).requests, 1);
+
+        ring.record(1_500, 10, true, 0);
+        assertEquals(ring.getDroppedCount(), 1);
+        assertEquals(ring.get(9).requests, 1);
+    }
+
+    @Test(description = "合并同一秒的统计")
+    public void testMerge() {
+        SecondMetrics a = new SecondMetrics(5, 2, 1, 300, 100, 200, 10);
+        SecondMetrics b = new SecondMetrics(5, 3, 0, 900, 50, 400, 20);
+        SecondMetrics merged = a.merge(b);
+        assertEquals(merged.requests, 5);
+        assertEquals(merged.errors, 1);
+        assertEquals(merged.minLatencyMicros, 50);
+        assertEquals(merged.maxLatencyMicros, 400);
+        assertEquals(merged.bytes, 30);
+        assertSame(a.merge(SecondMetrics.empty(5)), a);
+    }
+}
@@ -0,0 +1,79 @@
+package com.laker.postman.service.performance.plan;
+
+import com.laker.postman.model.HttpRequestItem;
+import com.laker.postman.panel.performance.assertion.AssertionData;
+import com.laker.postman.panel.performance.threadgroup.ThreadGroupData;
+import com.laker.postman.panel.performance.timer.TimerData;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * 压测计划 JSON 读写测试
+ */
+public class PerformancePlanCodecTest {
+
+    @Test(description = "保存后加载，线程组、请求、断言和定时器保持不变")
+    public void testRoundTrip() {
+        ThreadGroupData settings = new ThreadGroupData();
+        settings.threadMode = ThreadGroupData.ThreadMode.ARRIVAL_RATE;
+        settings.executorType = ThreadGroupData.ExecutorType.VIRTUAL;
+        settings.transport = ThreadGroupData.Transport.H2C;
+        settings.maxStreamsPerConnection = 100;
+        settings.cookieMode = ThreadGroupData.CookieMode.GLOBAL;
+        settings.arrivalTargetRate = 120;
+        settings.arrivalMaxUsers = 800;
+
+        HttpRequestItem item = new HttpRequestItem();
+        item.setName("查询订单");
+        item.setMethod("POST");
+        item.setUrl("https://example.com/orders/{{id}}");
+
+        AssertionData assertion = new AssertionData();
+        assertion.type = "JSONPath";
+        assertion.value = "$.code";
+        assertion.content = "0";
+        TimerData timer = new TimerData();
+        timer.delayMs = 250;
+
+        RequestPlan request = new RequestPlan("查询订单", item);
+        request.assertions.add(new AssertionPlan("Assertion", assertion));
+        request.timers.add(new TimerPlan("Timer", timer));
+        ThreadGroupPlan group = new ThreadGroupPlan("订单组", settings);
+        group.requests.add(request);
+        PerformancePlan plan = new PerformancePlan("订单压测");
+        plan.threadGroups.add(group);
+
+        PerformancePlan loaded = PerformancePlanCodec.fromJson(PerformancePlanCodec.toJson(plan));
+
+        assertEquals(loaded.name, "订单压测");
+        assertEquals(loaded.threadGroups.size(), 1);
+        ThreadGroupPlan g = loaded.threadGroups.get(0);
+        assertEquals(g.name, "订单组");
+        assertEquals(g.settings.threadMode, ThreadGroupData.ThreadMode.ARRIVAL_RATE);
+        assertEquals(g.settings.executorType, ThreadGroupData.ExecutorType.VIRTUAL);
+        assertEquals(g.settings.transport, ThreadGroupData.Transport.H2C);
+        assertEquals(g.settings.maxStreamsPerConnection, 100);
+        assertEquals(g.settings.cookieMode, ThreadGroupData.CookieMode.GLOBAL);
+        assertEquals(g.settings.arrivalTargetRate, 120);
+        assertEquals(g.getMaxUsers(), 800);
+        RequestPlan r = g.requests.get(0);
+        assertEquals(r.request.getMethod(), "POST");
+        assertEquals(r.request.getUrl(), "https://example.com/orders/{{id}}");
+        assertEquals(r.assertions.get(0).data.type, "JSONPath");
+        assertEquals(r.assertions.get(0).data.value, "$.code");
+        assertEquals(r.timers.get(0).data.delayMs, 250);
+        assertEquals(loaded.getTotalUsers(), 800);
+    }
+
+    @Test(description = "缺省的线程组配置使用默认值")
+    public void testMissingSettings() {
+        PerformancePlan plan = PerformancePlanCodec.fromJson("{\"name\":\"p\",\"threadGroups\":[{\"name\":\"g\"}]}");
+        ThreadGroupPlan g = plan.threadGroups.get(0);
+        assertNotNull(g.settings);
+        assertEquals(g.settings.threadMode, ThreadGroupData.ThreadMode.FIXED);
+        assertEquals(g.settings.transport, ThreadGroupData.Transport.HTTP_2);
+        assertEquals(g.settings.cookieMode, ThreadGroupData.CookieMode.GLOBAL);
+        assertTrue(g.requests.isEmpty());
+    }
+}
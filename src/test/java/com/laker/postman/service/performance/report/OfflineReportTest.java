@@ -0,0 +1,123 @@
+package com.laker.postman.service.performance.report;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.laker.postman.service.performance.journal.JournalRecord;
+import com.laker.postman.service.performance.journal.SampleJournal;
+import com.laker.postman.service.performance.journal.SampleJournalReader;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.testng.Assert.*;
+
+/**
+ * 离线报告生成测试
+ */
+public class OfflineReportTest {
+    private static final long START = 1_700_000_000_000L;
+    private File dir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("report-test").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        delete(dir);
+    }
+
+    @Test(description = "并行扫描与单线程扫描结果一致，按接口统计百分位与错误分布")
+    public void testParallelMatchesSequential() throws IOException {
+        File journalDir = new File(dir, "journal");
+        SampleJournal journal = new SampleJournal(journalDir, 1000);
+        for (int i = 0; i < 10_000; i++) {
+            boolean fail = i % 100 == 0;
+            String api = i % 2 == 0 ? "login" : "query";
+            journal.append(api, START + i, (i % 1000 + 1) * 100L, 10, fail ? 500 : 200, !fail,
+                    fail ? JournalRecord.ERROR_HTTP_STATUS : JournalRecord.ERROR_NONE);
+        }
+        journal.close();
+
+        SampleJournalReader reader = SampleJournalReader.open(journalDir);
+        OfflineReport sequential = OfflineReport.build(reader, 1);
+        OfflineReport parallel = OfflineReport.build(reader, 4);
+        assertEquals(parallel.getTotalCount(), 10_000);
+        assertEquals(parallel.rows.size(), 3);
+        for (int i = 0; i < parallel.rows.size(); i++) {
+            PerformanceSummary.Row a = sequential.rows.get(i);
+            PerformanceSummary.Row b = parallel.rows.get(i);
+            assertEquals(b.name, a.name);
+            assertEquals(b.total, a.total);
+            assertEquals(b.fail, a.fail);
+            assertEquals(b.p99Ms, a.p99Ms);
+        }
+        PerformanceSummary.Row login = parallel.rows.get(0);
+        assertEquals(login.name, "login");
+        assertEquals(login.total, 5000);
+        assertEquals(login.fail, 100);
+        assertEquals(parallel.rows.get(2).name, PerformanceSummary.TOTAL);
+
+        assertEquals(parallel.errors.size(), 1);
+        assertEquals(parallel.errors.get(0).api, "login");
+        assertEquals(parallel.errors.get(0).status, 500);
+        assertEquals(parallel.errors.get(0).error, "HTTP_STATUS");
+        assertEquals(parallel.errors.get(0).count, 100);
+
+        long timelineTotal = parallel.timeline.stream().mapToLong(r -> r.requests).sum();
+        long distributionTotal = parallel.distribution.stream().mapToLong(r -> r.count).sum();
+        assertEquals(timelineTotal, 10_000);
+        assertEquals(distributionTotal, 10_000);
+        assertEquals(parallel.intervalMillis, 1000);
+    }
+
+    @Test(description = "长时间压测的趋势按时间段合并，时间段数不超过上限")
+    public void testIntervalsAreCapped() throws IOException {
+        File journalDir = new File(dir, "journal");
+        SampleJournal journal = new SampleJournal(journalDir, 1000);
+        // 两小时，每 10 秒一个样本
+        for (int i = 0; i < 720; i++) {
+            journal.append("api", START + i * 10_000L, 1000, 0, 200, true, JournalRecord.ERROR_NONE);
+        }
+        journal.close();
+
+        OfflineReport report = OfflineReport.build(journalDir);
+        assertTrue(report.intervalMillis > 1000);
+        assertTrue(report.timeline.size() <= OfflineReport.MAX_INTERVALS + 1);
+        assertEquals(report.timeline.stream().mapToLong(r -> r.requests).sum(), 720);
+    }
+
+    @Test(description = "写出自包含的 HTML 与 JSON 报告")
+    public void testWrite() throws IOException {
+        File journalDir = new File(dir, "journal");
+        SampleJournal journal = new SampleJournal(journalDir, 100);
+        journal.append("<api>", START, 2000, 10, 0, false, JournalRecord.ERROR_NO_RESPONSE);
+        journal.append("<api>", START + 10, 3000, 10, 200, true, JournalRecord.ERROR_NONE);
+        journal.close();
+
+        File out = new File(dir, "report");
+        OfflineReport.build(journalDir).write(out);
+        String html = Files.readString(new File(out, OfflineReport.HTML_FILE).toPath());
+        assertTrue(html.contains("&lt;api&gt;"));
+        assertFalse(html.contains("<script"));
+        assertTrue(html.contains("<svg"));
+        JSONObject json = JSONUtil.parseObj(Files.readString(new File(out, OfflineReport.JSON_FILE).toPath()));
+        assertEquals(json.getJSONArray("apis").size(), 2);
+        assertEquals(json.getJSONArray("errors").getJSONObject(0).getStr("error"), "NO_RESPONSE");
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,39 @@
+package com.laker.postman.service.performance.report;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.laker.postman.service.performance.metrics.JsContextUsage;
+import com.laker.postman.service.performance.metrics.PerformanceMetrics;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * 压测汇总输出测试
+ */
+public class PerformanceSummaryTest {
+
+    @Test(description = "脚本上下文池使用情况写入文本和 JSON 汇总，没有执行脚本时省略")
+    public void testJsContextUsage() {
+        PerformanceMetrics metrics = new PerformanceMetrics();
+        metrics.record("home", 1_000, 1_100, 100_000, true, 10);
+        PerformanceSummary none = PerformanceSummary.of("plan", 1000, metrics);
+        assertNull(none.jsContexts);
+        assertFalse(none.toText().contains("JS contexts"));
+        assertFalse(JSONUtil.parseObj(none.toJson()).containsKey("jsContexts"));
+
+        metrics.setJsContextUsage(new JsContextUsage(4, 96, 100, 4, 4));
+        PerformanceSummary summary = PerformanceSummary.of("plan", 1000, metrics);
+        assertTrue(summary.toText().contains("JS contexts: created 4, reused 96 (96.00%), peak in use 4, idle at end 4"),
+                summary.toText());
+        JSONObject js = JSONUtil.parseObj(summary.toJson()).getJSONObject("jsContexts");
+        assertEquals(js.getLong("created"), Long.valueOf(4));
+        assertEquals(js.getLong("reused"), Long.valueOf(96));
+        assertEquals(js.getInt("peakInUse"), Integer.valueOf(4));
+        assertEquals(js.getInt("idle"), Integer.valueOf(4));
+        assertEquals(js.getDouble("reuseRate"), 96.0, 0.001);
+
+        metrics.clear();
+        assertNull(metrics.getJsContextUsage());
+    }
+}
@@ -0,0 +1,76 @@
+package com.laker.postman.util;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.testng.Assert.*;
+
+/**
+ * 有界环形缓冲区测试
+ */
+public class BoundedRingBufferTest {
+
+    @Test(description = "未满时按写入顺序取出")
+    public void testDrainInOrder() {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(4);
+        assertTrue(buffer.offer(1));
+        assertTrue(buffer.offer(2));
+        assertTrue(buffer.offer(3));
+        List<Integer> out = new ArrayList<>();
+        assertEquals(buffer.drainTo(out), 0);
+        assertEquals(out, List.of(1, 2, 3));
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test(description = "已满时覆盖最早元素并累计丢弃数，取出后丢弃数清零")
+    public void testOverwriteOldest() {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(3);
+        for (int i = 1; i <= 7; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> out = new ArrayList<>();
+        assertEquals(buffer.drainTo(out), 4);
+        assertEquals(out, List.of(5, 6, 7));
+
+        buffer.offer(8);
+        out.clear();
+        assertEquals(buffer.drainTo(out), 0);
+        assertEquals(out, List.of(8));
+    }
+
+    @Test(description = "多线程写入时取出数加丢弃数等于写入总数")
+    public void testConcurrentOffer() throws InterruptedException {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(100);
+        int threads = 4;
+        int perThread = 10_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    buffer.offer(i);
+                }
+                done.countDown();
+            }).start();
+        }
+        long drained = 0;
+        long dropped = 0;
+        List<Integer> out = new ArrayList<>();
+        while (done.getCount() > 0) {
+            dropped += buffer.drainTo(out);
+            drained += out.size();
+            out.clear();
+        }
+        done.await();
+        dropped += buffer.drainTo(out);
+        drained += out.size();
+        assertEquals(drained + dropped, (long) threads * perThread);
+    }
+
+    @Test(description = "容量必须为正数", expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new BoundedRingBuffer<Integer>(0);
+    }
+}
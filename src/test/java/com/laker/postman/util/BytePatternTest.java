@@ -0,0 +1,78 @@
+package com.laker.postman.util;
+
+import org.testng.annotations.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+/**
+ * 字节子串匹配测试
+ */
+public class BytePatternTest {
+    private static final String TEXT = "{\"code\":0,\"msg\":\"成功 success\",\"data\":[1,2,3],\"end\":\"abcabcabd\"}";
+
+    @Test(description = "整体查找结果与 String.indexOf 一致")
+    public void testIndexOf() {
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        String[] needles = {"code", "成功", "abcabd", "\"end\"", "}", "{", "missing", "abcabcabd\"}x"};
+        for (String needle : needles) {
+            BytePattern pattern = BytePattern.compile(needle);
+            int expected = indexOfBytes(bytes, needle.getBytes(StandardCharsets.UTF_8));
+            assertEquals(pattern.indexOf(bytes, 0, bytes.length), expected, needle);
+        }
+        assertEquals(BytePattern.compile("").indexOf(bytes, 3, bytes.length), 3);
+    }
+
+    @Test(description = "任意分块位置下流式匹配结果与 String.contains 一致")
+    public void testStreamingSplits() {
+        String[] needles = {"success", "成功", "abcabd", "c", "\"data\":[1,2,3]", "missing", "成功 succesx", ""};
+        for (String needle : needles) {
+            for (Charset charset : new Charset[]{StandardCharsets.UTF_8, Charset.forName("GBK")}) {
+                byte[] bytes = TEXT.getBytes(charset);
+                boolean expected = TEXT.contains(needle);
+                for (int a = 0; a <= bytes.length; a++) {
+                    for (int b = a; b <= bytes.length; b += 7) {
+                        BytePattern.Matcher matcher = BytePattern.compile(needle).newMatcher();
+                        matcher.start(charset);
+                        feed(matcher, bytes, 0, a);
+                        feed(matcher, bytes, a, b);
+                        feed(matcher, bytes, b, bytes.length);
+                        matcher.end();
+                        assertTrue(matcher.isResolved());
+                        assertEquals(matcher.isFound(), expected, needle + " @" + a + "/" + b + " " + charset);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(description = "逐字节推送也能找到跨块的匹配")
+    public void testSingleBytes() {
+        byte[] bytes = TEXT.getBytes(StandardCharsets.ISO_8859_1);
+        BytePattern.Matcher matcher = BytePattern.compile("abcabd").newMatcher();
+        matcher.start(StandardCharsets.ISO_8859_1);
+        for (int i = 0; i < bytes.length && !matcher.isResolved(); i++) {
+            matcher.update(bytes, i, 1);
+        }
+        assertTrue(matcher.isFound());
+    }
+
+    private static void feed(StreamingMatcher matcher, byte[] bytes, int from, int to) {
+        if (!matcher.isResolved()) {
+            matcher.update(bytes, from, to - from);
+        }
+    }
+
+    private static int indexOfBytes(byte[] text, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= text.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (text[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,149 @@
+package com.laker.postman.util;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+/**
+ * 预编译 JSONPath 测试
+ */
+public class CompiledJsonPathTest {
+    private static final String STORE = "{\"store\":{\"book\":["
+            + "{\"category\":\"reference\",\"author\":\"Nigel Rees\",\"title\":\"Sayings\",\"price\":8.95},"
+            + "{\"category\":\"fiction\",\"author\":\"Evelyn Waugh\",\"title\":\"Sword\",\"price\":12.99},"
+            + "{\"category\":\"fiction\",\"author\":\"Herman Melville\",\"title\":\"Moby Dick\",\"isbn\":\"0-553\",\"price\":8.99},"
+            + "{\"category\":\"fiction\",\"author\":\"J. R. R. Tolkien\",\"title\":\"The Lord\",\"isbn\":\"0-395\",\"price\":22.99}],"
+            + "\"bicycle\":{\"color\":\"red\",\"price\":19.95}},\"expensive\":10,\"a.b\":\"dotted\"}";
+
+    @Test(description = "简单路径的结果与原实现一致")
+    public void testLegacyPaths() {
+        String body = "{\"code\":0,\"data\":{\"id\":42,\"tags\":[\"a\",\"b\"],\"price\":1.50,\"none\":null,\"obj\":{\"k\":1}}}";
+        String[] paths = {"$.code", "code", "$.data.id", "$.data.tags", "$.data.tags[1]", "$.data.tags[2]",
+                "$.data.price", "$.data.none", "$.data.obj", "data.tags[0]", "$.data.missing", "$.code.x",
+                "$.data.tags[x]", "$.", "$.data[0]"};
+        for (String path : paths) {
+            assertEquals(JsonPathUtil.extractJsonPath(body, path), legacyExtract(body, path), path);
+        }
+        assertNull(JsonPathUtil.extractJsonPath("not json", "$.code"));
+        assertNull(JsonPathUtil.extractJsonPath("[1,2]", "$.code"));
+    }
+
+    @Test(description = "通配符、递归下降、联合与切片")
+    public void testIndefinitePaths() {
+        assertEquals(read("$.store.book[*].author"),
+                "[\"Nigel Rees\",\"Evelyn Waugh\",\"Herman Melville\",\"J. R. R. Tolkien\"]");
+        assertEquals(read("$..price"), "[8.95,12.99,8.99,22.99,19.95]");
+        assertEquals(read("$.store.*.color"), "[\"red\"]");
+        assertEquals(read("$..book[-1].title"), "[\"The Lord\"]");
+        assertEquals(read("$.store.book[0,2].title"), "[\"Sayings\",\"Moby Dick\"]");
+        assertEquals(read("$.store.book[1:3].title"), "[\"Sword\",\"Moby Dick\"]");
+        assertEquals(read("$.store.book[::-2].title"), "[\"The Lord\",\"Sword\"]");
+        assertEquals(read("$.store.book[-2:].price"), "[8.99,22.99]");
+        assertEquals(read("$.store.bicycle['color','price']"), "[\"red\",19.95]");
+        assertEquals(read("$..nothing"), "[]");
+        assertEquals(read("$['a.b']"), "dotted");
+        assertEquals(read("$.store.book[-1].author"), "J. R. R. Tolkien");
+    }
+
+    @Test(description = "过滤表达式")
+    public void testFilters() {
+        assertEquals(read("$.store.book[?(@.price < 10)].title"), "[\"Sayings\",\"Moby Dick\"]");
+        assertEquals(read("$.store.book[?(@.isbn)].title"), "[\"Moby Dick\",\"The Lord\"]");
+        assertEquals(read("$.store.book[?(!@.isbn)].title"), "[\"Sayings\",\"Sword\"]");
+        assertEquals(read("$.store.book[?(@.category == 'fiction' && @.price > $.expensive)].title"),
+                "[\"Sword\",\"The Lord\"]");
+        assertEquals(read("$.store.book[?(@.price >= 22.99 || @.author == \"Nigel Rees\")].price"), "[8.95,22.99]");
+        assertEquals(read("$.store.book[?(@.author =~ /.*melville/i)].price"), "[8.99]");
+        assertEquals(read("$..book[?(@.price != 8.95)].price"), "[12.99,8.99,22.99]");
+        assertEquals(read("$.store.book[?(@.price == 8.99)].title"), "[\"Moby Dick\"]");
+        JSONArray numbers = JSONUtil.parseArray("[1,5,10,\"5\"]");
+        assertEquals(CompiledJsonPath.compile("$[?(@ > 2)]").read(numbers).toString(), "[5,10]");
+        assertEquals(CompiledJsonPath.compile("$[?(@ == '5')]").read(numbers).toString(), "[\"5\"]");
+    }
+
+    @Test(description = "可直接对已解析的 JSON 树求值，表达式按文本缓存")
+    public void testTreeAndCache() {
+        JSONObject tree = JSONUtil.parseObj(STORE);
+        CompiledJsonPath path = CompiledJsonPath.compile("$.store.bicycle.color");
+        assertSame(CompiledJsonPath.compile("$.store.bicycle.color"), path);
+        assertTrue(path.isDefinite());
+        assertEquals(path.read(tree), "red");
+        assertFalse(CompiledJsonPath.compile("$..color").isDefinite());
+        assertEquals(CompiledJsonPath.compile("$..color").evaluate(tree).size(), 1);
+    }
+
+    @Test(description = "无效表达式抛出异常，工具方法返回 null")
+    public void testInvalid() {
+        String[] invalid = {"$.", "$[", "$.a[?(@.b ==)]", "$.a[1", "$.a[?(@.b =~ /[/)]", "$x", " "};
+        for (String expr : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> CompiledJsonPath.compile(expr));
+            assertNull(JsonPathUtil.extractJsonPath(STORE, expr), expr);
+        }
+    }
+
+    @Test(description = "流式求值与树求值结果一致")
+    public void testMatcher() {
+        byte[] bytes = STORE.getBytes(StandardCharsets.UTF_8);
+        String[] paths = {"$.store.bicycle.color", "$.store.book[2].isbn", "$['a.b']", "$.store.book[-1].title",
+                "$..price", "$.store.book[?(@.price < 10)].title", "$.missing"};
+        for (String expr : paths) {
+            CompiledJsonPath path = CompiledJsonPath.compile(expr);
+            CompiledJsonPath.Matcher matcher = path.newMatcher();
+            matcher.start(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length && !matcher.isResolved(); i += 16) {
+                matcher.update(bytes, i, Math.min(16, bytes.length - i));
+            }
+            if (!matcher.isResolved()) {
+                matcher.end();
+            }
+            assertEquals(matcher.getValue(), path.readAsString(STORE), expr);
+        }
+    }
+
+    private static String read(String expr) {
+        return CompiledJsonPath.compile(expr).readAsString(STORE);
+    }
+
+    // 原 JsonPathUtil 的实现，作为对照
+    static String legacyExtract(Object jsonObj, String path) {
+        if (jsonObj == null || path == null || path.isEmpty()) return null;
+        if (jsonObj instanceof String str) {
+            if (!JSONUtil.isTypeJSON(str)) return null;
+            jsonObj = JSONUtil.parse(str);
+        }
+        if (path.startsWith("$.")) path = path.substring(2);
+        String[] segments = path.split("\\.");
+        Object current = jsonObj;
+        for (String segment : segments) {
+            if (current == null) return null;
+            if (segment.contains("[") && segment.contains("]")) {
+                String arrayName = segment.substring(0, segment.indexOf("["));
+                String indexStr = segment.substring(segment.indexOf("[") + 1, segment.indexOf("]"));
+                int index;
+                try {
+                    index = Integer.parseInt(indexStr);
+                } catch (Exception e) {
+                    return null;
+                }
+                if (current instanceof JSONObject obj) {
+                    Object arr = obj.get(arrayName);
+                    if (arr instanceof JSONArray jsonArr) {
+                        if (index >= 0 && index < jsonArr.size()) {
+                            current = jsonArr.get(index);
+                        } else return null;
+                    } else return null;
+                } else return null;
+            } else {
+                if (current instanceof JSONObject obj) {
+                    current = obj.get(segment);
+                } else return null;
+            }
+        }
+        return current != null ? current.toString() : null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.laker.postman.util;
+
+import cn.hutool.json.JSON;
+import cn.hutool.json.JSONUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH 基准：对比原 JsonPathUtil（每次拆分路径 + 解析整个响应体）与预编译 JSONPath 在树、字符串和字节流上求值的开销
+ * <p>
+ * 在 IDE 中运行 main 方法即可（需要先执行 mvn test-compile 生成 JMH 元数据）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonPathBenchmark {
+    private static final String PATH = "$.data.items[3].name";
+
+    private String body;
+    private byte[] bytes;
+    private JSON tree;
+    private CompiledJsonPath path;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("{\"code\":0,\"msg\":\"ok\",\"data\":{\"total\":50,\"items\":[");
+        for (int i = 0; i < 50; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i)
+                    .append("\",\"price\":").append(i * 1.5).append(",\"tags\":[\"a\",\"b\",\"c\"]}");
+        }
+        body = sb.append("]}}").toString();
+        bytes = body.getBytes(StandardCharsets.UTF_8);
+        tree = JSONUtil.parse(body);
+        path = CompiledJsonPath.compile(PATH);
+    }
+
+    @Benchmark
+    public String legacyStringBody() {
+        return CompiledJsonPathTest.legacyExtract(body, PATH);
+    }
+
+    @Benchmark
+    public String compiledStringBody() {
+        return path.readAsString(body);
+    }
+
+    @Benchmark
+    public String legacyParsedTree() {
+        return CompiledJsonPathTest.legacyExtract(tree, PATH);
+    }
+
+    @Benchmark
+    public String compiledParsedTree() {
+        return path.readAsString(tree);
+    }
+
+    @Benchmark
+    public String compiledByteStream() {
+        CompiledJsonPath.Matcher matcher = path.newMatcher();
+        matcher.start(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length && !matcher.isResolved(); i += 8192) {
+            matcher.update(bytes, i, Math.min(8192, bytes.length - i));
+        }
+        if (!matcher.isResolved()) {
+            matcher.end();
+        }
+        return matcher.getValue();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonPathBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,58 @@
+package com.laker.postman.util;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * LRU 缓存测试
+ */
+public class LruCacheTest {
+
+    @Test(description = "命中时不重新计算，超过条目数时淘汰最久未用的条目")
+    public void testEvictLeastRecentlyUsed() {
+        LruCache<String> cache = new LruCache<>(2, 1000, 100);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", k -> k + loads.incrementAndGet());
+        cache.get("b", k -> k + loads.incrementAndGet());
+        assertEquals(cache.get("a", k -> k + loads.incrementAndGet()), "a1");
+        cache.get("c", k -> k + loads.incrementAndGet());
+        assertEquals(loads.get(), 3);
+        assertEquals(cache.size(), 2);
+        // b 最久未用，已被淘汰
+        assertEquals(cache.get("b", k -> k + loads.incrementAndGet()), "b4");
+        assertEquals(cache.get("c", k -> k + loads.incrementAndGet()), "c3");
+    }
+
+    @Test(description = "键总长度超过上限时淘汰最早的条目")
+    public void testKeyCharsLimit() {
+        LruCache<Integer> cache = new LruCache<>(100, 10, 10);
+        cache.get("aaaa", String::length);
+        cache.get("bbbb", String::length);
+        assertEquals(cache.size(), 2);
+        cache.get("cccc", String::length);
+        assertEquals(cache.size(), 2);
+    }
+
+    @Test(description = "超长的键不缓存，每次重新计算")
+    public void testLongKeyNotCached() {
+        LruCache<String> cache = new LruCache<>(100, 1000, 4);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("12345", k -> k + loads.incrementAndGet());
+        cache.get("12345", k -> k + loads.incrementAndGet());
+        assertEquals(loads.get(), 2);
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test(description = "计算时抛出的异常原样抛出且不缓存")
+    public void testLoaderExceptionNotCached() {
+        LruCache<String> cache = new LruCache<>(10, 1000, 100);
+        assertThrows(IllegalArgumentException.class, () -> cache.get("bad", k -> {
+            throw new IllegalArgumentException(k);
+        }));
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.get("bad", k -> "ok"), "ok");
+    }
+}
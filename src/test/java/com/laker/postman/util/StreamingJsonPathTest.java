@@ -0,0 +1,94 @@
+package com.laker.postman.util;
+
+import org.testng.annotations.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+/**
+ * 流式 JSONPath 测试，以 JsonPathUtil 的整体解析结果为准；流式匹配器经 CompiledJsonPath 创建，与运行时一致
+ */
+public class StreamingJsonPathTest {
+    private static final String[] BODIES = {
+            "{\"code\":0,\"msg\":\"ok\",\"data\":{\"id\":42,\"name\":\"张三\",\"tags\":[\"a\",\"b\"],\"price\":1.50,\"big\":1e3,\"on\":true,\"none\":null}}",
+            " {\"list\":[{\"id\":1,\"v\":\"x\"},{\"id\":2,\"v\":\"y\\\"q\\u4e2d\\n\"},[1,[2,3]],{}],\"empty\":[],\"obj\":{\"k\":{\"a\":1,\"b\":[true,false]}}}\n",
+            "{'single':'quoted','nested':{'v':-12}}",
+            "{\"a\":{\"b\":\"c\"},\"a.b\":\"dotted\",\"esc\\\"key\":1,\"x\":[[0,1],[2,3]]}",
+            "[{\"id\":1}]",
+            "\"text\"",
+            "{\"broken\":",
+            "{\"data\":\"not an object\",\"n\":[1,2]}",
+    };
+    private static final String[] PATHS = {
+            "$.code", "$.msg", "$.data", "$.data.id", "$.data.name", "$.data.tags", "$.data.tags[1]", "$.data.tags[5]",
+            "$.data.price", "$.data.big", "$.data.on", "$.data.none", "$.data.missing", "$.list[0].id", "$.list[1].v",
+            "$.list[2]", "$.list[3]", "$.empty", "$.obj", "$.obj.k.b[0]", "$.single", "$.nested.v", "$.a.b", "$.a",
+            "$.x", "$.broken", "$.id", "$.data.id.x", "$.n[1]", "code",
+    };
+
+    @Test(description = "取值结果与 JsonPathUtil 一致")
+    public void testSameAsJsonPathUtil() {
+        for (String body : BODIES) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            for (String path : PATHS) {
+                String expected = JsonPathUtil.extractJsonPath(body, path);
+                assertEquals(extract(path, bytes, StandardCharsets.UTF_8), expected,
+                        path + " in " + body);
+            }
+        }
+    }
+
+    @Test(description = "任意分块位置下结果不变")
+    public void testChunkSplits() {
+        String body = BODIES[1];
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        for (String path : new String[]{"$.list[1].v", "$.obj", "$.obj.k.b[0]", "$.list[2]", "$.missing"}) {
+            String expected = JsonPathUtil.extractJsonPath(body, path);
+            for (int split = 0; split <= bytes.length; split++) {
+                CompiledJsonPath.Matcher matcher = matcher(path);
+                matcher.start(StandardCharsets.UTF_8);
+                matcher.update(bytes, 0, split);
+                if (!matcher.isResolved()) {
+                    matcher.update(bytes, split, bytes.length - split);
+                }
+                matcher.end();
+                assertEquals(matcher.getValue(), expected, path + " @" + split);
+            }
+        }
+    }
+
+    @Test(description = "找到目标后无需读取剩余数据")
+    public void testEarlyResolve() {
+        byte[] head = "{\"code\":0,\"data\":[".getBytes(StandardCharsets.UTF_8);
+        CompiledJsonPath.Matcher matcher = matcher("$.code");
+        matcher.start(StandardCharsets.UTF_8);
+        matcher.update(head, 0, head.length);
+        assertTrue(matcher.isResolved());
+        assertEquals(matcher.getValue(), "0");
+    }
+
+    @Test(description = "非 ASCII 兼容字符集退回整体解析")
+    public void testOtherCharset() {
+        Charset utf16 = StandardCharsets.UTF_16;
+        String body = BODIES[0];
+        assertEquals(extract("$.data.name", body.getBytes(utf16), utf16), "张三");
+        Charset gbk = Charset.forName("GBK");
+        assertEquals(extract("$.data.name", body.getBytes(gbk), gbk), "张三");
+    }
+
+    private static CompiledJsonPath.Matcher matcher(String path) {
+        CompiledJsonPath.Matcher matcher = CompiledJsonPath.compile(path).newMatcher();
+        assertTrue(matcher instanceof StreamingJsonPath.Matcher, path);
+        return matcher;
+    }
+
+    private static String extract(String path, byte[] json, Charset charset) {
+        CompiledJsonPath.Matcher matcher = matcher(path);
+        matcher.start(charset);
+        matcher.update(json, 0, json.length);
+        matcher.end();
+        return matcher.getValue();
+    }
+}
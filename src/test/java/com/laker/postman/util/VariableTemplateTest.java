@@ -0,0 +1,72 @@
+package com.laker.postman.util;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.*;
+
+/**
+ * 变量模板测试
+ */
+public class VariableTemplateTest {
+    private static final Pattern VAR_PATTERN = Pattern.compile("\\{\\{(.+?)}}");
+    private static final Map<String, String> VARS = Map.of(
+            "host", "api.example.com",
+            "id", "42",
+            "{a", "brace",
+            "money", "$1\\2");
+
+    @Test(description = "拆分字面量和变量并按顺序渲染")
+    public void testRender() {
+        VariableTemplate template = VariableTemplate.of("https://{{host}}/users/{{id}}?q={{missing}}");
+        assertTrue(template.hasVariables());
+        assertEquals(template.getVariableNames(), List.of("host", "id", "missing"));
+        assertEquals(template.render(VARS::get), "https://api.example.com/users/42?q={{missing}}");
+        assertSame(VariableTemplate.of("https://{{host}}/users/{{id}}?q={{missing}}"), template);
+    }
+
+    @Test(description = "没有占位符时原样返回")
+    public void testNoVariables() {
+        String text = "{\"name\":\"plain\"}";
+        assertFalse(VariableTemplate.mayContainVariables(text));
+        VariableTemplate template = VariableTemplate.parse("only {{ open");
+        assertFalse(template.hasVariables());
+        assertSame(template.render(VARS::get), "only {{ open");
+    }
+
+    @Test(description = "解析结果与原正则替换完全一致")
+    public void testSameAsRegex() {
+        String[] samples = {
+                "{{host}}",
+                "{{}}",
+                "{{}}}",
+                "{{{a}}",
+                "{{{{id}}}}",
+                "a{{id}}b{{host}}c",
+                "{{id\n}}{{id}}",
+                "{{\n{{id}}",
+                "{{money}} and {{id}",
+                "}}{{id}}{{",
+                "{{ id }}",
+        };
+        for (String s : samples) {
+            assertEquals(VariableTemplate.parse(s).render(VARS::get), regexReplace(s), s);
+        }
+    }
+
+    // 原 EnvironmentService 的正则实现，作为对照
+    private static String regexReplace(String text) {
+        Matcher matcher = VAR_PATTERN.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String value = VARS.get(matcher.group(1));
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value == null ? matcher.group(0) : value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+}